@@ -5,7 +5,7 @@ import { useToast } from '@/hooks/use-toast';
 import { Input } from '@/components/ui/input';
 import { Textarea } from '@/components/ui/textarea';
 import { UserProfile } from '@/services/api/userService';
-import dietChatService, { DietChat, CreateDietChatRequest, DietChatReplyRequest } from '@/services/api/dietChatService';
+import dietChatService, { ChatMessage, DietChatSummary, CreateDietChatRequest, DietChatReplyRequest } from '@/services/api/dietChatService';
 import { format } from 'date-fns';
 import { Loader2, MessageSquare, Send, Plus, Search, MoreVertical, Edit, Trash2 } from 'lucide-react';
 import {
@@ -25,7 +25,6 @@ import {
   DropdownMenuItem,
   DropdownMenuTrigger,
 } from "@/components/ui/dropdown-menu";
-import userService from '@/services/api/userService';
 
 interface DietChatsProps {
   userProfile: UserProfile | null;
@@ -33,11 +32,25 @@ interface DietChatsProps {
 
 const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
   const { toast } = useToast();
-  const [chats, setChats] = useState<DietChat[]>([]);
+  const [chats, setChats] = useState<DietChatSummary[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [loading, setLoading] = useState(true);
   const [searchQuery, setSearchQuery] = useState('');
   const [createFormOpen, setCreateFormOpen] = useState(false);
-  const [selectedChat, setSelectedChat] = useState<DietChat | null>(null);
+  const [selectedChat, setSelectedChat] = useState<DietChatSummary | null>(null);
+  const [messages, setMessages] = useState<ChatMessage[]>([]);
+  const [loadingMessages, setLoadingMessages] = useState(false);
+  // Archived pages loaded with "Load older messages", oldest first; polling only
+  // replaces the newest page in messages
+  const [olderPages, setOlderPages] = useState<{ seq: number; messages: ChatMessage[] }[]>([]);
+  const [olderBefore, setOlderBefore] = useState<number | null>(null);
+  const [loadingOlder, setLoadingOlder] = useState(false);
+  // The polling timer reads the selection through this ref, not a stale closure
+  const selectedChatIdRef = useRef<string | null>(null);
+  const loadedMoreRef = useRef(false);
+  // "before" of the newest page as last fetched, to spot pages archived since
+  const newestBeforeRef = useRef<number | null>(null);
+  const loadedOlderRef = useRef(false);
   const [replyContent, setReplyContent] = useState('');
   const [newChat, setNewChat] = useState<CreateDietChatRequest>({
     title: '',
@@ -46,47 +59,135 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
   const [submitting, setSubmitting] = useState(false);
   const messagesEndRef = useRef<HTMLDivElement>(null);
   const pollingIntervalRef = useRef<NodeJS.Timeout | null>(null);
-  const [editingMessage, setEditingMessage] = useState<{ index: number; content: string } | null>(null);
+  const [editingMessage, setEditingMessage] = useState<{ key: string; ref: string | number; page?: number; version?: number; content: string } | null>(null);
   const [editingChat, setEditingChat] = useState<{ id: string; title: string } | null>(null);
-  const [memberProfiles, setMemberProfiles] = useState<Record<string, UserProfile>>({});
 
   const isMember = userProfile?.roles?.includes('MEMBER');
   const isAdmin = userProfile?.roles?.includes('ADMIN');
   const isTrainer = userProfile?.roles?.includes('TRAINER');
 
-  const fetchMemberProfiles = async () => {
+  // Messages of the selected chat; the list itself only holds inbox summaries
+  const fetchMessages = async (chatId: string) => {
     try {
-      const members = await userService.getAllMembers();
-      const profileMap = members.reduce((acc, member) => {
-        acc[member.id] = member;
-        return acc;
-      }, {} as Record<string, UserProfile>);
-      setMemberProfiles(profileMap);
+      const page = await dietChatService.getMessagesPage(chatId);
+      if (selectedChatIdRef.current !== chatId) {
+        return;
+      }
+      // Once older pages are shown, pages archived after them must be filled in
+      // or the thread would skip from the older pages to the new newest page
+      const previousBefore = newestBeforeRef.current;
+      if (loadedOlderRef.current && page.before !== null && previousBefore !== null && page.before > previousBefore) {
+        const archived: { seq: number; messages: ChatMessage[] }[] = [];
+        for (let seq = previousBefore + 1; seq <= page.before; seq++) {
+          const archivedPage = await dietChatService.getMessagesPage(chatId, seq);
+          archived.push({ seq, messages: archivedPage.messages });
+        }
+        if (selectedChatIdRef.current !== chatId) {
+          return;
+        }
+        setOlderPages(prev => [...prev, ...archived]);
+      }
+      newestBeforeRef.current = page.before;
+      if (!loadedOlderRef.current) {
+        setOlderBefore(page.before);
+      }
+      setMessages(page.messages);
+    } catch (error) {
+      console.error('Error fetching diet chat messages:', error);
+    }
+  };
+
+  const loadOlderMessages = async () => {
+    const chatId = selectedChatIdRef.current;
+    if (!chatId || olderBefore === null) {
+      return;
+    }
+    setLoadingOlder(true);
+    try {
+      const page = await dietChatService.getMessagesPage(chatId, olderBefore);
+      if (selectedChatIdRef.current === chatId) {
+        loadedOlderRef.current = true;
+        setOlderPages(prev => [{ seq: olderBefore, messages: page.messages }, ...prev]);
+        setOlderBefore(page.before);
+      }
     } catch (error) {
-      console.error('Error fetching member profiles:', error);
+      console.error('Error fetching older diet chat messages:', error);
+      toast({
+        title: "Error",
+        description: "Failed to load older messages. Please try again.",
+        variant: "destructive",
+      });
+    } finally {
+      setLoadingOlder(false);
+    }
+  };
+
+  // Re-reads one archived page after a message in it was edited or deleted
+  const reloadOlderPage = async (chatId: string, seq: number) => {
+    const page = await dietChatService.getMessagesPage(chatId, seq);
+    if (selectedChatIdRef.current === chatId) {
+      setOlderPages(prev => prev.map(p => p.seq === seq ? { seq, messages: page.messages } : p));
     }
   };
 
+  const resetThread = () => {
+    setMessages([]);
+    setOlderPages([]);
+    setOlderBefore(null);
+    newestBeforeRef.current = null;
+    loadedOlderRef.current = false;
+  };
+
+  const selectChat = async (chat: DietChatSummary) => {
+    selectedChatIdRef.current = chat.id;
+    setSelectedChat(chat);
+    resetThread();
+    setLoadingMessages(true);
+    try {
+      await fetchMessages(chat.id);
+      if (chat.unreadCount > 0) {
+        await dietChatService.markRead(chat.id);
+        setChats(prev => prev.map(c => c.id === chat.id ? { ...c, unreadCount: 0 } : c));
+      }
+    } catch (error) {
+      console.error('Error marking diet chat read:', error);
+    } finally {
+      setLoadingMessages(false);
+    }
+  };
+
+  const clearSelection = () => {
+    selectedChatIdRef.current = null;
+    setSelectedChat(null);
+    resetThread();
+  };
+
+  // Refreshes the first inbox page and the open chat; pages loaded with
+  // "Load more" are kept below it
   const fetchDietChats = async () => {
     try {
-      const data = await dietChatService.getAllDietChats();
-      setChats(data);
-      
-      // Fetch member profiles for admins and trainers
-      if (isAdmin || isTrainer) {
-        fetchMemberProfiles();
+      const inbox = await dietChatService.getInbox();
+      if (loadedMoreRef.current) {
+        setChats(prev => {
+          const firstPageIds = new Set(inbox.items.map(chat => chat.id));
+          return [...inbox.items, ...prev.filter(chat => !firstPageIds.has(chat.id))];
+        });
+      } else {
+        setChats(inbox.items);
+        setNextCursor(inbox.nextCursor);
       }
-      
-      // Update selected chat if it exists
-      if (selectedChat) {
-        const updatedSelectedChat = data.find(chat => chat.id === selectedChat.id);
+
+      const selectedId = selectedChatIdRef.current;
+      if (selectedId) {
+        const updatedSelectedChat = inbox.items.find(chat => chat.id === selectedId);
         if (updatedSelectedChat) {
           setSelectedChat(updatedSelectedChat);
         }
+        await fetchMessages(selectedId);
       }
       // If there's only one chat, automatically select it (good for members)
-      else if (data.length === 1 && isMember) {
-        setSelectedChat(data[0]);
+      else if (inbox.items.length === 1 && !inbox.hasNext && isMember) {
+        selectChat(inbox.items[0]);
       }
     } catch (error) {
       console.error('Error fetching diet chats:', error);
@@ -100,6 +201,23 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
     }
   };
 
+  const loadMoreChats = async () => {
+    if (!nextCursor) {
+      return;
+    }
+    try {
+      const inbox = await dietChatService.getInbox(nextCursor);
+      loadedMoreRef.current = true;
+      setChats(prev => {
+        const known = new Set(prev.map(chat => chat.id));
+        return [...prev, ...inbox.items.filter(chat => !known.has(chat.id))];
+      });
+      setNextCursor(inbox.nextCursor);
+    } catch (error) {
+      console.error('Error fetching more diet chats:', error);
+    }
+  };
+
   // Start polling when component mounts
   useEffect(() => {
     if (userProfile) {
@@ -118,7 +236,7 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
 
   useEffect(() => {
     scrollToBottom();
-  }, [selectedChat]);
+  }, [selectedChat?.id, messages.length]);
 
   const scrollToBottom = () => {
     messagesEndRef.current?.scrollIntoView({ behavior: 'smooth' });
@@ -195,7 +313,7 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
     try {
       await dietChatService.updateDietChatTitle(editingChat.id, {
         title: editingChat.title,
-        initialQuery: selectedChat?.initialQuery || ''
+        initialQuery: ''
       });
       toast({
         title: "Chat Updated",
@@ -226,7 +344,8 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
         title: "Chat Deleted",
         description: "Chat has been deleted successfully.",
       });
-      setSelectedChat(null);
+      clearSelection();
+      setChats(prev => prev.filter(chat => chat.id !== chatId));
       await fetchDietChats();
     } catch (error) {
       console.error('Error deleting chat:', error);
@@ -245,12 +364,15 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
 
     setSubmitting(true);
     try {
-      await dietChatService.updateMessage(selectedChat.id, editingMessage.index, editingMessage.content);
+      await dietChatService.updateMessage(selectedChat.id, editingMessage.ref, editingMessage.content, editingMessage.version);
       toast({
         title: "Message Updated",
         description: "Message has been updated successfully.",
       });
       setEditingMessage(null);
+      if (editingMessage.page !== undefined) {
+        await reloadOlderPage(selectedChat.id, editingMessage.page);
+      }
       await fetchDietChats();
     } catch (error) {
       console.error('Error updating message:', error);
@@ -264,17 +386,20 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
     }
   };
 
-  const handleDeleteMessage = async (messageIndex: number) => {
+  const handleDeleteMessage = async (messageRef: string | number, page?: number) => {
     if (!selectedChat || !window.confirm('Are you sure you want to delete this message?')) {
       return;
     }
 
     try {
-      await dietChatService.deleteMessage(selectedChat.id, messageIndex);
+      await dietChatService.deleteMessage(selectedChat.id, messageRef);
       toast({
         title: "Message Deleted",
         description: "Message has been deleted successfully.",
       });
+      if (page !== undefined) {
+        await reloadOlderPage(selectedChat.id, page);
+      }
       await fetchDietChats();
     } catch (error) {
       console.error('Error deleting message:', error);
@@ -286,6 +411,16 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
     }
   };
 
+  // Older pages first, then the newest page. Messages without an id can only be
+  // addressed by position, which the server reads against the newest page, so
+  // only those keep a positional reference
+  const thread = [
+    ...olderPages.flatMap(page =>
+      page.messages.map((msg, idx) => ({ msg, key: `${page.seq}-${idx}`, page: page.seq as number | undefined, ref: msg.id as string | number | undefined }))
+    ),
+    ...messages.map((msg, idx) => ({ msg, key: `latest-${idx}`, page: undefined as number | undefined, ref: (msg.id ?? idx) as string | number | undefined })),
+  ];
+
   const filteredChats = chats.filter(chat => 
     chat.title.toLowerCase().includes(searchQuery.toLowerCase())
   );
@@ -418,17 +553,13 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
                         <Button 
                           variant={selectedChat?.id === chat.id ? "default" : "ghost"}
                           className="w-full justify-start text-left h-auto py-3"
-                          onClick={() => setSelectedChat(chat)}
+                          onClick={() => selectChat(chat)}
                         >
-                          <div className="truncate">
+                          <div className="truncate flex-1">
                             <div className="font-medium truncate">
                               {isAdmin || isTrainer ? (
                                 <>
-                                  {memberProfiles[chat.memberId] ? (
-                                    `${memberProfiles[chat.memberId].firstName} ${memberProfiles[chat.memberId].lastName}`
-                                  ) : (
-                                    'Loading...'
-                                  )}
+                                  {chat.memberName ?? 'Unknown member'}
                                   <div className="text-xs text-muted-foreground truncate">
                                     {chat.title}
                                   </div>
@@ -437,10 +568,20 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
                                 chat.title
                               )}
                             </div>
+                            {chat.lastMessagePreview && (
+                              <div className="text-xs text-muted-foreground truncate">
+                                {chat.lastMessagePreview}
+                              </div>
+                            )}
                             <div className="text-xs text-muted-foreground">
-                              {format(new Date(chat.createdAt), 'MMM d, yyyy')}
+                              {format(new Date(chat.lastActivityAt), 'MMM d, yyyy')}
                             </div>
                           </div>
+                          {chat.unreadCount > 0 && (
+                            <span className="ml-2 rounded-full bg-lb-accent px-2 text-xs text-white">
+                              {chat.unreadCount}
+                            </span>
+                          )}
                         </Button>
                         {(chat.memberId === userProfile?.id || isAdmin) && (
                           <DropdownMenu>
@@ -468,6 +609,11 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
                       No chats found
                     </div>
                   )}
+                  {nextCursor && (
+                    <Button variant="ghost" className="w-full text-sm" onClick={loadMoreChats}>
+                      Load more
+                    </Button>
+                  )}
                 </div>
               </ScrollArea>
             </CardContent>
@@ -493,24 +639,18 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
                     <div>
                       {isAdmin || isTrainer ? (
                         <>
-                          <CardTitle>
-                            {memberProfiles[selectedChat.memberId] ? (
-                              `${memberProfiles[selectedChat.memberId].firstName} ${memberProfiles[selectedChat.memberId].lastName}`
-                            ) : (
-                              'Loading...'
-                            )}
-                          </CardTitle>
+                          <CardTitle>{selectedChat.memberName ?? 'Unknown member'}</CardTitle>
                           <CardDescription>
                             {selectedChat.title}
                             <br />
-                            Started on {format(new Date(selectedChat.createdAt), 'PPp')}
+                            Last activity {format(new Date(selectedChat.lastActivityAt), 'PPp')}
                           </CardDescription>
                         </>
                       ) : (
                         <>
                           <CardTitle>{selectedChat.title}</CardTitle>
                           <CardDescription>
-                            Started on {format(new Date(selectedChat.createdAt), 'PPp')}
+                            Last activity {format(new Date(selectedChat.lastActivityAt), 'PPp')}
                           </CardDescription>
                         </>
                       )}
@@ -539,7 +679,28 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
                 <CardContent className="flex-1 overflow-hidden p-0">
                   <ScrollArea className="h-full px-4">
                     <div className="space-y-4">
-                      {selectedChat.messages.map((msg, idx) => {
+                      {loadingMessages && messages.length === 0 && (
+                        <div className="flex justify-center py-4">
+                          <Loader2 className="h-6 w-6 animate-spin text-lb-accent" />
+                        </div>
+                      )}
+                      {olderBefore !== null && (
+                        <div className="flex justify-center pt-2">
+                          <Button
+                            size="sm"
+                            variant="ghost"
+                            onClick={loadOlderMessages}
+                            disabled={loadingOlder}
+                          >
+                            {loadingOlder ? (
+                              <Loader2 className="h-4 w-4 animate-spin" />
+                            ) : (
+                              'Load older messages'
+                            )}
+                          </Button>
+                        </div>
+                      )}
+                      {thread.map(({ msg, key, page, ref }) => {
                         const isCurrentUser = userProfile?.id === msg.senderId || 
                           (isMember && msg.senderRole === 'MEMBER') ||
                           (isTrainer && msg.senderRole === 'TRAINER') ||
@@ -547,7 +708,7 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
 
                         return (
                           <div 
-                            key={idx} 
+                            key={key} 
                             className={`flex ${isCurrentUser ? 'justify-end' : 'justify-start'}`}
                           >
                             <div 
@@ -566,7 +727,7 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
                                 </AvatarFallback>
                               </Avatar>
                               <div className="space-y-2">
-                                {editingMessage?.index === idx ? (
+                                {editingMessage?.key === key ? (
                                   <div className="flex items-end gap-2">
                                     <Input
                                       value={editingMessage.content}
@@ -607,7 +768,7 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
                                       {format(new Date(msg.timestamp), 'h:mm a')}
                                       {msg.edited && ' (edited)'}
                                     </p>
-                                    {isCurrentUser && (
+                                    {isCurrentUser && ref !== undefined && (
                                       <div className="absolute top-2 right-2 opacity-0 group-hover:opacity-100 transition-opacity">
                                         <DropdownMenu>
                                           <DropdownMenuTrigger asChild>
@@ -616,11 +777,11 @@ const DietChats: React.FC<DietChatsProps> = ({ userProfile }) => {
                                             </Button>
                                           </DropdownMenuTrigger>
                                           <DropdownMenuContent align="end">
-                                            <DropdownMenuItem onClick={() => setEditingMessage({ index: idx, content: msg.content })}>
+                                            <DropdownMenuItem onClick={() => setEditingMessage({ key, ref, page, version: msg.version, content: msg.content })}>
                                               <Edit className="h-4 w-4 mr-2" />
                                               Edit
                                             </DropdownMenuItem>
-                                            <DropdownMenuItem onClick={() => handleDeleteMessage(idx)} className="text-red-500">
+                                            <DropdownMenuItem onClick={() => handleDeleteMessage(ref, page)} className="text-red-500">
                                               <Trash2 className="h-4 w-4 mr-2" />
                                               Delete
                                             </DropdownMenuItem>
@@ -5,7 +5,7 @@ import { useToast } from '@/hooks/use-toast';
 import { Input } from '@/components/ui/input';
 import { Textarea } from '@/components/ui/textarea';
 import { UserProfile } from '@/services/api/userService';
-import feedbackService, { Feedback, CreateFeedbackRequest, FeedbackResponseRequest } from '@/services/api/feedbackService';
+import feedbackService, { Feedback, FeedbackResponse, CreateFeedbackRequest, FeedbackResponseRequest } from '@/services/api/feedbackService';
 import { format } from 'date-fns';
 import { Loader2, MessageSquare, Send, Plus, Edit, Trash2, MoreVertical } from 'lucide-react';
 import {
@@ -34,6 +34,14 @@ interface FeedbacksProps {
   userProfile: UserProfile | null;
 }
 
+// Archived response pages loaded with "Load older responses", oldest first. They
+// were read against bucketCount and are dropped once the feedback's count moves on
+interface OlderResponses {
+  bucketCount: number;
+  pages: { seq: number; responses: FeedbackResponse[] }[];
+  before: number | null;
+}
+
 const Feedbacks: React.FC<FeedbacksProps> = ({ userProfile }) => {
   const { toast } = useToast();
   const [feedbacks, setFeedbacks] = useState<Feedback[]>([]);
@@ -48,7 +56,9 @@ const Feedbacks: React.FC<FeedbacksProps> = ({ userProfile }) => {
   });
   const [submitting, setSubmitting] = useState(false);
   const [editingFeedback, setEditingFeedback] = useState<{ id: string; title: string; content: string } | null>(null);
-  const [editingResponse, setEditingResponse] = useState<{ feedbackId: string; index: number; content: string } | null>(null);
+  const [editingResponse, setEditingResponse] = useState<{ feedbackId: string; key: string; ref: string | number; page?: number; content: string } | null>(null);
+  const [olderResponses, setOlderResponses] = useState<Record<string, OlderResponses>>({});
+  const [loadingOlderFor, setLoadingOlderFor] = useState<string | null>(null);
 
   const isMember = userProfile?.roles?.includes('MEMBER');
   const isAdmin = userProfile?.roles?.includes('ADMIN');
@@ -77,6 +87,75 @@ const Feedbacks: React.FC<FeedbacksProps> = ({ userProfile }) => {
     }
   }, [userProfile]);
 
+  const currentOlderResponses = (feedback: Feedback): OlderResponses | undefined => {
+    const older = olderResponses[feedback.id];
+    return older && older.bucketCount === (feedback.bucketCount ?? 0) ? older : undefined;
+  };
+
+  // Older pages first, then the newest page embedded in the feedback. Responses
+  // without an id can only be addressed by position, which the server reads
+  // against the newest page, so only those keep a positional reference
+  const responseThread = (feedback: Feedback) => {
+    const older = currentOlderResponses(feedback);
+    const archived = (older?.pages ?? []).flatMap(page =>
+      page.responses.map((response, idx) => ({ response, key: `${page.seq}-${idx}`, page: page.seq, ref: response.id as string | number | undefined }))
+    );
+    const latest = (feedback.responses ?? []).map((response, idx) => ({
+      response, key: `latest-${idx}`, page: undefined as number | undefined, ref: (response.id ?? idx) as string | number | undefined,
+    }));
+    const before = older ? older.before : (feedback.bucketCount ? feedback.bucketCount - 1 : null);
+    return { entries: [...archived, ...latest], before };
+  };
+
+  const loadOlderResponses = async (feedback: Feedback) => {
+    const { before } = responseThread(feedback);
+    if (before === null) {
+      return;
+    }
+    setLoadingOlderFor(feedback.id);
+    try {
+      const page = await feedbackService.getResponsesPage(feedback.id, before);
+      setOlderResponses(prev => {
+        const older = prev[feedback.id]?.bucketCount === (feedback.bucketCount ?? 0) ? prev[feedback.id] : undefined;
+        return {
+          ...prev,
+          [feedback.id]: {
+            bucketCount: feedback.bucketCount ?? 0,
+            pages: [{ seq: before, responses: page.messages }, ...(older?.pages ?? [])],
+            before: page.before,
+          },
+        };
+      });
+    } catch (error) {
+      console.error('Error fetching older responses:', error);
+      toast({
+        title: "Error",
+        description: "Failed to load older responses. Please try again.",
+        variant: "destructive",
+      });
+    } finally {
+      setLoadingOlderFor(null);
+    }
+  };
+
+  // Re-reads one archived page after a response in it was edited or deleted
+  const reloadOlderPage = async (feedbackId: string, seq: number) => {
+    const page = await feedbackService.getResponsesPage(feedbackId, seq);
+    setOlderResponses(prev => {
+      const older = prev[feedbackId];
+      if (!older) {
+        return prev;
+      }
+      return {
+        ...prev,
+        [feedbackId]: {
+          ...older,
+          pages: older.pages.map(p => p.seq === seq ? { seq, responses: page.messages } : p),
+        },
+      };
+    });
+  };
+
   const handleCreateFeedback = async () => {
     if (!newFeedback.title.trim() || !newFeedback.content.trim()) {
       toast({
@@ -195,7 +274,7 @@ const Feedbacks: React.FC<FeedbacksProps> = ({ userProfile }) => {
     try {
       await feedbackService.updateFeedbackResponse(
         editingResponse.feedbackId,
-        editingResponse.index,
+        editingResponse.ref,
         editingResponse.content
       );
       toast({
@@ -203,6 +282,9 @@ const Feedbacks: React.FC<FeedbacksProps> = ({ userProfile }) => {
         description: "Your response has been updated successfully.",
       });
       setEditingResponse(null);
+      if (editingResponse.page !== undefined) {
+        await reloadOlderPage(editingResponse.feedbackId, editingResponse.page);
+      }
       fetchFeedbacks();
     } catch (error) {
       console.error('Error updating response:', error);
@@ -216,17 +298,20 @@ const Feedbacks: React.FC<FeedbacksProps> = ({ userProfile }) => {
     }
   };
 
-  const handleDeleteResponse = async (feedbackId: string, responseIndex: number) => {
+  const handleDeleteResponse = async (feedbackId: string, responseRef: string | number, page?: number) => {
     if (!window.confirm('Are you sure you want to delete this response?')) {
       return;
     }
 
     try {
-      await feedbackService.deleteFeedbackResponse(feedbackId, responseIndex);
+      await feedbackService.deleteFeedbackResponse(feedbackId, responseRef);
       toast({
         title: "Response Deleted",
         description: "Your response has been deleted successfully.",
       });
+      if (page !== undefined) {
+        await reloadOlderPage(feedbackId, page);
+      }
       fetchFeedbacks();
     } catch (error) {
       console.error('Error deleting response:', error);
@@ -345,7 +430,9 @@ const Feedbacks: React.FC<FeedbacksProps> = ({ userProfile }) => {
       ) : (
         <div className="space-y-4">
           <Accordion type="single" collapsible className="w-full">
-            {feedbacks.map((feedback) => (
+            {feedbacks.map((feedback) => {
+              const { entries: responses, before: olderBefore } = responseThread(feedback);
+              return (
               <AccordionItem key={feedback.id} value={feedback.id} className="glass-card mb-4 rounded-lg overflow-hidden">
                 <div className="flex items-center justify-between px-4">
                   <AccordionTrigger className="flex-1 hover:no-underline">
@@ -385,13 +472,29 @@ const Feedbacks: React.FC<FeedbacksProps> = ({ userProfile }) => {
                     <p className="whitespace-pre-wrap">{feedback.content}</p>
                   </div>
                   
-                  {feedback.responses && feedback.responses.length > 0 && (
+                  {responses.length > 0 && (
                     <div className="mt-4 border-t border-white/5 pt-4">
                       <h4 className="font-medium px-4 mb-2">Responses</h4>
+                      {olderBefore !== null && (
+                        <div className="flex justify-center mb-3">
+                          <Button
+                            size="sm"
+                            variant="ghost"
+                            onClick={() => loadOlderResponses(feedback)}
+                            disabled={loadingOlderFor === feedback.id}
+                          >
+                            {loadingOlderFor === feedback.id ? (
+                              <Loader2 className="h-4 w-4 animate-spin" />
+                            ) : (
+                              'Load older responses'
+                            )}
+                          </Button>
+                        </div>
+                      )}
                       <div className="space-y-3">
-                        {feedback.responses.map((response, idx) => (
-                          <div key={idx} className="bg-lb-darker/60 p-4 mx-4 rounded-md relative group">
-                            {editingResponse?.feedbackId === feedback.id && editingResponse?.index === idx ? (
+                        {responses.map(({ response, key, page, ref }) => (
+                          <div key={key} className="bg-lb-darker/60 p-4 mx-4 rounded-md relative group">
+                            {editingResponse?.feedbackId === feedback.id && editingResponse?.key === key ? (
                               <div className="space-y-2">
                                 <Textarea
                                   value={editingResponse.content}
@@ -428,7 +531,7 @@ const Feedbacks: React.FC<FeedbacksProps> = ({ userProfile }) => {
                                 <p className="text-xs text-muted-foreground mt-2">
                                   {format(new Date(response.responseTime), 'PPpp')}
                                 </p>
-                                {(isAdmin || (isTrainer && response.responderId === userProfile?.id)) && (
+                                {ref !== undefined && (isAdmin || (isTrainer && response.responderId === userProfile?.id)) && (
                                   <div className="absolute top-2 right-2 opacity-0 group-hover:opacity-100 transition-opacity">
                                     <DropdownMenu>
                                       <DropdownMenuTrigger asChild>
@@ -439,14 +542,16 @@ const Feedbacks: React.FC<FeedbacksProps> = ({ userProfile }) => {
                                       <DropdownMenuContent align="end">
                                         <DropdownMenuItem onClick={() => setEditingResponse({
                                           feedbackId: feedback.id,
-                                          index: idx,
+                                          key,
+                                          ref,
+                                          page,
                                           content: response.content
                                         })}>
                                           <Edit className="h-4 w-4 mr-2" />
                                           Edit Response
                                         </DropdownMenuItem>
                                         <DropdownMenuItem 
-                                          onClick={() => handleDeleteResponse(feedback.id, idx)}
+                                          onClick={() => handleDeleteResponse(feedback.id, ref, page)}
                                           className="text-red-500"
                                         >
                                           <Trash2 className="h-4 w-4 mr-2" />
@@ -534,7 +639,8 @@ const Feedbacks: React.FC<FeedbacksProps> = ({ userProfile }) => {
                   )}
                 </AccordionContent>
               </AccordionItem>
-            ))}
+              );
+            })}
           </Accordion>
         </div>
       )}
@@ -0,0 +1,28 @@
+import { AxiosError, AxiosInstance, AxiosResponse, InternalAxiosRequestConfig } from 'axios';
+import authService from './authService';
+
+type RetriableConfig = InternalAxiosRequestConfig & { _retriedAfterRefresh?: boolean };
+
+// Shared 401 handling for the API instances: renew the access token once and
+// replay the request. Resolves to undefined when there is nothing to retry or
+// the refresh failed, in which case the caller signs the user out as before.
+export const retryAfterRefresh = async (
+  instance: AxiosInstance,
+  error: AxiosError
+): Promise<AxiosResponse | undefined> => {
+  const config = error.config as RetriableConfig | undefined;
+  if (error.response?.status !== 401 || !config || config._retriedAfterRefresh) {
+    return undefined;
+  }
+  config._retriedAfterRefresh = true;
+
+  // Another request may already have renewed the token this one was sent with
+  const sentWith = config.headers?.['Authorization'];
+  const current = localStorage.getItem('token');
+  const renewed = current && sentWith !== `Bearer ${current}` ? true : await authService.refresh();
+  if (!renewed) {
+    return undefined;
+  }
+  // The request interceptor attaches the new token
+  return instance(config);
+};
@@ -84,10 +84,69 @@ export interface SigninData {
 
 export interface AuthResponse {
   token?: string;
+  refreshToken?: string;
+  expiresIn?: number;
   message?: string;
   note?: string;
 }
 
+// Access tokens are short-lived; renew them a minute before they expire
+const REFRESH_MARGIN_MS = 60 * 1000;
+let refreshTimer: ReturnType<typeof setTimeout> | undefined;
+
+const storeTokens = (data: AuthResponse): void => {
+  if (data.token) {
+    localStorage.setItem('token', data.token);
+  }
+  if (data.refreshToken) {
+    localStorage.setItem('refreshToken', data.refreshToken);
+  }
+  scheduleRefresh();
+};
+
+const tokenExpiry = (token: string): number | null => {
+  try {
+    return JSON.parse(atob(token.split('.')[1])).exp * 1000;
+  } catch (e) {
+    return null;
+  }
+};
+
+const requestRefresh = async (): Promise<boolean> => {
+  const refreshToken = localStorage.getItem('refreshToken');
+  if (!refreshToken) return false;
+  try {
+    const response = await axios.post(`${API_URL}/refresh`, { refreshToken }, { withCredentials: true });
+    storeTokens(response.data as AuthResponse);
+    return true;
+  } catch (error) {
+    localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
+    return false;
+  }
+};
+
+// The timer and every request that got a 401 share one refresh call, so a
+// burst of expired requests does not spend the refresh token more than once
+let refreshInFlight: Promise<boolean> | null = null;
+
+const refreshTokens = (): Promise<boolean> => {
+  if (!refreshInFlight) {
+    refreshInFlight = requestRefresh().finally(() => {
+      refreshInFlight = null;
+    });
+  }
+  return refreshInFlight;
+};
+
+function scheduleRefresh(): void {
+  if (refreshTimer) clearTimeout(refreshTimer);
+  const token = localStorage.getItem('token');
+  const expiry = token ? tokenExpiry(token) : null;
+  if (!expiry || !localStorage.getItem('refreshToken')) return;
+  refreshTimer = setTimeout(refreshTokens, Math.max(0, expiry - Date.now() - REFRESH_MARGIN_MS));
+}
+
 const authService = {
   signup: async (data: SignupData): Promise<AuthResponse> => {
     try {
@@ -133,9 +192,7 @@ const authService = {
       
       const responseData = response.data as AuthResponse;
       
-      if (responseData.token) {
-        localStorage.setItem('token', responseData.token);
-      }
+      storeTokens(responseData);
       
       return responseData;
     } catch (error: any) {
@@ -154,9 +211,20 @@ const authService = {
   },
 
   logout: (): void => {
+    const token = localStorage.getItem('token');
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (refreshTimer) clearTimeout(refreshTimer);
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
+    // Best effort: revoke the session server-side
+    axios.post(`${API_URL}/logout`, { refreshToken }, {
+      headers: token ? { Authorization: `Bearer ${token}` } : {},
+      withCredentials: true,
+    }).catch(() => undefined);
   },
 
+  refresh: refreshTokens,
+
   getCurrentToken: (): string | null => {
     return localStorage.getItem('token');
   },
@@ -175,4 +243,7 @@ const authService = {
   }
 };
 
+// Resume renewal after a page reload
+scheduleRefresh();
+
 export default authService;
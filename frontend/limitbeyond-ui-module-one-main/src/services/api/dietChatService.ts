@@ -1,4 +1,5 @@
 import axios from 'axios';
+import { retryAfterRefresh } from './authRefresh';
 
 // const API_URL = 'http://localhost:8080/api/diet-chat';
 const API_URL = 'https://gym-management-dz1y.onrender.com/api/diet-chat';
@@ -30,12 +31,17 @@ axiosInstance.interceptors.request.use(
 // Add response interceptor to handle errors
 axiosInstance.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
+    // An expired access token is renewed and the request replayed first
+    const retried = await retryAfterRefresh(axiosInstance, error);
+    if (retried) {
+      return retried;
+    }
     if (error.response) {
       // The request was made and the server responded with a status code
       // that falls out of the range of 2xx
       if (error.response.status === 401) {
-        // Unauthorized - clear token and redirect to login
+        // Unauthorized even after a refresh - clear token and redirect to login
         localStorage.removeItem('token');
         window.location.href = '/auth/signin';
       }
@@ -51,10 +57,13 @@ axiosInstance.interceptors.response.use(
 );
 
 export interface ChatMessage {
+  id?: string;
   senderId: string;
   content: string;
   timestamp: string;
   senderRole: string;
+  edited?: boolean;
+  version?: number;
 }
 
 export interface DietChat {
@@ -63,7 +72,33 @@ export interface DietChat {
   title: string;
   initialQuery: string;
   createdAt: string;
+  messages: ChatMessage[]; // Newest page only; older pages via getMessagesPage
+  messageCount?: number;
+}
+
+// Inbox row: chat metadata without its messages
+export interface DietChatSummary {
+  id: string;
+  title: string;
+  memberId: string;
+  memberName?: string;
+  lastMessagePreview?: string;
+  lastMessageSenderRole?: string;
+  messageCount: number;
+  unreadCount: number;
+  lastActivityAt: string;
+}
+
+export interface DietChatInbox {
+  items: DietChatSummary[];
+  nextCursor: string | null;
+  hasNext: boolean;
+}
+
+export interface MessagePage {
   messages: ChatMessage[];
+  before: number | null;
+  hasMore: boolean;
 }
 
 export interface CreateDietChatRequest {
@@ -105,6 +140,26 @@ const dietChatService = {
     }
   },
 
+  // Get one page of the inbox, most recent activity first; pass nextCursor for the next page
+  getInbox: async (cursor?: string, limit?: number): Promise<DietChatInbox> => {
+    try {
+      const response = await axiosInstance.get('/inbox', { params: { cursor, limit } });
+      return response.data;
+    } catch (error) {
+      handleError(error, 'fetch diet chat inbox');
+    }
+  },
+
+  // Clear the caller's unread count for a chat
+  markRead: async (chatId: string): Promise<{ message: string }> => {
+    try {
+      const response = await axiosInstance.post(`/${chatId}/read`);
+      return response.data;
+    } catch (error) {
+      handleError(error, 'mark diet chat read');
+    }
+  },
+
   // Get diet chat by ID
   getDietChatById: async (chatId: string): Promise<DietChat> => {
     try {
@@ -125,6 +180,16 @@ const dietChatService = {
     }
   },
 
+  // Get one page of a chat's messages; omit before for the newest page
+  getMessagesPage: async (chatId: string, before?: number): Promise<MessagePage> => {
+    try {
+      const response = await axiosInstance.get(`/${chatId}/messages`, { params: { before } });
+      return response.data;
+    } catch (error) {
+      handleError(error, 'fetch messages');
+    }
+  },
+
   // Reply to diet chat (Admin/Trainer)
   replyToDietChat: async (chatId: string, data: DietChatReplyRequest): Promise<{ message: string }> => {
     try {
@@ -145,10 +210,10 @@ const dietChatService = {
     }
   },
 
-  // Update message
-  updateMessage: async (chatId: string, messageIndex: number, content: string): Promise<{ message: string }> => {
+  // Update message (by id; a numeric position is still accepted for older chats)
+  updateMessage: async (chatId: string, messageRef: string | number, content: string, version?: number): Promise<{ message: string }> => {
     try {
-      const response = await axiosInstance.put(`/${chatId}/messages/${messageIndex}`, { content });
+      const response = await axiosInstance.put(`/${chatId}/messages/${messageRef}`, { content, version });
       return response.data;
     } catch (error) {
       handleError(error, 'update message');
@@ -156,9 +221,9 @@ const dietChatService = {
   },
 
   // Delete message
-  deleteMessage: async (chatId: string, messageIndex: number): Promise<{ message: string }> => {
+  deleteMessage: async (chatId: string, messageRef: string | number): Promise<{ message: string }> => {
     try {
-      const response = await axiosInstance.delete(`/${chatId}/messages/${messageIndex}`);
+      const response = await axiosInstance.delete(`/${chatId}/messages/${messageRef}`);
       return response.data;
     } catch (error) {
       handleError(error, 'delete message');
@@ -1,4 +1,5 @@
 import axios from 'axios';
+import { retryAfterRefresh } from './authRefresh';
 
 // const API_URL = 'http://localhost:8080/api/feedback';
 const API_URL = 'https://gym-management-dz1y.onrender.com/api/feedback';
@@ -30,12 +31,17 @@ axiosInstance.interceptors.request.use(
 // Add response interceptor to handle errors
 axiosInstance.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
+    // An expired access token is renewed and the request replayed first
+    const retried = await retryAfterRefresh(axiosInstance, error);
+    if (retried) {
+      return retried;
+    }
     if (error.response) {
       // The request was made and the server responded with a status code
       // that falls out of the range of 2xx
       if (error.response.status === 401) {
-        // Unauthorized - clear token and redirect to login
+        // Unauthorized even after a refresh - clear token and redirect to login
         localStorage.removeItem('token');
         window.location.href = '/auth/signin';
       }
@@ -51,6 +57,7 @@ axiosInstance.interceptors.response.use(
 );
 
 export interface FeedbackResponse {
+  id?: string;
   responderId: string;
   content: string;
   responseTime: string;
@@ -62,7 +69,16 @@ export interface Feedback {
   title: string;
   content: string;
   createdAt: string;
-  responses: FeedbackResponse[];
+  responses: FeedbackResponse[]; // Newest page only; older pages via getResponsesPage
+  bucketCount?: number;
+  responseCount?: number;
+}
+
+// One page of responses, oldest first; pass "before" back to load the next older page
+export interface ResponsePage {
+  messages: FeedbackResponse[];
+  before: number | null;
+  hasMore: boolean;
 }
 
 export interface CreateFeedbackRequest {
@@ -124,6 +140,16 @@ const feedbackService = {
     }
   },
 
+  // Get one page of responses; the newest page when before is omitted
+  getResponsesPage: async (feedbackId: string, before?: number): Promise<ResponsePage> => {
+    try {
+      const response = await axiosInstance.get(`/${feedbackId}/responses`, { params: { before } });
+      return response.data;
+    } catch (error) {
+      handleError(error, 'fetch responses');
+    }
+  },
+
   // Respond to feedback (Admin/Trainer)
   respondToFeedback: async (feedbackId: string, data: FeedbackResponseRequest): Promise<{ message: string }> => {
     try {
@@ -156,9 +182,9 @@ const feedbackService = {
   },
 
   // Update feedback response (Admin/Trainer)
-  updateFeedbackResponse: async (feedbackId: string, responseIndex: number, content: string): Promise<{ message: string }> => {
+  updateFeedbackResponse: async (feedbackId: string, responseRef: string | number, content: string): Promise<{ message: string }> => {
     try {
-      const response = await axiosInstance.put(`/${feedbackId}/responses/${responseIndex}`, { content });
+      const response = await axiosInstance.put(`/${feedbackId}/responses/${responseRef}`, { content });
       return response.data;
     } catch (error) {
       console.error('Error updating feedback response:', error);
@@ -167,9 +193,9 @@ const feedbackService = {
   },
 
   // Delete feedback response (Admin/Trainer)
-  deleteFeedbackResponse: async (feedbackId: string, responseIndex: number): Promise<{ message: string }> => {
+  deleteFeedbackResponse: async (feedbackId: string, responseRef: string | number): Promise<{ message: string }> => {
     try {
-      const response = await axiosInstance.delete(`/${feedbackId}/responses/${responseIndex}`);
+      const response = await axiosInstance.delete(`/${feedbackId}/responses/${responseRef}`);
       return response.data;
     } catch (error) {
       console.error('Error deleting feedback response:', error);
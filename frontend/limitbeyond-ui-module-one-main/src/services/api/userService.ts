@@ -1,4 +1,5 @@
 import axios from 'axios';
+import { retryAfterRefresh } from './authRefresh';
 
 // const API_URL = 'http://localhost:8080/api/users';
 const API_URL = 'https://gym-management-dz1y.onrender.com/api/users';
@@ -29,12 +30,17 @@ axiosInstance.interceptors.request.use(
 // Add response interceptor to handle errors
 axiosInstance.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
+    // An expired access token is renewed and the request replayed first
+    const retried = await retryAfterRefresh(axiosInstance, error);
+    if (retried) {
+      return retried;
+    }
     if (error.response) {
       // The request was made and the server responded with a status code
       // that falls out of the range of 2xx
       if (error.response.status === 401) {
-        // Unauthorized - clear token and redirect to login
+        // Unauthorized even after a refresh - clear token and redirect to login
         localStorage.removeItem('token');
         window.location.href = '/auth/signin';
       }
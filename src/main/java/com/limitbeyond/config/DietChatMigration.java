@@ -0,0 +1,94 @@
+package com.limitbeyond.config;
+
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.service.DietChatService;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * Brings diet chats written by older versions up to date: gives every message a
+ * stable id (edits and deletes address messages by id) and fills the inbox
+ * summary (last activity, preview, message count). Unread counters start at
+ * zero for these chats. Chats holding more than one page of messages have
+ * their older pages moved to the bucket collection. A chat that changes while
+ * it is being migrated is skipped and picked up on the next start.
+ */
+@Component
+@Order(5)
+public class DietChatMigration implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DietChatMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DietChatService dietChatService;
+
+    @Value("${diet-chat.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Value("${threads.bucket-size:50}")
+    private int bucketSize;
+
+    @Override
+    public void run(String... args) {
+        if (!migrateOnStartup) {
+            return;
+        }
+        int migrated = migrate();
+        if (migrated > 0) {
+            logger.info("Migrated {} diet chats to message ids, inbox summaries and message pages", migrated);
+        }
+    }
+
+    public int migrate() {
+        int migrated = 0;
+        Query legacy = Query.query(new Criteria().orOperator(
+                Criteria.where("lastActivityAt").exists(false),
+                Criteria.where("messages").elemMatch(Criteria.where("id").exists(false)),
+                Criteria.where("messages." + bucketSize).exists(true)));
+        try (Stream<DietChat> chats = mongoTemplate.stream(legacy, DietChat.class)) {
+            for (DietChat chat : (Iterable<DietChat>) chats::iterator) {
+                for (DietChat.DietChatMessage message : chat.getMessages()) {
+                    if (message.getId() == null) {
+                        message.setId(new ObjectId().toHexString());
+                        message.setVersion(0);
+                    }
+                }
+                // Summary first: it counts the whole thread before older pages move out
+                dietChatService.refreshSummary(chat);
+                dietChatService.archiveOlderPages(chat);
+
+                // Guarded by the chat version: a reply pushed since the read must not be lost
+                Query unchanged = Query.query(Criteria.where("id").is(chat.getId())
+                        .and("version").is(chat.getVersion()));
+                long modified = mongoTemplate.updateFirst(unchanged,
+                        new Update().set("messages", chat.getMessages())
+                                .set("bucketCount", chat.getBucketCount())
+                                .set("lastActivityAt", chat.getLastActivityAt())
+                                .set("lastMessageId", chat.getLastMessageId())
+                                .set("lastMessagePreview", chat.getLastMessagePreview())
+                                .set("lastMessageSenderRole", chat.getLastMessageSenderRole())
+                                .set("messageCount", chat.getMessageCount()),
+                        DietChat.class).getModifiedCount();
+                if (modified > 0) {
+                    migrated++;
+                }
+            }
+        }
+        return migrated;
+    }
+}
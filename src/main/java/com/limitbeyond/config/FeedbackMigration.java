@@ -0,0 +1,88 @@
+package com.limitbeyond.config;
+
+import com.limitbeyond.model.Feedback;
+import com.limitbeyond.service.FeedbackService;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * Brings feedback written by older versions up to date: gives every response a
+ * stable id, fills the response count and last response time, and moves all but
+ * the newest page of long response threads to the bucket collection. Feedback
+ * that changes while it is being migrated is skipped and picked up on the next
+ * start.
+ */
+@Component
+@Order(6)
+public class FeedbackMigration implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private FeedbackService feedbackService;
+
+    @Value("${feedback.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Value("${threads.bucket-size:50}")
+    private int bucketSize;
+
+    @Override
+    public void run(String... args) {
+        if (!migrateOnStartup) {
+            return;
+        }
+        int migrated = migrate();
+        if (migrated > 0) {
+            logger.info("Migrated {} feedback threads to response ids and response pages", migrated);
+        }
+    }
+
+    public int migrate() {
+        int migrated = 0;
+        Query legacy = Query.query(new Criteria().orOperator(
+                Criteria.where("responses").elemMatch(Criteria.where("id").exists(false)),
+                Criteria.where("responses." + bucketSize).exists(true)));
+        try (Stream<Feedback> threads = mongoTemplate.stream(legacy, Feedback.class)) {
+            for (Feedback feedback : (Iterable<Feedback>) threads::iterator) {
+                for (Feedback.FeedbackResponse response : feedback.getResponses()) {
+                    if (response.getId() == null) {
+                        response.setId(new ObjectId().toHexString());
+                    }
+                }
+                // Summary first: it counts the whole thread before older pages move out
+                feedbackService.refreshSummary(feedback);
+                feedbackService.archiveOlderPages(feedback);
+
+                // Guarded by the version: a response pushed since the read must not be lost
+                Query unchanged = Query.query(Criteria.where("id").is(feedback.getId())
+                        .and("version").is(feedback.getVersion()));
+                long modified = mongoTemplate.updateFirst(unchanged,
+                        new Update().set("responses", feedback.getResponses())
+                                .set("bucketCount", feedback.getBucketCount())
+                                .set("responseCount", feedback.getResponseCount())
+                                .set("lastResponseAt", feedback.getLastResponseAt()),
+                        Feedback.class).getModifiedCount();
+                if (modified > 0) {
+                    migrated++;
+                }
+            }
+        }
+        return migrated;
+    }
+}
@@ -0,0 +1,216 @@
+package com.limitbeyond.config;
+
+import com.limitbeyond.model.Checkin;
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.model.DietChatMessageBucket;
+import com.limitbeyond.model.ExerciseTemplate;
+import com.limitbeyond.model.Feedback;
+import com.limitbeyond.model.FeedbackResponseBucket;
+import com.limitbeyond.model.MuscleGroup;
+import com.limitbeyond.model.Payment;
+import com.limitbeyond.model.Role;
+import com.limitbeyond.model.User;
+import com.limitbeyond.model.Workout;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Explains the filter shape of every derived repository query against the
+ * configured database and reports any whose winning plan is a COLLSCAN.
+ * mongo.index-verification.mode is "warn" (log), "fail" (abort startup) or "off".
+ */
+@Component
+@Order(10)
+public class IndexPlanVerifier implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexPlanVerifier.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${mongo.index-verification.mode:warn}")
+    private String mode;
+
+    @Override
+    public void run(String... args) {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+
+        List<String> collectionScans = new ArrayList<>();
+        for (Map.Entry<String, PlanCheck> check : checks().entrySet()) {
+            try {
+                if (usesCollectionScan(check.getValue())) {
+                    collectionScans.add(check.getKey());
+                }
+            } catch (Exception e) {
+                logger.warn("Could not explain {}: {}", check.getKey(), e.getMessage());
+            }
+        }
+
+        if (collectionScans.isEmpty()) {
+            logger.info("Index verification passed for {} repository queries", checks().size());
+            return;
+        }
+        String message = "Repository queries planned as COLLSCAN: " + String.join(", ", collectionScans);
+        if ("fail".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException(message);
+        }
+        logger.warn(message);
+    }
+
+    // One representative query per derived repository method. Values are placeholders:
+    // the planner picks an index from the filter and sort shape, not the data.
+    private Map<String, PlanCheck> checks() {
+        User user = new User();
+        user.setId(new ObjectId().toHexString());
+        MuscleGroup muscleGroup = new MuscleGroup();
+        muscleGroup.setId(new ObjectId().toHexString());
+        String id = new ObjectId().toHexString();
+        LocalDateTime now = LocalDateTime.now();
+        Sort newest = Sort.by(Sort.Direction.DESC, "scheduledDate").and(Sort.by(Sort.Direction.DESC, "id"));
+
+        Map<String, PlanCheck> checks = new LinkedHashMap<>();
+        checks.put("WorkoutRepository.findByMember", new PlanCheck(Workout.class,
+                Query.query(Criteria.where("member").is(user))));
+        checks.put("WorkoutRepository.findByMemberBefore", new PlanCheck(Workout.class,
+                Query.query(Criteria.where("member").is(user)).with(newest)));
+        checks.put("WorkoutRepository.findByTrainer", new PlanCheck(Workout.class,
+                Query.query(Criteria.where("trainer").is(user))));
+        checks.put("WorkoutRepository.findByMemberAndScheduledDateBetween", new PlanCheck(Workout.class,
+                Query.query(Criteria.where("member").is(user).and("scheduledDate").gt(now.minusDays(7)).lt(now))));
+        checks.put("WorkoutRepository.findByTrainerAndScheduledDateBetween", new PlanCheck(Workout.class,
+                Query.query(Criteria.where("trainer").is(user).and("scheduledDate").gt(now.minusDays(7)).lt(now))));
+        checks.put("WorkoutRepository.findByMemberAndCompletedTrue", new PlanCheck(Workout.class,
+                Query.query(Criteria.where("member").is(user).and("completed").is(true))));
+        checks.put("WorkoutRepository.findByMemberAndTargetMuscleGroupsContaining", new PlanCheck(Workout.class,
+                Query.query(Criteria.where("member").is(user).and("targetMuscleGroups").is(muscleGroup))
+                        .with(newest)));
+
+        checks.put("CheckinRepository.findByUserIdOrderByOccurredAtDesc", new PlanCheck(Checkin.class,
+                Query.query(Criteria.where("userId").is(id)).with(Sort.by(Sort.Direction.DESC, "occurredAt"))));
+        checks.put("CheckinRepository.findAllByOrderByOccurredAtDesc", new PlanCheck(Checkin.class,
+                new Query().with(Sort.by(Sort.Direction.DESC, "occurredAt")).limit(50)));
+        checks.put("CheckinRepository.findByOccurredAtBetweenOrderByOccurredAtDesc", new PlanCheck(Checkin.class,
+                Query.query(Criteria.where("occurredAt").gt(now.minusDays(1)).lt(now))
+                        .with(Sort.by(Sort.Direction.DESC, "occurredAt"))));
+        checks.put("CheckinRepository.findByUserIdAndOccurredAtBetweenOrderByOccurredAtDesc",
+                new PlanCheck(Checkin.class,
+                        Query.query(Criteria.where("userId").is(id).and("occurredAt").gt(now.minusDays(1)).lt(now))
+                                .with(Sort.by(Sort.Direction.DESC, "occurredAt"))));
+
+        checks.put("DietChatRepository.findByMemberIdOrderByCreatedAtDesc", new PlanCheck(DietChat.class,
+                Query.query(Criteria.where("memberId").is(id)).with(Sort.by(Sort.Direction.DESC, "createdAt"))));
+        Sort recentActivity = Sort.by(Sort.Direction.DESC, "lastActivityAt").and(Sort.by(Sort.Direction.DESC, "id"));
+        checks.put("DietChatService.getInbox(member)", new PlanCheck(DietChat.class,
+                Query.query(Criteria.where("memberId").is(id)).with(recentActivity).limit(21)));
+        checks.put("DietChatService.getInbox(trainer)", new PlanCheck(DietChat.class,
+                Query.query(Criteria.where("memberId").in(id, new ObjectId().toHexString())).with(recentActivity)
+                        .limit(21)));
+        checks.put("DietChatService.getInbox(admin)", new PlanCheck(DietChat.class,
+                new Query().with(recentActivity).limit(21)));
+        checks.put("DietChatService.getMessages(before)", new PlanCheck(DietChatMessageBucket.class,
+                Query.query(Criteria.where("threadId").is(id).and("seq").is(0))));
+        checks.put("DietChatService.findMessage(archived)", new PlanCheck(DietChatMessageBucket.class,
+                Query.query(Criteria.where("threadId").is(id)
+                        .and("messages").elemMatch(Criteria.where("id").is(new ObjectId().toHexString())))));
+        checks.put("FeedbackService.getResponses(before)", new PlanCheck(FeedbackResponseBucket.class,
+                Query.query(Criteria.where("threadId").is(id).and("seq").is(0))));
+        checks.put("FeedbackService.findResponse(archived)", new PlanCheck(FeedbackResponseBucket.class,
+                Query.query(Criteria.where("threadId").is(id)
+                        .and("messages").elemMatch(Criteria.where("id").is(new ObjectId().toHexString())))));
+        checks.put("FeedbackRepository.findByMemberIdOrderByCreatedAtDesc", new PlanCheck(Feedback.class,
+                Query.query(Criteria.where("memberId").is(id)).with(Sort.by(Sort.Direction.DESC, "createdAt"))));
+        checks.put("PaymentRepository.findByUserId", new PlanCheck(Payment.class,
+                Query.query(Criteria.where("userId").is(id))));
+        checks.put("PaymentService.getRevenueReport", new PlanCheck(Payment.class,
+                Query.query(Criteria.where("paidAt").gte(now.minusDays(30)).lte(now))));
+
+        checks.put("UserRepository.findByUsername", new PlanCheck(User.class,
+                Query.query(Criteria.where("username").is("placeholder"))));
+        checks.put("UserRepository.findByEmail", new PlanCheck(User.class,
+                Query.query(Criteria.where("email").is("placeholder@example.com"))));
+        checks.put("UserRepository.findByRolesContainingAndActive", new PlanCheck(User.class,
+                Query.query(Criteria.where("roles").is(Role.MEMBER).and("active").is(true))));
+
+        checks.put("TokenVersionRegistry.refresh", new PlanCheck(User.class,
+                Query.query(Criteria.where("tokenVersionChangedAt").gt(now.minusMinutes(1)))));
+
+        checks.put("ExerciseTemplateRepository.findByName", new PlanCheck(ExerciseTemplate.class,
+                Query.query(Criteria.where("name").is("placeholder"))));
+        checks.put("ExerciseTemplateRepository.findByPrimaryMuscleGroupOrSecondaryMuscleGroup",
+                new PlanCheck(ExerciseTemplate.class, Query.query(new Criteria().orOperator(
+                        Criteria.where("primaryMuscleGroup").is(muscleGroup),
+                        Criteria.where("secondaryMuscleGroup").is(muscleGroup)))));
+        checks.put("MuscleGroupRepository.findByName", new PlanCheck(MuscleGroup.class,
+                Query.query(Criteria.where("name").is("placeholder"))));
+        return checks;
+    }
+
+    private boolean usesCollectionScan(PlanCheck check) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(check.entity);
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        Document find = new Document("find", entity.getCollection())
+                .append("filter", mapper.getMappedObject(check.query.getQueryObject(), entity));
+        if (check.query.isSorted()) {
+            find.append("sort", mapper.getMappedSort(check.query.getSortObject(), entity));
+        }
+        Document explain = mongoTemplate.getDb().runCommand(
+                new Document("explain", find).append("verbosity", "queryPlanner"));
+        Object queryPlanner = explain.get("queryPlanner");
+        Object winningPlan = queryPlanner instanceof Document ? ((Document) queryPlanner).get("winningPlan") : null;
+        return containsStage(winningPlan, "COLLSCAN");
+    }
+
+    // Plans nest stages under inputStage/inputStages (and queryPlan on newer servers)
+    private boolean containsStage(Object node, String stage) {
+        if (node instanceof Document) {
+            Document doc = (Document) node;
+            if (stage.equals(doc.get("stage"))) {
+                return true;
+            }
+            for (Object value : doc.values()) {
+                if (containsStage(value, stage)) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List) {
+            for (Object value : (List<?>) node) {
+                if (containsStage(value, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static class PlanCheck {
+        private final Class<?> entity;
+        private final Query query;
+
+        PlanCheck(Class<?> entity, Query query) {
+            this.entity = entity;
+            this.query = query;
+        }
+    }
+}
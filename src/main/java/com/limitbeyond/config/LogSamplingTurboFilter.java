@@ -0,0 +1,100 @@
+package com.limitbeyond.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one in every N enabled DEBUG/INFO events per configured logger prefix,
+ * e.g. rates "org.springframework.web=0.01,com.limitbeyond.controller=0.1".
+ * WARN and ERROR always pass, and loggers whose level was raised through the
+ * admin logging endpoint are exempt so a temporary DEBUG is not thinned out.
+ * Wired from logback-spring.xml in the prod profile.
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+
+    private static final Set<String> EXEMPT = ConcurrentHashMap.newKeySet();
+
+    // Longest prefix first so the most specific rate wins
+    private final Map<String, Long> everyNth = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    public static void exempt(String loggerName) {
+        EXEMPT.add(loggerName);
+    }
+
+    public static void unexempt(String loggerName) {
+        EXEMPT.remove(loggerName);
+    }
+
+    public void setRates(String rates) {
+        everyNth.clear();
+        if (rates == null || rates.isBlank()) {
+            return;
+        }
+        Map<String, Long> parsed = new ConcurrentHashMap<>();
+        for (String entry : rates.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                addWarn("Ignoring log sampling entry '" + entry + "'");
+                continue;
+            }
+            try {
+                double rate = Double.parseDouble(parts[1].trim());
+                if (rate <= 0 || rate > 1) {
+                    addWarn("Log sampling rate for " + parts[0].trim() + " must be in (0, 1]");
+                    continue;
+                }
+                parsed.put(parts[0].trim(), Math.max(1L, Math.round(1 / rate)));
+            } catch (NumberFormatException e) {
+                addWarn("Ignoring log sampling entry '" + entry + "'");
+            }
+        }
+        parsed.entrySet().stream()
+                .sorted((a, b) -> b.getKey().length() - a.getKey().length())
+                .forEach(e -> everyNth.put(e.getKey(), e.getValue()));
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+            Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN) || everyNth.isEmpty()) {
+            return FilterReply.NEUTRAL;
+        }
+        // isDebugEnabled() and friends reach here without a format; only the real
+        // logging call that follows them may take a sample slot
+        if (format == null) {
+            return FilterReply.NEUTRAL;
+        }
+        // Events the logger would drop anyway must not consume a sample slot
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        for (String exempt : EXEMPT) {
+            if (matches(name, exempt)) {
+                return FilterReply.NEUTRAL;
+            }
+        }
+        for (Map.Entry<String, Long> rate : everyNth.entrySet()) {
+            if (matches(name, rate.getKey())) {
+                long n = counters.computeIfAbsent(rate.getKey(), k -> new AtomicLong()).getAndIncrement();
+                return n % rate.getValue() == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private boolean matches(String name, String prefix) {
+        return Logger.ROOT_LOGGER_NAME.equalsIgnoreCase(prefix) || name.equals(prefix)
+                || name.startsWith(prefix + ".");
+    }
+}
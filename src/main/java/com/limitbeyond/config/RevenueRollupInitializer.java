@@ -0,0 +1,45 @@
+package com.limitbeyond.config;
+
+import com.limitbeyond.model.Payment;
+import com.limitbeyond.model.RevenueDaily;
+import com.limitbeyond.service.PaymentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the revenue_daily rollups from the payments collection the first time
+ * the application starts with an empty rollup collection. After that the rollups
+ * are maintained incrementally by PaymentService.createPayment.
+ */
+@Component
+@Order(4)
+public class RevenueRollupInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueRollupInitializer.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Value("${payments.revenue-rollup.build-on-startup:true}")
+    private boolean buildOnStartup;
+
+    @Override
+    public void run(String... args) {
+        if (!buildOnStartup || mongoTemplate.exists(new Query(), RevenueDaily.class)
+                || !mongoTemplate.exists(new Query(), Payment.class)) {
+            return;
+        }
+        int days = paymentService.rebuildDailyRevenue(null, null);
+        logger.info("Built revenue rollups for {} days", days);
+    }
+}
@@ -0,0 +1,104 @@
+package com.limitbeyond.config;
+
+import com.limitbeyond.security.StompAuthChannelInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * STOMP over WebSocket at /ws. Clients send to /app/** and subscribe to
+ * /topic/**. The default broker is in memory and only reaches sessions on this
+ * instance; with websocket.broker-relay.enabled the same topics are relayed
+ * through an external STOMP broker (RabbitMQ, ActiveMQ) instead, without any
+ * change to publishers or clients.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Autowired
+    private StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    // Lazy because the bean is declared below, in this same class
+    @Autowired
+    @Lazy
+    @Qualifier("stompHeartbeatScheduler")
+    private TaskScheduler stompHeartbeatScheduler;
+
+    @Value("${websocket.heartbeat-ms:20000}")
+    private long heartbeatMs;
+
+    @Value("${websocket.broker-relay.enabled:false}")
+    private boolean relayEnabled;
+
+    @Value("${websocket.broker-relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker-relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker-relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.broker-relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Bean
+    public ThreadPoolTaskScheduler stompHeartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("stomp-heartbeat-");
+        scheduler.setDaemon(true);
+        return scheduler;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // Same origins as the @CrossOrigin patterns on the REST controllers; the
+        // handshake carries no Authorization header, so this is the only origin check
+        registry.addEndpoint("/ws").setAllowedOriginPatterns(
+                "http://localhost:*",
+                "https://*.lovable.app",
+                "https://*.lovable.dev");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.setApplicationDestinationPrefixes("/app");
+        if (relayEnabled) {
+            // Needs reactor-netty on the classpath for the TCP connection to the broker
+            registry.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+        } else {
+            // Heartbeats keep proxies from closing idle connections and surface dead clients
+            registry.enableSimpleBroker("/topic")
+                    .setHeartbeatValue(new long[] { heartbeatMs, heartbeatMs })
+                    .setTaskScheduler(stompHeartbeatScheduler);
+        }
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor.outbound());
+    }
+}
@@ -0,0 +1,151 @@
+package com.limitbeyond.config;
+
+import com.limitbeyond.model.ExerciseSnapshot;
+import com.limitbeyond.model.ExerciseTemplate;
+import com.limitbeyond.model.Workout;
+import com.limitbeyond.model.WorkoutSet;
+import com.limitbeyond.repository.ExerciseTemplateRepository;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Moves workouts written before sets were embedded off the legacy workout_sets
+ * collection. Each workout still holding DBRefs in "sets" is rewritten with the
+ * referenced sets (and an exercise snapshot) embedded. The legacy collection is
+ * left untouched so it can be dropped manually once the migration is verified.
+ */
+@Component
+@Order(3)
+public class WorkoutSetMigration implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkoutSetMigration.class);
+
+    private static final String LEGACY_SETS_COLLECTION = "workout_sets";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ExerciseTemplateRepository exerciseTemplateRepository;
+
+    @Value("${workouts.sets.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Override
+    public void run(String... args) {
+        if (!migrateOnStartup) {
+            return;
+        }
+        int migrated = migrate();
+        if (migrated > 0) {
+            logger.info("Embedded sets for {} legacy workouts", migrated);
+        }
+    }
+
+    public int migrate() {
+        Map<String, ExerciseSnapshot> snapshots = new HashMap<>();
+        int migrated = 0;
+
+        Document legacyFilter = new Document("sets.$ref", LEGACY_SETS_COLLECTION);
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Workout.class))
+                .find(legacyFilter).projection(new Document("sets", 1)).iterator()) {
+            while (cursor.hasNext()) {
+                Document workout = cursor.next();
+                List<WorkoutSet> sets = loadLegacySets(workout.getList("sets", Object.class), snapshots);
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(workout.get("_id"))),
+                        new Update().set("sets", sets), Workout.class);
+                migrated++;
+            }
+        }
+        return migrated;
+    }
+
+    // One $in query for the sets of a workout plus one for any exercises not seen yet
+    private List<WorkoutSet> loadLegacySets(List<Object> refs, Map<String, ExerciseSnapshot> snapshots) {
+        List<Object> setIds = new ArrayList<>();
+        for (Object ref : refs) {
+            Object id = refId(ref);
+            if (id != null) {
+                setIds.add(id);
+            }
+        }
+
+        Map<Object, Document> legacyById = new HashMap<>();
+        Set<String> missingExercises = new HashSet<>();
+        for (Document legacy : mongoTemplate.getCollection(LEGACY_SETS_COLLECTION).find(Filters.in("_id", setIds))) {
+            legacyById.put(legacy.get("_id"), legacy);
+            Object exerciseId = refId(legacy.get("exercise"));
+            if (exerciseId != null && !snapshots.containsKey(exerciseId.toString())) {
+                missingExercises.add(exerciseId.toString());
+            }
+        }
+        if (!missingExercises.isEmpty()) {
+            for (ExerciseTemplate template : exerciseTemplateRepository.findAllById(missingExercises)) {
+                snapshots.put(template.getId(), ExerciseSnapshot.from(template));
+            }
+        }
+
+        // Keep the original set order; dangling references are dropped
+        List<WorkoutSet> sets = new ArrayList<>();
+        for (Object setId : setIds) {
+            Document legacy = legacyById.get(setId);
+            if (legacy == null) {
+                continue;
+            }
+            WorkoutSet set = new WorkoutSet();
+            set.setId(setId.toString());
+            Object exerciseId = refId(legacy.get("exercise"));
+            if (exerciseId != null) {
+                ExerciseSnapshot snapshot = snapshots.get(exerciseId.toString());
+                if (snapshot == null) {
+                    // Template deleted since: keep at least the id the set referenced
+                    snapshot = new ExerciseSnapshot();
+                    snapshot.setId(exerciseId.toString());
+                }
+                set.setExercise(snapshot);
+            }
+            Object reps = legacy.get("reps");
+            set.setReps(reps instanceof Number ? ((Number) reps).intValue() : 0);
+            Object weight = legacy.get("weight");
+            set.setWeight(weight instanceof Number ? ((Number) weight).doubleValue() : null);
+            set.setNotes(legacy.getString("notes"));
+            set.setCompleted(Boolean.TRUE.equals(legacy.getBoolean("completed")));
+            Object volume = legacy.get("volume");
+            set.setVolume(volume instanceof Number ? ((Number) volume).doubleValue() : null);
+            sets.add(set);
+        }
+        return sets;
+    }
+
+    // DBRefs may come back from the driver either decoded or as plain {$ref, $id}
+    // documents
+    private Object refId(Object ref) {
+        if (ref instanceof DBRef) {
+            return ((DBRef) ref).getId();
+        }
+        if (ref instanceof Document) {
+            return ((Document) ref).get("$id");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.limitbeyond.controller;
+
+import com.limitbeyond.dto.logging.LogLevelOverride;
+import com.limitbeyond.service.LogLevelService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/logging")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminLoggingController {
+
+    @Autowired
+    private LogLevelService logLevelService;
+
+    @GetMapping
+    public ResponseEntity<List<LogLevelOverride>> getOverrides() {
+        return ResponseEntity.ok(logLevelService.getOverrides());
+    }
+
+    // New: raise (or lower) a logger's level for a limited time
+    @PutMapping("/{loggerName}")
+    public ResponseEntity<?> setLevel(@PathVariable String loggerName,
+            @RequestParam String level,
+            @RequestParam(defaultValue = "15") int minutes) {
+        try {
+            return ResponseEntity.ok(logLevelService.override(loggerName, level, minutes));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // New: restore the logger's previous level before the timer does
+    @DeleteMapping("/{loggerName}")
+    public ResponseEntity<?> revertLevel(@PathVariable String loggerName) {
+        if (!logLevelService.revert(loggerName)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "No active override for " + loggerName));
+        }
+        return ResponseEntity.ok(Map.of("message", "Log level restored"));
+    }
+}
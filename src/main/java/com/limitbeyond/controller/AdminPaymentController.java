@@ -1,5 +1,6 @@
 package com.limitbeyond.controller;
 
+import com.limitbeyond.dto.payment.RevenueReport;
 import com.limitbeyond.model.Payment;
 import com.limitbeyond.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +13,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/payments")
@@ -36,8 +38,34 @@ public class AdminPaymentController {
     public ResponseEntity<Double> getRevenue(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        return ResponseEntity.ok(paymentService.getRevenueForDays(start, end));
+    }
+
+    // New: recompute the daily revenue rollups for a range (or everything when
+    // no bounds are given)
+    @PostMapping("/revenue/rollups/rebuild")
+    public ResponseEntity<?> rebuildRevenueRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        int days = paymentService.rebuildDailyRevenue(start, end);
+        return ResponseEntity.ok(Map.of("message", "Revenue rollups rebuilt", "days", days));
+    }
+
+    // New: revenue bucketed by day, week or month with plan and trainer breakdowns
+    @GetMapping("/revenue/report")
+    public ResponseEntity<?> getRevenueReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(defaultValue = "day") String granularity) {
+        RevenueReport.Granularity g;
+        try {
+            g = RevenueReport.Granularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "granularity must be one of day, week, month"));
+        }
         LocalDateTime s = LocalDateTime.of(start, LocalTime.MIN);
         LocalDateTime e = LocalDateTime.of(end, LocalTime.MAX);
-        return ResponseEntity.ok(paymentService.getRevenueBetween(s, e));
+        return ResponseEntity.ok(paymentService.getRevenueReport(s, e, g));
     }
 }
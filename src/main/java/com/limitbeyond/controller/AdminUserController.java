@@ -0,0 +1,41 @@
+package com.limitbeyond.controller;
+
+import com.limitbeyond.payload.SignupRequest;
+import com.limitbeyond.service.UserImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminUserController {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    // New: bulk import from a JSON array of sign-up rows
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importUsers(@RequestBody List<SignupRequest> rows) {
+        try {
+            return ResponseEntity.ok(userImportService.importUsers(rows));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // New: bulk import from CSV with a header line
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<?> importUsersCsv(@RequestBody String csv) {
+        try {
+            return ResponseEntity.ok(userImportService.importCsv(csv));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+}
@@ -4,14 +4,19 @@ import com.limitbeyond.model.Role;
 import com.limitbeyond.model.User;
 import com.limitbeyond.payload.JwtAuthenticationResponse;
 import com.limitbeyond.payload.LoginRequest;
+import com.limitbeyond.payload.RefreshTokenRequest;
 import com.limitbeyond.payload.SignupRequest;
 import com.limitbeyond.repository.UserRepository;
-import com.limitbeyond.security.JwtTokenProvider;
+import com.limitbeyond.security.PasswordHashingOverloadedException;
+import com.limitbeyond.security.UserPrincipal;
 import com.limitbeyond.service.AuthService;
+import com.limitbeyond.service.RefreshTokenService;
+import com.limitbeyond.service.UserCacheService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,6 +26,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -38,9 +44,6 @@ public class AuthController {
     @Autowired
     private AuthenticationManager authenticationManager;
 
-    @Autowired
-    private JwtTokenProvider tokenProvider;
-
     @Autowired
     private AuthService authService;
 
@@ -50,6 +53,15 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    // The user lookup and any re-hash write stay on the request thread; only the
+    // BCrypt comparison itself goes through the password hashing pool, via the
+    // offloaded PasswordEncoder the authentication provider uses
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         try {
@@ -58,10 +70,9 @@ public class AuthController {
                             loginRequest.getUsername(),
                             loginRequest.getPassword()));
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = tokenProvider.generateToken(authentication);
-
-            return ResponseEntity.ok(new JwtAuthenticationResponse(jwt));
+            return ResponseEntity.ok(refreshTokenService.issue((UserPrincipal) authentication.getPrincipal()));
+        } catch (PasswordHashingOverloadedException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             logger.error("Error during authentication: ", e);
             Map<String, String> errorResponse = new HashMap<>();
@@ -110,6 +121,7 @@ public class AuthController {
 
             // Register user
             User registeredUser = userRepository.save(user);
+            userCacheService.evict(registeredUser);
 
             // Generate token for active users
             if (registeredUser.isActive()) {
@@ -119,10 +131,13 @@ public class AuthController {
                                 signupRequest.getPassword()));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                String jwt = tokenProvider.generateToken(authentication);
+                JwtAuthenticationResponse tokens = refreshTokenService
+                        .issue((UserPrincipal) authentication.getPrincipal());
 
                 Map<String, Object> response = new HashMap<>();
-                response.put("token", jwt);
+                response.put("token", tokens.getToken());
+                response.put("refreshToken", tokens.getRefreshToken());
+                response.put("expiresIn", tokens.getExpiresIn());
                 response.put("message", "User registered successfully");
                 return ResponseEntity.ok(response);
             }
@@ -131,6 +146,8 @@ public class AuthController {
             return ResponseEntity.ok(Map.of(
                     "message", "Registration successful. For trainer accounts, please wait for admin approval."));
 
+        } catch (PasswordHashingOverloadedException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             logger.error("Error during registration: ", e);
             Map<String, String> errorResponse = new HashMap<>();
@@ -138,4 +155,33 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    // New: exchange a refresh token for a new access/refresh token pair
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            return ResponseEntity.ok(refreshTokenService.rotate(request.getRefreshToken()));
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("message", "Invalid or expired refresh token");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        }
+    }
+
+    // New: revoke the refresh token's session and the presented access token
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody(required = false) RefreshTokenRequest request,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        refreshTokenService.logout(request != null ? request.getRefreshToken() : null, accessToken);
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+    }
+
+    private ResponseEntity<?> tooManyRequests(PasswordHashingOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("message", e.getMessage()));
+    }
+}
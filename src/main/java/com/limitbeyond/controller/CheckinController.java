@@ -2,7 +2,8 @@ package com.limitbeyond.controller;
 
 import com.limitbeyond.model.Checkin;
 import com.limitbeyond.service.CheckinService;
-import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.service.CheckinStreamService;
+import com.limitbeyond.service.UserCacheService;
 import com.limitbeyond.model.User;
 import com.limitbeyond.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -25,7 +27,10 @@ public class CheckinController {
     private CheckinService checkinService;
 
     @Autowired
-    private UserRepository userRepository;
+    private CheckinStreamService checkinStreamService;
+
+    @Autowired
+    private UserCacheService userCacheService;
 
     // Any authenticated user can create a checkin for themselves; admin can create
     // for any user
@@ -67,7 +72,7 @@ public class CheckinController {
 
         // Trainers can request their assigned member's checkins
         if (isTrainer && userId != null && !userId.isEmpty()) {
-            User trainer = userRepository.findById(authId).orElse(null);
+            User trainer = userCacheService.findById(authId).orElse(null);
             if (trainer != null && trainer.getAssignedMembers() != null
                     && trainer.getAssignedMembers().contains(userId)) {
                 return ResponseEntity.ok(checkinService.getRecentCheckinsForUser(userId, limit));
@@ -107,7 +112,7 @@ public class CheckinController {
         }
 
         if (isTrainer && userId != null && !userId.isEmpty()) {
-            User trainer = userRepository.findById(authId).orElse(null);
+            User trainer = userCacheService.findById(authId).orElse(null);
             if (trainer != null && trainer.getAssignedMembers() != null
                     && trainer.getAssignedMembers().contains(userId)) {
                 return ResponseEntity.ok(checkinService.getCheckinsBetweenForUser(userId, s, e));
@@ -119,4 +124,43 @@ public class CheckinController {
         // Default: member sees only their own
         return ResponseEntity.ok(checkinService.getCheckinsBetweenForUser(authId, s, e));
     }
+
+    // New: live feed of new checkins as Server-Sent Events ("checkin" events), with
+    // the same visibility rules as /recent
+    @GetMapping(value = "/stream", produces = "text/event-stream")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SseEmitter> streamCheckins(
+            @RequestParam(required = false) String userId,
+            Authentication authentication) {
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().contains("ROLE_ADMIN"));
+        boolean isTrainer = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().contains("ROLE_TRAINER"));
+        String authId = null;
+        if (authentication.getPrincipal() instanceof UserPrincipal) {
+            authId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        } else {
+            authId = authentication.getName();
+        }
+
+        if (isAdmin) {
+            if (userId == null || userId.isEmpty())
+                return ResponseEntity.ok(checkinStreamService.subscribe(c -> true));
+            return ResponseEntity.ok(checkinStreamService.subscribe(c -> userId.equals(c.getUserId())));
+        }
+
+        if (isTrainer && userId != null && !userId.isEmpty()) {
+            User trainer = userCacheService.findById(authId).orElse(null);
+            if (trainer != null && trainer.getAssignedMembers() != null
+                    && trainer.getAssignedMembers().contains(userId)) {
+                return ResponseEntity.ok(checkinStreamService.subscribe(c -> userId.equals(c.getUserId())));
+            } else {
+                return ResponseEntity.status(403).build();
+            }
+        }
+
+        // Default: only the authenticated user's own checkins
+        String ownId = authId;
+        return ResponseEntity.ok(checkinStreamService.subscribe(c -> ownId.equals(c.getUserId())));
+    }
 }
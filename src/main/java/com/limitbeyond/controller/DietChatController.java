@@ -1,22 +1,26 @@
 package com.limitbeyond.controller;
 
+import com.limitbeyond.dto.dietchat.InboxCursor;
 import com.limitbeyond.model.DietChat;
 import com.limitbeyond.model.Role;
 import com.limitbeyond.model.User;
 import com.limitbeyond.repository.DietChatRepository;
-import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.service.DietChatEventService;
+import com.limitbeyond.service.DietChatService;
+import com.limitbeyond.service.ThreadSearchService;
+import com.limitbeyond.service.UserCacheService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/diet-chat")
@@ -50,16 +54,25 @@ public class DietChatController {
     private DietChatRepository dietChatRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private ThreadSearchService threadSearchService;
+
+    @Autowired
+    private DietChatService dietChatService;
+
+    @Autowired
+    private DietChatEventService dietChatEventService;
+
+    private static final int DEFAULT_INBOX_SIZE = 20;
+    private static final int MAX_INBOX_SIZE = 50;
 
     @PostMapping
     @PreAuthorize("hasRole('MEMBER')")
     public ResponseEntity<?> createDietChat(@RequestBody DietChatRequest request) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
             DietChat dietChat = new DietChat();
             dietChat.setMemberId(currentUser.getId());
@@ -71,8 +84,9 @@ public class DietChatController {
             initialMessage.setContent(request.getInitialQuery());
             initialMessage.setSenderRole(Role.MEMBER);
 
-            dietChat.getMessages().add(initialMessage);
+            dietChatService.addMessage(dietChat, initialMessage);
             dietChatRepository.save(dietChat);
+            threadSearchService.index(dietChat);
 
             return ResponseEntity.ok("Diet chat created successfully");
         } catch (Exception e) {
@@ -83,20 +97,22 @@ public class DietChatController {
         }
     }
 
+    // Full threads with their newest page of messages; the dashboard uses /inbox
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'MEMBER')")
     public ResponseEntity<?> getDietChats() {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
             List<DietChat> dietChats;
             if (currentUser.getRoles().contains(Role.MEMBER)) {
                 dietChats = dietChatRepository.findByMemberIdOrderByCreatedAtDesc(currentUser.getId());
-            } else if (currentUser.getRoles().contains(Role.TRAINER)) {
-                dietChats = dietChatRepository.findAll(); // Trainers can see all diet chats
+            } else if (currentUser.getRoles().contains(Role.TRAINER)
+                    && !currentUser.getRoles().contains(Role.ADMIN)) {
+                // Only chats of assigned members, as in the inbox
+                Set<String> members = currentUser.getAssignedMembers();
+                dietChats = members == null || members.isEmpty() ? List.of()
+                        : dietChatRepository.findByMemberIdInOrderByCreatedAtDesc(members);
             } else {
                 dietChats = dietChatRepository.findAll(); // Admins can see all diet chats
             }
@@ -110,27 +126,109 @@ public class DietChatController {
         }
     }
 
-    @PostMapping("/{chatId}/reply")
+    // New: paginated inbox of chat summaries (no messages), most recent activity
+    // first. Trainers see chats of their assigned members, admins see every chat.
+    @GetMapping("/inbox")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'MEMBER')")
-    public ResponseEntity<?> replyToDietChat(
+    public ResponseEntity<?> getInbox(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        int size = limit == null ? DEFAULT_INBOX_SIZE : Math.max(1, Math.min(limit, MAX_INBOX_SIZE));
+        InboxCursor position = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                position = InboxCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", "Invalid cursor"));
+            }
+        }
+        try {
+            User currentUser = userCacheService.getCurrentUser();
+            return ResponseEntity.ok(dietChatService.getInbox(currentUser, size, position));
+        } catch (Exception e) {
+            logger.error("Error fetching diet chat inbox: ", e);
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Failed to fetch diet chat inbox: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    // New: clear the caller's unread count for a chat
+    @PostMapping("/{chatId}/read")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'MEMBER')")
+    public ResponseEntity<?> markRead(@PathVariable String chatId) {
+        try {
+            User currentUser = userCacheService.getCurrentUser();
+
+            DietChat dietChat = dietChatRepository.findById(chatId)
+                    .orElseThrow(() -> new RuntimeException("Diet chat not found"));
+
+            boolean isOwner = dietChat.getMemberId().equals(currentUser.getId());
+            boolean isStaff = currentUser.getRoles().contains(Role.ADMIN)
+                    || (currentUser.getRoles().contains(Role.TRAINER) && currentUser.getAssignedMembers() != null
+                            && currentUser.getAssignedMembers().contains(dietChat.getMemberId()));
+            if (!isOwner && !isStaff) {
+                return ResponseEntity.status(403).body(Map.of("message", "Not authorized to read this chat"));
+            }
+
+            dietChatService.markRead(chatId, isOwner);
+            dietChatEventService.publishRead(chatId, currentUser.getId(), currentUser.getRoles().iterator().next());
+            return ResponseEntity.ok(Map.of("message", "Diet chat marked as read"));
+        } catch (Exception e) {
+            logger.error("Error marking diet chat read: ", e);
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Failed to mark diet chat read: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    // New: one page of a chat's messages, newest first page when before is omitted;
+    // follow the returned "before" to load older pages
+    @GetMapping("/{chatId}/messages")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'MEMBER')")
+    public ResponseEntity<?> getMessages(
             @PathVariable String chatId,
-            @RequestBody ReplyRequest request) {
+            @RequestParam(required = false) Integer before) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
             DietChat dietChat = dietChatRepository.findById(chatId)
                     .orElseThrow(() -> new RuntimeException("Diet chat not found"));
 
+            boolean isOwner = dietChat.getMemberId().equals(currentUser.getId());
+            boolean isStaff = currentUser.getRoles().contains(Role.ADMIN)
+                    || (currentUser.getRoles().contains(Role.TRAINER) && currentUser.getAssignedMembers() != null
+                            && currentUser.getAssignedMembers().contains(dietChat.getMemberId()));
+            if (!isOwner && !isStaff) {
+                return ResponseEntity.status(403).body(Map.of("message", "Not authorized to view this chat"));
+            }
+
+            return ResponseEntity.ok(dietChatService.getMessages(chatId, before));
+        } catch (Exception e) {
+            logger.error("Error fetching diet chat messages: ", e);
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Failed to fetch diet chat messages: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    @PostMapping("/{chatId}/reply")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'MEMBER')")
+    public ResponseEntity<?> replyToDietChat(
+            @PathVariable String chatId,
+            @RequestBody ReplyRequest request) {
+        try {
+            User currentUser = userCacheService.getCurrentUser();
+
             DietChat.DietChatMessage reply = new DietChat.DietChatMessage();
             reply.setSenderId(currentUser.getId());
             reply.setContent(request.getContent());
             reply.setSenderRole(currentUser.getRoles().iterator().next()); // Assuming single role
 
-            dietChat.getMessages().add(reply);
-            dietChatRepository.save(dietChat);
+            // $push: the thread is neither loaded nor rewritten
+            dietChatService.appendMessage(chatId, reply);
+            // Subscribers of /topic/diet-chat/{chatId} get the reply without refetching
+            dietChatEventService.publishMessage(chatId, reply);
 
             return ResponseEntity.ok("Reply added successfully");
         } catch (Exception e) {
@@ -147,10 +245,7 @@ public class DietChatController {
             @PathVariable String chatId,
             @RequestBody DietChatRequest request) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
             DietChat dietChat = dietChatRepository.findById(chatId)
                     .orElseThrow(() -> new RuntimeException("Diet chat not found"));
@@ -161,10 +256,11 @@ public class DietChatController {
                 return ResponseEntity.status(403).body("Not authorized to update this chat");
             }
 
-            dietChat.setTitle(request.getTitle());
-            dietChatRepository.save(dietChat);
+            dietChatService.updateTitle(chatId, request.getTitle(), request.getVersion());
 
             return ResponseEntity.ok("Diet chat updated successfully");
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error updating diet chat: ", e);
             Map<String, String> response = new HashMap<>();
@@ -177,10 +273,7 @@ public class DietChatController {
     @PreAuthorize("hasAnyRole('ADMIN', 'MEMBER')")
     public ResponseEntity<?> deleteDietChat(@PathVariable String chatId) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
             DietChat dietChat = dietChatRepository.findById(chatId)
                     .orElseThrow(() -> new RuntimeException("Diet chat not found"));
@@ -191,7 +284,8 @@ public class DietChatController {
                 return ResponseEntity.status(403).body("Not authorized to delete this chat");
             }
 
-            dietChatRepository.delete(dietChat);
+            // Also drops the archived message pages
+            dietChatService.deleteChat(chatId);
             return ResponseEntity.ok("Diet chat deleted successfully");
         } catch (Exception e) {
             logger.error("Error deleting diet chat: ", e);
@@ -201,38 +295,38 @@ public class DietChatController {
         }
     }
 
-    @PutMapping("/{chatId}/messages/{messageIndex}")
+    // Messages are addressed by id; a numeric reference is still accepted as the
+    // message's position for clients written before messages had ids
+    @PutMapping("/{chatId}/messages/{messageRef}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'MEMBER')")
     public ResponseEntity<?> updateMessage(
             @PathVariable String chatId,
-            @PathVariable int messageIndex,
+            @PathVariable String messageRef,
             @RequestBody ReplyRequest request) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            DietChat dietChat = dietChatRepository.findById(chatId)
-                    .orElseThrow(() -> new RuntimeException("Diet chat not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
-            if (messageIndex < 0 || messageIndex >= dietChat.getMessages().size()) {
-                return ResponseEntity.badRequest().body("Invalid message index");
+            DietChat.DietChatMessage message = dietChatService.findMessage(chatId, messageRef);
+            if (message == null) {
+                return ResponseEntity.badRequest().body("Invalid message reference");
             }
 
-            DietChat.DietChatMessage message = dietChat.getMessages().get(messageIndex);
-
             // Verify message ownership or admin rights
             if (!message.getSenderId().equals(currentUser.getId()) &&
                     !currentUser.getRoles().contains(Role.ADMIN)) {
                 return ResponseEntity.status(403).body("Not authorized to update this message");
             }
 
-            message.setContent(request.getContent());
-            message.setEdited(true);
-            dietChatRepository.save(dietChat);
+            DietChat.DietChatMessage updated = dietChatService.updateMessage(chatId, message.getId(),
+                    request.getContent(), request.getVersion());
 
-            return ResponseEntity.ok("Message updated successfully");
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Message updated successfully");
+            response.put("id", updated.getId());
+            response.put("version", updated.getVersion());
+            return ResponseEntity.ok(response);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error updating message: ", e);
             Map<String, String> response = new HashMap<>();
@@ -241,36 +335,31 @@ public class DietChatController {
         }
     }
 
-    @DeleteMapping("/{chatId}/messages/{messageIndex}")
+    @DeleteMapping("/{chatId}/messages/{messageRef}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'MEMBER')")
     public ResponseEntity<?> deleteMessage(
             @PathVariable String chatId,
-            @PathVariable int messageIndex) {
+            @PathVariable String messageRef,
+            @RequestParam(required = false) Long version) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
-            DietChat dietChat = dietChatRepository.findById(chatId)
-                    .orElseThrow(() -> new RuntimeException("Diet chat not found"));
-
-            if (messageIndex < 0 || messageIndex >= dietChat.getMessages().size()) {
-                return ResponseEntity.badRequest().body("Invalid message index");
+            DietChat.DietChatMessage message = dietChatService.findMessage(chatId, messageRef);
+            if (message == null) {
+                return ResponseEntity.badRequest().body("Invalid message reference");
             }
 
-            DietChat.DietChatMessage message = dietChat.getMessages().get(messageIndex);
-
             // Verify message ownership or admin rights
             if (!message.getSenderId().equals(currentUser.getId()) &&
                     !currentUser.getRoles().contains(Role.ADMIN)) {
                 return ResponseEntity.status(403).body("Not authorized to delete this message");
             }
 
-            dietChat.getMessages().remove(messageIndex);
-            dietChatRepository.save(dietChat);
+            dietChatService.deleteMessage(chatId, message.getId(), version);
 
             return ResponseEntity.ok("Message deleted successfully");
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error deleting message: ", e);
             Map<String, String> response = new HashMap<>();
@@ -283,6 +372,7 @@ public class DietChatController {
     public static class DietChatRequest {
         private String title;
         private String initialQuery;
+        private Long version; // Optional: the chat version the edit is based on
 
         // Getters
         public String getTitle() {
@@ -293,6 +383,10 @@ public class DietChatController {
             return initialQuery;
         }
 
+        public Long getVersion() {
+            return version;
+        }
+
         // Setters
         public void setTitle(String title) {
             this.title = title;
@@ -301,19 +395,32 @@ public class DietChatController {
         public void setInitialQuery(String initialQuery) {
             this.initialQuery = initialQuery;
         }
+
+        public void setVersion(Long version) {
+            this.version = version;
+        }
     }
 
     public static class ReplyRequest {
         private String content;
+        private Long version; // Optional on edits: the message version the edit is based on
 
-        // Getter
+        // Getters
         public String getContent() {
             return content;
         }
 
-        // Setter
+        public Long getVersion() {
+            return version;
+        }
+
+        // Setters
         public void setContent(String content) {
             this.content = content;
         }
+
+        public void setVersion(Long version) {
+            this.version = version;
+        }
     }
 }
\ No newline at end of file
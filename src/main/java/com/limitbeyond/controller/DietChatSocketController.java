@@ -0,0 +1,87 @@
+package com.limitbeyond.controller;
+
+import com.limitbeyond.model.Role;
+import com.limitbeyond.model.User;
+import com.limitbeyond.security.StompAuthChannelInterceptor;
+import com.limitbeyond.service.DietChatEventService;
+import com.limitbeyond.service.DietChatService;
+import com.limitbeyond.service.UserCacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+
+// STOMP counterpart of DietChatController for events that are not worth an HTTP
+// round trip. New messages are still posted over REST and broadcast from there.
+@Controller
+public class DietChatSocketController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DietChatSocketController.class);
+
+    @Autowired
+    private DietChatService dietChatService;
+
+    @Autowired
+    private DietChatEventService dietChatEventService;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    // Sent to /app/diet-chat/{chatId}/typing when the user starts or stops typing
+    @MessageMapping("/diet-chat/{chatId}/typing")
+    public void typing(@DestinationVariable String chatId, @Payload(required = false) TypingRequest request,
+            Principal principal) {
+        User user = participant(chatId, principal);
+        boolean typing = request == null || request.isTyping();
+        dietChatEventService.publishTyping(chatId, user.getId(), role(user), typing);
+    }
+
+    // Sent to /app/diet-chat/{chatId}/read; same effect as POST /api/diet-chat/{chatId}/read
+    @MessageMapping("/diet-chat/{chatId}/read")
+    public void read(@DestinationVariable String chatId, Principal principal) {
+        User user = participant(chatId, principal);
+        // Members only take part in their own chats
+        boolean byMember = user.getRoles().contains(Role.MEMBER);
+        dietChatService.markRead(chatId, byMember);
+        dietChatEventService.publishRead(chatId, user.getId(), role(user));
+    }
+
+    @MessageExceptionHandler
+    public void handleException(RuntimeException e) {
+        // Fire-and-forget events: the client gets nothing back either way
+        logger.debug("Rejected diet chat event: {}", e.getMessage());
+    }
+
+    private User participant(String chatId, Principal principal) {
+        User user = userCacheService.findById(StompAuthChannelInterceptor.userId(principal))
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!dietChatService.isParticipant(user, chatId)) {
+            throw new RuntimeException("Not authorized for this chat");
+        }
+        return user;
+    }
+
+    private Role role(User user) {
+        return user.getRoles().iterator().next(); // Assuming single role
+    }
+
+    public static class TypingRequest {
+        private boolean typing = true;
+
+        // Getter
+        public boolean isTyping() {
+            return typing;
+        }
+
+        // Setter
+        public void setTyping(boolean typing) {
+            this.typing = typing;
+        }
+    }
+}
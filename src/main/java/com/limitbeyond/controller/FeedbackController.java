@@ -4,14 +4,14 @@ import com.limitbeyond.model.Feedback;
 import com.limitbeyond.model.Role;
 import com.limitbeyond.model.User;
 import com.limitbeyond.repository.FeedbackRepository;
-import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.service.FeedbackService;
+import com.limitbeyond.service.ThreadSearchService;
+import com.limitbeyond.service.UserCacheService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -50,16 +50,19 @@ public class FeedbackController {
     private FeedbackRepository feedbackRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private FeedbackService feedbackService;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private ThreadSearchService threadSearchService;
 
     @PostMapping
     @PreAuthorize("hasRole('MEMBER')")
     public ResponseEntity<?> createFeedback(@RequestBody FeedbackRequest request) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
             Feedback feedback = new Feedback();
             feedback.setMemberId(currentUser.getId());
@@ -67,6 +70,7 @@ public class FeedbackController {
             feedback.setContent(request.getContent());
 
             feedbackRepository.save(feedback);
+            threadSearchService.index(feedback);
             return ResponseEntity.ok("Feedback submitted successfully");
         } catch (Exception e) {
             logger.error("Error creating feedback: ", e);
@@ -80,10 +84,7 @@ public class FeedbackController {
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'MEMBER')")
     public ResponseEntity<?> getFeedback() {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
             List<Feedback> feedbackList;
             if (currentUser.getRoles().contains(Role.MEMBER)) {
@@ -109,20 +110,14 @@ public class FeedbackController {
             @PathVariable String feedbackId,
             @RequestBody ResponseRequest request) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            Feedback feedback = feedbackRepository.findById(feedbackId)
-                    .orElseThrow(() -> new RuntimeException("Feedback not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
             Feedback.FeedbackResponse response = new Feedback.FeedbackResponse();
             response.setResponderId(currentUser.getId());
             response.setContent(request.getContent());
 
-            feedback.getResponses().add(response);
-            feedbackRepository.save(feedback);
+            // $push (or a rollover into a new page): the thread is not rewritten
+            feedbackService.respond(feedbackId, response);
 
             return ResponseEntity.ok("Response added successfully");
         } catch (Exception e) {
@@ -139,10 +134,7 @@ public class FeedbackController {
             @PathVariable String feedbackId,
             @RequestBody FeedbackRequest request) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
             Feedback feedback = feedbackRepository.findById(feedbackId)
                     .orElseThrow(() -> new RuntimeException("Feedback not found"));
@@ -153,9 +145,7 @@ public class FeedbackController {
                 return ResponseEntity.status(403).body("Not authorized to update this feedback");
             }
 
-            feedback.setTitle(request.getTitle());
-            feedback.setContent(request.getContent());
-            feedbackRepository.save(feedback);
+            feedbackService.updateFeedback(feedbackId, request.getTitle(), request.getContent());
 
             return ResponseEntity.ok("Feedback updated successfully");
         } catch (Exception e) {
@@ -170,10 +160,7 @@ public class FeedbackController {
     @PreAuthorize("hasAnyRole('ADMIN', 'MEMBER')")
     public ResponseEntity<?> deleteFeedback(@PathVariable String feedbackId) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
             Feedback feedback = feedbackRepository.findById(feedbackId)
                     .orElseThrow(() -> new RuntimeException("Feedback not found"));
@@ -184,7 +171,8 @@ public class FeedbackController {
                 return ResponseEntity.status(403).body("Not authorized to delete this feedback");
             }
 
-            feedbackRepository.delete(feedback);
+            // Also drops the archived response pages
+            feedbackService.deleteFeedback(feedbackId);
             return ResponseEntity.ok("Feedback deleted successfully");
         } catch (Exception e) {
             logger.error("Error deleting feedback: ", e);
@@ -194,26 +182,48 @@ public class FeedbackController {
         }
     }
 
-    @PutMapping("/{feedbackId}/responses/{responseIndex}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
-    public ResponseEntity<?> updateFeedbackResponse(
+    // New: one page of responses, newest page when before is omitted; follow the
+    // returned "before" to load older pages
+    @GetMapping("/{feedbackId}/responses")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'MEMBER')")
+    public ResponseEntity<?> getResponses(
             @PathVariable String feedbackId,
-            @PathVariable int responseIndex,
-            @RequestBody ResponseRequest request) {
+            @RequestParam(required = false) Integer before) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
             Feedback feedback = feedbackRepository.findById(feedbackId)
                     .orElseThrow(() -> new RuntimeException("Feedback not found"));
 
-            if (responseIndex < 0 || responseIndex >= feedback.getResponses().size()) {
-                return ResponseEntity.badRequest().body("Invalid response index");
+            // Members only see their own feedback, as in the feedback list
+            if (currentUser.getRoles().contains(Role.MEMBER) && !feedback.getMemberId().equals(currentUser.getId())) {
+                return ResponseEntity.status(403).body(Map.of("message", "Not authorized to view this feedback"));
             }
 
-            Feedback.FeedbackResponse response = feedback.getResponses().get(responseIndex);
+            return ResponseEntity.ok(feedbackService.getResponses(feedbackId, before));
+        } catch (Exception e) {
+            logger.error("Error fetching feedback responses: ", e);
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Failed to fetch responses: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    // Responses are addressed by id; a numeric reference is still accepted as the
+    // response's position for clients written before responses had ids
+    @PutMapping("/{feedbackId}/responses/{responseRef}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
+    public ResponseEntity<?> updateFeedbackResponse(
+            @PathVariable String feedbackId,
+            @PathVariable String responseRef,
+            @RequestBody ResponseRequest request) {
+        try {
+            User currentUser = userCacheService.getCurrentUser();
+
+            Feedback.FeedbackResponse response = feedbackService.findResponse(feedbackId, responseRef);
+            if (response == null) {
+                return ResponseEntity.badRequest().body("Invalid response reference");
+            }
 
             // Verify ownership or admin rights
             if (!response.getResponderId().equals(currentUser.getId()) &&
@@ -221,8 +231,7 @@ public class FeedbackController {
                 return ResponseEntity.status(403).body("Not authorized to update this response");
             }
 
-            response.setContent(request.getContent());
-            feedbackRepository.save(feedback);
+            feedbackService.updateResponse(feedbackId, response.getId(), request.getContent());
 
             return ResponseEntity.ok("Response updated successfully");
         } catch (Exception e) {
@@ -233,34 +242,26 @@ public class FeedbackController {
         }
     }
 
-    @DeleteMapping("/{feedbackId}/responses/{responseIndex}")
+    @DeleteMapping("/{feedbackId}/responses/{responseRef}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
     public ResponseEntity<?> deleteFeedbackResponse(
             @PathVariable String feedbackId,
-            @PathVariable int responseIndex) {
+            @PathVariable String responseRef) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            Feedback feedback = feedbackRepository.findById(feedbackId)
-                    .orElseThrow(() -> new RuntimeException("Feedback not found"));
+            User currentUser = userCacheService.getCurrentUser();
 
-            if (responseIndex < 0 || responseIndex >= feedback.getResponses().size()) {
-                return ResponseEntity.badRequest().body("Invalid response index");
+            Feedback.FeedbackResponse response = feedbackService.findResponse(feedbackId, responseRef);
+            if (response == null) {
+                return ResponseEntity.badRequest().body("Invalid response reference");
             }
 
-            Feedback.FeedbackResponse response = feedback.getResponses().get(responseIndex);
-
             // Verify ownership or admin rights
             if (!response.getResponderId().equals(currentUser.getId()) &&
                     !currentUser.getRoles().contains(Role.ADMIN)) {
                 return ResponseEntity.status(403).body("Not authorized to delete this response");
             }
 
-            feedback.getResponses().remove(responseIndex);
-            feedbackRepository.save(feedback);
+            feedbackService.deleteResponse(feedbackId, response.getId());
 
             return ResponseEntity.ok("Response deleted successfully");
         } catch (Exception e) {
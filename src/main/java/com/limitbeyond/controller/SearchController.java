@@ -0,0 +1,73 @@
+package com.limitbeyond.controller;
+
+import com.limitbeyond.dto.search.ThreadType;
+import com.limitbeyond.model.User;
+import com.limitbeyond.service.ThreadSearchService;
+import com.limitbeyond.service.UserCacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    @Autowired
+    private ThreadSearchService threadSearchService;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    // New: ranked search over diet chats and feedback the caller can see
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'MEMBER')")
+    public ResponseEntity<?> search(
+            @RequestParam String q,
+            @RequestParam(required = false) ThreadType type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        if (q.isBlank() || q.length() > MAX_QUERY_LENGTH) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Query must be 1 to 200 characters"));
+        }
+        if (page < 0) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid page"));
+        }
+        try {
+            User currentUser = userCacheService.getCurrentUser();
+            int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(threadSearchService.search(currentUser, q, type, page, pageSize));
+        } catch (Exception e) {
+            logger.error("Error searching threads: ", e);
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Failed to search: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    // New: rebuild the index from the database, e.g. after a bulk data fix
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuild() {
+        try {
+            int indexed = threadSearchService.rebuild();
+            return ResponseEntity.ok(Map.of("message", "Search index rebuilt", "threads", indexed));
+        } catch (Exception e) {
+            logger.error("Error rebuilding search index: ", e);
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Failed to rebuild search index: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+}
@@ -3,7 +3,13 @@ package com.limitbeyond.controller;
 import com.limitbeyond.model.Role;
 import com.limitbeyond.model.User;
 import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.security.PasswordHashingOverloadedException;
+import com.limitbeyond.security.TokenVersionRegistry;
+import com.limitbeyond.service.RefreshTokenService;
+import com.limitbeyond.service.UserCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -44,9 +50,18 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCacheService userCacheService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser() {
         try {
@@ -57,9 +72,7 @@ public class UserController {
                 return ResponseEntity.status(401).body(response);
             }
 
-            String username = authentication.getName();
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = userCacheService.getCurrentUser();
 
             return ResponseEntity.ok(user);
         } catch (Exception e) {
@@ -79,10 +92,7 @@ public class UserController {
     @GetMapping("/members")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
     public ResponseEntity<List<User>> getAllMembers() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User currentUser = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User currentUser = userCacheService.getCurrentUser();
 
         List<User> members;
         if (currentUser.getRoles().contains(Role.ADMIN)) {
@@ -102,6 +112,7 @@ public class UserController {
 
         user.setActive(true);
         userRepository.save(user);
+        userCacheService.evict(user);
 
         return ResponseEntity.ok("User activated successfully");
     }
@@ -114,6 +125,10 @@ public class UserController {
 
         user.setActive(false);
         userRepository.save(user);
+        userCacheService.evict(user);
+        // Existing tokens stop working on the next request and cannot be refreshed
+        tokenVersionRegistry.revoke(userId);
+        refreshTokenService.revokeAllForUser(userId);
 
         return ResponseEntity.ok("User deactivated successfully");
     }
@@ -152,6 +167,8 @@ public class UserController {
 
         userRepository.save(member);
         userRepository.save(trainer);
+        userCacheService.evict(member);
+        userCacheService.evict(trainer);
 
         return ResponseEntity.ok("Trainer assigned successfully");
     }
@@ -179,6 +196,7 @@ public class UserController {
             }
 
             userRepository.save(currentUser);
+            userCacheService.evict(currentUser);
             return ResponseEntity.ok("Profile updated successfully");
         } catch (Exception e) {
             Map<String, String> response = new HashMap<>();
@@ -203,8 +221,13 @@ public class UserController {
             // Update password (assuming you have a password encoder configured)
             currentUser.setPassword(passwordEncoder.encode(request.getNewPassword()));
             userRepository.save(currentUser);
+            userCacheService.evict(currentUser);
 
             return ResponseEntity.ok("Password updated successfully");
+        } catch (PasswordHashingOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             Map<String, String> response = new HashMap<>();
             response.put("message", "Failed to update password: " + e.getMessage());
@@ -1,27 +1,36 @@
 package com.limitbeyond.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.limitbeyond.dto.workout.SetCompletionResponse;
+import com.limitbeyond.dto.workout.WorkoutCursor;
+import com.limitbeyond.dto.workout.WorkoutPageResponse;
 import com.limitbeyond.dto.workout.WorkoutRequest;
 import com.limitbeyond.dto.workout.WorkoutResponse;
 import com.limitbeyond.model.MuscleGroup;
 import com.limitbeyond.model.User;
 import com.limitbeyond.model.Workout;
-import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.model.WorkoutSet;
+import com.limitbeyond.service.UserCacheService;
 import com.limitbeyond.service.MuscleGroupService;
 import com.limitbeyond.service.WorkoutService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,26 +42,29 @@ public class WorkoutController {
     private WorkoutService workoutService;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCacheService userCacheService;
 
     @Autowired
     private MuscleGroupService muscleGroupService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private static final Logger logger = LoggerFactory.getLogger(WorkoutController.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private User getCurrentUserOrThrow() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("User not authenticated");
-        }
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return userCacheService.getCurrentUser();
     }
 
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<WorkoutResponse>> getMyWorkouts(@RequestParam(required = false) String memberId) {
+    public ResponseEntity<?> getMyWorkouts(@RequestParam(required = false) String memberId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean stream) {
         User me = getCurrentUserOrThrow();
 
         User memberToQuery = me;
@@ -62,7 +74,7 @@ public class WorkoutController {
             // cannot
             if (me.getRoles().contains(com.limitbeyond.model.Role.ADMIN)
                     || me.getRoles().contains(com.limitbeyond.model.Role.TRAINER)) {
-                memberToQuery = userRepository.findById(memberId)
+                memberToQuery = userCacheService.findById(memberId)
                         .orElseThrow(() -> new RuntimeException("Member not found"));
             } else {
                 // Members cannot request other members' workouts; ignore memberId and fall back
@@ -71,19 +83,22 @@ public class WorkoutController {
             }
         }
 
+        if (stream) {
+            return streamWorkouts(memberToQuery);
+        }
+        if (limit != null || cursor != null) {
+            return getWorkoutPage(memberToQuery, limit, cursor);
+        }
+
+        // Unpaginated list kept for existing clients
         List<Workout> workouts = workoutService.findByMember(memberToQuery);
         if (workouts == null) {
             workouts = new ArrayList<>();
         }
-        // Debug logging to help trace memberId lookups and returned counts
-        try {
-            String callerId = me != null ? me.getId() : "unknown";
-            String resolvedMemberId = memberToQuery != null ? memberToQuery.getId() : "null";
-            int found = workouts != null ? workouts.size() : 0;
-            logger.info("getMyWorkouts called by={} requestedMemberId={} resolvedMemberId={} returnedCount={}",
-                    callerId, memberId, resolvedMemberId, found);
-        } catch (Exception e) {
-            logger.warn("Failed to log getMyWorkouts debug info", e);
+        if (logger.isDebugEnabled()) {
+            logger.debug("getMyWorkouts called by={} requestedMemberId={} resolvedMemberId={} returnedCount={}",
+                    me != null ? me.getId() : "unknown", memberId,
+                    memberToQuery != null ? memberToQuery.getId() : "null", workouts.size());
         }
         List<WorkoutResponse> responses = new ArrayList<>();
         for (Workout w : workouts)
@@ -91,6 +106,52 @@ public class WorkoutController {
         return ResponseEntity.ok(responses);
     }
 
+    private ResponseEntity<?> getWorkoutPage(User member, Integer limit, String cursor) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        WorkoutCursor position = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                position = WorkoutCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", "Invalid cursor"));
+            }
+        }
+
+        Slice<Workout> page = workoutService.findByMemberPage(member,
+                position != null ? position.getScheduledDate() : null,
+                position != null ? position.getId() : null, size);
+        return ResponseEntity.ok(toPageResponse(page));
+    }
+
+    private WorkoutPageResponse toPageResponse(Slice<Workout> page) {
+        List<WorkoutResponse> items = new ArrayList<>();
+        for (Workout w : page.getContent())
+            items.add(WorkoutResponse.fromWorkout(w));
+        String nextCursor = null;
+        if (page.hasNext() && !page.getContent().isEmpty()) {
+            nextCursor = WorkoutCursor.after(page.getContent().get(page.getContent().size() - 1)).encode();
+        }
+        return new WorkoutPageResponse(items, nextCursor, page.hasNext());
+    }
+
+    // Writes one JSON workout per line as documents come off the Mongo cursor, so
+    // the full history is never held in memory
+    private ResponseEntity<StreamingResponseBody> streamWorkouts(User member) {
+        StreamingResponseBody body = out -> {
+            try (Stream<Workout> workouts = workoutService.streamByMember(member)) {
+                Iterator<Workout> it = workouts.iterator();
+                while (it.hasNext()) {
+                    out.write(objectMapper.writeValueAsBytes(WorkoutResponse.fromWorkout(it.next())));
+                    out.write('\n');
+                }
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<WorkoutResponse> getWorkoutById(@PathVariable String id) {
@@ -117,24 +178,35 @@ public class WorkoutController {
 
     @GetMapping("/by-muscle-group/{muscleGroupId}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<WorkoutResponse>> getWorkoutsByMuscleGroup(@PathVariable String muscleGroupId) {
+    public ResponseEntity<?> getWorkoutsByMuscleGroup(@PathVariable String muscleGroupId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         User me = getCurrentUserOrThrow();
         MuscleGroup mg = muscleGroupService.findById(muscleGroupId);
-        // Direct repository call for this filter since service interface does not
-        // expose it
-        // or we could extend the service; using repository through service is
-        // preferable,
-        // but we keep it simple here by filtering from all for the user.
-        List<Workout> all = workoutService.findByMember(me);
-        List<Workout> filtered = new ArrayList<>();
-        for (Workout w : all) {
-            if (w.getTargetMuscleGroups() != null
-                    && w.getTargetMuscleGroups().stream().anyMatch(g -> g.getId().equals(mg.getId()))) {
-                filtered.add(w);
+        LocalDateTime from = startDate != null ? LocalDateTime.of(startDate, LocalTime.MIN) : null;
+        LocalDateTime to = endDate != null ? LocalDateTime.of(endDate, LocalTime.MAX) : null;
+
+        if (limit != null || cursor != null) {
+            int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            WorkoutCursor position = null;
+            if (cursor != null && !cursor.isEmpty()) {
+                try {
+                    position = WorkoutCursor.decode(cursor);
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body(Map.of("message", "Invalid cursor"));
+                }
             }
+            Slice<Workout> page = workoutService.findByMemberAndMuscleGroupPage(me, mg, from, to,
+                    position != null ? position.getScheduledDate() : null,
+                    position != null ? position.getId() : null, size);
+            return ResponseEntity.ok(toPageResponse(page));
         }
+
+        List<Workout> workouts = workoutService.findByMemberAndMuscleGroup(me, mg, from, to);
         List<WorkoutResponse> responses = new ArrayList<>();
-        for (Workout w : filtered)
+        for (Workout w : workouts)
             responses.add(WorkoutResponse.fromWorkout(w));
         return ResponseEntity.ok(responses);
     }
@@ -171,8 +243,15 @@ public class WorkoutController {
     public ResponseEntity<WorkoutResponse> copyWorkout(@PathVariable String id,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate newDate) {
         LocalDateTime newScheduled = LocalDateTime.of(newDate, LocalTime.MIDNIGHT);
+        long started = System.nanoTime();
         Workout copied = workoutService.copyWorkout(id, newScheduled);
-        return ResponseEntity.ok(WorkoutResponse.fromWorkout(copied));
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        logger.debug("copyWorkout source={} copy={} sets={} tookMs={}", id, copied.getId(),
+                copied.getSets() != null ? copied.getSets().size() : 0, elapsedMs);
+        // Expose the service time so clients and load tests can report copy latency
+        return ResponseEntity.ok()
+                .header("Server-Timing", "copy;dur=" + elapsedMs)
+                .body(WorkoutResponse.fromWorkout(copied));
     }
 
     // Exercise operations inside a workout based on provided example
@@ -220,8 +299,11 @@ public class WorkoutController {
         List<WorkoutRequest.WorkoutSetRequest> merged = new ArrayList<>();
         if (workout.getSets() != null) {
             for (var s : workout.getSets()) {
+                if (exerciseId(s) == null) {
+                    continue; // Nothing to rebuild the set from
+                }
                 WorkoutRequest.WorkoutSetRequest sr = new WorkoutRequest.WorkoutSetRequest();
-                sr.setExerciseId(s.getExercise().getId());
+                sr.setExerciseId(exerciseId(s));
                 sr.setReps(s.getReps());
                 sr.setWeight(s.getWeight());
                 sr.setNotes(s.getNotes());
@@ -260,9 +342,9 @@ public class WorkoutController {
         // Keep sets for other exercises
         if (workout.getSets() != null) {
             workout.getSets().forEach(s -> {
-                if (!s.getExercise().getId().equals(exerciseId)) {
+                if (exerciseId(s) != null && !exerciseId(s).equals(exerciseId)) {
                     WorkoutRequest.WorkoutSetRequest sr = new WorkoutRequest.WorkoutSetRequest();
-                    sr.setExerciseId(s.getExercise().getId());
+                    sr.setExerciseId(exerciseId(s));
                     sr.setReps(s.getReps());
                     sr.setWeight(s.getWeight());
                     sr.setNotes(s.getNotes());
@@ -305,9 +387,9 @@ public class WorkoutController {
         List<WorkoutRequest.WorkoutSetRequest> rebuilt = new ArrayList<>();
         if (workout.getSets() != null) {
             workout.getSets().forEach(s -> {
-                if (!s.getExercise().getId().equals(exerciseId)) {
+                if (exerciseId(s) != null && !exerciseId(s).equals(exerciseId)) {
                     WorkoutRequest.WorkoutSetRequest sr = new WorkoutRequest.WorkoutSetRequest();
-                    sr.setExerciseId(s.getExercise().getId());
+                    sr.setExerciseId(exerciseId(s));
                     sr.setReps(s.getReps());
                     sr.setWeight(s.getWeight());
                     sr.setNotes(s.getNotes());
@@ -345,10 +427,37 @@ public class WorkoutController {
         return ResponseEntity.ok(WorkoutResponse.fromWorkout(updated));
     }
 
+    // Lightweight variant for the gym floor: one targeted update, returns a delta
+    @PatchMapping("/{workoutId}/sets/{setId}/completion")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SetCompletionResponse> updateSetCompletion(@PathVariable String workoutId,
+            @PathVariable String setId, @RequestBody SetCompletionRequest body) {
+        boolean completed = body.getCompleted() == null || body.getCompleted();
+        return ResponseEntity.ok(workoutService.updateSetCompletion(workoutId, setId, completed));
+    }
+
+    public static class SetCompletionRequest {
+        private Boolean completed;
+
+        public Boolean getCompleted() {
+            return completed;
+        }
+
+        public void setCompleted(Boolean completed) {
+            this.completed = completed;
+        }
+    }
+
     @PostMapping("/{workoutId}/complete")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<WorkoutResponse> completeWorkout(@PathVariable String workoutId) {
         Workout updated = workoutService.completeWorkout(workoutId);
         return ResponseEntity.ok(WorkoutResponse.fromWorkout(updated));
     }
-}
\ No newline at end of file
+
+    // Sets migrated from workout_sets keep only the exercise id when the template
+    // had been deleted, and may have no snapshot at all
+    private static String exerciseId(WorkoutSet set) {
+        return set.getExercise() != null ? set.getExercise().getId() : null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.limitbeyond.dto.dietchat;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.model.Role;
+
+import java.time.LocalDateTime;
+
+// Pushed to /topic/diet-chat/{chatId}. message is set for MESSAGE events,
+// typing for TYPING events; READ means userId has caught up on the chat.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DietChatEvent {
+
+    public enum Type {
+        MESSAGE,
+        TYPING,
+        READ
+    }
+
+    private Type type;
+    private String chatId;
+    private String userId;
+    private Role role;
+    private DietChat.DietChatMessage message;
+    private Boolean typing;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime timestamp = LocalDateTime.now();
+
+    public DietChatEvent() {
+    }
+
+    public DietChatEvent(Type type, String chatId, String userId, Role role) {
+        this.type = type;
+        this.chatId = chatId;
+        this.userId = userId;
+        this.role = role;
+    }
+
+    // Getters and setters
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getChatId() {
+        return chatId;
+    }
+
+    public void setChatId(String chatId) {
+        this.chatId = chatId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public void setRole(Role role) {
+        this.role = role;
+    }
+
+    public DietChat.DietChatMessage getMessage() {
+        return message;
+    }
+
+    public void setMessage(DietChat.DietChatMessage message) {
+        this.message = message;
+    }
+
+    public Boolean getTyping() {
+        return typing;
+    }
+
+    public void setTyping(Boolean typing) {
+        this.typing = typing;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,40 @@
+package com.limitbeyond.dto.dietchat;
+
+import java.util.List;
+
+public class DietChatInboxResponse {
+    private List<DietChatSummary> items;
+    private String nextCursor; // null when there are no more pages
+    private boolean hasNext;
+
+    public DietChatInboxResponse(List<DietChatSummary> items, String nextCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    // Getters and setters
+    public List<DietChatSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<DietChatSummary> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
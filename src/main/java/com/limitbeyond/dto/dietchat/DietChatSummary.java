@@ -0,0 +1,107 @@
+package com.limitbeyond.dto.dietchat;
+
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.model.Role;
+import java.time.LocalDateTime;
+
+// Inbox row for a diet chat; the messages themselves are not included
+public class DietChatSummary {
+    private String id;
+    private String title;
+    private String memberId;
+    private String memberName;
+    private String lastMessagePreview;
+    private Role lastMessageSenderRole;
+    private int messageCount;
+    private int unreadCount; // Unread from the viewer's side of the conversation
+    private LocalDateTime lastActivityAt;
+
+    public DietChatSummary() {
+    }
+
+    public static DietChatSummary from(DietChat chat, boolean viewerIsMember) {
+        DietChatSummary summary = new DietChatSummary();
+        summary.setId(chat.getId());
+        summary.setTitle(chat.getTitle());
+        summary.setMemberId(chat.getMemberId());
+        summary.setLastMessagePreview(chat.getLastMessagePreview());
+        summary.setLastMessageSenderRole(chat.getLastMessageSenderRole());
+        summary.setMessageCount(chat.getMessageCount());
+        summary.setUnreadCount(viewerIsMember ? chat.getUnreadForMember() : chat.getUnreadForTrainer());
+        summary.setLastActivityAt(chat.getLastActivityAt());
+        return summary;
+    }
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMemberId() {
+        return memberId;
+    }
+
+    public void setMemberId(String memberId) {
+        this.memberId = memberId;
+    }
+
+    public String getMemberName() {
+        return memberName;
+    }
+
+    public void setMemberName(String memberName) {
+        this.memberName = memberName;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public void setLastMessagePreview(String lastMessagePreview) {
+        this.lastMessagePreview = lastMessagePreview;
+    }
+
+    public Role getLastMessageSenderRole() {
+        return lastMessageSenderRole;
+    }
+
+    public void setLastMessageSenderRole(Role lastMessageSenderRole) {
+        this.lastMessageSenderRole = lastMessageSenderRole;
+    }
+
+    public int getMessageCount() {
+        return messageCount;
+    }
+
+    public void setMessageCount(int messageCount) {
+        this.messageCount = messageCount;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(int unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+}
@@ -0,0 +1,50 @@
+package com.limitbeyond.dto.dietchat;
+
+import com.limitbeyond.model.DietChat;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Opaque keyset position (lastActivityAt, id) handed to clients as "nextCursor"
+public class InboxCursor {
+    private final LocalDateTime lastActivityAt;
+    private final String id;
+
+    public InboxCursor(LocalDateTime lastActivityAt, String id) {
+        this.lastActivityAt = lastActivityAt;
+        this.id = id;
+    }
+
+    public static InboxCursor after(DietChat chat) {
+        return new InboxCursor(chat.getLastActivityAt(), chat.getId());
+    }
+
+    public static InboxCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            String id = raw.substring(sep + 1);
+            if (!ObjectId.isValid(id)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new InboxCursor(LocalDateTime.parse(raw.substring(0, sep)), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = lastActivityAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
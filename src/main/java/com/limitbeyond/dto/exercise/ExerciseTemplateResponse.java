@@ -1,5 +1,6 @@
 package com.limitbeyond.dto.exercise;
 
+import com.limitbeyond.model.ExerciseSnapshot;
 import com.limitbeyond.model.ExerciseTemplate;
 import com.limitbeyond.model.MuscleGroup;
 
@@ -42,6 +43,26 @@ public class ExerciseTemplateResponse {
         }
     }
 
+    // Constructor from the exercise snapshot embedded in a workout set
+    public ExerciseTemplateResponse(ExerciseSnapshot snapshot) {
+        this.id = snapshot.getId();
+        this.name = snapshot.getName();
+        this.description = snapshot.getDescription();
+        this.requiresWeight = snapshot.getRequiresWeight() != null ? snapshot.getRequiresWeight() : true;
+
+        this.muscleGroups = new ArrayList<>();
+        if (snapshot.getPrimaryMuscleGroup() != null) {
+            this.muscleGroups.add(new MuscleGroupDto(
+                    snapshot.getPrimaryMuscleGroup().getId(),
+                    snapshot.getPrimaryMuscleGroup().getName()));
+        }
+        if (snapshot.getSecondaryMuscleGroup() != null) {
+            this.muscleGroups.add(new MuscleGroupDto(
+                    snapshot.getSecondaryMuscleGroup().getId(),
+                    snapshot.getSecondaryMuscleGroup().getName()));
+        }
+    }
+
     // Static method to convert a list of templates
     public static List<ExerciseTemplateResponse> fromTemplateList(List<ExerciseTemplate> templates) {
         List<ExerciseTemplateResponse> responses = new ArrayList<>();
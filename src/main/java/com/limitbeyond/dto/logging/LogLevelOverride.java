@@ -0,0 +1,57 @@
+package com.limitbeyond.dto.logging;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+// A temporary logger level; previousLevel is null when the logger inherited its level
+public class LogLevelOverride {
+    private String logger;
+    private String level;
+    private String previousLevel;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime expiresAt;
+
+    public LogLevelOverride() {
+    }
+
+    public LogLevelOverride(String logger, String level, String previousLevel, LocalDateTime expiresAt) {
+        this.logger = logger;
+        this.level = level;
+        this.previousLevel = previousLevel;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and setters
+    public String getLogger() {
+        return logger;
+    }
+
+    public void setLogger(String logger) {
+        this.logger = logger;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public void setLevel(String level) {
+        this.level = level;
+    }
+
+    public String getPreviousLevel() {
+        return previousLevel;
+    }
+
+    public void setPreviousLevel(String previousLevel) {
+        this.previousLevel = previousLevel;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
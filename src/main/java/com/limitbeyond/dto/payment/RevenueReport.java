@@ -0,0 +1,232 @@
+package com.limitbeyond.dto.payment;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Revenue for a date range, broken down by time bucket, plan length and trainer
+public class RevenueReport {
+
+    public enum Granularity {
+        DAY, WEEK, MONTH
+    }
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime start;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime end;
+
+    private Granularity granularity;
+    private double total;
+    private long count;
+    private List<PeriodRevenue> periods = new ArrayList<>();
+    private List<PlanRevenue> plans = new ArrayList<>();
+    private List<TrainerRevenue> trainers = new ArrayList<>();
+
+    public RevenueReport() {
+    }
+
+    public RevenueReport(LocalDateTime start, LocalDateTime end, Granularity granularity) {
+        this.start = start;
+        this.end = end;
+        this.granularity = granularity;
+    }
+
+    // Nested class for a day, week (starting Monday) or month bucket
+    public static class PeriodRevenue {
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        private LocalDateTime period;
+        private double total;
+        private long count;
+
+        public PeriodRevenue() {
+        }
+
+        public PeriodRevenue(LocalDateTime period, double total, long count) {
+            this.period = period;
+            this.total = total;
+            this.count = count;
+        }
+
+        public LocalDateTime getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(LocalDateTime period) {
+            this.period = period;
+        }
+
+        public double getTotal() {
+            return total;
+        }
+
+        public void setTotal(double total) {
+            this.total = total;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+
+    // Nested class for revenue per plan length in months
+    public static class PlanRevenue {
+        private int months;
+        private double total;
+        private long count;
+
+        public PlanRevenue() {
+        }
+
+        public PlanRevenue(int months, double total, long count) {
+            this.months = months;
+            this.total = total;
+            this.count = count;
+        }
+
+        public int getMonths() {
+            return months;
+        }
+
+        public void setMonths(int months) {
+            this.months = months;
+        }
+
+        public double getTotal() {
+            return total;
+        }
+
+        public void setTotal(double total) {
+            this.total = total;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+
+    // Nested class for revenue attributed to a trainer; trainerId is null for
+    // members without a trainer
+    public static class TrainerRevenue {
+        private String trainerId;
+        private String trainerName;
+        private double total;
+        private long count;
+
+        public TrainerRevenue() {
+        }
+
+        public TrainerRevenue(String trainerId, double total, long count) {
+            this.trainerId = trainerId;
+            this.total = total;
+            this.count = count;
+        }
+
+        public String getTrainerId() {
+            return trainerId;
+        }
+
+        public void setTrainerId(String trainerId) {
+            this.trainerId = trainerId;
+        }
+
+        public String getTrainerName() {
+            return trainerName;
+        }
+
+        public void setTrainerName(String trainerName) {
+            this.trainerName = trainerName;
+        }
+
+        public double getTotal() {
+            return total;
+        }
+
+        public void setTotal(double total) {
+            this.total = total;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+
+    // Getters and setters
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDateTime start) {
+        this.start = start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public void setEnd(LocalDateTime end) {
+        this.end = end;
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public void setTotal(double total) {
+        this.total = total;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public List<PeriodRevenue> getPeriods() {
+        return periods;
+    }
+
+    public void setPeriods(List<PeriodRevenue> periods) {
+        this.periods = periods;
+    }
+
+    public List<PlanRevenue> getPlans() {
+        return plans;
+    }
+
+    public void setPlans(List<PlanRevenue> plans) {
+        this.plans = plans;
+    }
+
+    public List<TrainerRevenue> getTrainers() {
+        return trainers;
+    }
+
+    public void setTrainers(List<TrainerRevenue> trainers) {
+        this.trainers = trainers;
+    }
+}
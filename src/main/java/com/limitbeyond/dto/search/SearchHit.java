@@ -0,0 +1,75 @@
+package com.limitbeyond.dto.search;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+// One matching diet chat or feedback thread; fetch it by type and id
+public class SearchHit {
+    private ThreadType type;
+    private String id;
+    private String memberId;
+    private String title;
+    private double score;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime lastActivityAt;
+
+    public SearchHit(ThreadType type, String id, String memberId, String title, double score,
+            LocalDateTime lastActivityAt) {
+        this.type = type;
+        this.id = id;
+        this.memberId = memberId;
+        this.title = title;
+        this.score = score;
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    // Getters and setters
+    public ThreadType getType() {
+        return type;
+    }
+
+    public void setType(ThreadType type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getMemberId() {
+        return memberId;
+    }
+
+    public void setMemberId(String memberId) {
+        this.memberId = memberId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+}
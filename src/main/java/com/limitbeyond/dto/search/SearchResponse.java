@@ -0,0 +1,60 @@
+package com.limitbeyond.dto.search;
+
+import java.util.List;
+
+public class SearchResponse {
+    private List<SearchHit> results;
+    private int page;
+    private int size;
+    private int total; // Matching threads the viewer may see
+    private boolean hasNext;
+
+    public SearchResponse(List<SearchHit> results, int page, int size, int total) {
+        this.results = results;
+        this.page = page;
+        this.size = size;
+        this.total = total;
+        this.hasNext = (long) (page + 1) * size < total;
+    }
+
+    // Getters and setters
+    public List<SearchHit> getResults() {
+        return results;
+    }
+
+    public void setResults(List<SearchHit> results) {
+        this.results = results;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,6 @@
+package com.limitbeyond.dto.search;
+
+public enum ThreadType {
+    DIET_CHAT,
+    FEEDBACK
+}
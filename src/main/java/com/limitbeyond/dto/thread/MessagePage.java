@@ -0,0 +1,42 @@
+package com.limitbeyond.dto.thread;
+
+import java.util.List;
+
+// One page of a thread, oldest message first. Pass "before" back to load the
+// next older page; it is null once the start of the thread is reached.
+public class MessagePage<T> {
+    private List<T> messages;
+    private Integer before;
+    private boolean hasMore;
+
+    public MessagePage(List<T> messages, Integer before) {
+        this.messages = messages;
+        this.before = before;
+        this.hasMore = before != null;
+    }
+
+    // Getters and setters
+    public List<T> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<T> messages) {
+        this.messages = messages;
+    }
+
+    public Integer getBefore() {
+        return before;
+    }
+
+    public void setBefore(Integer before) {
+        this.before = before;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
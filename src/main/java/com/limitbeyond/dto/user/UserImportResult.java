@@ -0,0 +1,111 @@
+package com.limitbeyond.dto.user;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of a bulk user import, with one entry per input row in input order
+public class UserImportResult {
+
+    public enum Status {
+        CREATED, DUPLICATE, INVALID, FAILED
+    }
+
+    private int total;
+    private int created;
+    private int skipped;
+    private List<RowResult> rows = new ArrayList<>();
+
+    public UserImportResult() {
+    }
+
+    // Nested class for a single row; row numbers start at 1 (the first data line
+    // for CSV, the first array element for JSON)
+    public static class RowResult {
+        private int row;
+        private String username;
+        private Status status;
+        private String message;
+        private String id;
+
+        public RowResult() {
+        }
+
+        public RowResult(int row, String username) {
+            this.row = row;
+            this.username = username;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public void setRow(int row) {
+            this.row = row;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public void setStatus(Status status) {
+            this.status = status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+    }
+
+    // Getters and setters
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+
+    public List<RowResult> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<RowResult> rows) {
+        this.rows = rows;
+    }
+}
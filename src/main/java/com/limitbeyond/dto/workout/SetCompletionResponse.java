@@ -0,0 +1,84 @@
+package com.limitbeyond.dto.workout;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+// Lightweight result of toggling a single set, returned instead of the full workout
+public class SetCompletionResponse {
+    private String workoutId;
+    private String setId;
+    private boolean setCompleted;
+    private boolean workoutCompleted;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime workoutCompletedDate;
+
+    private int completedSets;
+    private int totalSets;
+
+    public SetCompletionResponse() {
+    }
+
+    public SetCompletionResponse(String workoutId, String setId, boolean setCompleted) {
+        this.workoutId = workoutId;
+        this.setId = setId;
+        this.setCompleted = setCompleted;
+    }
+
+    // Getters and setters
+    public String getWorkoutId() {
+        return workoutId;
+    }
+
+    public void setWorkoutId(String workoutId) {
+        this.workoutId = workoutId;
+    }
+
+    public String getSetId() {
+        return setId;
+    }
+
+    public void setSetId(String setId) {
+        this.setId = setId;
+    }
+
+    public boolean isSetCompleted() {
+        return setCompleted;
+    }
+
+    public void setSetCompleted(boolean setCompleted) {
+        this.setCompleted = setCompleted;
+    }
+
+    public boolean isWorkoutCompleted() {
+        return workoutCompleted;
+    }
+
+    public void setWorkoutCompleted(boolean workoutCompleted) {
+        this.workoutCompleted = workoutCompleted;
+    }
+
+    public LocalDateTime getWorkoutCompletedDate() {
+        return workoutCompletedDate;
+    }
+
+    public void setWorkoutCompletedDate(LocalDateTime workoutCompletedDate) {
+        this.workoutCompletedDate = workoutCompletedDate;
+    }
+
+    public int getCompletedSets() {
+        return completedSets;
+    }
+
+    public void setCompletedSets(int completedSets) {
+        this.completedSets = completedSets;
+    }
+
+    public int getTotalSets() {
+        return totalSets;
+    }
+
+    public void setTotalSets(int totalSets) {
+        this.totalSets = totalSets;
+    }
+}
@@ -0,0 +1,53 @@
+package com.limitbeyond.dto.workout;
+
+import com.limitbeyond.model.Workout;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Opaque keyset position (scheduledDate, id) handed to clients as "nextCursor"
+public class WorkoutCursor {
+    private static final String NO_DATE = "-";
+
+    private final LocalDateTime scheduledDate;
+    private final String id;
+
+    public WorkoutCursor(LocalDateTime scheduledDate, String id) {
+        this.scheduledDate = scheduledDate;
+        this.id = id;
+    }
+
+    public static WorkoutCursor after(Workout workout) {
+        return new WorkoutCursor(workout.getScheduledDate(), workout.getId());
+    }
+
+    public static WorkoutCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            String date = raw.substring(0, sep);
+            String id = raw.substring(sep + 1);
+            if (!ObjectId.isValid(id)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new WorkoutCursor(NO_DATE.equals(date) ? null : LocalDateTime.parse(date), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = (scheduledDate != null ? scheduledDate.toString() : NO_DATE) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getScheduledDate() {
+        return scheduledDate;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
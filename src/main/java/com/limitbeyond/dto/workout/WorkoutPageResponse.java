@@ -0,0 +1,40 @@
+package com.limitbeyond.dto.workout;
+
+import java.util.List;
+
+public class WorkoutPageResponse {
+    private List<WorkoutResponse> items;
+    private String nextCursor; // null when there are no more pages
+    private boolean hasNext;
+
+    public WorkoutPageResponse(List<WorkoutResponse> items, String nextCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    // Getters and setters
+    public List<WorkoutResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<WorkoutResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
@@ -157,7 +157,7 @@ public class WorkoutResponse {
         public static WorkoutSetResponse fromWorkoutSet(WorkoutSet set) {
             WorkoutSetResponse response = new WorkoutSetResponse();
             response.setId(set.getId());
-            response.setExercise(new ExerciseTemplateResponse(set.getExercise()));
+            response.setExercise(set.getExercise() != null ? new ExerciseTemplateResponse(set.getExercise()) : null);
             response.setReps(set.getReps());
             response.setWeight(set.getWeight());
             response.setNotes(set.getNotes());
@@ -1,14 +1,19 @@
 package com.limitbeyond.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.IndexDirection;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
 @Document(collection = "checkins")
+@CompoundIndex(name = "userId_occurredAt", def = "{'userId': 1, 'occurredAt': -1}")
 public class Checkin {
     @Id
     private String id;
     private String userId;
+    @Indexed(direction = IndexDirection.DESCENDING)
     private LocalDateTime occurredAt;
 
     public Checkin() {
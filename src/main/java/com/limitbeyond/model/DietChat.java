@@ -1,12 +1,17 @@
 package com.limitbeyond.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Document(collection = "diet_chats")
+@CompoundIndex(name = "memberId_createdAt", def = "{'memberId': 1, 'createdAt': -1}")
+@CompoundIndex(name = "memberId_lastActivityAt", def = "{'memberId': 1, 'lastActivityAt': -1, '_id': -1}")
+@CompoundIndex(name = "lastActivityAt", def = "{'lastActivityAt': -1, '_id': -1}")
 public class DietChat {
     @Id
     private String id;
@@ -14,11 +19,27 @@ public class DietChat {
     private String title;
     private String initialQuery;
     private LocalDateTime createdAt;
-    private List<DietChatMessage> messages = new ArrayList<>();
+    private List<DietChatMessage> messages = new ArrayList<>(); // Newest page only
+    private int bucketCount; // Older pages in diet_chat_message_buckets
+
+    // Bumped by every write to the chat; clients can send it back to detect a
+    // stale title edit
+    @Version
+    private Long version;
+
+    // Inbox summary, kept in step with messages so the inbox never loads them
+    private LocalDateTime lastActivityAt;
+    private String lastMessageId;
+    private String lastMessagePreview;
+    private Role lastMessageSenderRole;
+    private int messageCount; // Including messages in buckets
+    private int unreadForMember; // Staff replies the member has not opened yet
+    private int unreadForTrainer; // Member messages no trainer or admin has opened yet
 
     // Default constructor
     public DietChat() {
         this.createdAt = LocalDateTime.now();
+        this.lastActivityAt = this.createdAt;
     }
 
     // Getters
@@ -46,6 +67,42 @@ public class DietChat {
         return messages;
     }
 
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public String getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public Role getLastMessageSenderRole() {
+        return lastMessageSenderRole;
+    }
+
+    public int getMessageCount() {
+        return messageCount;
+    }
+
+    public int getUnreadForMember() {
+        return unreadForMember;
+    }
+
+    public int getUnreadForTrainer() {
+        return unreadForTrainer;
+    }
+
     // Setters
     public void setId(String id) {
         this.id = id;
@@ -71,13 +128,51 @@ public class DietChat {
         this.messages = messages;
     }
 
+    public void setBucketCount(int bucketCount) {
+        this.bucketCount = bucketCount;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public void setLastMessageId(String lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public void setLastMessagePreview(String lastMessagePreview) {
+        this.lastMessagePreview = lastMessagePreview;
+    }
+
+    public void setLastMessageSenderRole(Role lastMessageSenderRole) {
+        this.lastMessageSenderRole = lastMessageSenderRole;
+    }
+
+    public void setMessageCount(int messageCount) {
+        this.messageCount = messageCount;
+    }
+
+    public void setUnreadForMember(int unreadForMember) {
+        this.unreadForMember = unreadForMember;
+    }
+
+    public void setUnreadForTrainer(int unreadForTrainer) {
+        this.unreadForTrainer = unreadForTrainer;
+    }
+
     // Static inner class for chat messages
     public static class DietChatMessage {
+        private String id; // Stable across edits and deletes of other messages
         private String senderId;
         private String content;
         private LocalDateTime timestamp;
         private Role senderRole;
         private boolean edited;
+        private long version; // Bumped on each edit, for optimistic checks
 
         public DietChatMessage() {
             this.timestamp = LocalDateTime.now();
@@ -85,6 +180,10 @@ public class DietChat {
         }
 
         // Getters
+        public String getId() {
+            return id;
+        }
+
         public String getSenderId() {
             return senderId;
         }
@@ -105,7 +204,15 @@ public class DietChat {
             return edited;
         }
 
+        public long getVersion() {
+            return version;
+        }
+
         // Setters
+        public void setId(String id) {
+            this.id = id;
+        }
+
         public void setSenderId(String senderId) {
             this.senderId = senderId;
         }
@@ -125,5 +232,9 @@ public class DietChat {
         public void setEdited(boolean edited) {
             this.edited = edited;
         }
+
+        public void setVersion(long version) {
+            this.version = version;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.limitbeyond.model;
+
+/**
+ * Copy of the exercise template fields a workout set needs, stored inside the
+ * embedded set so reading a workout does not resolve a template (and its muscle
+ * groups) per set.
+ */
+public class ExerciseSnapshot {
+    private String id;
+    private String name;
+    private String description;
+    private Boolean requiresWeight;
+    private MuscleGroupSummary primaryMuscleGroup;
+    private MuscleGroupSummary secondaryMuscleGroup;
+
+    // Default constructor
+    public ExerciseSnapshot() {
+    }
+
+    public static ExerciseSnapshot from(ExerciseTemplate template) {
+        ExerciseSnapshot snapshot = new ExerciseSnapshot();
+        snapshot.setId(template.getId());
+        snapshot.setName(template.getName());
+        snapshot.setDescription(template.getDescription());
+        snapshot.setRequiresWeight(template.getRequiresWeight());
+        snapshot.setPrimaryMuscleGroup(MuscleGroupSummary.from(template.getPrimaryMuscleGroup()));
+        snapshot.setSecondaryMuscleGroup(MuscleGroupSummary.from(template.getSecondaryMuscleGroup()));
+        return snapshot;
+    }
+
+    // Plain copy of a muscle group; the MuscleGroup entity itself is not embedded so
+    // its indexes are not replicated onto the workouts collection
+    public static class MuscleGroupSummary {
+        private String id;
+        private String name;
+
+        public MuscleGroupSummary() {
+        }
+
+        public MuscleGroupSummary(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public static MuscleGroupSummary from(MuscleGroup muscleGroup) {
+            return muscleGroup != null ? new MuscleGroupSummary(muscleGroup.getId(), muscleGroup.getName()) : null;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Boolean getRequiresWeight() {
+        return requiresWeight;
+    }
+
+    public void setRequiresWeight(Boolean requiresWeight) {
+        this.requiresWeight = requiresWeight;
+    }
+
+    public MuscleGroupSummary getPrimaryMuscleGroup() {
+        return primaryMuscleGroup;
+    }
+
+    public void setPrimaryMuscleGroup(MuscleGroupSummary primaryMuscleGroup) {
+        this.primaryMuscleGroup = primaryMuscleGroup;
+    }
+
+    public MuscleGroupSummary getSecondaryMuscleGroup() {
+        return secondaryMuscleGroup;
+    }
+
+    public void setSecondaryMuscleGroup(MuscleGroupSummary secondaryMuscleGroup) {
+        this.secondaryMuscleGroup = secondaryMuscleGroup;
+    }
+}
@@ -1,6 +1,7 @@
 package com.limitbeyond.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -9,11 +10,14 @@ public class ExerciseTemplate {
     @Id
     private String id;
 
+    @Indexed
     private String name;
 
+    @Indexed
     @DBRef(lazy = false)
     private MuscleGroup primaryMuscleGroup;
 
+    @Indexed
     @DBRef(lazy = false)
     private MuscleGroup secondaryMuscleGroup;
 
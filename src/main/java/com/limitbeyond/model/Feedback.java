@@ -1,12 +1,15 @@
 package com.limitbeyond.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Document(collection = "feedback")
+@CompoundIndex(name = "memberId_createdAt", def = "{'memberId': 1, 'createdAt': -1}")
 public class Feedback {
     @Id
     private String id;
@@ -14,7 +17,13 @@ public class Feedback {
     private String title;
     private String content;
     private LocalDateTime createdAt;
-    private List<FeedbackResponse> responses = new ArrayList<>();
+    private List<FeedbackResponse> responses = new ArrayList<>(); // Newest page only
+    private int bucketCount; // Older pages in feedback_response_buckets
+    private int responseCount; // Including responses in buckets
+    private LocalDateTime lastResponseAt;
+
+    @Version
+    private Long version;
 
     // Default constructor
     public Feedback() {
@@ -46,6 +55,22 @@ public class Feedback {
         return responses;
     }
 
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public int getResponseCount() {
+        return responseCount;
+    }
+
+    public LocalDateTime getLastResponseAt() {
+        return lastResponseAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
     // Setters
     public void setId(String id) {
         this.id = id;
@@ -71,8 +96,25 @@ public class Feedback {
         this.responses = responses;
     }
 
+    public void setBucketCount(int bucketCount) {
+        this.bucketCount = bucketCount;
+    }
+
+    public void setResponseCount(int responseCount) {
+        this.responseCount = responseCount;
+    }
+
+    public void setLastResponseAt(LocalDateTime lastResponseAt) {
+        this.lastResponseAt = lastResponseAt;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Static inner class for feedback responses
     public static class FeedbackResponse {
+        private String id; // Stable across edits and deletes of other responses
         private String responderId;
         private String content;
         private LocalDateTime responseTime;
@@ -82,6 +124,10 @@ public class Feedback {
         }
 
         // Getters
+        public String getId() {
+            return id;
+        }
+
         public String getResponderId() {
             return responderId;
         }
@@ -95,6 +141,10 @@ public class Feedback {
         }
 
         // Setters
+        public void setId(String id) {
+            this.id = id;
+        }
+
         public void setResponderId(String responderId) {
             this.responderId = responderId;
         }
@@ -0,0 +1,10 @@
+package com.limitbeyond.model;
+
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Document(collection = "feedback_response_buckets")
+@CompoundIndex(name = "threadId_seq", def = "{'threadId': 1, 'seq': -1}", unique = true)
+@CompoundIndex(name = "threadId_responseId", def = "{'threadId': 1, 'messages._id': 1}")
+public class FeedbackResponseBucket extends MessageBucket<Feedback.FeedbackResponse> {
+}
@@ -0,0 +1,70 @@
+package com.limitbeyond.model;
+
+import org.springframework.data.annotation.Id;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One archived page of a thread's messages. The thread document keeps only its
+ * newest page embedded; when that page is full it is moved here as bucket
+ * number bucketCount (0 is the oldest) and a new page is started.
+ */
+public abstract class MessageBucket<T> {
+    @Id
+    private String id;
+    private String threadId;
+    private int seq;
+    private List<T> messages = new ArrayList<>();
+    private Long sourceVersion; // Thread version the page was read at; unset for migrated pages
+    private LocalDateTime createdAt;
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getThreadId() {
+        return threadId;
+    }
+
+    public void setThreadId(String threadId) {
+        this.threadId = threadId;
+    }
+
+    public int getSeq() {
+        return seq;
+    }
+
+    public void setSeq(int seq) {
+        this.seq = seq;
+    }
+
+    public List<T> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<T> messages) {
+        this.messages = messages;
+    }
+
+    public Long getSourceVersion() {
+        return sourceVersion;
+    }
+
+    public void setSourceVersion(Long sourceVersion) {
+        this.sourceVersion = sourceVersion;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,6 +1,7 @@
 package com.limitbeyond.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "muscle_groups")
@@ -8,6 +9,7 @@ public class MuscleGroup {
     @Id
     private String id;
 
+    @Indexed
     private String name;
 
     // Constructors
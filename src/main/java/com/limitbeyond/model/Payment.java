@@ -1,17 +1,22 @@
 package com.limitbeyond.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
 @Document(collection = "payments")
+@CompoundIndex(name = "userId_paidAt", def = "{'userId': 1, 'paidAt': -1}")
 public class Payment {
     @Id
     private String id;
     private String userId;
     private int months; // duration in months
     private double amount;
+    @Indexed
     private LocalDateTime paidAt;
+    private String trainerId; // member's assigned trainer when the payment was recorded
 
     public Payment() {
     }
@@ -36,6 +41,10 @@ public class Payment {
         return paidAt;
     }
 
+    public String getTrainerId() {
+        return trainerId;
+    }
+
     public void setId(String id) {
         this.id = id;
     }
@@ -55,4 +64,8 @@ public class Payment {
     public void setPaidAt(LocalDateTime paidAt) {
         this.paidAt = paidAt;
     }
+
+    public void setTrainerId(String trainerId) {
+        this.trainerId = trainerId;
+    }
 }
@@ -0,0 +1,83 @@
+package com.limitbeyond.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+// Only the SHA-256 of the opaque token is stored. Every refresh replaces the token
+// with a new one in the same family; presenting a replaced token revokes the family.
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+    @Id
+    private String id;
+    @Indexed(unique = true)
+    private String tokenHash;
+    @Indexed
+    private String userId;
+    @Indexed
+    private String familyId;
+    private boolean revoked = false;
+    private LocalDateTime createdAt = LocalDateTime.now();
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+
+    public RefreshToken() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+
+    public void setRevoked(boolean revoked) {
+        this.revoked = revoked;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
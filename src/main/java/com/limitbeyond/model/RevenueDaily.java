@@ -0,0 +1,57 @@
+package com.limitbeyond.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+// Revenue rollup for one calendar day, keyed by "yyyy-MM-dd" so ids sort by date
+@Document(collection = "revenue_daily")
+public class RevenueDaily {
+    @Id
+    private String day;
+    private double total;
+    private long count;
+    private LocalDateTime updatedAt;
+
+    public RevenueDaily() {
+    }
+
+    public RevenueDaily(String day, double total, long count) {
+        this.day = day;
+        this.total = total;
+        this.count = count;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public String getDay() {
+        return day;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setDay(String day) {
+        this.day = day;
+    }
+
+    public void setTotal(double total) {
+        this.total = total;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
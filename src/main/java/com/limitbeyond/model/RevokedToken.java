@@ -0,0 +1,61 @@
+package com.limitbeyond.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+// Access token revoked before its expiry; removed by the TTL index once it would
+// have expired anyway
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    @Id
+    private String id; // the token's jti
+    private String userId;
+    @Indexed
+    private LocalDateTime revokedAt;
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+
+    public RevokedToken() {
+    }
+
+    public RevokedToken(String id, String userId, LocalDateTime expiresAt) {
+        this.id = id;
+        this.userId = userId;
+        this.revokedAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public void setRevokedAt(LocalDateTime revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
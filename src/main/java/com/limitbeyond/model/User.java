@@ -1,15 +1,22 @@
 package com.limitbeyond.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Document(collection = "users")
+// Serves findByRolesContaining and findByRolesContainingAndActive
+@CompoundIndex(name = "roles_active", def = "{'roles': 1, 'active': 1}")
 public class User {
     @Id
     private String id;
+    @Indexed
     private String username;
+    @Indexed
     private String email;
     private String password;
     private String firstName;
@@ -19,6 +26,9 @@ public class User {
     private boolean active = false;
     private String assignedTrainer; // Only for MEMBER role
     private Set<String> assignedMembers = new HashSet<>(); // Only for TRAINER role
+    private int tokenVersion = 0; // Bumped to invalidate every token issued so far
+    @Indexed(sparse = true)
+    private LocalDateTime tokenVersionChangedAt;
 
     // Default constructor
     public User() {
@@ -65,6 +75,14 @@ public class User {
         return assignedTrainer;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public LocalDateTime getTokenVersionChangedAt() {
+        return tokenVersionChangedAt;
+    }
+
     public Set<String> getAssignedMembers() {
         return assignedMembers;
     }
@@ -113,4 +131,12 @@ public class User {
     public void setAssignedMembers(Set<String> assignedMembers) {
         this.assignedMembers = assignedMembers;
     }
-}
\ No newline at end of file
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
+    public void setTokenVersionChangedAt(LocalDateTime tokenVersionChangedAt) {
+        this.tokenVersionChangedAt = tokenVersionChangedAt;
+    }
+}
@@ -1,6 +1,7 @@
 package com.limitbeyond.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
@@ -8,6 +9,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Document(collection = "workouts")
+// Serves member history and its keyset pagination (scheduledDate desc, _id desc)
+@CompoundIndex(name = "member_scheduledDate_id", def = "{'member': 1, 'scheduledDate': -1, '_id': -1}")
+// Serves /by-muscle-group: equality on member and a target muscle group, then the same ordering
+@CompoundIndex(name = "member_targetMuscleGroups_scheduledDate_id",
+        def = "{'member': 1, 'targetMuscleGroups': 1, 'scheduledDate': -1, '_id': -1}")
+// Serves findByTrainer and findByTrainerAndScheduledDateBetween
+@CompoundIndex(name = "trainer_scheduledDate", def = "{'trainer': 1, 'scheduledDate': -1}")
 public class Workout {
     @Id
     private String id;
@@ -21,7 +29,7 @@ public class Workout {
     private String name;
     private String description;
 
-    @DBRef
+    // Embedded so a workout and its sets are read and written as one document
     private List<WorkoutSet> sets = new ArrayList<>();
 
     // New: explicitly store target muscle groups selected for this workout
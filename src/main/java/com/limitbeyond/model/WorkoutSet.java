@@ -1,16 +1,15 @@
 package com.limitbeyond.model;
 
+import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.DBRef;
-import org.springframework.data.mongodb.core.mapping.Document;
 
-@Document(collection = "workout_sets")
+// Embedded inside Workout.sets; the legacy workout_sets collection is only read by
+// WorkoutSetMigration
 public class WorkoutSet {
     @Id
     private String id;
 
-    @DBRef
-    private ExerciseTemplate exercise;
+    private ExerciseSnapshot exercise;
 
     private int reps;
     private Double weight; // Optional, may be null for bodyweight exercises
@@ -26,6 +25,12 @@ public class WorkoutSet {
 
     // Constructor with required fields
     public WorkoutSet(ExerciseTemplate exercise, int reps) {
+        this(ExerciseSnapshot.from(exercise), reps);
+    }
+
+    public WorkoutSet(ExerciseSnapshot exercise, int reps) {
+        // Embedded documents do not get an id from Mongo, so assign one up front
+        this.id = new ObjectId().toHexString();
         this.exercise = exercise;
         this.reps = reps;
         this.completed = false;
@@ -40,11 +45,11 @@ public class WorkoutSet {
         this.id = id;
     }
 
-    public ExerciseTemplate getExercise() {
+    public ExerciseSnapshot getExercise() {
         return exercise;
     }
 
-    public void setExercise(ExerciseTemplate exercise) {
+    public void setExercise(ExerciseSnapshot exercise) {
         this.exercise = exercise;
     }
 
@@ -3,11 +3,19 @@ package com.limitbeyond.payload;
 public class JwtAuthenticationResponse {
     private String token;
     private String tokenType = "Bearer";
+    private String refreshToken;
+    private Long expiresIn; // access token lifetime in seconds
 
     public JwtAuthenticationResponse(String token) {
         this.token = token;
     }
 
+    public JwtAuthenticationResponse(String token, String refreshToken, long expiresIn) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+
     public String getToken() {
         return token;
     }
@@ -23,4 +31,20 @@ public class JwtAuthenticationResponse {
     public void setTokenType(String tokenType) {
         this.tokenType = tokenType;
     }
-}
\ No newline at end of file
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public Long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(Long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+}
@@ -1,6 +1,7 @@
 package com.limitbeyond.repository;
 
 import com.limitbeyond.model.Checkin;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -8,6 +9,11 @@ import java.util.List;
 public interface CheckinRepository extends MongoRepository<Checkin, String> {
     List<Checkin> findByUserIdOrderByOccurredAtDesc(String userId);
 
+    // Top-N reads walk the occurredAt / userId_occurredAt indexes and stop after limit documents
+    List<Checkin> findAllByOrderByOccurredAtDesc(Limit limit);
+
+    List<Checkin> findByUserIdOrderByOccurredAtDesc(String userId, Limit limit);
+
     List<Checkin> findByOccurredAtBetweenOrderByOccurredAtDesc(LocalDateTime start, LocalDateTime end);
 
     List<Checkin> findByUserIdAndOccurredAtBetweenOrderByOccurredAtDesc(String userId, LocalDateTime start,
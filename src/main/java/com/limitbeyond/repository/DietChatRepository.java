@@ -2,10 +2,13 @@ package com.limitbeyond.repository;
 
 import com.limitbeyond.model.DietChat;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.Collection;
 import java.util.List;
 
 public interface DietChatRepository extends MongoRepository<DietChat, String> {
     List<DietChat> findByMemberId(String memberId);
 
     List<DietChat> findByMemberIdOrderByCreatedAtDesc(String memberId);
+
+    List<DietChat> findByMemberIdInOrderByCreatedAtDesc(Collection<String> memberIds);
 }
\ No newline at end of file
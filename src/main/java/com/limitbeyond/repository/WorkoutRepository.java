@@ -3,11 +3,13 @@ package com.limitbeyond.repository;
 import com.limitbeyond.model.MuscleGroup;
 import com.limitbeyond.model.User;
 import com.limitbeyond.model.Workout;
+import org.springframework.data.domain.Range;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface WorkoutRepository extends MongoRepository<Workout, String> {
+public interface WorkoutRepository extends MongoRepository<Workout, String>, WorkoutRepositoryCustom {
     // Find workouts by member
     List<Workout> findByMember(User member);
 
@@ -26,6 +28,13 @@ public interface WorkoutRepository extends MongoRepository<Workout, String> {
     // Find incomplete workouts for a member
     List<Workout> findByMemberAndCompletedFalse(User member);
 
+    // Cursor-backed stream of a member's history, newest first; callers must close it
+    Stream<Workout> streamByMemberOrderByScheduledDateDescIdDesc(User member);
+
     // New: find by member and containing target muscle group
     List<Workout> findByMemberAndTargetMuscleGroupsContaining(User member, MuscleGroup muscleGroup);
+
+    // Same, limited to a scheduledDate range whose bounds may be open
+    List<Workout> findByMemberAndTargetMuscleGroupsContainingAndScheduledDateBetween(User member,
+            MuscleGroup muscleGroup, Range<LocalDateTime> scheduledDate);
 }
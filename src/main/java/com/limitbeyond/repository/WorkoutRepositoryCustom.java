@@ -0,0 +1,18 @@
+package com.limitbeyond.repository;
+
+import com.limitbeyond.model.MuscleGroup;
+import com.limitbeyond.model.User;
+import com.limitbeyond.model.Workout;
+import org.springframework.data.domain.Slice;
+import java.time.LocalDateTime;
+
+public interface WorkoutRepositoryCustom {
+    // Keyset page of a member's workouts ordered by scheduledDate desc, id desc.
+    // Pass a null id for the first page; otherwise the last row of the previous page.
+    Slice<Workout> findByMemberBefore(User member, LocalDateTime scheduledDate, String id, int size);
+
+    // Same ordering and cursor, restricted to one target muscle group and optional
+    // inclusive scheduledDate bounds
+    Slice<Workout> findByMemberAndMuscleGroupBefore(User member, MuscleGroup muscleGroup, LocalDateTime from,
+            LocalDateTime to, LocalDateTime scheduledDate, String id, int size);
+}
@@ -0,0 +1,79 @@
+package com.limitbeyond.repository;
+
+import com.limitbeyond.model.MuscleGroup;
+import com.limitbeyond.model.User;
+import com.limitbeyond.model.Workout;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class WorkoutRepositoryCustomImpl implements WorkoutRepositoryCustom {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "scheduledDate")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Slice<Workout> findByMemberBefore(User member, LocalDateTime scheduledDate, String id, int size) {
+        List<Criteria> filters = new ArrayList<>();
+        filters.add(Criteria.where("member").is(member));
+        addCursor(filters, scheduledDate, id);
+        return findSlice(filters, size);
+    }
+
+    @Override
+    public Slice<Workout> findByMemberAndMuscleGroupBefore(User member, MuscleGroup muscleGroup, LocalDateTime from,
+            LocalDateTime to, LocalDateTime scheduledDate, String id, int size) {
+        List<Criteria> filters = new ArrayList<>();
+        filters.add(Criteria.where("member").is(member));
+        filters.add(Criteria.where("targetMuscleGroups").is(muscleGroup));
+        if (from != null && to != null) {
+            filters.add(Criteria.where("scheduledDate").gte(from).lte(to));
+        } else if (from != null) {
+            filters.add(Criteria.where("scheduledDate").gte(from));
+        } else if (to != null) {
+            filters.add(Criteria.where("scheduledDate").lte(to));
+        }
+        addCursor(filters, scheduledDate, id);
+        return findSlice(filters, size);
+    }
+
+    private void addCursor(List<Criteria> filters, LocalDateTime scheduledDate, String id) {
+        if (id == null) {
+            return;
+        }
+        ObjectId lastId = new ObjectId(id);
+        if (scheduledDate != null) {
+            // Unscheduled workouts sort after every dated one in descending order
+            filters.add(new Criteria().orOperator(
+                    Criteria.where("scheduledDate").lt(scheduledDate),
+                    Criteria.where("scheduledDate").is(scheduledDate).and("id").lt(lastId),
+                    Criteria.where("scheduledDate").is(null)));
+        } else {
+            filters.add(Criteria.where("scheduledDate").is(null).and("id").lt(lastId));
+        }
+    }
+
+    private Slice<Workout> findSlice(List<Criteria> filters, int size) {
+        // Fetch one extra row to know whether another page exists
+        Query query = Query.query(new Criteria().andOperator(filters)).with(NEWEST_FIRST).limit(size + 1);
+        List<Workout> rows = mongoTemplate.find(query, Workout.class);
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+        return new SliceImpl<>(rows, PageRequest.of(0, size, NEWEST_FIRST), hasNext);
+    }
+}
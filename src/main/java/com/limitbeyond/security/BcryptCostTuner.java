@@ -0,0 +1,67 @@
+package com.limitbeyond.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the BCrypt cost for this host. Unless auth.bcrypt.cost pins it, a few
+ * hashes are timed at the minimum cost on startup and the cost is raised while a
+ * verify stays within auth.bcrypt.target-ms (each step doubles the work).
+ */
+@Component
+public class BcryptCostTuner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BcryptCostTuner.class);
+
+    private static final int SAMPLES = 3;
+
+    @Value("${auth.bcrypt.cost:0}")
+    private int fixedCost;
+
+    @Value("${auth.bcrypt.target-ms:250}")
+    private long targetMs;
+
+    @Value("${auth.bcrypt.min-cost:10}")
+    private int minCost;
+
+    @Value("${auth.bcrypt.max-cost:14}")
+    private int maxCost;
+
+    private volatile int cost;
+
+    public int cost() {
+        if (cost == 0) {
+            synchronized (this) {
+                if (cost == 0) {
+                    cost = fixedCost > 0 ? fixedCost : tune();
+                }
+            }
+        }
+        return cost;
+    }
+
+    private int tune() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minCost);
+        String hash = encoder.encode("warm-up");
+        encoder.matches("warm-up", hash);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < SAMPLES; i++) {
+            encoder.matches("warm-up", hash);
+        }
+        double sampleMs = Math.max(0.1, (System.nanoTime() - started) / 1_000_000.0 / SAMPLES);
+
+        int tuned = minCost;
+        double expectedMs = sampleMs;
+        while (tuned < maxCost && expectedMs * 2 <= targetMs) {
+            tuned++;
+            expectedMs *= 2;
+        }
+        logger.info("BCrypt cost {} (verify at cost {} took {} ms, target {} ms)", tuned, minCost,
+                String.format("%.1f", sampleMs), targetMs);
+        return tuned;
+    }
+}
@@ -2,18 +2,30 @@ package com.limitbeyond.security;
 
 import com.limitbeyond.model.User;
 import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.service.UserCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
@@ -28,4 +40,17 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         return UserPrincipal.create(user);
     }
-}
\ No newline at end of file
+
+    // Called by DaoAuthenticationProvider with a fresh hash when the stored one is
+    // outdated (no {bcrypt} prefix or a lower cost than this host uses)
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) user;
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(principal.getId())),
+                new Update().set("password", newPassword), User.class);
+        userCacheService.evict(principal.getId());
+
+        return new UserPrincipal(principal.getId(), principal.getUsername(), principal.getEmail(), newPassword,
+                principal.getAuthorities(), principal.isEnabled(), principal.getTokenVersion());
+    }
+}
@@ -0,0 +1,44 @@
+package com.limitbeyond.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns an access token into its principal. Shared by the HTTP filter and the
+ * WebSocket CONNECT handshake so both accept exactly the same tokens.
+ */
+@Component
+public class JwtPrincipalResolver {
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    // Null when the token is invalid, expired, logged out or issued before a role change
+    public UserDetails resolve(String jwt) {
+        // One verify-and-parse per request (cached for recently seen tokens)
+        Claims claims = tokenProvider.parseClaims(jwt);
+        // Logged-out tokens; a Bloom filter miss answers without I/O
+        if (claims == null || tokenRevocationStore.isRevoked(claims.getId())) {
+            return null;
+        }
+        String userId = claims.getSubject();
+        Integer version = claims.get("ver", Integer.class);
+        if (version != null) {
+            // Principal comes straight from the signed claims; a revoked token fails here
+            return tokenVersionRegistry.isCurrent(userId, version) ? UserPrincipal.fromClaims(claims) : null;
+        }
+        // Tokens issued before claims carried a version
+        return customUserDetailsService.loadUserById(userId);
+    }
+}
@@ -2,14 +2,22 @@ package com.limitbeyond.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 @Component
 public class JwtTokenProvider {
@@ -20,12 +28,35 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private int jwtExpirationInMs;
 
+    // How long a verified token's claims are reused without re-checking the signature
+    @Value("${jwt.claims-cache.ttl-ms:30000}")
+    private long claimsCacheTtlMs;
+
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize;
+
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // SHA-256 of the token -> verified claims, so raw tokens are not kept in memory
+    private final Map<String, CachedClaims> claimsCache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
 
     public String generateToken(Authentication authentication) {
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return generateToken((UserPrincipal) authentication.getPrincipal());
+    }
+
+    public String generateToken(UserPrincipal userPrincipal) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
@@ -34,34 +65,97 @@ public class JwtTokenProvider {
                 .collect(Collectors.joining(","));
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userPrincipal.getId())
                 .claim("roles", roles)
                 .claim("username", userPrincipal.getUsername())
-                .setIssuedAt(new Date())
+                .claim("email", userPrincipal.getEmail())
+                .claim("ver", userPrincipal.getTokenVersion())
+                .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(getSigningKey())
                 .compact();
     }
 
-    public String getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public long getExpirationMs() {
+        return jwtExpirationInMs;
+    }
+
+    // Verifies the token once and returns its claims, or null when it is invalid or
+    // expired. A token seen again within the cache TTL skips the signature check.
+    public Claims parseClaims(String token) {
+        long now = System.currentTimeMillis();
+        String key = hash(token);
+        CachedClaims cached = claimsCache.get(key);
+        if (cached != null) {
+            if (cached.validUntil > now) {
+                return cached.claims;
+            }
+            claimsCache.remove(key);
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        long validUntil = now + claimsCacheTtlMs;
+        if (claims.getExpiration() != null) {
+            validUntil = Math.min(validUntil, claims.getExpiration().getTime());
+        }
+        if (claimsCache.size() >= claimsCacheMaxSize) {
+            evictExpired(now);
+        }
+        if (claimsCache.size() < claimsCacheMaxSize) {
+            claimsCache.put(key, new CachedClaims(claims, validUntil));
+        }
+        return claims;
+    }
 
+    public String getUserIdFromJWT(String token) {
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            throw new JwtException("Invalid JWT token");
+        }
         return claims.getSubject();
     }
 
     public boolean validateToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    private void evictExpired(long now) {
+        claimsCache.values().removeIf(c -> c.validUntil <= now);
+        if (claimsCache.size() < claimsCacheMaxSize) {
+            return;
+        }
+        // Still full of live entries: drop an arbitrary tenth rather than grow unbounded
+        Iterator<String> keys = claimsCache.keySet().iterator();
+        int toDrop = Math.max(1, claimsCacheMaxSize / 10);
+        while (toDrop-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private String hash(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class CachedClaims {
+        private final Claims claims;
+        private final long validUntil;
+
+        CachedClaims(Claims claims, long validUntil) {
+            this.claims = claims;
+            this.validUntil = validUntil;
         }
     }
 }
\ No newline at end of file
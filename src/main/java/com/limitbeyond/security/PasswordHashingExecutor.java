@@ -0,0 +1,117 @@
+package com.limitbeyond.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt work on a small fixed pool with a bounded queue so a burst of
+ * sign-ins cannot occupy every Tomcat thread. When the queue is full work is
+ * rejected immediately with PasswordHashingOverloadedException.
+ * Metrics: auth.hashing.queue.depth, auth.hashing.active, auth.hashing.rejected
+ * and auth.hashing.duration (tagged by operation).
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final ThreadLocal<Boolean> HASHING_THREAD = ThreadLocal.withInitial(() -> false);
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    // Caps bulk work at one queued hash per pool thread so imports leave the rest
+    // of the queue to interactive sign-ins
+    private final Semaphore bulkPermits;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+            @Value("${auth.hashing.threads:0}") int threads,
+            @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(() -> {
+                        HASHING_THREAD.set(true);
+                        r.run();
+                    }, "password-hash-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.bulkPermits = new Semaphore(poolSize);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("auth.hashing.rejected").register(meterRegistry);
+        Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    // Queues the task and returns without blocking the caller
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingOverloadedException(retryAfterSeconds);
+        }
+    }
+
+    // Queues bulk work, blocking the caller while the pool already holds its share
+    // of bulk tasks instead of rejecting
+    public <T> CompletableFuture<T> submitBulk(Supplier<T> task) {
+        try {
+            bulkPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+        CompletableFuture<T> future;
+        try {
+            future = submit(task);
+        } catch (RuntimeException e) {
+            bulkPermits.release();
+            throw e;
+        }
+        return future.whenComplete((result, error) -> bulkPermits.release());
+    }
+
+    // Runs a single hash on the pool and waits for it; inline when already on the pool
+    public <T> T call(String operation, Supplier<T> task) {
+        Timer timer = Timer.builder("auth.hashing.duration").tag("operation", operation).register(meterRegistry);
+        if (HASHING_THREAD.get()) {
+            return timer.record(task);
+        }
+        try {
+            return submit(() -> timer.record(task)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
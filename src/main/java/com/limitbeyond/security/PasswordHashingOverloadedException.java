@@ -0,0 +1,15 @@
+package com.limitbeyond.security;
+
+// Thrown when the password hashing queue is full; callers answer 429 with Retry-After
+public class PasswordHashingOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public PasswordHashingOverloadedException(long retryAfterSeconds) {
+        super("Too many sign-in attempts in progress, please retry shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,136 @@
+package com.limitbeyond.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiting, run right after JwtAuthenticationFilter. Callers are
+ * keyed by JWT subject when authenticated and by client IP otherwise (always by IP
+ * on /api/auth/**). Each bucket is a single AtomicLong holding the bucket's
+ * "theoretical arrival time" (GCRA), updated with one CAS, so there are no locks;
+ * buckets live in a ConcurrentHashMap, which stripes its own contention.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static final String AUTH_ROUTES = "/api/auth/**";
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "rate-limit-cleanup");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PostConstruct
+    public void start() {
+        // A bucket whose arrival time has passed is full again and can be dropped
+        cleaner.scheduleWithFixedDelay(() -> {
+            long now = System.nanoTime();
+            buckets.values().removeIf(tat -> tat.get() < now);
+        }, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        cleaner.shutdownNow();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!properties.isEnabled() || HttpMethod.OPTIONS.matches(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        int routeIndex = -1;
+        int capacity = properties.getDefaultCapacity();
+        double refillPerSecond = properties.getDefaultRefillPerSecond();
+        for (int i = 0; i < properties.getRoutes().size(); i++) {
+            RateLimitProperties.Route route = properties.getRoutes().get(i);
+            if (pathMatcher.match(route.getPattern(), path)) {
+                routeIndex = i;
+                capacity = route.getCapacity();
+                refillPerSecond = route.getRefillPerSecond();
+                break;
+            }
+        }
+
+        String key = routeIndex + "|" + clientKey(request, path);
+        long interval = (long) (NANOS_PER_SECOND / refillPerSecond);
+        long burst = interval * capacity;
+        long now = System.nanoTime();
+        AtomicLong tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now;
+            if (wait > burst) {
+                long retryAfter = ceilSeconds(wait - burst);
+                writeHeaders(response, capacity, 0, ceilSeconds(Math.max(current, now) - now));
+                response.setHeader("Retry-After", String.valueOf(retryAfter));
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"message\":\"Too many requests, retry in " + retryAfter + "s\"}");
+                return;
+            }
+            if (tat.compareAndSet(current, next)) {
+                writeHeaders(response, capacity, (burst - wait) / interval, ceilSeconds(wait));
+                break;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String clientKey(HttpServletRequest request, String path) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!pathMatcher.match(AUTH_ROUTES, path) && authentication != null
+                && authentication.getPrincipal() instanceof UserPrincipal) {
+            return "user:" + ((UserPrincipal) authentication.getPrincipal()).getId();
+        }
+        // Forwarded headers are resolved by server.forward-headers-strategy
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void writeHeaders(HttpServletResponse response, int limit, long remaining, long resetSeconds) {
+        response.setHeader("X-RateLimit-Limit", String.valueOf(limit));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(remaining));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(resetSeconds));
+    }
+
+    private long ceilSeconds(long nanos) {
+        return (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+    }
+}
@@ -0,0 +1,80 @@
+package com.limitbeyond.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// rate-limit.* settings: a default limit plus per-route overrides (first match wins)
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int defaultCapacity = 120;
+    private double defaultRefillPerSecond = 2.0;
+    private List<Route> routes = new ArrayList<>();
+
+    public static class Route {
+        private String pattern;
+        private int capacity;
+        private double refillPerSecond;
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    // Getters and setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    public void setDefaultCapacity(int defaultCapacity) {
+        this.defaultCapacity = defaultCapacity;
+    }
+
+    public double getDefaultRefillPerSecond() {
+        return defaultRefillPerSecond;
+    }
+
+    public void setDefaultRefillPerSecond(double defaultRefillPerSecond) {
+        this.defaultRefillPerSecond = defaultRefillPerSecond;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Route> routes) {
+        this.routes = routes;
+    }
+}
@@ -0,0 +1,191 @@
+package com.limitbeyond.security;
+
+import com.limitbeyond.model.User;
+import com.limitbeyond.service.DietChatService;
+import com.limitbeyond.service.UserCacheService;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JWT handshake for the STOMP endpoint. Browsers cannot set headers on the
+ * WebSocket upgrade, so the access token travels in the CONNECT frame's
+ * Authorization header and is checked like an HTTP request's. Subscriptions are
+ * limited to chats the user takes part in; a rejected frame closes the session
+ * with an ERROR frame.
+ *
+ * The token's expiry and version are kept on the session, and every SUBSCRIBE
+ * and SEND checks them again along with the account's active flag. Sessions
+ * that only listen are covered by outbound(): once their token has expired or
+ * been revoked, the next message to them is replaced by an ERROR frame, which
+ * closes the connection.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String DIET_CHAT_TOPIC = "/topic/diet-chat/{chatId}";
+
+    static final String SESSION_TOKEN = "stompSessionToken";
+
+    @Autowired
+    private JwtPrincipalResolver principalResolver;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private DietChatService dietChatService;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // Outbound frames carry only the session id, so tokens are also indexed by it
+    private final Map<String, SessionToken> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        switch (accessor.getCommand()) {
+            case CONNECT -> connect(accessor);
+            case SUBSCRIBE -> authorizeSubscription(requireSession(accessor), accessor.getDestination());
+            case SEND -> requireSession(accessor);
+            case DISCONNECT -> {
+                if (accessor.getSessionId() != null) {
+                    sessions.remove(accessor.getSessionId());
+                }
+            }
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    // For the client outbound channel
+    public ChannelInterceptor outbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+                    return message;
+                }
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                SessionToken token = sessionId != null ? sessions.get(sessionId) : null;
+                if (token == null || isValid(token)) {
+                    return message;
+                }
+                sessions.remove(sessionId);
+                StompHeaderAccessor error = StompHeaderAccessor.create(StompCommand.ERROR);
+                error.setMessage("Access token expired or revoked");
+                error.setSessionId(sessionId);
+                return MessageBuilder.createMessage(new byte[0], error.getMessageHeaders());
+            }
+        };
+    }
+
+    // The user behind a session principal set at CONNECT
+    public static String userId(Principal principal) {
+        if (principal instanceof UsernamePasswordAuthenticationToken token
+                && token.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return userPrincipal.getId();
+        }
+        throw new MessageDeliveryException("Not authenticated");
+    }
+
+    private void connect(StompHeaderAccessor accessor) {
+        String header = accessor.getFirstNativeHeader("Authorization");
+        if (!StringUtils.hasText(header) || !header.startsWith("Bearer ")) {
+            throw new MessageDeliveryException("Missing access token");
+        }
+        String token = header.substring(7);
+        UserDetails userDetails = principalResolver.resolve(token);
+        Claims claims = userDetails != null ? tokenProvider.parseClaims(token) : null;
+        if (claims == null) {
+            throw new MessageDeliveryException("Invalid or expired access token");
+        }
+        // Tokens without a "ver" claim resolve to the user's current version
+        UserPrincipal principal = (UserPrincipal) userDetails;
+        SessionToken sessionToken = new SessionToken(principal.getId(), principal.getTokenVersion(),
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE);
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes != null) {
+            attributes.put(SESSION_TOKEN, sessionToken);
+        }
+        if (accessor.getSessionId() != null) {
+            sessions.put(accessor.getSessionId(), sessionToken);
+        }
+        accessor.setUser(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    // The session's user, while its token is unexpired and current and the account is active
+    private User requireSession(StompHeaderAccessor accessor) {
+        User user = requireUser(accessor.getUser());
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        Object token = attributes != null ? attributes.get(SESSION_TOKEN) : null;
+        if (!(token instanceof SessionToken sessionToken) || !sessionToken.userId.equals(user.getId())
+                || !isValid(sessionToken)) {
+            throw new MessageDeliveryException("Access token expired or revoked");
+        }
+        if (!user.isActive()) {
+            throw new MessageDeliveryException("Account is inactive");
+        }
+        return user;
+    }
+
+    private boolean isValid(SessionToken token) {
+        return token.expiresAt > System.currentTimeMillis()
+                && tokenVersionRegistry.isCurrent(token.userId, token.version);
+    }
+
+    private void authorizeSubscription(User user, String destination) {
+        if (destination == null || !pathMatcher.match(DIET_CHAT_TOPIC, destination)) {
+            throw new MessageDeliveryException("Unknown destination");
+        }
+        Map<String, String> variables = pathMatcher.extractUriTemplateVariables(DIET_CHAT_TOPIC, destination);
+        if (!dietChatService.isParticipant(user, variables.get("chatId"))) {
+            throw new MessageDeliveryException("Not authorized to follow this chat");
+        }
+    }
+
+    private User requireUser(Principal principal) {
+        return userCacheService.findById(userId(principal))
+                .orElseThrow(() -> new MessageDeliveryException("User not found"));
+    }
+
+    static class SessionToken {
+        private final String userId;
+        private final int version;
+        private final long expiresAt;
+
+        SessionToken(String userId, int version, long expiresAt) {
+            this.userId = userId;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
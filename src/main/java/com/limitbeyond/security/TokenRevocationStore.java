@@ -0,0 +1,123 @@
+package com.limitbeyond.security;
+
+import com.limitbeyond.model.RevokedToken;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revoked access tokens (by jti). The revoked_tokens collection is the source of
+ * truth; an in-memory Bloom filter over it answers "not revoked" for almost every
+ * request without I/O, and only a filter hit is confirmed against Mongo.
+ * Revocations from other instances are picked up by polling, and the filter is
+ * rebuilt periodically so expired entries stop taking space.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${jwt.revocation.refresh-seconds:15}")
+    private long refreshSeconds;
+
+    @Value("${jwt.revocation.rebuild-minutes:60}")
+    private long rebuildMinutes;
+
+    private volatile BloomFilter filter;
+
+    private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "token-revocation-sync");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PostConstruct
+    public void start() {
+        filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        rebuild();
+        scheduler.scheduleWithFixedDelay(this::sync, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(this::rebuild, rebuildMinutes, rebuildMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(jti)), RevokedToken.class);
+    }
+
+    public void revoke(String jti, String userId, LocalDateTime expiresAt) {
+        if (jti == null) {
+            return;
+        }
+        mongoTemplate.save(new RevokedToken(jti, userId, expiresAt));
+        filter.put(jti);
+    }
+
+    private void sync() {
+        try {
+            // Overlap by a few seconds so revocations written around the last poll are not missed
+            LocalDateTime since = lastSync.minusSeconds(5);
+            lastSync = LocalDateTime.now();
+            Query query = Query.query(Criteria.where("revokedAt").gt(since));
+            query.fields().include("_id");
+            BloomFilter current = filter;
+            for (RevokedToken token : mongoTemplate.find(query, RevokedToken.class)) {
+                current.put(token.getId());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not sync revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        try {
+            LocalDateTime started = LocalDateTime.now();
+            BloomFilter rebuilt = new BloomFilter(expectedEntries, falsePositiveRate);
+            Query query = Query.query(Criteria.where("expiresAt").gt(started));
+            query.fields().include("_id");
+            int count = 0;
+            for (RevokedToken token : mongoTemplate.find(query, RevokedToken.class)) {
+                rebuilt.put(token.getId());
+                count++;
+            }
+            filter = rebuilt;
+            // Catch revocations made while the rebuild was reading
+            lastSync = started;
+            sync();
+            if (count > expectedEntries) {
+                logger.warn("{} revoked tokens exceed jwt.revocation.expected-entries={}", count, expectedEntries);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not load revoked tokens: {}", e.getMessage());
+        }
+    }
+}
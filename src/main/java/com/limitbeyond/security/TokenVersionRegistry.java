@@ -0,0 +1,98 @@
+package com.limitbeyond.security;
+
+import com.limitbeyond.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Current token version per user. A token is accepted only while the "ver" claim
+ * it was signed with matches. Versions are loaded once per user and then kept
+ * fresh by polling for users whose version changed, so authenticating a request
+ * does not read the users collection. Bumps made on another instance take effect
+ * here within one refresh interval.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionRegistry.class);
+
+    // Users that no longer exist
+    private static final int REVOKED = -1;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${jwt.token-version.refresh-seconds:15}")
+    private long refreshSeconds;
+
+    private final Map<String, Integer> versions = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastRefresh = LocalDateTime.now();
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "token-version-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PostConstruct
+    public void start() {
+        refresher.scheduleWithFixedDelay(this::refresh, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    public boolean isCurrent(String userId, int tokenVersion) {
+        return userId != null && versions.computeIfAbsent(userId, this::load) == tokenVersion;
+    }
+
+    // Invalidates every token issued to the user so far
+    public void revoke(String userId) {
+        User updated = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(userId)),
+                new Update().inc("tokenVersion", 1).set("tokenVersionChangedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true), User.class);
+        versions.put(userId, updated != null ? updated.getTokenVersion() : REVOKED);
+    }
+
+    private int load(String userId) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        query.fields().include("tokenVersion");
+        User user = mongoTemplate.findOne(query, User.class);
+        return user != null ? user.getTokenVersion() : REVOKED;
+    }
+
+    private void refresh() {
+        try {
+            // Overlap by a few seconds so changes written around the last poll are not missed
+            LocalDateTime since = lastRefresh.minusSeconds(5);
+            lastRefresh = LocalDateTime.now();
+            Query query = Query.query(Criteria.where("tokenVersionChangedAt").gt(since));
+            query.fields().include("tokenVersion");
+            for (User user : mongoTemplate.find(query, User.class)) {
+                versions.put(user.getId(), user.getTokenVersion());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not refresh token versions: {}", e.getMessage());
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.limitbeyond.security;
 
 import com.limitbeyond.model.User;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
@@ -14,6 +16,7 @@ public class UserPrincipal implements UserDetails {
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
     private boolean active;
+    private int tokenVersion;
 
     public UserPrincipal(String id, String username, String email, String password,
             Collection<? extends GrantedAuthority> authorities, boolean active) {
@@ -25,6 +28,12 @@ public class UserPrincipal implements UserDetails {
         this.active = active;
     }
 
+    public UserPrincipal(String id, String username, String email, String password,
+            Collection<? extends GrantedAuthority> authorities, boolean active, int tokenVersion) {
+        this(id, username, email, password, authorities, active);
+        this.tokenVersion = tokenVersion;
+    }
+
     public static UserPrincipal create(User user) {
         Collection<GrantedAuthority> authorities = user.getRoles().stream()
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
@@ -36,7 +45,33 @@ public class UserPrincipal implements UserDetails {
                 user.getEmail(),
                 user.getPassword(),
                 authorities,
-                user.isActive());
+                user.isActive(),
+                user.getTokenVersion());
+    }
+
+    // Rebuilds the principal from verified JWT claims without loading the user. Only
+    // active users can sign in, and deactivation revokes their tokens, so a token
+    // that passed the version check belongs to an active user.
+    public static UserPrincipal fromClaims(Claims claims) {
+        Collection<GrantedAuthority> authorities = new ArrayList<>();
+        String roles = claims.get("roles", String.class);
+        if (roles != null) {
+            for (String role : roles.split(",")) {
+                if (!role.isBlank()) {
+                    authorities.add(new SimpleGrantedAuthority(role.trim()));
+                }
+            }
+        }
+        Integer version = claims.get("ver", Integer.class);
+
+        return new UserPrincipal(
+                claims.getSubject(),
+                claims.get("username", String.class),
+                claims.get("email", String.class),
+                null,
+                authorities,
+                true,
+                version != null ? version : 0);
     }
 
     public String getId() {
@@ -47,6 +82,10 @@ public class UserPrincipal implements UserDetails {
         return email;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
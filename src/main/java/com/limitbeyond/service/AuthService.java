@@ -17,6 +17,9 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserCacheService userCacheService;
+
     public User registerUser(User user) {
         // Validate username and email don't exist
         if (userRepository.existsByUsername(user.getUsername())) {
@@ -39,7 +42,9 @@ public class AuthService {
             user.setActive(true);
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCacheService.evict(saved);
+        return saved;
     }
 
     public User activateTrainer(String trainerId) {
@@ -52,6 +57,8 @@ public class AuthService {
         }
 
         trainer.setActive(true);
-        return userRepository.save(trainer);
+        User saved = userRepository.save(trainer);
+        userCacheService.evict(saved);
+        return saved;
     }
 }
\ No newline at end of file
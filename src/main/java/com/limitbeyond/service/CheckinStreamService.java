@@ -0,0 +1,14 @@
+package com.limitbeyond.service;
+
+import com.limitbeyond.model.Checkin;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.function.Predicate;
+
+public interface CheckinStreamService {
+    // Opens a long-lived feed that receives every new checkin the filter accepts
+    SseEmitter subscribe(Predicate<Checkin> visible);
+
+    // Called after a checkin is stored; ignored while change streams deliver events
+    void publish(Checkin checkin);
+}
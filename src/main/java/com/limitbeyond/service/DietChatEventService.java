@@ -0,0 +1,17 @@
+package com.limitbeyond.service;
+
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.model.Role;
+
+public interface DietChatEventService {
+    // Topic a client subscribes to for one chat
+    String topic(String chatId);
+
+    // Called after a message is stored
+    void publishMessage(String chatId, DietChat.DietChatMessage message);
+
+    void publishTyping(String chatId, String userId, Role role, boolean typing);
+
+    // Called after the unread counter of userId's side was cleared
+    void publishRead(String chatId, String userId, Role role);
+}
@@ -0,0 +1,52 @@
+package com.limitbeyond.service;
+
+import com.limitbeyond.dto.dietchat.DietChatInboxResponse;
+import com.limitbeyond.dto.dietchat.InboxCursor;
+import com.limitbeyond.dto.thread.MessagePage;
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.model.User;
+
+public interface DietChatService {
+    // New: newest-activity-first chat summaries visible to the viewer; cursor may be null
+    DietChatInboxResponse getInbox(User viewer, int size, InboxCursor cursor);
+
+    // New: clears the unread counter for the viewer's side of the chat
+    void markRead(String chatId, boolean byMember);
+
+    // New: the chat's member, an admin, or a trainer assigned to the member;
+    // throws when the chat does not exist
+    boolean isParticipant(User user, String chatId);
+
+    // New: appends the message to a chat that has not been saved yet and updates
+    // the inbox summary; the caller saves the chat
+    void addMessage(DietChat chat, DietChat.DietChatMessage message);
+
+    // New: recomputes preview, count and last activity from the loaded messages
+    void refreshSummary(DietChat chat);
+
+    // New: atomically appends a message to a stored chat ($push) and returns it with its id
+    DietChat.DietChatMessage appendMessage(String chatId, DietChat.DietChatMessage message);
+
+    // New: the newest page when before is null, otherwise archived page number "before"
+    MessagePage<DietChat.DietChatMessage> getMessages(String chatId, Integer before);
+
+    // New: one message by id, or by position for older clients; null when absent
+    DietChat.DietChatMessage findMessage(String chatId, String messageRef);
+
+    // New: positional edit; expectedVersion (optional) must match the message's
+    // version or OptimisticLockingFailureException is thrown
+    DietChat.DietChatMessage updateMessage(String chatId, String messageId, String content, Long expectedVersion);
+
+    // New: removes one message ($pull); same optimistic check as updateMessage
+    void deleteMessage(String chatId, String messageId, Long expectedVersion);
+
+    // New: expectedVersion (optional) must match the chat's version
+    void updateTitle(String chatId, String title, Long expectedVersion);
+
+    // New: removes the chat and its archived pages
+    void deleteChat(String chatId);
+
+    // New: moves all but the newest page of a loaded chat into buckets and updates
+    // its messages and bucketCount in memory; returns the number of pages archived
+    int archiveOlderPages(DietChat chat);
+}
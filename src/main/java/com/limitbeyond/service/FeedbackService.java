@@ -0,0 +1,32 @@
+package com.limitbeyond.service;
+
+import com.limitbeyond.dto.thread.MessagePage;
+import com.limitbeyond.model.Feedback;
+
+public interface FeedbackService {
+    // Appends a response without rewriting the feedback and returns it with its id
+    Feedback.FeedbackResponse respond(String feedbackId, Feedback.FeedbackResponse response);
+
+    // The newest page when before is null, otherwise archived page number "before"
+    MessagePage<Feedback.FeedbackResponse> getResponses(String feedbackId, Integer before);
+
+    // One response by id, or by position in the newest page for older clients; null when absent
+    Feedback.FeedbackResponse findResponse(String feedbackId, String responseRef);
+
+    Feedback.FeedbackResponse updateResponse(String feedbackId, String responseId, String content);
+
+    void deleteResponse(String feedbackId, String responseId);
+
+    // Title and content only; responses are left untouched
+    void updateFeedback(String feedbackId, String title, String content);
+
+    // Removes the feedback and its archived response pages
+    void deleteFeedback(String feedbackId);
+
+    // Recomputes the response count and last response time from the loaded responses
+    void refreshSummary(Feedback feedback);
+
+    // Moves all but the newest page of a loaded feedback into buckets and updates
+    // its responses and bucketCount in memory; returns the number of pages archived
+    int archiveOlderPages(Feedback feedback);
+}
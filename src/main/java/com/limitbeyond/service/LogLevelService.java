@@ -0,0 +1,14 @@
+package com.limitbeyond.service;
+
+import com.limitbeyond.dto.logging.LogLevelOverride;
+import java.util.List;
+
+public interface LogLevelService {
+    // Sets the logger's level until the duration elapses, then restores the level it had before
+    LogLevelOverride override(String logger, String level, int minutes);
+
+    // Restores the logger now; false when it had no active override
+    boolean revert(String logger);
+
+    List<LogLevelOverride> getOverrides();
+}
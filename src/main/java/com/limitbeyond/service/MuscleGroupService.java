@@ -13,6 +13,8 @@ public interface MuscleGroupService {
 
     List<MuscleGroup> findAll();
 
+    List<MuscleGroup> findAllById(List<String> ids);
+
     MuscleGroup update(String id, String name);
 
     void delete(String id);
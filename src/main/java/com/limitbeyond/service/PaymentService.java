@@ -1,5 +1,6 @@
 package com.limitbeyond.service;
 
+import com.limitbeyond.dto.payment.RevenueReport;
 import com.limitbeyond.model.Payment;
 import java.util.List;
 
@@ -9,4 +10,14 @@ public interface PaymentService {
     List<Payment> getPaymentsForUser(String userId);
 
     double getRevenueBetween(java.time.LocalDateTime start, java.time.LocalDateTime end);
+
+    // New: sum of the revenue_daily rollups for whole days, both ends inclusive
+    double getRevenueForDays(java.time.LocalDate start, java.time.LocalDate end);
+
+    // New: recompute revenue_daily from payments; null bounds mean open-ended
+    int rebuildDailyRevenue(java.time.LocalDate start, java.time.LocalDate end);
+
+    // New: bucketed revenue with per-plan and per-trainer breakdowns
+    RevenueReport getRevenueReport(java.time.LocalDateTime start, java.time.LocalDateTime end,
+            RevenueReport.Granularity granularity);
 }
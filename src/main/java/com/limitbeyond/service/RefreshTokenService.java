@@ -0,0 +1,18 @@
+package com.limitbeyond.service;
+
+import com.limitbeyond.payload.JwtAuthenticationResponse;
+import com.limitbeyond.security.UserPrincipal;
+
+public interface RefreshTokenService {
+    // Short-lived access token plus a new refresh token family
+    JwtAuthenticationResponse issue(UserPrincipal principal);
+
+    // Exchanges a refresh token for a new pair; the presented token is used up
+    JwtAuthenticationResponse rotate(String refreshToken);
+
+    // Revokes the refresh token's family and, when given, the access token
+    void logout(String refreshToken, String accessToken);
+
+    // Revokes every refresh token the user holds
+    void revokeAllForUser(String userId);
+}
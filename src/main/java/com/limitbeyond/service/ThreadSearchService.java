@@ -0,0 +1,28 @@
+package com.limitbeyond.service;
+
+import com.limitbeyond.dto.search.SearchResponse;
+import com.limitbeyond.dto.search.ThreadType;
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.model.Feedback;
+import com.limitbeyond.model.User;
+
+public interface ThreadSearchService {
+    // Ranked diet chats and feedback the viewer may see; type may be null for both
+    SearchResponse search(User viewer, String query, ThreadType type, int page, int size);
+
+    // Indexes a thread that is fully loaded, e.g. one that was just created
+    void index(DietChat chat);
+
+    void index(Feedback feedback);
+
+    // Adds a new message or response to an indexed thread without reloading it
+    void addText(ThreadType type, String threadId, String text);
+
+    // Reloads one thread (including archived pages) after an edit or delete
+    void reindex(ThreadType type, String threadId);
+
+    void remove(ThreadType type, String threadId);
+
+    // Replaces the whole index from Mongo; returns the number of threads indexed
+    int rebuild();
+}
@@ -0,0 +1,19 @@
+package com.limitbeyond.service;
+
+import com.limitbeyond.model.User;
+import java.util.Optional;
+
+// Read-through cache of users by id and username. Returned users are shared: load
+// from UserRepository instead when the user is going to be modified.
+public interface UserCacheService {
+    Optional<User> findById(String id);
+
+    Optional<User> findByUsername(String username);
+
+    // The authenticated user, resolved at most once per request
+    User getCurrentUser();
+
+    void evict(User user);
+
+    void evict(String userId);
+}
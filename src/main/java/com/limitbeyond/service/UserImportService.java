@@ -0,0 +1,13 @@
+package com.limitbeyond.service;
+
+import com.limitbeyond.dto.user.UserImportResult;
+import com.limitbeyond.payload.SignupRequest;
+import java.util.List;
+
+public interface UserImportService {
+    // Creates every valid, non-duplicate row and reports the outcome of each one
+    UserImportResult importUsers(List<SignupRequest> rows);
+
+    // Same as importUsers, from CSV with a header line naming the columns
+    UserImportResult importCsv(String csv);
+}
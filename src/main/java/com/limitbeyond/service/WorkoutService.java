@@ -1,10 +1,14 @@
 package com.limitbeyond.service;
 
+import com.limitbeyond.dto.workout.SetCompletionResponse;
 import com.limitbeyond.dto.workout.WorkoutRequest;
+import com.limitbeyond.model.MuscleGroup;
 import com.limitbeyond.model.Workout;
 import com.limitbeyond.model.User;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Slice;
 
 public interface WorkoutService {
     Workout createWorkout(WorkoutRequest request);
@@ -13,6 +17,19 @@ public interface WorkoutService {
 
     List<Workout> findByMember(User member);
 
+    // Keyset page, newest first; beforeId is null for the first page
+    Slice<Workout> findByMemberPage(User member, LocalDateTime beforeDate, String beforeId, int size);
+
+    // Cursor-backed stream of the member's history; callers must close it
+    Stream<Workout> streamByMember(User member);
+
+    // Indexed member + target muscle group lookups; from/to are optional inclusive bounds
+    List<Workout> findByMemberAndMuscleGroup(User member, MuscleGroup muscleGroup, LocalDateTime from,
+            LocalDateTime to);
+
+    Slice<Workout> findByMemberAndMuscleGroupPage(User member, MuscleGroup muscleGroup, LocalDateTime from,
+            LocalDateTime to, LocalDateTime beforeDate, String beforeId, int size);
+
     List<Workout> findByTrainer(User trainer);
 
     List<Workout> findByMemberAndDateRange(User member, LocalDateTime start, LocalDateTime end);
@@ -35,4 +52,7 @@ public interface WorkoutService {
 
     // New: mark a set as not completed
     Workout uncompleteSet(String workoutId, String setId);
+
+    // Toggle one set with a targeted update and return only what changed
+    SetCompletionResponse updateSetCompletion(String workoutId, String setId, boolean completed);
 }
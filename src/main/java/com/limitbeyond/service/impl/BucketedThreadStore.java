@@ -0,0 +1,174 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.model.MessageBucket;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bucket pattern shared by diet chats and feedback. The thread document embeds
+ * only its newest page of up to bucketSize messages plus a bucketCount; older
+ * pages live in a bucket collection keyed by (threadId, seq). Appends are a
+ * $push while the page has room; a full page is copied to the next bucket and
+ * replaced by a page holding just the new message, guarded by the thread's
+ * version so a concurrent append or edit is never lost.
+ *
+ * The thread entity must have an @Version property named "version"; messages
+ * are addressed by their "id" property.
+ */
+class BucketedThreadStore<M, B extends MessageBucket<M>> {
+
+    private static final int MAX_ROLLOVER_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final Class<?> threadClass;
+    private final String arrayField;
+    private final Class<B> bucketClass;
+    private final int bucketSize;
+    private final String notFoundMessage;
+
+    BucketedThreadStore(MongoTemplate mongoTemplate, Class<?> threadClass, String arrayField, Class<B> bucketClass,
+            int bucketSize, String notFoundMessage) {
+        this.mongoTemplate = mongoTemplate;
+        this.threadClass = threadClass;
+        this.arrayField = arrayField;
+        this.bucketClass = bucketClass;
+        this.bucketSize = Math.max(1, bucketSize);
+        this.notFoundMessage = notFoundMessage;
+    }
+
+    int getBucketSize() {
+        return bucketSize;
+    }
+
+    // Appends the message and applies the summary update in the same write
+    void append(String threadId, M message, Supplier<Update> summary) {
+        for (int attempt = 0; attempt < MAX_ROLLOVER_ATTEMPTS; attempt++) {
+            Query hasRoom = Query.query(Criteria.where("id").is(threadId)
+                    .and(arrayField + "." + (bucketSize - 1)).exists(false));
+            if (mongoTemplate.updateFirst(hasRoom, summary.get().push(arrayField, message), threadClass)
+                    .getMatchedCount() > 0) {
+                return;
+            }
+
+            // Either the thread does not exist or its page is full. The page is read
+            // raw so it is archived exactly as stored; a raw read has no entity to map
+            // "id" to _id, so the stored field is named directly.
+            Query load = Query.query(Criteria.where("_id").is(threadId));
+            load.fields().include(arrayField).include("bucketCount").include("version");
+            Document current = mongoTemplate.findOne(load, Document.class, mongoTemplate.getCollectionName(threadClass));
+            if (current == null) {
+                throw new RuntimeException(notFoundMessage);
+            }
+            List<Object> page = current.getList(arrayField, Object.class);
+            if (page == null || page.size() < bucketSize) {
+                continue; // A delete made room meanwhile
+            }
+            Object bucketCount = current.get("bucketCount");
+            int seq = bucketCount instanceof Number ? ((Number) bucketCount).intValue() : 0;
+
+            // Bucket first: if the thread update below loses a race the retry writes
+            // the bucket again from a fresh read
+            Object version = current.get("version");
+            archivePage(threadId, seq, page, version instanceof Number ? ((Number) version).longValue() : 0L);
+
+            Query unchanged = Query.query(Criteria.where("id").is(threadId).and("version").is(current.get("version")));
+            Update rollover = summary.get().set(arrayField, List.of(message)).inc("bucketCount", 1);
+            if (mongoTemplate.updateFirst(unchanged, rollover, threadClass).getModifiedCount() > 0) {
+                return;
+            }
+        }
+        throw new OptimisticLockingFailureException("Thread is busy, retry the message");
+    }
+
+    // Writes the page read at the given thread version as bucket seq. An existing
+    // bucket is overwritten only when it was written from an older read, i.e. by an
+    // attempt whose thread update lost while bucketCount was still seq. A bucket
+    // from the same or a newer read is already identical or committed by another
+    // appender, and may have been edited since, so the write is then insert-only
+    // and the unique (threadId, seq) index turns it into a no-op.
+    void archivePage(String threadId, int seq, List<?> page, long sourceVersion) {
+        Query stale = Query.query(Criteria.where("threadId").is(threadId).and("seq").is(seq)
+                .and("sourceVersion").lt(sourceVersion));
+        try {
+            mongoTemplate.upsert(stale, new Update().set("messages", page).set("sourceVersion", sourceVersion)
+                    .setOnInsert("createdAt", LocalDateTime.now()), bucketClass);
+        } catch (DuplicateKeyException e) {
+            // Left as it is
+        }
+    }
+
+    // One archived page; seq runs from 0 (oldest) to bucketCount - 1
+    List<M> bucket(String threadId, int seq) {
+        B bucket = mongoTemplate.findOne(Query.query(Criteria.where("threadId").is(threadId).and("seq").is(seq)),
+                bucketClass);
+        return bucket != null ? bucket.getMessages() : List.of();
+    }
+
+    // A message from the archived pages, or null
+    M findInBuckets(String threadId, String messageId) {
+        Query query = Query.query(Criteria.where("threadId").is(threadId)
+                .and("messages").elemMatch(Criteria.where("id").is(messageId)));
+        query.fields().elemMatch("messages", projection(messageId));
+        B bucket = mongoTemplate.findOne(query, bucketClass);
+        return bucket != null && !bucket.getMessages().isEmpty() ? bucket.getMessages().get(0) : null;
+    }
+
+    // Positional update of an archived message; updateFor receives the "$" path
+    // of the matched element. False when no bucket holds a matching message.
+    boolean updateInBuckets(String threadId, Criteria messageMatch, Function<String, Update> updateFor) {
+        Query query = Query.query(Criteria.where("threadId").is(threadId).and("messages").elemMatch(messageMatch));
+        return mongoTemplate.updateFirst(query, updateFor.apply("messages.$"), bucketClass).getModifiedCount() > 0;
+    }
+
+    boolean removeFromBuckets(String threadId, Criteria messageMatch, String messageId) {
+        Query query = Query.query(Criteria.where("threadId").is(threadId).and("messages").elemMatch(messageMatch));
+        Update pull = new Update().pull("messages", Query.query(Criteria.where("id").is(messageId)));
+        return mongoTemplate.updateFirst(query, pull, bucketClass).getModifiedCount() > 0;
+    }
+
+    // Newest archived message, for when the embedded page has been emptied
+    M lastInBuckets(String threadId) {
+        Query query = Query.query(Criteria.where("threadId").is(threadId).and("messages.0").exists(true))
+                .with(Sort.by(Sort.Direction.DESC, "seq")).limit(1);
+        query.fields().slice("messages", -1);
+        B bucket = mongoTemplate.findOne(query, bucketClass);
+        return bucket != null && !bucket.getMessages().isEmpty() ? bucket.getMessages().get(0) : null;
+    }
+
+    void deleteBuckets(String threadId) {
+        mongoTemplate.remove(Query.query(Criteria.where("threadId").is(threadId)), bucketClass);
+    }
+
+    // Moves all but the newest page of an already loaded thread into buckets
+    // starting at firstSeq; returns the messages that stay embedded
+    List<M> archiveOlderPages(String threadId, List<M> messages, int firstSeq) {
+        if (messages.size() <= bucketSize) {
+            return messages;
+        }
+        int pages = (messages.size() - 1) / bucketSize;
+        for (int p = 0; p < pages; p++) {
+            List<M> page = messages.subList(p * bucketSize, (p + 1) * bucketSize);
+            mongoTemplate.upsert(Query.query(Criteria.where("threadId").is(threadId).and("seq").is(firstSeq + p)),
+                    new Update().set("messages", page).setOnInsert("createdAt", LocalDateTime.now()), bucketClass);
+        }
+        return messages.subList(pages * bucketSize, messages.size());
+    }
+
+    // Projections are not run through the property mapper, so this names the stored
+    // field (_id) and type (ObjectId) of the message id directly
+    static Criteria projection(String messageId) {
+        return Criteria.where("_id").is(new ObjectId(messageId));
+    }
+}
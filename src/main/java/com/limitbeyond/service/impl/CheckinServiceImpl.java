@@ -3,7 +3,9 @@ package com.limitbeyond.service.impl;
 import com.limitbeyond.model.Checkin;
 import com.limitbeyond.repository.CheckinRepository;
 import com.limitbeyond.service.CheckinService;
+import com.limitbeyond.service.CheckinStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -12,22 +14,28 @@ import java.util.List;
 @Service
 public class CheckinServiceImpl implements CheckinService {
 
+    // Upper bound on a single recent-checkins read
+    private static final int MAX_RECENT = 500;
+
     @Autowired
     private CheckinRepository checkinRepository;
 
+    @Autowired
+    private CheckinStreamService checkinStreamService;
+
     @Override
     public Checkin addCheckin(String userId, LocalDateTime occurredAt) {
         Checkin c = new Checkin();
         c.setUserId(userId);
         c.setOccurredAt(occurredAt == null ? LocalDateTime.now() : occurredAt);
-        return checkinRepository.save(c);
+        Checkin saved = checkinRepository.save(c);
+        checkinStreamService.publish(saved);
+        return saved;
     }
 
     @Override
     public List<Checkin> getRecentCheckins(int limit) {
-        // Simple implementation: return all ordered and let caller limit
-        return checkinRepository.findByOccurredAtBetweenOrderByOccurredAtDesc(LocalDateTime.now().minusYears(10),
-                LocalDateTime.now());
+        return checkinRepository.findAllByOrderByOccurredAtDesc(recentLimit(limit));
     }
 
     @Override
@@ -37,14 +45,15 @@ public class CheckinServiceImpl implements CheckinService {
 
     @Override
     public List<Checkin> getRecentCheckinsForUser(String userId, int limit) {
-        List<Checkin> all = checkinRepository.findByUserIdOrderByOccurredAtDesc(userId);
-        if (all == null)
-            return java.util.Collections.emptyList();
-        return all.stream().limit(limit).toList();
+        return checkinRepository.findByUserIdOrderByOccurredAtDesc(userId, recentLimit(limit));
     }
 
     @Override
     public List<Checkin> getCheckinsBetweenForUser(String userId, LocalDateTime start, LocalDateTime end) {
         return checkinRepository.findByUserIdAndOccurredAtBetweenOrderByOccurredAtDesc(userId, start, end);
     }
+
+    private Limit recentLimit(int limit) {
+        return Limit.of(Math.max(1, Math.min(limit, MAX_RECENT)));
+    }
 }
@@ -0,0 +1,253 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.model.Checkin;
+import com.limitbeyond.service.CheckinStreamService;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.MessageListener;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Fans new checkins out to connected SSE clients. On a replica set (Atlas) the
+ * source is a change stream on the checkins collection, so checkins stored by any
+ * instance reach every screen. On a standalone server change streams are not
+ * available and events are published in-process by CheckinServiceImpl instead.
+ */
+@Service
+public class CheckinStreamServiceImpl implements CheckinStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckinStreamServiceImpl.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${checkins.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${checkins.stream.heartbeat-seconds:25}")
+    private long heartbeatSeconds;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "checkin-stream-heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Sends run here so a slow SSE client never holds up the request that stored the checkin
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "checkin-stream-dispatch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Runs the change stream cursor; a cached pool so a restarted container never
+    // waits behind the task of the one it replaces
+    private final ExecutorService changeStreamExecutor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "checkin-change-stream");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${checkins.stream.restart-initial-ms:1000}")
+    private long restartInitialMs;
+
+    @Value("${checkins.stream.restart-max-ms:60000}")
+    private long restartMaxMs;
+
+    private MessageListenerContainer changeStreams;
+
+    // Bumped on every (re)start and failure, so errors from a replaced container are ignored
+    private int changeStreamGeneration;
+
+    private volatile int restartFailures;
+
+    private boolean stopped;
+
+    private volatile boolean changeStreamActive;
+
+    @PostConstruct
+    public void start() {
+        if (isReplicaSet()) {
+            synchronized (this) {
+                try {
+                    startChangeStream();
+                } catch (RuntimeException e) {
+                    onChangeStreamError(changeStreamGeneration, e);
+                }
+            }
+        }
+        // Comment lines keep proxies from closing idle connections and surface dead clients
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        MessageListenerContainer container;
+        synchronized (this) {
+            stopped = true;
+            container = changeStreams;
+        }
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        if (container != null) {
+            container.stop();
+        }
+        changeStreamExecutor.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void startChangeStream() {
+        int generation = ++changeStreamGeneration;
+        MessageListenerContainer container = new DefaultMessageListenerContainer(mongoTemplate, changeStreamExecutor,
+                error -> onChangeStreamError(generation, error));
+        MessageListener<ChangeStreamDocument<Document>, Checkin> listener = message -> {
+            restartFailures = 0;
+            dispatch(message.getBody());
+        };
+        ChangeStreamRequest.ChangeStreamRequestBuilder<Checkin> builder = ChangeStreamRequest.builder(listener);
+        ChangeStreamRequest<Checkin> request = builder
+                .collection(mongoTemplate.getCollectionName(Checkin.class))
+                .filter(Aggregation.newAggregation(Aggregation.match(Criteria.where("operationType").is("insert"))))
+                .build();
+        changeStreams = container;
+        container.register(request, Checkin.class);
+        container.start();
+        changeStreamActive = true;
+    }
+
+    // Falls back to in-process delivery and restarts the container with exponential backoff
+    private synchronized void onChangeStreamError(int generation, Throwable error) {
+        if (stopped || generation != changeStreamGeneration) {
+            return;
+        }
+        changeStreamGeneration++;
+        changeStreamActive = false;
+        long delay = Math.min(restartMaxMs, restartInitialMs << Math.min(restartFailures++, 16));
+        logger.warn("Checkin change stream failed, using in-process events and restarting in {} ms: {}", delay,
+                error.getMessage());
+        try {
+            heartbeat.schedule(this::restartChangeStream, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Checkin stream stopped, not restarting the change stream");
+        }
+    }
+
+    private void restartChangeStream() {
+        MessageListenerContainer previous;
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            previous = changeStreams;
+        }
+        previous.stop();
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            try {
+                startChangeStream();
+            } catch (RuntimeException e) {
+                onChangeStreamError(changeStreamGeneration, e);
+            }
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(Predicate<Checkin> visible) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, visible);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    @Override
+    public void publish(Checkin checkin) {
+        if (!changeStreamActive) {
+            try {
+                dispatcher.execute(() -> dispatch(checkin));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Checkin stream stopped, dropping event for {}", checkin.getId());
+            }
+        }
+    }
+
+    private void dispatch(Checkin checkin) {
+        if (checkin == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.visible.test(checkin)) {
+                continue;
+            }
+            try {
+                subscriber.emitter.send(SseEmitter.event().name("checkin").id(checkin.getId())
+                        .data(checkin, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    private void sendHeartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    private boolean isReplicaSet() {
+        try {
+            Document hello = mongoTemplate.getDb().runCommand(new Document("hello", 1));
+            return hello.containsKey("setName");
+        } catch (Exception e) {
+            logger.warn("Could not determine replica set status, using in-process checkin events: {}",
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final Predicate<Checkin> visible;
+
+        Subscriber(SseEmitter emitter, Predicate<Checkin> visible) {
+            this.emitter = emitter;
+            this.visible = visible;
+        }
+    }
+}
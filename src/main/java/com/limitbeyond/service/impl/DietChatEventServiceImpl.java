@@ -0,0 +1,59 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.dietchat.DietChatEvent;
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.model.Role;
+import com.limitbeyond.service.DietChatEventService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Pushes diet chat activity to the chat's STOMP topic. Delivery is best effort:
+ * the write it reports has already been stored, so a broker failure is logged
+ * and clients catch up from the REST endpoints on their next load.
+ */
+@Service
+public class DietChatEventServiceImpl implements DietChatEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DietChatEventServiceImpl.class);
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Override
+    public String topic(String chatId) {
+        return "/topic/diet-chat/" + chatId;
+    }
+
+    @Override
+    public void publishMessage(String chatId, DietChat.DietChatMessage message) {
+        DietChatEvent event = new DietChatEvent(DietChatEvent.Type.MESSAGE, chatId, message.getSenderId(),
+                message.getSenderRole());
+        event.setMessage(message);
+        send(chatId, event);
+    }
+
+    @Override
+    public void publishTyping(String chatId, String userId, Role role, boolean typing) {
+        DietChatEvent event = new DietChatEvent(DietChatEvent.Type.TYPING, chatId, userId, role);
+        event.setTyping(typing);
+        send(chatId, event);
+    }
+
+    @Override
+    public void publishRead(String chatId, String userId, Role role) {
+        send(chatId, new DietChatEvent(DietChatEvent.Type.READ, chatId, userId, role));
+    }
+
+    private void send(String chatId, DietChatEvent event) {
+        try {
+            messagingTemplate.convertAndSend(topic(chatId), event);
+        } catch (MessagingException e) {
+            logger.warn("Could not publish {} event for diet chat {}: {}", event.getType(), chatId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.dietchat.DietChatInboxResponse;
+import com.limitbeyond.dto.dietchat.DietChatSummary;
+import com.limitbeyond.dto.dietchat.InboxCursor;
+import com.limitbeyond.dto.search.ThreadType;
+import com.limitbeyond.dto.thread.MessagePage;
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.model.DietChatMessageBucket;
+import com.limitbeyond.model.Role;
+import com.limitbeyond.model.User;
+import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.service.DietChatService;
+import com.limitbeyond.service.ThreadSearchService;
+import com.mongodb.client.result.UpdateResult;
+import jakarta.annotation.PostConstruct;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class DietChatServiceImpl implements DietChatService {
+
+    private static final int PREVIEW_LENGTH = 120;
+
+    private static final Sort MOST_RECENT_FIRST = Sort.by(Sort.Direction.DESC, "lastActivityAt")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ThreadSearchService threadSearchService;
+
+    @Value("${threads.bucket-size:50}")
+    private int bucketSize;
+
+    private BucketedThreadStore<DietChat.DietChatMessage, DietChatMessageBucket> store;
+
+    @PostConstruct
+    public void init() {
+        store = new BucketedThreadStore<>(mongoTemplate, DietChat.class, "messages", DietChatMessageBucket.class,
+                bucketSize, "Diet chat not found");
+    }
+
+    @Override
+    public DietChatInboxResponse getInbox(User viewer, int size, InboxCursor cursor) {
+        boolean viewerIsMember = viewer.getRoles().contains(Role.MEMBER);
+        List<Criteria> filters = new ArrayList<>();
+        if (viewerIsMember) {
+            filters.add(Criteria.where("memberId").is(viewer.getId()));
+        } else if (viewer.getRoles().contains(Role.TRAINER) && !viewer.getRoles().contains(Role.ADMIN)) {
+            Set<String> members = viewer.getAssignedMembers();
+            if (members == null || members.isEmpty()) {
+                return new DietChatInboxResponse(new ArrayList<>(), null, false);
+            }
+            filters.add(Criteria.where("memberId").in(members));
+        }
+        if (cursor != null) {
+            filters.add(new Criteria().orOperator(
+                    Criteria.where("lastActivityAt").lt(cursor.getLastActivityAt()),
+                    Criteria.where("lastActivityAt").is(cursor.getLastActivityAt())
+                            .and("id").lt(new ObjectId(cursor.getId()))));
+        }
+
+        // Summary fields only; the messages array is never read for the inbox.
+        // One extra row tells whether another page exists.
+        Query query = (filters.isEmpty() ? new Query() : Query.query(new Criteria().andOperator(filters)))
+                .with(MOST_RECENT_FIRST).limit(size + 1);
+        query.fields().exclude("messages");
+        List<DietChat> rows = mongoTemplate.find(query, DietChat.class);
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+
+        Set<String> memberIds = new HashSet<>();
+        for (DietChat chat : rows) {
+            memberIds.add(chat.getMemberId());
+        }
+        Map<String, String> names = new HashMap<>();
+        if (!memberIds.isEmpty()) {
+            for (User member : userRepository.findAllById(memberIds)) {
+                names.put(member.getId(), member.getFirstName() + " " + member.getLastName());
+            }
+        }
+
+        List<DietChatSummary> items = new ArrayList<>();
+        for (DietChat chat : rows) {
+            DietChatSummary summary = DietChatSummary.from(chat, viewerIsMember);
+            summary.setMemberName(names.get(chat.getMemberId()));
+            items.add(summary);
+        }
+        String nextCursor = hasNext ? InboxCursor.after(rows.get(rows.size() - 1)).encode() : null;
+        return new DietChatInboxResponse(items, nextCursor, hasNext);
+    }
+
+    @Override
+    public void markRead(String chatId, boolean byMember) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(chatId)),
+                new Update().set(byMember ? "unreadForMember" : "unreadForTrainer", 0), DietChat.class);
+    }
+
+    @Override
+    public boolean isParticipant(User user, String chatId) {
+        Query query = Query.query(Criteria.where("id").is(chatId));
+        query.fields().include("memberId");
+        DietChat chat = mongoTemplate.findOne(query, DietChat.class);
+        if (chat == null) {
+            throw new RuntimeException("Diet chat not found");
+        }
+        return chat.getMemberId().equals(user.getId())
+                || user.getRoles().contains(Role.ADMIN)
+                || (user.getRoles().contains(Role.TRAINER) && user.getAssignedMembers() != null
+                        && user.getAssignedMembers().contains(chat.getMemberId()));
+    }
+
+    @Override
+    public void addMessage(DietChat chat, DietChat.DietChatMessage message) {
+        if (message.getId() == null) {
+            message.setId(new ObjectId().toHexString());
+        }
+        chat.getMessages().add(message);
+        chat.setMessageCount(chat.getMessages().size());
+        chat.setLastActivityAt(message.getTimestamp());
+        chat.setLastMessageId(message.getId());
+        chat.setLastMessagePreview(preview(message.getContent()));
+        chat.setLastMessageSenderRole(message.getSenderRole());
+        // Writing to the chat means the sender has caught up on their side
+        if (message.getSenderRole() == Role.MEMBER) {
+            chat.setUnreadForTrainer(chat.getUnreadForTrainer() + 1);
+            chat.setUnreadForMember(0);
+        } else {
+            chat.setUnreadForMember(chat.getUnreadForMember() + 1);
+            chat.setUnreadForTrainer(0);
+        }
+    }
+
+    @Override
+    public void refreshSummary(DietChat chat) {
+        List<DietChat.DietChatMessage> messages = chat.getMessages();
+        // With archived pages the running counter is the only full count
+        if (chat.getBucketCount() == 0) {
+            chat.setMessageCount(messages.size());
+        }
+        if (messages.isEmpty()) {
+            chat.setLastMessageId(null);
+            chat.setLastMessagePreview(null);
+            chat.setLastMessageSenderRole(null);
+            chat.setLastActivityAt(chat.getCreatedAt());
+            return;
+        }
+        DietChat.DietChatMessage last = messages.get(messages.size() - 1);
+        chat.setLastMessageId(last.getId());
+        chat.setLastMessagePreview(preview(last.getContent()));
+        chat.setLastMessageSenderRole(last.getSenderRole());
+        chat.setLastActivityAt(last.getTimestamp() != null ? last.getTimestamp() : chat.getCreatedAt());
+    }
+
+    @Override
+    public DietChat.DietChatMessage appendMessage(String chatId, DietChat.DietChatMessage message) {
+        if (message.getId() == null) {
+            message.setId(new ObjectId().toHexString());
+        }
+        boolean fromMember = message.getSenderRole() == Role.MEMBER;
+        // Appends without reading the thread, so concurrent replies cannot overwrite
+        // each other; a full page is archived to a bucket first
+        store.append(chatId, message, () -> new Update()
+                .set("lastActivityAt", message.getTimestamp())
+                .set("lastMessageId", message.getId())
+                .set("lastMessagePreview", preview(message.getContent()))
+                .set("lastMessageSenderRole", message.getSenderRole())
+                .inc("messageCount", 1)
+                .inc(fromMember ? "unreadForTrainer" : "unreadForMember", 1)
+                .set(fromMember ? "unreadForMember" : "unreadForTrainer", 0)
+                .inc("version", 1));
+        threadSearchService.addText(ThreadType.DIET_CHAT, chatId, message.getContent());
+        return message;
+    }
+
+    @Override
+    public MessagePage<DietChat.DietChatMessage> getMessages(String chatId, Integer before) {
+        if (before == null) {
+            // Newest page: embedded in the chat, so a single read
+            Query query = Query.query(Criteria.where("id").is(chatId));
+            query.fields().include("messages").include("bucketCount");
+            DietChat chat = mongoTemplate.findOne(query, DietChat.class);
+            if (chat == null) {
+                throw new RuntimeException("Diet chat not found");
+            }
+            return new MessagePage<>(chat.getMessages(), chat.getBucketCount() > 0 ? chat.getBucketCount() - 1 : null);
+        }
+        if (before < 0) {
+            throw new RuntimeException("Invalid page");
+        }
+        return new MessagePage<>(store.bucket(chatId, before), before > 0 ? before - 1 : null);
+    }
+
+    @Override
+    public DietChat.DietChatMessage findMessage(String chatId, String messageRef) {
+        Query query = Query.query(Criteria.where("id").is(chatId));
+        boolean byId = ObjectId.isValid(messageRef);
+        if (byId) {
+            query.fields().elemMatch("messages", BucketedThreadStore.projection(messageRef));
+        } else {
+            // Positional reference (within the newest page) from clients written
+            // before messages had ids
+            int index;
+            try {
+                index = Integer.parseInt(messageRef);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (index < 0) {
+                return null;
+            }
+            query.fields().include("id").slice("messages", index, 1);
+        }
+        DietChat chat = mongoTemplate.findOne(query, DietChat.class);
+        if (chat == null) {
+            throw new RuntimeException("Diet chat not found");
+        }
+        if (chat.getMessages() == null || chat.getMessages().isEmpty()) {
+            return byId ? store.findInBuckets(chatId, messageRef) : null;
+        }
+        // Messages still waiting for DietChatMigration cannot be addressed yet
+        DietChat.DietChatMessage message = chat.getMessages().get(0);
+        return message.getId() != null ? message : null;
+    }
+
+    @Override
+    public DietChat.DietChatMessage updateMessage(String chatId, String messageId, String content,
+            Long expectedVersion) {
+        Query query = Query.query(Criteria.where("id").is(chatId)
+                .and("messages").elemMatch(messageMatch(messageId, expectedVersion)));
+        query.fields().elemMatch("messages", BucketedThreadStore.projection(messageId));
+        DietChat updated = mongoTemplate.findAndModify(query, messageEdit("messages.$", content).inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true), DietChat.class);
+        if (updated != null && updated.getMessages() != null && !updated.getMessages().isEmpty()) {
+            // Keep the inbox preview in step when the latest message was edited
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("id").is(chatId).and("lastMessageId").is(messageId)),
+                    new Update().set("lastMessagePreview", preview(content)), DietChat.class);
+            threadSearchService.reindex(ThreadType.DIET_CHAT, chatId);
+            return updated.getMessages().get(0);
+        }
+
+        // Not on the newest page: edit it where it was archived
+        if (store.updateInBuckets(chatId, messageMatch(messageId, expectedVersion),
+                path -> messageEdit(path, content))) {
+            threadSearchService.reindex(ThreadType.DIET_CHAT, chatId);
+            return store.findInBuckets(chatId, messageId);
+        }
+        throw missingOrConflict(chatId, messageId);
+    }
+
+    @Override
+    public void deleteMessage(String chatId, String messageId, Long expectedVersion) {
+        Query query = Query.query(Criteria.where("id").is(chatId)
+                .and("messages").elemMatch(messageMatch(messageId, expectedVersion)));
+        query.fields().include("createdAt").include("lastMessageId").slice("messages", -1);
+        Update update = new Update().pull("messages", Query.query(Criteria.where("id").is(messageId)))
+                .inc("messageCount", -1)
+                .inc("version", 1);
+        DietChat updated = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                DietChat.class);
+        if (updated == null) {
+            if (!store.removeFromBuckets(chatId, messageMatch(messageId, expectedVersion), messageId)) {
+                throw missingOrConflict(chatId, messageId);
+            }
+            mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(chatId)),
+                    new Update().inc("messageCount", -1).inc("version", 1), DietChat.class);
+            threadSearchService.reindex(ThreadType.DIET_CHAT, chatId);
+            return;
+        }
+        threadSearchService.reindex(ThreadType.DIET_CHAT, chatId);
+
+        // The latest message went away: point the summary at the one before it,
+        // which is in the newest archived page once the embedded page is empty.
+        // Conditional on lastMessageId so a reply pushed meanwhile is not undone.
+        if (messageId.equals(updated.getLastMessageId())) {
+            DietChat.DietChatMessage last = updated.getMessages() == null || updated.getMessages().isEmpty()
+                    ? store.lastInBuckets(chatId)
+                    : updated.getMessages().get(0);
+            LocalDateTime lastActivityAt = last != null && last.getTimestamp() != null ? last.getTimestamp()
+                    : updated.getCreatedAt();
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("id").is(chatId).and("lastMessageId").is(messageId)),
+                    new Update().set("lastMessageId", last != null ? last.getId() : null)
+                            .set("lastMessagePreview", last != null ? preview(last.getContent()) : null)
+                            .set("lastMessageSenderRole", last != null ? last.getSenderRole() : null)
+                            .set("lastActivityAt", lastActivityAt),
+                    DietChat.class);
+        }
+    }
+
+    @Override
+    public void updateTitle(String chatId, String title, Long expectedVersion) {
+        Criteria criteria = Criteria.where("id").is(chatId);
+        if (expectedVersion != null) {
+            criteria.and("version").is(expectedVersion);
+        }
+        UpdateResult result = mongoTemplate.updateFirst(Query.query(criteria),
+                new Update().set("title", title).inc("version", 1), DietChat.class);
+        if (result.getMatchedCount() == 0) {
+            if (mongoTemplate.exists(Query.query(Criteria.where("id").is(chatId)), DietChat.class)) {
+                throw new OptimisticLockingFailureException("Diet chat was changed by someone else");
+            }
+            throw new RuntimeException("Diet chat not found");
+        }
+        threadSearchService.reindex(ThreadType.DIET_CHAT, chatId);
+    }
+
+    @Override
+    public void deleteChat(String chatId) {
+        mongoTemplate.remove(Query.query(Criteria.where("id").is(chatId)), DietChat.class);
+        store.deleteBuckets(chatId);
+        threadSearchService.remove(ThreadType.DIET_CHAT, chatId);
+    }
+
+    @Override
+    public int archiveOlderPages(DietChat chat) {
+        int pagesBefore = chat.getBucketCount();
+        List<DietChat.DietChatMessage> newest = store.archiveOlderPages(chat.getId(), chat.getMessages(),
+                pagesBefore);
+        int archived = (chat.getMessages().size() - newest.size()) / store.getBucketSize();
+        chat.setMessages(new ArrayList<>(newest));
+        chat.setBucketCount(pagesBefore + archived);
+        return archived;
+    }
+
+    private Update messageEdit(String path, String content) {
+        return new Update().set(path + ".content", content)
+                .set(path + ".edited", true)
+                .inc(path + ".version", 1);
+    }
+
+    private Criteria messageMatch(String messageId, Long expectedVersion) {
+        Criteria match = Criteria.where("id").is(messageId);
+        if (expectedVersion != null) {
+            match.and("version").is(expectedVersion);
+        }
+        return match;
+    }
+
+    private RuntimeException missingOrConflict(String chatId, String messageId) {
+        if (!mongoTemplate.exists(Query.query(Criteria.where("id").is(chatId)), DietChat.class)) {
+            return new RuntimeException("Diet chat not found");
+        }
+        if (mongoTemplate.exists(Query.query(Criteria.where("id").is(chatId)
+                .and("messages").elemMatch(Criteria.where("id").is(messageId))), DietChat.class)
+                || store.findInBuckets(chatId, messageId) != null) {
+            return new OptimisticLockingFailureException("Message was changed by someone else");
+        }
+        return new RuntimeException("Message not found");
+    }
+
+    private String preview(String content) {
+        if (content == null || content.length() <= PREVIEW_LENGTH) {
+            return content;
+        }
+        return content.substring(0, PREVIEW_LENGTH - 3) + "...";
+    }
+}
@@ -0,0 +1,190 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.search.ThreadType;
+import com.limitbeyond.dto.thread.MessagePage;
+import com.limitbeyond.model.Feedback;
+import com.limitbeyond.model.FeedbackResponseBucket;
+import com.limitbeyond.service.FeedbackService;
+import com.limitbeyond.service.ThreadSearchService;
+import jakarta.annotation.PostConstruct;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class FeedbackServiceImpl implements FeedbackService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ThreadSearchService threadSearchService;
+
+    @Value("${threads.bucket-size:50}")
+    private int bucketSize;
+
+    private BucketedThreadStore<Feedback.FeedbackResponse, FeedbackResponseBucket> store;
+
+    @PostConstruct
+    public void init() {
+        store = new BucketedThreadStore<>(mongoTemplate, Feedback.class, "responses", FeedbackResponseBucket.class,
+                bucketSize, "Feedback not found");
+    }
+
+    @Override
+    public Feedback.FeedbackResponse respond(String feedbackId, Feedback.FeedbackResponse response) {
+        if (response.getId() == null) {
+            response.setId(new ObjectId().toHexString());
+        }
+        store.append(feedbackId, response, () -> new Update()
+                .set("lastResponseAt", response.getResponseTime())
+                .inc("responseCount", 1)
+                .inc("version", 1));
+        threadSearchService.addText(ThreadType.FEEDBACK, feedbackId, response.getContent());
+        return response;
+    }
+
+    @Override
+    public MessagePage<Feedback.FeedbackResponse> getResponses(String feedbackId, Integer before) {
+        if (before == null) {
+            Query query = Query.query(Criteria.where("id").is(feedbackId));
+            query.fields().include("responses").include("bucketCount");
+            Feedback feedback = mongoTemplate.findOne(query, Feedback.class);
+            if (feedback == null) {
+                throw new RuntimeException("Feedback not found");
+            }
+            return new MessagePage<>(feedback.getResponses(),
+                    feedback.getBucketCount() > 0 ? feedback.getBucketCount() - 1 : null);
+        }
+        if (before < 0) {
+            throw new RuntimeException("Invalid page");
+        }
+        return new MessagePage<>(store.bucket(feedbackId, before), before > 0 ? before - 1 : null);
+    }
+
+    @Override
+    public Feedback.FeedbackResponse findResponse(String feedbackId, String responseRef) {
+        Query query = Query.query(Criteria.where("id").is(feedbackId));
+        boolean byId = ObjectId.isValid(responseRef);
+        if (byId) {
+            query.fields().elemMatch("responses", BucketedThreadStore.projection(responseRef));
+        } else {
+            int index;
+            try {
+                index = Integer.parseInt(responseRef);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (index < 0) {
+                return null;
+            }
+            query.fields().include("id").slice("responses", index, 1);
+        }
+        Feedback feedback = mongoTemplate.findOne(query, Feedback.class);
+        if (feedback == null) {
+            throw new RuntimeException("Feedback not found");
+        }
+        if (feedback.getResponses() == null || feedback.getResponses().isEmpty()) {
+            return byId ? store.findInBuckets(feedbackId, responseRef) : null;
+        }
+        // Responses still waiting for FeedbackMigration cannot be addressed yet
+        Feedback.FeedbackResponse response = feedback.getResponses().get(0);
+        return response.getId() != null ? response : null;
+    }
+
+    @Override
+    public Feedback.FeedbackResponse updateResponse(String feedbackId, String responseId, String content) {
+        Query query = Query.query(Criteria.where("id").is(feedbackId)
+                .and("responses").elemMatch(Criteria.where("id").is(responseId)));
+        query.fields().elemMatch("responses", BucketedThreadStore.projection(responseId));
+        Feedback updated = mongoTemplate.findAndModify(query,
+                new Update().set("responses.$.content", content).inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true), Feedback.class);
+        if (updated != null && updated.getResponses() != null && !updated.getResponses().isEmpty()) {
+            threadSearchService.reindex(ThreadType.FEEDBACK, feedbackId);
+            return updated.getResponses().get(0);
+        }
+        if (store.updateInBuckets(feedbackId, Criteria.where("id").is(responseId),
+                path -> new Update().set(path + ".content", content))) {
+            threadSearchService.reindex(ThreadType.FEEDBACK, feedbackId);
+            return store.findInBuckets(feedbackId, responseId);
+        }
+        throw notFound(feedbackId);
+    }
+
+    @Override
+    public void deleteResponse(String feedbackId, String responseId) {
+        Update update = new Update().inc("responseCount", -1).inc("version", 1);
+        Query query = Query.query(Criteria.where("id").is(feedbackId)
+                .and("responses").elemMatch(Criteria.where("id").is(responseId)));
+        if (mongoTemplate.updateFirst(query,
+                update.pull("responses", Query.query(Criteria.where("id").is(responseId))),
+                Feedback.class).getModifiedCount() > 0) {
+            threadSearchService.reindex(ThreadType.FEEDBACK, feedbackId);
+            return;
+        }
+        if (!store.removeFromBuckets(feedbackId, Criteria.where("id").is(responseId), responseId)) {
+            throw notFound(feedbackId);
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(feedbackId)),
+                new Update().inc("responseCount", -1).inc("version", 1), Feedback.class);
+        threadSearchService.reindex(ThreadType.FEEDBACK, feedbackId);
+    }
+
+    @Override
+    public void updateFeedback(String feedbackId, String title, String content) {
+        // A targeted $set: saving the loaded document would write back a stale
+        // page of responses over any reply added meanwhile
+        if (mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(feedbackId)),
+                new Update().set("title", title).set("content", content).inc("version", 1),
+                Feedback.class).getMatchedCount() == 0) {
+            throw new RuntimeException("Feedback not found");
+        }
+        threadSearchService.reindex(ThreadType.FEEDBACK, feedbackId);
+    }
+
+    @Override
+    public void deleteFeedback(String feedbackId) {
+        mongoTemplate.remove(Query.query(Criteria.where("id").is(feedbackId)), Feedback.class);
+        store.deleteBuckets(feedbackId);
+        threadSearchService.remove(ThreadType.FEEDBACK, feedbackId);
+    }
+
+    @Override
+    public void refreshSummary(Feedback feedback) {
+        List<Feedback.FeedbackResponse> responses = feedback.getResponses();
+        if (feedback.getBucketCount() == 0) {
+            feedback.setResponseCount(responses.size());
+        }
+        if (!responses.isEmpty()) {
+            feedback.setLastResponseAt(responses.get(responses.size() - 1).getResponseTime());
+        }
+    }
+
+    @Override
+    public int archiveOlderPages(Feedback feedback) {
+        int pagesBefore = feedback.getBucketCount();
+        List<Feedback.FeedbackResponse> newest = store.archiveOlderPages(feedback.getId(), feedback.getResponses(),
+                pagesBefore);
+        int archived = (feedback.getResponses().size() - newest.size()) / store.getBucketSize();
+        feedback.setResponses(new ArrayList<>(newest));
+        feedback.setBucketCount(pagesBefore + archived);
+        return archived;
+    }
+
+    private RuntimeException notFound(String feedbackId) {
+        if (!mongoTemplate.exists(Query.query(Criteria.where("id").is(feedbackId)), Feedback.class)) {
+            return new RuntimeException("Feedback not found");
+        }
+        return new RuntimeException("Response not found");
+    }
+}
@@ -0,0 +1,230 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.search.SearchHit;
+import com.limitbeyond.dto.search.ThreadType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Term -> thread postings for ThreadSearchServiceImpl, ranked with BM25. Term
+ * frequencies are weighted by field (a title hit counts more than a message
+ * hit) and each entry keeps its own term counts so it can be replaced or removed
+ * without scanning the postings. Readers share a lock; writes are short and
+ * exclusive.
+ */
+class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "but", "by",
+            "for", "i", "if", "in", "is", "it", "me", "my", "no", "not", "of", "on", "or", "so", "that", "the",
+            "this", "to", "was", "we", "what", "with", "you", "your");
+
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private long totalLength;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    static String key(ThreadType type, String id) {
+        return type + ":" + id;
+    }
+
+    // Lower-cased words of two or more letters or digits, minus stop words, with a
+    // plural "s" dropped so "carbs" finds "carb"
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = normalize(text.substring(start, i));
+                if (token != null) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private static String normalize(String word) {
+        String token = word.toLowerCase(Locale.ROOT);
+        if (token.length() < 2 || STOP_WORDS.contains(token)) {
+            return null;
+        }
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss")) {
+            token = token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+
+    void put(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(entry.key());
+            entries.put(entry.key(), entry);
+            addPostingsLocked(entry.key(), entry.terms);
+            totalLength += entry.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Adds terms to an indexed thread; false when the thread is not indexed
+    boolean append(String key, Map<String, Integer> terms, LocalDateTime at) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return false;
+            }
+            terms.forEach((term, count) -> entry.terms.merge(term, count, Integer::sum));
+            addPostingsLocked(key, terms);
+            int added = terms.values().stream().mapToInt(Integer::intValue).sum();
+            entry.length += added;
+            totalLength += added;
+            if (at != null) {
+                entry.lastActivityAt = at;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Visible entries containing any query term, best match first
+    List<SearchHit> search(List<String> queryTerms, Predicate<Entry> visible) {
+        lock.readLock().lock();
+        try {
+            int n = entries.size();
+            if (n == 0) {
+                return List.of();
+            }
+            double avgLength = Math.max(1.0, (double) totalLength / n);
+            Map<String, Double> scores = new HashMap<>();
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                Map<String, Integer> docs = postings.get(term);
+                if (docs == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (n - docs.size() + 0.5) / (docs.size() + 0.5));
+                for (Map.Entry<String, Integer> posting : docs.entrySet()) {
+                    Entry entry = entries.get(posting.getKey());
+                    double tf = posting.getValue();
+                    double norm = K1 * (1 - B + B * entry.length / avgLength);
+                    scores.merge(posting.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+            List<SearchHit> result = new ArrayList<>();
+            scores.forEach((key, score) -> {
+                Entry entry = entries.get(key);
+                if (visible.test(entry)) {
+                    result.add(new SearchHit(entry.type, entry.id, entry.memberId, entry.title, score,
+                            entry.lastActivityAt));
+                }
+            });
+            result.sort(Comparator.comparingDouble(SearchHit::getScore).reversed()
+                    .thenComparing(SearchHit::getLastActivityAt, Comparator.nullsLast(Comparator.reverseOrder())));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addPostingsLocked(String key, Map<String, Integer> terms) {
+        terms.forEach((term, count) -> postings.computeIfAbsent(term, t -> new HashMap<>())
+                .merge(key, count, Integer::sum));
+    }
+
+    private void removeLocked(String key) {
+        Entry existing = entries.remove(key);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms.keySet()) {
+            Map<String, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(key);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= existing.length;
+    }
+
+    // A thread's searchable state; mutated only under the write lock
+    static class Entry {
+        private final ThreadType type;
+        private final String id;
+        private final String memberId;
+        private final String title;
+        private final Map<String, Integer> terms;
+        private int length;
+        private LocalDateTime lastActivityAt;
+
+        Entry(ThreadType type, String id, String memberId, String title, Map<String, Integer> terms,
+                LocalDateTime lastActivityAt) {
+            this.type = type;
+            this.id = id;
+            this.memberId = memberId;
+            this.title = title;
+            this.terms = terms;
+            this.length = terms.values().stream().mapToInt(Integer::intValue).sum();
+            this.lastActivityAt = lastActivityAt;
+        }
+
+        String key() {
+            return InvertedIndex.key(type, id);
+        }
+
+        ThreadType type() {
+            return type;
+        }
+
+        String memberId() {
+            return memberId;
+        }
+    }
+}
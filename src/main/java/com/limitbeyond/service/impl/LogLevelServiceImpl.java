@@ -0,0 +1,133 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.config.LogSamplingTurboFilter;
+import com.limitbeyond.dto.logging.LogLevelOverride;
+import com.limitbeyond.service.LogLevelService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temporary logger levels for diagnosing production. Every override reverts on
+ * its own after at most logging.override.max-minutes, so a forgotten DEBUG does
+ * not stay on. Overrides live in this instance only and are lost on restart,
+ * which also restores the configured levels.
+ */
+@Service
+public class LogLevelServiceImpl implements LogLevelService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogLevelServiceImpl.class);
+
+    @Autowired
+    private LoggingSystem loggingSystem;
+
+    @Value("${logging.override.max-minutes:60}")
+    private int maxMinutes;
+
+    private final Map<String, ActiveOverride> overrides = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService reverter = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "log-level-revert");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PreDestroy
+    public void stop() {
+        reverter.shutdownNow();
+    }
+
+    @Override
+    public synchronized LogLevelOverride override(String name, String level, int minutes) {
+        LogLevel target;
+        try {
+            target = LogLevel.valueOf(level.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid log level");
+        }
+        int duration = Math.max(1, Math.min(minutes, maxMinutes));
+
+        // Re-overriding keeps the level from before the first override
+        ActiveOverride existing = overrides.remove(name);
+        LogLevel previous;
+        if (existing != null) {
+            existing.revertTask.cancel(false);
+            previous = existing.previous;
+        } else {
+            LoggerConfiguration configuration = loggingSystem.getLoggerConfiguration(name);
+            previous = configuration != null ? configuration.getConfiguredLevel() : null;
+        }
+
+        loggingSystem.setLogLevel(name, target);
+        LogSamplingTurboFilter.exempt(name);
+        ActiveOverride override = new ActiveOverride(target, previous, LocalDateTime.now().plusMinutes(duration));
+        overrides.put(name, override);
+        // Bound to this override: cancel() cannot stop a revert that is already
+        // waiting on the lock, and it must not undo an override set after it
+        override.revertTask = reverter.schedule(() -> expire(name, override), duration, TimeUnit.MINUTES);
+        logger.warn("Log level of {} set to {} for {} minutes", name, target, duration);
+        return toDto(name, override);
+    }
+
+    @Override
+    public synchronized boolean revert(String name) {
+        ActiveOverride override = overrides.remove(name);
+        if (override == null) {
+            return false;
+        }
+        override.revertTask.cancel(false);
+        // A null level makes the logger inherit from its parent again
+        loggingSystem.setLogLevel(name, override.previous);
+        LogSamplingTurboFilter.unexempt(name);
+        logger.warn("Log level of {} restored to {}", name,
+                override.previous != null ? override.previous : "inherited");
+        return true;
+    }
+
+    private synchronized void expire(String name, ActiveOverride override) {
+        if (overrides.get(name) == override) {
+            revert(name);
+        }
+    }
+
+    @Override
+    public List<LogLevelOverride> getOverrides() {
+        List<LogLevelOverride> result = new ArrayList<>();
+        overrides.forEach((name, override) -> result.add(toDto(name, override)));
+        return result;
+    }
+
+    private LogLevelOverride toDto(String name, ActiveOverride override) {
+        return new LogLevelOverride(name, override.level.name(),
+                override.previous != null ? override.previous.name() : null, override.expiresAt);
+    }
+
+    private static class ActiveOverride {
+        private final LogLevel level;
+        private final LogLevel previous;
+        private final LocalDateTime expiresAt;
+        private ScheduledFuture<?> revertTask; // Set right after scheduling, under the service lock
+
+        ActiveOverride(LogLevel level, LogLevel previous, LocalDateTime expiresAt) {
+            this.level = level;
+            this.previous = previous;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
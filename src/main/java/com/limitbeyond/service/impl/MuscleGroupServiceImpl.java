@@ -6,7 +6,10 @@ import com.limitbeyond.service.MuscleGroupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class MuscleGroupServiceImpl implements MuscleGroupService {
@@ -41,6 +44,24 @@ public class MuscleGroupServiceImpl implements MuscleGroupService {
         return muscleGroupRepository.findAll();
     }
 
+    @Override
+    public List<MuscleGroup> findAllById(List<String> ids) {
+        // Single $in query; keep the caller's order and fail on unknown ids like findById
+        Map<String, MuscleGroup> byId = new HashMap<>();
+        for (MuscleGroup muscleGroup : muscleGroupRepository.findAllById(ids)) {
+            byId.put(muscleGroup.getId(), muscleGroup);
+        }
+        List<MuscleGroup> result = new ArrayList<>();
+        for (String id : ids) {
+            MuscleGroup muscleGroup = byId.get(id);
+            if (muscleGroup == null) {
+                throw new RuntimeException("Muscle group with id " + id + " not found");
+            }
+            result.add(muscleGroup);
+        }
+        return result;
+    }
+
     @Override
     public MuscleGroup update(String id, String name) {
         MuscleGroup muscleGroup = findById(id);
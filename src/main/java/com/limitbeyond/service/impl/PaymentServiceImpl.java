@@ -1,25 +1,83 @@
 package com.limitbeyond.service.impl;
 
+import com.limitbeyond.dto.payment.RevenueReport;
 import com.limitbeyond.model.Payment;
+import com.limitbeyond.model.RevenueDaily;
+import com.limitbeyond.model.User;
 import com.limitbeyond.repository.PaymentRepository;
+import com.limitbeyond.repository.UserRepository;
 import com.limitbeyond.service.PaymentService;
+import jakarta.annotation.PostConstruct;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class PaymentServiceImpl implements PaymentService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PaymentServiceImpl.class);
+    private static final int MAX_REBUILD_ATTEMPTS = 5;
+    private static final int DUPLICATE_KEY = 11000;
+
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${payments.reporting-zone:UTC}")
+    private String reportingZoneId;
+
+    // Zone that revenue days, weeks and months are counted in
+    private ZoneId reportingZone;
+
+    // The same zone as Mongo date operators accept it (an Olson name or +hh:mm)
+    private String mongoTimezone;
+
+    @PostConstruct
+    public void init() {
+        reportingZone = ZoneId.of(reportingZoneId).normalized();
+        mongoTimezone = toMongoTimezone(reportingZone);
+    }
+
     @Override
     public Payment createPayment(Payment p) {
         if (p.getPaidAt() == null)
             p.setPaidAt(LocalDateTime.now());
-        return paymentRepository.save(p);
+        // Attribute the payment to the member's trainer at the time it was made
+        if (p.getTrainerId() == null && p.getUserId() != null) {
+            userRepository.findById(p.getUserId()).ifPresent(member -> p.setTrainerId(member.getAssignedTrainer()));
+        }
+        Payment saved = paymentRepository.save(p);
+        incrementDailyRevenue(saved);
+        return saved;
     }
 
     @Override
@@ -29,15 +87,237 @@ public class PaymentServiceImpl implements PaymentService {
 
     @Override
     public double getRevenueBetween(LocalDateTime start, LocalDateTime end) {
-        double sum = 0.0;
-        for (Payment p : paymentRepository.findAll()) {
-            if (p.getPaidAt() == null)
-                continue;
-            if ((p.getPaidAt().isEqual(start) || p.getPaidAt().isAfter(start))
-                    && (p.getPaidAt().isEqual(end) || p.getPaidAt().isBefore(end))) {
-                sum += p.getAmount();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(paidBetween(start, end)),
+                Aggregation.group().sum("amount").as("total"));
+        Document result = mongoTemplate.aggregate(aggregation, Payment.class, Document.class).getUniqueMappedResult();
+        return result != null ? toDouble(result.get("total")) : 0.0;
+    }
+
+    @Override
+    public double getRevenueForDays(LocalDate start, LocalDate end) {
+        // At most one rollup row per day in the range instead of one document per payment
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("_id").gte(start.toString()).lte(end.toString())),
+                Aggregation.group().sum("total").as("total"));
+        Document result = mongoTemplate.aggregate(aggregation, RevenueDaily.class, Document.class)
+                .getUniqueMappedResult();
+        return result != null ? toDouble(result.get("total")) : 0.0;
+    }
+
+    @Override
+    public int rebuildDailyRevenue(LocalDate start, LocalDate end) {
+        Criteria paid = Criteria.where("paidAt").ne(null);
+        Criteria days = new Criteria();
+        if (start != null) {
+            paid.gte(startOfDay(start));
+        }
+        if (end != null) {
+            paid.lt(startOfDay(end.plusDays(1)));
+        }
+        if (start != null || end != null) {
+            days = Criteria.where("_id");
+            if (start != null) {
+                days.gte(start.toString());
+            }
+            if (end != null) {
+                days.lte(end.toString());
+            }
+        }
+
+        // Days whose rollup moved after this point were incremented by a concurrent
+        // createPayment that the aggregate may not have seen, so they are not overwritten
+        LocalDateTime rebuildStartedAt = LocalDateTime.now();
+        Map<String, Document> totals = aggregateDays(paid);
+        List<String> conflicts = writeDays(totals, rebuildStartedAt);
+        for (int attempt = 1; !conflicts.isEmpty() && attempt < MAX_REBUILD_ATTEMPTS; attempt++) {
+            List<Criteria> retryDays = new ArrayList<>();
+            for (String day : conflicts) {
+                LocalDate date = LocalDate.parse(day);
+                retryDays.add(Criteria.where("paidAt").gte(startOfDay(date)).lt(startOfDay(date.plusDays(1))));
+            }
+            LocalDateTime retryStartedAt = LocalDateTime.now();
+            Map<String, Document> retried = aggregateDays(new Criteria().orOperator(retryDays));
+            totals.putAll(retried);
+            conflicts = writeDays(retried, retryStartedAt);
+        }
+        if (!conflicts.isEmpty()) {
+            logger.warn("Daily revenue for {} kept changing during the rebuild and was left as is", conflicts);
+        }
+
+        // Only days in the range that had no payment and were not touched since are removed
+        List<String> rebuiltDays = new ArrayList<>(totals.keySet());
+        mongoTemplate.remove(Query.query(new Criteria().andOperator(days,
+                Criteria.where("_id").nin(rebuiltDays), notUpdatedSince(rebuildStartedAt))), RevenueDaily.class);
+        return rebuiltDays.size() - conflicts.size();
+    }
+
+    private Map<String, Document> aggregateDays(Criteria paid) {
+        Document dayOf = new Document("$dateToString", new Document("format", "%Y-%m-%d")
+                .append("date", "$paidAt")
+                .append("timezone", mongoTimezone));
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(paid),
+                context -> new Document("$group", new Document("_id", dayOf)
+                        .append("total", new Document("$sum", "$amount"))
+                        .append("count", new Document("$sum", 1))));
+        Map<String, Document> totals = new LinkedHashMap<>();
+        for (Document day : mongoTemplate.aggregate(aggregation, Payment.class, Document.class)) {
+            totals.put(day.getString("_id"), day);
+        }
+        return totals;
+    }
+
+    // One upsert per day, only while the rollup is older than the aggregate or
+    // missing. A day updated since no longer matches, so its upsert hits the _id
+    // index and is returned for another pass. The batch is unordered so one
+    // conflicting day does not stop the rest.
+    private List<String> writeDays(Map<String, Document> totals, LocalDateTime startedAt) {
+        List<String> ids = new ArrayList<>(totals.keySet());
+        List<String> conflicts = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return conflicts;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RevenueDaily.class);
+        LocalDateTime now = LocalDateTime.now();
+        for (String id : ids) {
+            Document day = totals.get(id);
+            bulk.upsert(Query.query(new Criteria().andOperator(Criteria.where("_id").is(id), notUpdatedSince(startedAt))),
+                    new Update()
+                            .set("total", toDouble(day.get("total")))
+                            .set("count", toLong(day.get("count")))
+                            .set("updatedAt", now));
+        }
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                conflicts.add(ids.get(error.getIndex()));
             }
         }
-        return sum;
+        return conflicts;
+    }
+
+    private Criteria notUpdatedSince(LocalDateTime startedAt) {
+        return new Criteria().orOperator(Criteria.where("updatedAt").lt(startedAt),
+                Criteria.where("updatedAt").exists(false));
+    }
+
+    @Override
+    public RevenueReport getRevenueReport(LocalDateTime start, LocalDateTime end,
+            RevenueReport.Granularity granularity) {
+        // A single round trip: $match on the paidAt index, then one $facet per breakdown
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(paidBetween(start, end)),
+                Aggregation.facet(Aggregation.group().sum("amount").as("total").count().as("count"))
+                        .as("summary")
+                        .and(groupByPeriod(granularity), Aggregation.sort(Sort.Direction.ASC, "_id"))
+                        .as("periods")
+                        .and(Aggregation.group("months").sum("amount").as("total").count().as("count"),
+                                Aggregation.sort(Sort.Direction.ASC, "_id"))
+                        .as("plans")
+                        .and(Aggregation.group("trainerId").sum("amount").as("total").count().as("count"),
+                                Aggregation.sort(Sort.Direction.DESC, "total"))
+                        .as("trainers"));
+        Document result = mongoTemplate.aggregate(aggregation, Payment.class, Document.class).getUniqueMappedResult();
+
+        RevenueReport report = new RevenueReport(start, end, granularity);
+        if (result == null) {
+            return report;
+        }
+
+        for (Document summary : result.getList("summary", Document.class)) {
+            report.setTotal(toDouble(summary.get("total")));
+            report.setCount(toLong(summary.get("count")));
+        }
+        for (Document period : result.getList("periods", Document.class)) {
+            report.getPeriods().add(new RevenueReport.PeriodRevenue(toLocalDateTime(period.get("_id")),
+                    toDouble(period.get("total")), toLong(period.get("count"))));
+        }
+        for (Document plan : result.getList("plans", Document.class)) {
+            Object months = plan.get("_id");
+            report.getPlans().add(new RevenueReport.PlanRevenue(months instanceof Number ? ((Number) months).intValue() : 0,
+                    toDouble(plan.get("total")), toLong(plan.get("count"))));
+        }
+
+        List<String> trainerIds = new ArrayList<>();
+        for (Document trainer : result.getList("trainers", Document.class)) {
+            Object trainerId = trainer.get("_id");
+            report.getTrainers().add(new RevenueReport.TrainerRevenue(trainerId != null ? trainerId.toString() : null,
+                    toDouble(trainer.get("total")), toLong(trainer.get("count"))));
+            if (trainerId != null) {
+                trainerIds.add(trainerId.toString());
+            }
+        }
+        if (!trainerIds.isEmpty()) {
+            Map<String, String> names = new HashMap<>();
+            for (User trainer : userRepository.findAllById(trainerIds)) {
+                names.put(trainer.getId(), trainer.getFirstName() + " " + trainer.getLastName());
+            }
+            for (RevenueReport.TrainerRevenue trainer : report.getTrainers()) {
+                trainer.setTrainerName(names.get(trainer.getTrainerId()));
+            }
+        }
+        return report;
+    }
+
+    private void incrementDailyRevenue(Payment p) {
+        String day = p.getPaidAt().atZone(ZoneId.systemDefault()).withZoneSameInstant(reportingZone).toLocalDate()
+                .toString();
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(day)),
+                new Update().inc("total", p.getAmount()).inc("count", 1).set("updatedAt", LocalDateTime.now()),
+                RevenueDaily.class);
+    }
+
+    // Report bounds are wall-clock times in the reporting zone
+    private Criteria paidBetween(LocalDateTime start, LocalDateTime end) {
+        return Criteria.where("paidAt").gte(toSystemZone(start)).lte(toSystemZone(end));
+    }
+
+    // $dateTrunc in the configured reporting zone, so a day or month means the same
+    // thing whatever zone the host runs in
+    private AggregationOperation groupByPeriod(RevenueReport.Granularity granularity) {
+        Document dateTrunc = new Document("date", "$paidAt")
+                .append("unit", granularity.name().toLowerCase())
+                .append("timezone", mongoTimezone);
+        if (granularity == RevenueReport.Granularity.WEEK) {
+            dateTrunc.append("startOfWeek", "monday");
+        }
+        return context -> new Document("$group", new Document("_id", new Document("$dateTrunc", dateTrunc))
+                .append("total", new Document("$sum", "$amount"))
+                .append("count", new Document("$sum", 1)));
+    }
+
+    // Period starts are reported as wall-clock times in the reporting zone
+    private LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Date ? LocalDateTime.ofInstant(((Date) value).toInstant(), reportingZone) : null;
+    }
+
+    // paidAt values are stored from LocalDateTime in the JVM's zone
+    private LocalDateTime startOfDay(LocalDate day) {
+        return toSystemZone(day.atStartOfDay());
+    }
+
+    private LocalDateTime toSystemZone(LocalDateTime reportingTime) {
+        return reportingTime.atZone(reportingZone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    // Mongo rejects "Z" and other java.time-only ids; fixed offsets go as +hh:mm
+    static String toMongoTimezone(ZoneId zone) {
+        if (zone instanceof ZoneOffset) {
+            return ((ZoneOffset) zone).getTotalSeconds() == 0 ? "UTC" : zone.getId();
+        }
+        return zone.getId();
+    }
+
+    private double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+    }
+
+    private long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
     }
 }
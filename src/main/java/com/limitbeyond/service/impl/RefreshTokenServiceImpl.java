@@ -0,0 +1,144 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.model.RefreshToken;
+import com.limitbeyond.model.User;
+import com.limitbeyond.payload.JwtAuthenticationResponse;
+import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.security.JwtTokenProvider;
+import com.limitbeyond.security.TokenRevocationStore;
+import com.limitbeyond.security.UserPrincipal;
+import com.limitbeyond.service.RefreshTokenService;
+import io.jsonwebtoken.Claims;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenServiceImpl.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Value("${jwt.refresh-expiration:2592000000}")
+    private long refreshExpirationMs;
+
+    @Override
+    public JwtAuthenticationResponse issue(UserPrincipal principal) {
+        return issue(principal, new ObjectId().toHexString());
+    }
+
+    @Override
+    public JwtAuthenticationResponse rotate(String refreshToken) {
+        String hash = hash(refreshToken);
+        // Atomically use the token up so two concurrent refreshes cannot both succeed
+        RefreshToken used = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("tokenHash").is(hash).and("revoked").is(false)
+                        .and("expiresAt").gt(LocalDateTime.now())),
+                new Update().set("revoked", true), FindAndModifyOptions.options().returnNew(false),
+                RefreshToken.class);
+
+        if (used == null) {
+            RefreshToken replayed = mongoTemplate.findOne(Query.query(Criteria.where("tokenHash").is(hash)),
+                    RefreshToken.class);
+            if (replayed != null && replayed.isRevoked()) {
+                // A rotated token came back: assume it leaked and end the whole session
+                logger.warn("Refresh token reuse for user {}, revoking family {}", replayed.getUserId(),
+                        replayed.getFamilyId());
+                revokeFamily(replayed.getFamilyId());
+            }
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        User user = userRepository.findById(used.getUserId())
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+        if (!user.isActive()) {
+            revokeFamily(used.getFamilyId());
+            throw new RuntimeException("Invalid refresh token");
+        }
+        return issue(UserPrincipal.create(user), used.getFamilyId());
+    }
+
+    @Override
+    public void logout(String refreshToken, String accessToken) {
+        if (refreshToken != null) {
+            RefreshToken stored = mongoTemplate.findOne(
+                    Query.query(Criteria.where("tokenHash").is(hash(refreshToken))), RefreshToken.class);
+            if (stored != null) {
+                revokeFamily(stored.getFamilyId());
+            }
+        }
+        if (accessToken != null) {
+            Claims claims = tokenProvider.parseClaims(accessToken);
+            if (claims != null && claims.getExpiration() != null) {
+                tokenRevocationStore.revoke(claims.getId(), claims.getSubject(),
+                        LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()));
+            }
+        }
+    }
+
+    @Override
+    public void revokeAllForUser(String userId) {
+        mongoTemplate.updateMulti(Query.query(Criteria.where("userId").is(userId).and("revoked").is(false)),
+                new Update().set("revoked", true), RefreshToken.class);
+    }
+
+    private JwtAuthenticationResponse issue(UserPrincipal principal, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken stored = new RefreshToken();
+        stored.setTokenHash(hash(refreshToken));
+        stored.setUserId(principal.getId());
+        stored.setFamilyId(familyId);
+        stored.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs)));
+        mongoTemplate.insert(stored);
+
+        String accessToken = tokenProvider.generateToken(principal);
+        return new JwtAuthenticationResponse(accessToken, refreshToken, tokenProvider.getExpirationMs() / 1000);
+    }
+
+    private void revokeFamily(String familyId) {
+        mongoTemplate.updateMulti(Query.query(Criteria.where("familyId").is(familyId).and("revoked").is(false)),
+                new Update().set("revoked", true), RefreshToken.class);
+    }
+
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
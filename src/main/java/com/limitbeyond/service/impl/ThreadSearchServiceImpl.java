@@ -0,0 +1,261 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.search.SearchHit;
+import com.limitbeyond.dto.search.SearchResponse;
+import com.limitbeyond.dto.search.ThreadType;
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.model.DietChatMessageBucket;
+import com.limitbeyond.model.Feedback;
+import com.limitbeyond.model.FeedbackResponseBucket;
+import com.limitbeyond.model.MessageBucket;
+import com.limitbeyond.model.Role;
+import com.limitbeyond.model.User;
+import com.limitbeyond.service.ThreadSearchService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over diet chats and feedback from an in-memory inverted
+ * index. Writes through DietChatService, FeedbackService and the create
+ * endpoints update the index as they happen; a full rebuild from Mongo runs on
+ * startup and then every search.rebuild-interval-minutes, which also picks up
+ * writes made by other instances. Threads touched while a rebuild is running
+ * are re-read once the new index is in place, so a rebuild never loses them.
+ */
+@Service
+public class ThreadSearchServiceImpl implements ThreadSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadSearchServiceImpl.class);
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int BODY_WEIGHT = 2; // initialQuery / feedback content
+    private static final int MESSAGE_WEIGHT = 1;
+    private static final int MAX_QUERY_TERMS = 10;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${search.rebuild-interval-minutes:30}")
+    private long rebuildIntervalMinutes;
+
+    private volatile InvertedIndex index = new InvertedIndex();
+
+    private volatile boolean rebuilding;
+
+    private final Set<String> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "search-index-rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PostConstruct
+    public void start() {
+        // Off the startup path: searches return partial results until the first build is done
+        if (rebuildOnStartup) {
+            scheduler.execute(this::scheduledRebuild);
+        }
+        if (rebuildIntervalMinutes > 0) {
+            scheduler.scheduleWithFixedDelay(this::scheduledRebuild, rebuildIntervalMinutes, rebuildIntervalMinutes,
+                    TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public SearchResponse search(User viewer, String query, ThreadType type, int page, int size) {
+        List<String> terms = InvertedIndex.tokenize(query);
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+        if (terms.isEmpty()) {
+            return new SearchResponse(List.of(), page, size, 0);
+        }
+        Predicate<InvertedIndex.Entry> visible = visibleTo(viewer);
+        if (type != null) {
+            visible = visible.and(entry -> entry.type() == type);
+        }
+        List<SearchHit> hits = index.search(terms, visible);
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        return new SearchResponse(hits.subList(from, to), page, size, hits.size());
+    }
+
+    @Override
+    public void index(DietChat chat) {
+        touched(ThreadType.DIET_CHAT, chat.getId());
+        index.put(entry(chat, List.of()));
+    }
+
+    @Override
+    public void index(Feedback feedback) {
+        touched(ThreadType.FEEDBACK, feedback.getId());
+        index.put(entry(feedback, List.of()));
+    }
+
+    @Override
+    public void addText(ThreadType type, String threadId, String text) {
+        touched(type, threadId);
+        Map<String, Integer> terms = new HashMap<>();
+        InvertedIndex.addTerms(terms, text, MESSAGE_WEIGHT);
+        if (!index.append(InvertedIndex.key(type, threadId), terms, LocalDateTime.now())) {
+            // Not indexed here yet (created on another instance): read it in full
+            reindex(type, threadId);
+        }
+    }
+
+    @Override
+    public void reindex(ThreadType type, String threadId) {
+        touched(type, threadId);
+        InvertedIndex.Entry entry = load(type, threadId);
+        if (entry != null) {
+            index.put(entry);
+        } else {
+            index.remove(InvertedIndex.key(type, threadId));
+        }
+    }
+
+    @Override
+    public void remove(ThreadType type, String threadId) {
+        touched(type, threadId);
+        index.remove(InvertedIndex.key(type, threadId));
+    }
+
+    @Override
+    public synchronized int rebuild() {
+        touchedDuringRebuild.clear();
+        rebuilding = true;
+        try {
+            InvertedIndex fresh = new InvertedIndex();
+            try (Stream<DietChat> chats = mongoTemplate.stream(new Query(), DietChat.class)) {
+                chats.forEach(chat -> fresh.put(entry(chat, archived(chat.getId(), chat.getBucketCount(),
+                        DietChatMessageBucket.class))));
+            }
+            try (Stream<Feedback> threads = mongoTemplate.stream(new Query(), Feedback.class)) {
+                threads.forEach(feedback -> fresh.put(entry(feedback, archived(feedback.getId(),
+                        feedback.getBucketCount(), FeedbackResponseBucket.class))));
+            }
+            index = fresh;
+        } finally {
+            rebuilding = false;
+        }
+        for (String key : touchedDuringRebuild) {
+            int split = key.indexOf(':');
+            reindex(ThreadType.valueOf(key.substring(0, split)), key.substring(split + 1));
+        }
+        touchedDuringRebuild.clear();
+        return index.size();
+    }
+
+    private void scheduledRebuild() {
+        try {
+            long started = System.currentTimeMillis();
+            int indexed = rebuild();
+            logger.info("Search index rebuilt: {} threads in {} ms", indexed, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.warn("Could not rebuild search index: {}", e.getMessage());
+        }
+    }
+
+    private void touched(ThreadType type, String threadId) {
+        if (rebuilding) {
+            touchedDuringRebuild.add(InvertedIndex.key(type, threadId));
+        }
+    }
+
+    // Same visibility as the list endpoints: members see their own threads,
+    // trainers all feedback and the chats of their assigned members, admins all
+    private Predicate<InvertedIndex.Entry> visibleTo(User viewer) {
+        if (viewer.getRoles().contains(Role.ADMIN)) {
+            return entry -> true;
+        }
+        if (viewer.getRoles().contains(Role.TRAINER)) {
+            Set<String> members = viewer.getAssignedMembers() != null ? viewer.getAssignedMembers() : Set.of();
+            return entry -> entry.type() == ThreadType.FEEDBACK || members.contains(entry.memberId());
+        }
+        return entry -> viewer.getId().equals(entry.memberId());
+    }
+
+    private InvertedIndex.Entry load(ThreadType type, String threadId) {
+        Query query = Query.query(Criteria.where("id").is(threadId));
+        if (type == ThreadType.DIET_CHAT) {
+            DietChat chat = mongoTemplate.findOne(query, DietChat.class);
+            return chat != null
+                    ? entry(chat, archived(threadId, chat.getBucketCount(), DietChatMessageBucket.class))
+                    : null;
+        }
+        Feedback feedback = mongoTemplate.findOne(query, Feedback.class);
+        return feedback != null
+                ? entry(feedback, archived(threadId, feedback.getBucketCount(), FeedbackResponseBucket.class))
+                : null;
+    }
+
+    private <M, B extends MessageBucket<M>> List<B> archived(String threadId, int bucketCount, Class<B> bucketClass) {
+        if (bucketCount == 0) {
+            return List.of();
+        }
+        return mongoTemplate.find(Query.query(Criteria.where("threadId").is(threadId))
+                .with(Sort.by(Sort.Direction.ASC, "seq")), bucketClass);
+    }
+
+    private InvertedIndex.Entry entry(DietChat chat, List<DietChatMessageBucket> buckets) {
+        Map<String, Integer> terms = new HashMap<>();
+        InvertedIndex.addTerms(terms, chat.getTitle(), TITLE_WEIGHT);
+        InvertedIndex.addTerms(terms, chat.getInitialQuery(), BODY_WEIGHT);
+        for (DietChatMessageBucket bucket : buckets) {
+            bucket.getMessages().forEach(m -> InvertedIndex.addTerms(terms, m.getContent(), MESSAGE_WEIGHT));
+        }
+        if (chat.getMessages() != null) {
+            chat.getMessages().forEach(m -> InvertedIndex.addTerms(terms, m.getContent(), MESSAGE_WEIGHT));
+        }
+        LocalDateTime lastActivityAt = chat.getLastActivityAt() != null ? chat.getLastActivityAt()
+                : chat.getCreatedAt();
+        return new InvertedIndex.Entry(ThreadType.DIET_CHAT, chat.getId(), chat.getMemberId(), chat.getTitle(), terms,
+                lastActivityAt);
+    }
+
+    private InvertedIndex.Entry entry(Feedback feedback, List<FeedbackResponseBucket> buckets) {
+        Map<String, Integer> terms = new HashMap<>();
+        InvertedIndex.addTerms(terms, feedback.getTitle(), TITLE_WEIGHT);
+        InvertedIndex.addTerms(terms, feedback.getContent(), BODY_WEIGHT);
+        for (FeedbackResponseBucket bucket : buckets) {
+            bucket.getMessages().forEach(r -> InvertedIndex.addTerms(terms, r.getContent(), MESSAGE_WEIGHT));
+        }
+        if (feedback.getResponses() != null) {
+            feedback.getResponses().forEach(r -> InvertedIndex.addTerms(terms, r.getContent(), MESSAGE_WEIGHT));
+        }
+        LocalDateTime lastActivityAt = feedback.getLastResponseAt() != null ? feedback.getLastResponseAt()
+                : feedback.getCreatedAt();
+        return new InvertedIndex.Entry(ThreadType.FEEDBACK, feedback.getId(), feedback.getMemberId(),
+                feedback.getTitle(), terms, lastActivityAt);
+    }
+}
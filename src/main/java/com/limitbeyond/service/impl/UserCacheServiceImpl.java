@@ -0,0 +1,126 @@
+package com.limitbeyond.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.limitbeyond.model.User;
+import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.security.UserPrincipal;
+import com.limitbeyond.service.UserCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Service
+public class UserCacheServiceImpl implements UserCacheService {
+
+    private static final String CURRENT_USER_ATTRIBUTE = UserCacheServiceImpl.class.getName() + ".currentUser";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Cache<String, User> usersById;
+    private final Cache<String, String> idsByUsername;
+
+    // Other instances only see writes once the TTL expires, so keep it short
+    public UserCacheServiceImpl(@Value("${users.cache.max-size:10000}") long maxSize,
+            @Value("${users.cache.ttl-seconds:300}") long ttlSeconds) {
+        usersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        idsByUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        User cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<User> user = userRepository.findById(id);
+        user.ifPresent(this::put);
+        return user;
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        String id = idsByUsername.getIfPresent(username);
+        if (id != null) {
+            User cached = usersById.getIfPresent(id);
+            if (cached != null && username.equals(cached.getUsername())) {
+                return Optional.of(cached);
+            }
+        }
+        Optional<User> user = userRepository.findByUsername(username);
+        user.ifPresent(this::put);
+        return user;
+    }
+
+    @Override
+    public User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new RuntimeException("User not authenticated");
+        }
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            Object memo = request.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (memo instanceof User) {
+                return (User) memo;
+            }
+        }
+
+        Optional<User> user = authentication.getPrincipal() instanceof UserPrincipal
+                ? findById(((UserPrincipal) authentication.getPrincipal()).getId())
+                : findByUsername(authentication.getName());
+        User current = user.orElseThrow(() -> new RuntimeException("User not found"));
+        if (request != null) {
+            request.setAttribute(CURRENT_USER_ATTRIBUTE, current, RequestAttributes.SCOPE_REQUEST);
+        }
+        return current;
+    }
+
+    @Override
+    public void evict(User user) {
+        if (user == null) {
+            return;
+        }
+        if (user.getUsername() != null) {
+            idsByUsername.invalidate(user.getUsername());
+        }
+        if (user.getId() != null) {
+            evict(user.getId());
+        }
+    }
+
+    @Override
+    public void evict(String userId) {
+        User cached = usersById.getIfPresent(userId);
+        usersById.invalidate(userId);
+        if (cached != null && cached.getUsername() != null) {
+            idsByUsername.invalidate(cached.getUsername());
+        }
+    }
+
+    private void put(User user) {
+        usersById.put(user.getId(), user);
+        idsByUsername.put(user.getUsername(), user.getId());
+    }
+}
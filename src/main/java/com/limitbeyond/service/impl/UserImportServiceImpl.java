@@ -0,0 +1,334 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.user.UserImportResult;
+import com.limitbeyond.model.Role;
+import com.limitbeyond.model.User;
+import com.limitbeyond.payload.SignupRequest;
+import com.limitbeyond.security.PasswordHashingExecutor;
+import com.limitbeyond.service.UserImportService;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Admin bulk import. Duplicates are found with one query over every username and
+ * email in the batch, passwords are hashed in parallel on the password hashing
+ * pool, and new users go to Mongo in a single unordered bulk insert so one bad
+ * document does not stop the rest.
+ */
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${users.import.max-rows:5000}")
+    private int maxRows;
+
+    @Override
+    public UserImportResult importUsers(List<SignupRequest> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new RuntimeException("No rows to import");
+        }
+        if (rows.size() > maxRows) {
+            throw new RuntimeException("Import is limited to " + maxRows + " rows");
+        }
+
+        UserImportResult result = new UserImportResult();
+        result.setTotal(rows.size());
+        List<Integer> candidates = new ArrayList<>();
+        Set<String> batchUsernames = new HashSet<>();
+        Set<String> batchEmails = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            SignupRequest row = rows.get(i);
+            UserImportResult.RowResult rowResult = new UserImportResult.RowResult(i + 1,
+                    row != null ? row.getUsername() : null);
+            result.getRows().add(rowResult);
+
+            String invalid = validate(row);
+            if (invalid != null) {
+                reject(rowResult, UserImportResult.Status.INVALID, invalid);
+            } else if (batchUsernames.contains(row.getUsername())) {
+                reject(rowResult, UserImportResult.Status.DUPLICATE, "Username appears earlier in the import");
+            } else if (batchEmails.contains(row.getEmail())) {
+                reject(rowResult, UserImportResult.Status.DUPLICATE, "Email appears earlier in the import");
+            } else {
+                // Claimed only by accepted rows, so a rejected row does not block a later one
+                batchUsernames.add(row.getUsername());
+                batchEmails.add(row.getEmail());
+                candidates.add(i);
+            }
+        }
+
+        rejectExisting(rows, result, candidates, batchUsernames, batchEmails);
+
+        // Queue every hash before waiting on any of them; submitBulk blocks only
+        // while the pool already holds its share of bulk work
+        Map<Integer, CompletableFuture<String>> hashes = new HashMap<>();
+        for (Integer i : candidates) {
+            String password = rows.get(i).getPassword();
+            try {
+                hashes.put(i, passwordHashingExecutor.submitBulk(() -> passwordEncoder.encode(password)));
+            } catch (RuntimeException e) {
+                reject(result.getRows().get(i), UserImportResult.Status.FAILED, "Password hashing failed");
+            }
+        }
+
+        List<User> users = new ArrayList<>();
+        List<Integer> userRows = new ArrayList<>();
+        for (Integer i : candidates) {
+            CompletableFuture<String> hash = hashes.get(i);
+            if (hash == null) {
+                continue;
+            }
+            try {
+                users.add(toUser(rows.get(i), hash.join()));
+                userRows.add(i);
+            } catch (CompletionException e) {
+                logger.warn("Password hashing failed for import row {}", i + 1, e.getCause());
+                reject(result.getRows().get(i), UserImportResult.Status.FAILED, "Password hashing failed");
+            }
+        }
+
+        insert(users, userRows, result);
+        result.setCreated((int) result.getRows().stream()
+                .filter(r -> r.getStatus() == UserImportResult.Status.CREATED).count());
+        result.setSkipped(result.getTotal() - result.getCreated());
+        return result;
+    }
+
+    @Override
+    public UserImportResult importCsv(String csv) {
+        List<List<String>> records = parseCsv(csv != null ? csv : "");
+        if (records.isEmpty()) {
+            throw new RuntimeException("CSV must start with a header line");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = records.get(0);
+        for (int c = 0; c < header.size(); c++) {
+            columns.put(header.get(c).trim().toLowerCase(), c);
+        }
+        for (String required : List.of("username", "email", "password")) {
+            if (!columns.containsKey(required)) {
+                throw new RuntimeException("CSV header is missing the " + required + " column");
+            }
+        }
+
+        List<SignupRequest> rows = new ArrayList<>();
+        for (List<String> record : records.subList(1, records.size())) {
+            SignupRequest row = new SignupRequest();
+            row.setUsername(column(record, columns, "username"));
+            row.setEmail(column(record, columns, "email"));
+            row.setPassword(column(record, columns, "password"));
+            row.setFirstName(column(record, columns, "firstname"));
+            row.setLastName(column(record, columns, "lastname"));
+            row.setPhoneNumber(column(record, columns, "phonenumber"));
+            row.setRole(column(record, columns, "role"));
+            rows.add(row);
+        }
+        return importUsers(rows);
+    }
+
+    // Returns the reason a row cannot be imported, or null when it is valid.
+    // A missing role defaults to MEMBER, which is what imports are for.
+    private String validate(SignupRequest row) {
+        if (row == null) {
+            return "Row is empty";
+        }
+        if (row.getRole() == null || row.getRole().isBlank()) {
+            row.setRole(Role.MEMBER.name());
+        }
+        Set<String> problems = new TreeSet<>();
+        for (ConstraintViolation<SignupRequest> violation : validator.validate(row)) {
+            problems.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        if (!problems.isEmpty()) {
+            return String.join("; ", problems);
+        }
+        try {
+            Role.valueOf(row.getRole().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return "Invalid role";
+        }
+        return null;
+    }
+
+    // One round trip for the whole batch instead of existsByUsername/existsByEmail per row
+    private void rejectExisting(List<SignupRequest> rows, UserImportResult result, List<Integer> candidates,
+            Set<String> usernames, Set<String> emails) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        Query query = Query.query(new Criteria().orOperator(
+                Criteria.where("username").in(usernames),
+                Criteria.where("email").in(emails)));
+        query.fields().include("username").include("email");
+
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        for (User existing : mongoTemplate.find(query, User.class)) {
+            takenUsernames.add(existing.getUsername());
+            takenEmails.add(existing.getEmail());
+        }
+
+        candidates.removeIf(i -> {
+            SignupRequest row = rows.get(i);
+            if (takenUsernames.contains(row.getUsername())) {
+                reject(result.getRows().get(i), UserImportResult.Status.DUPLICATE, "Username is already taken");
+                return true;
+            }
+            if (takenEmails.contains(row.getEmail())) {
+                reject(result.getRows().get(i), UserImportResult.Status.DUPLICATE, "Email is already in use");
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void insert(List<User> users, List<Integer> userRows, UserImportResult result) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> failures = new HashMap<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class).insert(users).execute();
+        } catch (BulkOperationException e) {
+            // Unordered: everything not listed here was written
+            for (BulkWriteError error : e.getErrors()) {
+                failures.put(error.getIndex(), error.getMessage());
+            }
+            logger.warn("Bulk user import wrote {} of {} users", users.size() - failures.size(), users.size());
+        }
+
+        for (int u = 0; u < users.size(); u++) {
+            UserImportResult.RowResult rowResult = result.getRows().get(userRows.get(u));
+            if (failures.containsKey(u)) {
+                reject(rowResult, UserImportResult.Status.FAILED, failures.get(u));
+            } else {
+                rowResult.setStatus(UserImportResult.Status.CREATED);
+                rowResult.setId(users.get(u).getId());
+            }
+        }
+    }
+
+    // Same activation rule as AuthService.registerUser: trainers still need an
+    // admin to activate them, everyone else can sign in straight away
+    private User toUser(SignupRequest row, String encodedPassword) {
+        Role role = Role.valueOf(row.getRole().trim().toUpperCase());
+        User user = new User();
+        user.setId(new ObjectId().toHexString());
+        user.setUsername(row.getUsername());
+        user.setPassword(encodedPassword);
+        user.setEmail(row.getEmail());
+        user.setFirstName(row.getFirstName());
+        user.setLastName(row.getLastName());
+        user.setPhoneNumber(row.getPhoneNumber());
+        Set<Role> roles = new HashSet<>();
+        roles.add(role);
+        user.setRoles(roles);
+        user.setActive(role != Role.TRAINER);
+        return user;
+    }
+
+    private void reject(UserImportResult.RowResult rowResult, UserImportResult.Status status, String message) {
+        rowResult.setStatus(status);
+        rowResult.setMessage(message);
+    }
+
+    private String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // RFC 4180 style: comma separated, fields may be double-quoted, "" is a
+    // literal quote inside a quoted field. Blank lines are skipped.
+    private List<List<String>> parseCsv(String csv) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean blank = true;
+        for (int i = 0; i < csv.length(); i++) {
+            char ch = csv.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+                blank = false;
+            } else if (ch == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                blank = false;
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                if (!blank) {
+                    record.add(field.toString());
+                    records.add(record);
+                }
+                record = new ArrayList<>();
+                field.setLength(0);
+                blank = true;
+            } else {
+                field.append(ch);
+                if (!Character.isWhitespace(ch)) {
+                    blank = false;
+                }
+            }
+        }
+        if (!blank) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        if (quoted) {
+            throw new RuntimeException("CSV has an unterminated quoted field");
+        }
+        return records;
+    }
+}
@@ -1,5 +1,6 @@
 package com.limitbeyond.service.impl;
 
+import com.limitbeyond.dto.workout.SetCompletionResponse;
 import com.limitbeyond.dto.workout.WorkoutRequest;
 import com.limitbeyond.model.ExerciseTemplate;
 import com.limitbeyond.model.MuscleGroup;
@@ -7,12 +8,20 @@ import com.limitbeyond.model.User;
 import com.limitbeyond.model.Workout;
 import com.limitbeyond.model.WorkoutSet;
 import com.limitbeyond.repository.WorkoutRepository;
-import com.limitbeyond.repository.WorkoutSetRepository;
 import com.limitbeyond.repository.UserRepository;
 import com.limitbeyond.repository.ExerciseTemplateRepository;
 import com.limitbeyond.service.WorkoutService;
 import com.limitbeyond.service.MuscleGroupService;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
@@ -21,7 +30,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class WorkoutServiceImpl implements WorkoutService {
@@ -29,9 +43,6 @@ public class WorkoutServiceImpl implements WorkoutService {
     @Autowired
     private WorkoutRepository workoutRepository;
 
-    @Autowired
-    private WorkoutSetRepository workoutSetRepository;
-
     @Autowired
     private UserRepository userRepository;
 
@@ -41,6 +52,9 @@ public class WorkoutServiceImpl implements WorkoutService {
     @Autowired
     private MuscleGroupService muscleGroupService;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     private static final Logger logger = LoggerFactory.getLogger(WorkoutServiceImpl.class);
 
     @Override
@@ -76,27 +90,12 @@ public class WorkoutServiceImpl implements WorkoutService {
 
         // Map target muscle groups
         if (request.getTargetMuscleGroupIds() != null && !request.getTargetMuscleGroupIds().isEmpty()) {
-            List<MuscleGroup> groups = new ArrayList<>();
-            for (String mgId : request.getTargetMuscleGroupIds()) {
-                groups.add(muscleGroupService.findById(mgId));
-            }
-            workout.setTargetMuscleGroups(groups);
+            workout.setTargetMuscleGroups(muscleGroupService.findAllById(request.getTargetMuscleGroupIds()));
         }
 
         // Create and add sets
         if (request.getSets() != null) {
-            for (WorkoutRequest.WorkoutSetRequest setRequest : request.getSets()) {
-                ExerciseTemplate exercise = exerciseTemplateRepository.findById(setRequest.getExerciseId())
-                        .orElseThrow(() -> new RuntimeException("Exercise not found"));
-
-                WorkoutSet set = new WorkoutSet(exercise, setRequest.getReps());
-                set.setWeight(setRequest.getWeight());
-                set.setNotes(setRequest.getNotes());
-                Double w = setRequest.getWeight() != null ? setRequest.getWeight() : 0.0;
-                set.setVolume(w * setRequest.getReps());
-                set = workoutSetRepository.save(set);
-                workout.addSet(set);
-            }
+            workout.setSets(buildSets(request.getSets()));
         }
 
         return workoutRepository.save(workout);
@@ -110,15 +109,37 @@ public class WorkoutServiceImpl implements WorkoutService {
 
     @Override
     public List<Workout> findByMember(User member) {
-        List<Workout> results = workoutRepository.findByMember(member);
-        try {
-            String mid = member != null ? member.getId() : "null";
-            int found = results != null ? results.size() : 0;
-            logger.info("WorkoutServiceImpl.findByMember memberId={} found={}", mid, found);
-        } catch (Exception e) {
-            logger.warn("Failed to log findByMember debug info", e);
+        return workoutRepository.findByMember(member);
+    }
+
+    @Override
+    public Slice<Workout> findByMemberPage(User member, LocalDateTime beforeDate, String beforeId, int size) {
+        return workoutRepository.findByMemberBefore(member, beforeDate, beforeId, size);
+    }
+
+    @Override
+    public Stream<Workout> streamByMember(User member) {
+        return workoutRepository.streamByMemberOrderByScheduledDateDescIdDesc(member);
+    }
+
+    @Override
+    public List<Workout> findByMemberAndMuscleGroup(User member, MuscleGroup muscleGroup, LocalDateTime from,
+            LocalDateTime to) {
+        if (from == null && to == null) {
+            return workoutRepository.findByMemberAndTargetMuscleGroupsContaining(member, muscleGroup);
         }
-        return results;
+        Range<LocalDateTime> range = Range.of(
+                from != null ? Range.Bound.inclusive(from) : Range.Bound.unbounded(),
+                to != null ? Range.Bound.inclusive(to) : Range.Bound.unbounded());
+        return workoutRepository.findByMemberAndTargetMuscleGroupsContainingAndScheduledDateBetween(member,
+                muscleGroup, range);
+    }
+
+    @Override
+    public Slice<Workout> findByMemberAndMuscleGroupPage(User member, MuscleGroup muscleGroup, LocalDateTime from,
+            LocalDateTime to, LocalDateTime beforeDate, String beforeId, int size) {
+        return workoutRepository.findByMemberAndMuscleGroupBefore(member, muscleGroup, from, to, beforeDate,
+                beforeId, size);
     }
 
     @Override
@@ -172,33 +193,13 @@ public class WorkoutServiceImpl implements WorkoutService {
 
         // Update target muscle groups if provided
         if (request.getTargetMuscleGroupIds() != null) {
-            List<MuscleGroup> groups = new ArrayList<>();
-            for (String mgId : request.getTargetMuscleGroupIds()) {
-                groups.add(muscleGroupService.findById(mgId));
-            }
-            workout.setTargetMuscleGroups(groups);
+            workout.setTargetMuscleGroups(muscleGroupService.findAllById(request.getTargetMuscleGroupIds()));
         }
 
         // Update sets if provided
         if (request.getSets() != null) {
-            // Remove existing sets
-            List<WorkoutSet> existingSets = workout.getSets();
-            workout.setSets(new ArrayList<>());
-            workoutSetRepository.deleteAll(existingSets);
-
-            // Add new sets
-            for (WorkoutRequest.WorkoutSetRequest setRequest : request.getSets()) {
-                ExerciseTemplate exercise = exerciseTemplateRepository.findById(setRequest.getExerciseId())
-                        .orElseThrow(() -> new RuntimeException("Exercise not found"));
-
-                WorkoutSet set = new WorkoutSet(exercise, setRequest.getReps());
-                set.setWeight(setRequest.getWeight());
-                set.setNotes(setRequest.getNotes());
-                Double w = setRequest.getWeight() != null ? setRequest.getWeight() : 0.0;
-                set.setVolume(w * setRequest.getReps());
-                set = workoutSetRepository.save(set);
-                workout.addSet(set);
-            }
+            // Replace existing sets; they are embedded so the workout save drops them
+            workout.setSets(buildSets(request.getSets()));
         }
 
         return workoutRepository.save(workout);
@@ -206,41 +207,72 @@ public class WorkoutServiceImpl implements WorkoutService {
 
     @Override
     public Workout completeSet(String workoutId, String setId) {
-        Workout workout = findById(workoutId);
+        updateSetCompletion(workoutId, setId, true);
+        return findById(workoutId);
+    }
 
-        for (WorkoutSet set : workout.getSets()) {
-            if (set.getId().equals(setId)) {
-                set.setCompleted(true);
-                workoutSetRepository.save(set);
-                break;
+    @Override
+    public Workout uncompleteSet(String workoutId, String setId) {
+        updateSetCompletion(workoutId, setId, false);
+        return findById(workoutId);
+    }
+
+    @Override
+    public SetCompletionResponse updateSetCompletion(String workoutId, String setId, boolean completed) {
+        // Flip just the matched embedded set with a positional $set and read back only
+        // the completion flags needed to recompute the workout state
+        Query setQuery = Query.query(Criteria.where("_id").is(workoutId).and("sets._id").is(toSetId(setId)));
+        setQuery.fields().include("completed").include("completedDate").include("sets.completed");
+        Workout updated = mongoTemplate.findAndModify(setQuery, new Update().set("sets.$.completed", completed),
+                FindAndModifyOptions.options().returnNew(true), Workout.class);
+        if (updated == null) {
+            throw new RuntimeException("Workout or set not found");
+        }
+
+        int totalSets = updated.getSets() != null ? updated.getSets().size() : 0;
+        int completedSets = 0;
+        if (updated.getSets() != null) {
+            for (WorkoutSet set : updated.getSets()) {
+                if (set.isCompleted()) {
+                    completedSets++;
+                }
             }
         }
 
-        // Check if all sets are completed
-        boolean allCompleted = workout.getSets().stream().allMatch(WorkoutSet::isCompleted);
-        if (allCompleted) {
-            workout.setCompleted(true);
+        boolean workoutCompleted = updated.isCompleted();
+        LocalDateTime completedDate = updated.getCompletedDate();
+        if (completed && !workoutCompleted && completedSets == totalSets) {
+            // Conditional update: only flips if no set was uncompleted in the meantime
+            LocalDateTime now = LocalDateTime.now();
+            Query allDone = Query.query(Criteria.where("_id").is(workoutId).and("completed").is(false)
+                    .and("sets").not().elemMatch(Criteria.where("completed").is(false)));
+            UpdateResult result = mongoTemplate.updateFirst(allDone,
+                    new Update().set("completed", true).set("completedDate", now), Workout.class);
+            if (result.getModifiedCount() > 0) {
+                workoutCompleted = true;
+                completedDate = now;
+            }
+        } else if (!completed && workoutCompleted) {
+            Query anyOpen = Query.query(Criteria.where("_id").is(workoutId).and("completed").is(true)
+                    .and("sets").elemMatch(Criteria.where("completed").is(false)));
+            UpdateResult result = mongoTemplate.updateFirst(anyOpen, new Update().set("completed", false),
+                    Workout.class);
+            if (result.getModifiedCount() > 0) {
+                workoutCompleted = false;
+            }
         }
 
-        return workoutRepository.save(workout);
+        SetCompletionResponse delta = new SetCompletionResponse(workoutId, setId, completed);
+        delta.setWorkoutCompleted(workoutCompleted);
+        delta.setWorkoutCompletedDate(completedDate);
+        delta.setCompletedSets(completedSets);
+        delta.setTotalSets(totalSets);
+        return delta;
     }
 
-    @Override
-    public Workout uncompleteSet(String workoutId, String setId) {
-        Workout workout = findById(workoutId);
-        for (WorkoutSet set : workout.getSets()) {
-            if (set.getId().equals(setId)) {
-                set.setCompleted(false);
-                workoutSetRepository.save(set);
-                break;
-            }
-        }
-        // If any set is not completed, mark workout as not completed
-        boolean allCompleted = workout.getSets().stream().allMatch(WorkoutSet::isCompleted);
-        if (!allCompleted) {
-            workout.setCompleted(false);
-        }
-        return workoutRepository.save(workout);
+    // Embedded set ids are stored as ObjectIds by the mapping converter
+    private Object toSetId(String setId) {
+        return ObjectId.isValid(setId) ? new ObjectId(setId) : setId;
     }
 
     @Override
@@ -250,7 +282,6 @@ public class WorkoutServiceImpl implements WorkoutService {
         // Mark all sets as completed
         for (WorkoutSet set : workout.getSets()) {
             set.setCompleted(true);
-            workoutSetRepository.save(set);
         }
 
         workout.setCompleted(true);
@@ -269,27 +300,53 @@ public class WorkoutServiceImpl implements WorkoutService {
         copy.setNotes(original.getNotes());
         copy.setTargetMuscleGroups(original.getTargetMuscleGroups());
 
-        // Copy sets
+        // Copy sets; the exercise snapshots are reused so no template lookups are
+        // needed and the whole copy is a single insert
         for (WorkoutSet originalSet : original.getSets()) {
             WorkoutSet newSet = new WorkoutSet(originalSet.getExercise(), originalSet.getReps());
             newSet.setWeight(originalSet.getWeight());
             newSet.setNotes(originalSet.getNotes());
             newSet.setVolume(originalSet.getVolume());
-            newSet = workoutSetRepository.save(newSet);
             copy.addSet(newSet);
         }
 
         return workoutRepository.save(copy);
     }
 
+    // Resolves every referenced exercise with one findAllById instead of a lookup
+    // per set
+    private List<WorkoutSet> buildSets(List<WorkoutRequest.WorkoutSetRequest> setRequests) {
+        Set<String> exerciseIds = new HashSet<>();
+        for (WorkoutRequest.WorkoutSetRequest setRequest : setRequests) {
+            exerciseIds.add(setRequest.getExerciseId());
+        }
+        Map<String, ExerciseTemplate> exercises = new HashMap<>();
+        for (ExerciseTemplate exercise : exerciseTemplateRepository.findAllById(exerciseIds)) {
+            exercises.put(exercise.getId(), exercise);
+        }
+
+        List<WorkoutSet> sets = new ArrayList<>();
+        for (WorkoutRequest.WorkoutSetRequest setRequest : setRequests) {
+            ExerciseTemplate exercise = exercises.get(setRequest.getExerciseId());
+            if (exercise == null) {
+                throw new RuntimeException("Exercise not found");
+            }
+
+            WorkoutSet set = new WorkoutSet(exercise, setRequest.getReps());
+            set.setWeight(setRequest.getWeight());
+            set.setNotes(setRequest.getNotes());
+            Double w = setRequest.getWeight() != null ? setRequest.getWeight() : 0.0;
+            set.setVolume(w * setRequest.getReps());
+            sets.add(set);
+        }
+        return sets;
+    }
+
     @Override
     public void delete(String id) {
         Workout workout = findById(id);
 
-        // Delete associated sets first
-        workoutSetRepository.deleteAll(workout.getSets());
-
-        // Delete the workout
+        // Sets are embedded, so deleting the workout removes them too
         workoutRepository.delete(workout);
     }
 }
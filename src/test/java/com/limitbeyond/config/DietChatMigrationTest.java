@@ -0,0 +1,107 @@
+package com.limitbeyond.config;
+
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.model.Role;
+import com.limitbeyond.service.ThreadSearchService;
+import com.limitbeyond.service.impl.DietChatServiceImpl;
+import com.limitbeyond.support.InMemoryMongo;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+
+public class DietChatMigrationTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private DietChatMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.getMongoTemplate();
+        DietChatServiceImpl dietChatService = new DietChatServiceImpl();
+        ReflectionTestUtils.setField(dietChatService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(dietChatService, "threadSearchService", mock(ThreadSearchService.class));
+        ReflectionTestUtils.setField(dietChatService, "bucketSize", 3);
+        dietChatService.init();
+        migration = new DietChatMigration();
+        ReflectionTestUtils.setField(migration, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(migration, "dietChatService", dietChatService);
+        ReflectionTestUtils.setField(migration, "bucketSize", 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void assignsMessageIdsAndFillsTheSummary() {
+        ObjectId chatId = legacyChat(2);
+
+        assertEquals(1, migration.migrate());
+
+        DietChat chat = mongoTemplate.findById(chatId.toHexString(), DietChat.class);
+        assertEquals(2, chat.getMessages().size());
+        chat.getMessages().forEach(message -> assertNotNull(message.getId()));
+        assertEquals(2, chat.getMessageCount());
+        assertEquals(chat.getMessages().get(1).getId(), chat.getLastMessageId());
+        assertEquals("message 1", chat.getLastMessagePreview());
+        assertEquals(START.plusMinutes(1), chat.getLastActivityAt());
+        assertEquals(0, migration.migrate(), "migrated chats are not picked up again");
+    }
+
+    @Test
+    void movesOlderPagesOfLongThreadsToBuckets() {
+        ObjectId chatId = legacyChat(8);
+
+        assertEquals(1, migration.migrate());
+
+        DietChat chat = mongoTemplate.findById(chatId.toHexString(), DietChat.class);
+        assertEquals(List.of("message 6", "message 7"), contents(chat.getMessages()));
+        assertEquals(2, chat.getBucketCount());
+        assertEquals(8, chat.getMessageCount());
+        assertEquals("message 7", chat.getLastMessagePreview());
+        List<Document> buckets = mongoTemplate.getCollection("diet_chat_message_buckets").find()
+                .sort(new Document("seq", 1)).into(new ArrayList<>());
+        assertEquals(2, buckets.size());
+        assertEquals(3, buckets.get(0).getList("messages", Document.class).size());
+        assertEquals("message 5", buckets.get(1).getList("messages", Document.class).get(2).getString("content"));
+        assertEquals(0, migration.migrate());
+    }
+
+    private static List<String> contents(List<DietChat.DietChatMessage> messages) {
+        return messages.stream().map(DietChat.DietChatMessage::getContent).collect(Collectors.toList());
+    }
+
+    private ObjectId legacyChat(int messages) {
+        ObjectId id = new ObjectId();
+        List<Document> thread = new ArrayList<>();
+        for (int i = 0; i < messages; i++) {
+            thread.add(new Document("senderId", "member-1").append("senderRole", Role.MEMBER.name())
+                    .append("content", "message " + i)
+                    .append("timestamp", Date.from(START.plusMinutes(i).atZone(ZoneId.systemDefault()).toInstant())));
+        }
+        mongoTemplate.getCollection("diet_chats").insertOne(new Document("_id", id).append("memberId", "member-1")
+                .append("title", "Legacy").append("messages", thread).append("version", 0L)
+                .append("createdAt", Date.from(START.atZone(ZoneId.systemDefault()).toInstant())));
+        return id;
+    }
+}
@@ -0,0 +1,79 @@
+package com.limitbeyond.config;
+
+import com.limitbeyond.model.Feedback;
+import com.limitbeyond.service.ThreadSearchService;
+import com.limitbeyond.service.impl.FeedbackServiceImpl;
+import com.limitbeyond.support.InMemoryMongo;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+
+public class FeedbackMigrationTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private FeedbackMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.getMongoTemplate();
+        FeedbackServiceImpl feedbackService = new FeedbackServiceImpl();
+        ReflectionTestUtils.setField(feedbackService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(feedbackService, "threadSearchService", mock(ThreadSearchService.class));
+        ReflectionTestUtils.setField(feedbackService, "bucketSize", 2);
+        feedbackService.init();
+        migration = new FeedbackMigration();
+        ReflectionTestUtils.setField(migration, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(migration, "feedbackService", feedbackService);
+        ReflectionTestUtils.setField(migration, "bucketSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void assignsResponseIdsAndSplitsLongThreads() {
+        ObjectId id = new ObjectId();
+        List<Document> responses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            responses.add(new Document("responderId", "admin").append("content", "response " + i)
+                    .append("responseTime", Date.from(START.plusHours(i).atZone(ZoneId.systemDefault()).toInstant())));
+        }
+        mongoTemplate.getCollection("feedback").insertOne(new Document("_id", id).append("memberId", "member-1")
+                .append("title", "Lockers").append("responses", responses).append("version", 0L));
+
+        assertEquals(1, migration.migrate());
+
+        Feedback feedback = mongoTemplate.findById(id.toHexString(), Feedback.class);
+        assertEquals(1, feedback.getResponses().size());
+        assertNotNull(feedback.getResponses().get(0).getId());
+        assertEquals(2, feedback.getBucketCount());
+        assertEquals(5, feedback.getResponseCount());
+        assertEquals(START.plusHours(4), feedback.getLastResponseAt());
+        List<Document> buckets = mongoTemplate.getCollection("feedback_response_buckets").find()
+                .sort(new Document("seq", 1)).into(new ArrayList<>());
+        assertEquals("response 0", buckets.get(0).getList("messages", Document.class).get(0).getString("content"));
+        buckets.forEach(bucket -> bucket.getList("messages", Document.class)
+                .forEach(response -> assertNotNull(response.get("_id"))));
+        assertEquals(0, migration.migrate());
+    }
+}
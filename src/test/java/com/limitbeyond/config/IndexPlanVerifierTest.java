@@ -0,0 +1,88 @@
+package com.limitbeyond.config;
+
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class IndexPlanVerifierTest {
+
+    private MongoTemplate mongoTemplate;
+    private MongoDatabase database;
+    private IndexPlanVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(Collections.emptyList());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        mongoTemplate = mock(MongoTemplate.class);
+        database = mock(MongoDatabase.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getDb()).thenReturn(database);
+        verifier = new IndexPlanVerifier();
+        ReflectionTestUtils.setField(verifier, "mongoTemplate", mongoTemplate);
+    }
+
+    @Test
+    void failModeRejectsNestedCollectionScans() {
+        // Older servers nest the scan under inputStage, newer ones under queryPlan
+        when(database.runCommand(any(Bson.class))).thenReturn(explain(
+                "{queryPlan: {stage: 'SORT', inputStage: {stage: 'COLLSCAN'}}}"));
+        ReflectionTestUtils.setField(verifier, "mode", "fail");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, verifier::run);
+        assertTrue(e.getMessage().contains("WorkoutRepository.findByMember"));
+        assertTrue(e.getMessage().contains("UserRepository.findByUsername"));
+    }
+
+    @Test
+    void failModeAcceptsIndexScans() {
+        when(database.runCommand(any(Bson.class))).thenReturn(explain(
+                "{stage: 'FETCH', inputStages: [{stage: 'IXSCAN'}, {stage: 'IXSCAN'}]}"));
+        ReflectionTestUtils.setField(verifier, "mode", "fail");
+
+        assertDoesNotThrow(() -> verifier.run());
+    }
+
+    @Test
+    void warnModeOnlyLogs() {
+        when(database.runCommand(any(Bson.class))).thenReturn(explain("{stage: 'COLLSCAN'}"));
+        ReflectionTestUtils.setField(verifier, "mode", "warn");
+
+        assertDoesNotThrow(() -> verifier.run());
+    }
+
+    @Test
+    void offModeSkipsExplain() {
+        ReflectionTestUtils.setField(verifier, "mode", "off");
+
+        verifier.run();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static Document explain(String winningPlan) {
+        return new Document("queryPlanner", new Document("winningPlan", Document.parse(winningPlan)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.limitbeyond.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LogSamplingTurboFilterTest {
+
+    private LoggerContext context;
+    private LogSamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.DEBUG);
+        filter = new LogSamplingTurboFilter();
+        filter.setContext(context);
+        filter.setRates("com.limitbeyond=0.5, com.limitbeyond.controller=0.25, org.junk, bad=x, zero=0");
+    }
+
+    @AfterEach
+    void tearDown() {
+        LogSamplingTurboFilter.unexempt("com.limitbeyond.controller");
+    }
+
+    @Test
+    void keepsOneInEveryNthEventPerPrefix() {
+        Logger logger = context.getLogger("com.limitbeyond.service.WorkoutService");
+
+        assertEquals("NDND", replies(logger, Level.INFO, 4));
+    }
+
+    @Test
+    void theLongestPrefixWins() {
+        Logger logger = context.getLogger("com.limitbeyond.controller.WorkoutController");
+
+        assertEquals("NDDDND", replies(logger, Level.DEBUG, 6));
+    }
+
+    @Test
+    void warningsAndUnsampledLoggersAlwaysPass() {
+        assertEquals("NNNN", replies(context.getLogger("com.limitbeyond.service.X"), Level.WARN, 4));
+        assertEquals("NNNN", replies(context.getLogger("org.springframework.web.Servlet"), Level.INFO, 4));
+        assertEquals("NNNN", replies(context.getLogger("com.limitbeyondx.Other"), Level.INFO, 4));
+    }
+
+    @Test
+    void levelChecksDoNotConsumeSampleSlots() {
+        Logger logger = context.getLogger("com.limitbeyond.service.X");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.DEBUG, null, null, null));
+        }
+
+        assertEquals("NDND", replies(logger, Level.DEBUG, 4));
+    }
+
+    @Test
+    void disabledEventsDoNotConsumeSampleSlots() {
+        Logger logger = context.getLogger("com.limitbeyond.service.X");
+        logger.setLevel(Level.INFO);
+        replies(logger, Level.DEBUG, 3);
+
+        assertEquals("NDND", replies(logger, Level.INFO, 4));
+    }
+
+    @Test
+    void exemptLoggersAreNotSampled() {
+        LogSamplingTurboFilter.exempt("com.limitbeyond.controller");
+
+        assertEquals("NNNN", replies(context.getLogger("com.limitbeyond.controller.X"), Level.DEBUG, 4));
+        assertEquals("NDND", replies(context.getLogger("com.limitbeyond.service.X"), Level.DEBUG, 4));
+    }
+
+    @Test
+    void blankRatesDisableSampling() {
+        filter.setRates(" ");
+
+        assertEquals("NNNN", replies(context.getLogger("com.limitbeyond.service.X"), Level.INFO, 4));
+    }
+
+    // N for NEUTRAL, D for DENY
+    private String replies(Logger logger, Level level, int count) {
+        StringBuilder replies = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            FilterReply reply = filter.decide(null, logger, level, "event {}", new Object[] {i}, null);
+            replies.append(reply == FilterReply.DENY ? 'D' : 'N');
+        }
+        return replies.toString();
+    }
+}
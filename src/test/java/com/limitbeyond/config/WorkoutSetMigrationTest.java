@@ -0,0 +1,104 @@
+package com.limitbeyond.config;
+
+import com.limitbeyond.model.ExerciseTemplate;
+import com.limitbeyond.model.MuscleGroup;
+import com.limitbeyond.repository.ExerciseTemplateRepository;
+import com.limitbeyond.support.InMemoryMongo;
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WorkoutSetMigrationTest {
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private ExerciseTemplateRepository exerciseTemplateRepository;
+    private WorkoutSetMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.getMongoTemplate();
+        exerciseTemplateRepository = mock(ExerciseTemplateRepository.class);
+        migration = new WorkoutSetMigration();
+        ReflectionTestUtils.setField(migration, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(migration, "exerciseTemplateRepository", exerciseTemplateRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void embedsReferencedSetsInOriginalOrder() {
+        MuscleGroup chest = new MuscleGroup("Chest");
+        chest.setId("mg-chest");
+        ExerciseTemplate bench = new ExerciseTemplate();
+        bench.setId("ex-bench");
+        bench.setName("Bench Press");
+        bench.setPrimaryMuscleGroup(chest);
+        when(exerciseTemplateRepository.findAllById(any())).thenReturn(Collections.singletonList(bench));
+
+        mongoTemplate.getCollection("workout_sets").insertMany(Arrays.asList(
+                new Document("_id", "set-1").append("exercise", new DBRef("exercise_templates", "ex-bench"))
+                        .append("reps", 10).append("weight", 60.0).append("completed", true),
+                new Document("_id", "set-2").append("exercise", new DBRef("exercise_templates", "ex-gone"))
+                        .append("reps", 8).append("notes", "slow")));
+        mongoTemplate.getCollection("workouts").insertOne(new Document("_id", "w-1").append("name", "Push")
+                .append("sets", Arrays.asList(
+                        new DBRef("workout_sets", "set-2"),
+                        new DBRef("workout_sets", "set-missing"),
+                        new DBRef("workout_sets", "set-1"))));
+
+        assertEquals(1, migration.migrate());
+
+        Document workout = mongoTemplate.getCollection("workouts").find(new Document("_id", "w-1")).first();
+        List<Document> sets = workout.getList("sets", Document.class);
+        assertEquals(2, sets.size(), "dangling references are dropped");
+
+        Document first = sets.get(0);
+        assertEquals("set-2", first.getString("_id"));
+        assertEquals(8, first.getInteger("reps"));
+        assertEquals("slow", first.getString("notes"));
+        assertFalse(first.getBoolean("completed"));
+        Document orphan = first.get("exercise", Document.class);
+        assertEquals("ex-gone", orphan.getString("_id"), "a deleted template keeps the referenced id");
+        assertNull(orphan.getString("name"));
+
+        Document second = sets.get(1);
+        assertEquals("set-1", second.getString("_id"));
+        assertEquals(60.0, second.getDouble("weight"));
+        assertTrue(second.getBoolean("completed"));
+        Document snapshot = second.get("exercise", Document.class);
+        assertEquals("Bench Press", snapshot.getString("name"));
+        assertEquals("Chest", snapshot.get("primaryMuscleGroup", Document.class).getString("name"));
+    }
+
+    @Test
+    void leavesEmbeddedWorkoutsAlone() {
+        mongoTemplate.getCollection("workouts").insertOne(new Document("_id", "w-2")
+                .append("sets", Collections.singletonList(new Document("_id", "set-9").append("reps", 5))));
+
+        assertEquals(0, migration.migrate());
+        assertEquals(Set.of("_id", "reps"), mongoTemplate.getCollection("workouts")
+                .find(new Document("_id", "w-2")).first().getList("sets", Document.class).get(0).keySet());
+    }
+}
@@ -0,0 +1,47 @@
+package com.limitbeyond.dto.dietchat;
+
+import com.limitbeyond.model.DietChat;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class InboxCursorTest {
+
+    @Test
+    void roundTripsTheChatPosition() {
+        DietChat chat = new DietChat();
+        chat.setId(new ObjectId().toHexString());
+        chat.setLastActivityAt(LocalDateTime.of(2024, 5, 17, 6, 30, 15, 123000000));
+
+        InboxCursor decoded = InboxCursor.decode(InboxCursor.after(chat).encode());
+
+        assertEquals(chat.getLastActivityAt(), decoded.getLastActivityAt());
+        assertEquals(chat.getId(), decoded.getId());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String token = new InboxCursor(LocalDateTime.of(2024, 1, 1, 0, 0), new ObjectId().toHexString()).encode();
+
+        assertEquals(token, token.replaceAll("[^A-Za-z0-9_-]", ""));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode(encode("2024-01-01T00:00|abc")));
+        assertThrows(IllegalArgumentException.class,
+                () -> InboxCursor.decode(encode("yesterday|" + new ObjectId().toHexString())));
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode(encode("no separator")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
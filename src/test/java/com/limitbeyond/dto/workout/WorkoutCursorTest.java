@@ -0,0 +1,56 @@
+package com.limitbeyond.dto.workout;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class WorkoutCursorTest {
+
+    @Test
+    void roundTripsDateAndId() {
+        String id = new ObjectId().toHexString();
+        LocalDateTime date = LocalDateTime.of(2024, 5, 17, 6, 30, 15);
+
+        WorkoutCursor decoded = WorkoutCursor.decode(new WorkoutCursor(date, id).encode());
+
+        assertEquals(date, decoded.getScheduledDate());
+        assertEquals(id, decoded.getId());
+    }
+
+    @Test
+    void roundTripsUnscheduledWorkouts() {
+        String id = new ObjectId().toHexString();
+
+        WorkoutCursor decoded = WorkoutCursor.decode(new WorkoutCursor(null, id).encode());
+
+        assertNull(decoded.getScheduledDate());
+        assertEquals(id, decoded.getId());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String token = new WorkoutCursor(LocalDateTime.of(2024, 1, 1, 0, 0), new ObjectId().toHexString()).encode();
+
+        assertEquals(token, token.replaceAll("[^A-Za-z0-9_-]", ""));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> WorkoutCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutCursor.decode(encode("2024-01-01T00:00|abc")));
+        assertThrows(IllegalArgumentException.class,
+                () -> WorkoutCursor.decode(encode("yesterday|" + new ObjectId().toHexString())));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutCursor.decode(encode("no separator")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
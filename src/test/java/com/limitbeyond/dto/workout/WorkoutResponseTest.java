@@ -0,0 +1,46 @@
+package com.limitbeyond.dto.workout;
+
+import com.limitbeyond.model.ExerciseSnapshot;
+import com.limitbeyond.model.Workout;
+import com.limitbeyond.model.WorkoutSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class WorkoutResponseTest {
+
+    @Test
+    void buildsFromEmbeddedSetsWithoutResolvingTemplates() {
+        ExerciseSnapshot squat = new ExerciseSnapshot();
+        squat.setId("ex-squat");
+        squat.setName("Squat");
+
+        WorkoutSet heavy = new WorkoutSet(squat, 5);
+        heavy.setId("set-1");
+        heavy.setWeight(100.0);
+        WorkoutSet light = new WorkoutSet(squat, 10);
+        light.setId("set-2");
+        light.setWeight(60.0);
+        WorkoutSet orphan = new WorkoutSet();
+        orphan.setId("set-3");
+        orphan.setReps(12);
+
+        Workout workout = new Workout();
+        workout.setId("w-1");
+        workout.setSets(Arrays.asList(heavy, light, orphan));
+
+        WorkoutResponse response = WorkoutResponse.fromWorkout(workout);
+
+        assertEquals(3, response.getSets().size());
+        assertEquals("Squat", response.getSets().get(0).getExercise().getName());
+        assertNull(response.getSets().get(2).getExercise(), "a set without a snapshot has no exercise");
+
+        assertEquals(1, response.getExercises().size(), "sets are grouped by exercise id");
+        WorkoutResponse.ExerciseEntry entry = response.getExercises().get(0);
+        assertEquals(2, entry.getSets().size());
+        assertEquals(1100.0, entry.getTotalVolume(), 0.001);
+    }
+}
@@ -0,0 +1,66 @@
+package com.limitbeyond.model;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class ModelIndexesTest {
+
+    private IndexResolver indexResolver;
+
+    @BeforeEach
+    void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(Collections.emptyList()).getSimpleTypeHolder());
+        indexResolver = IndexResolver.create(mappingContext);
+    }
+
+    @Test
+    void workoutIndexesMatchRepositoryQueries() {
+        Map<String, Document> indexes = indexes(Workout.class);
+
+        assertEquals(Document.parse("{member: 1, scheduledDate: -1, _id: -1}"),
+                indexes.get("member_scheduledDate_id"));
+        assertEquals(Document.parse("{member: 1, targetMuscleGroups: 1, scheduledDate: -1, _id: -1}"),
+                indexes.get("member_targetMuscleGroups_scheduledDate_id"));
+        assertEquals(Document.parse("{trainer: 1, scheduledDate: -1}"), indexes.get("trainer_scheduledDate"));
+    }
+
+    @Test
+    void embeddedSnapshotsDoNotCopyTemplateIndexes() {
+        for (Document keys : indexes(Workout.class).values()) {
+            for (String field : keys.keySet()) {
+                assertFalse(field.startsWith("sets."), "unexpected index on " + field);
+            }
+        }
+    }
+
+    @Test
+    void lookupCollectionsHaveCompoundIndexes() {
+        assertEquals(Document.parse("{userId: 1, occurredAt: -1}"), indexes(Checkin.class).get("userId_occurredAt"));
+        assertEquals(Document.parse("{userId: 1, paidAt: -1}"), indexes(Payment.class).get("userId_paidAt"));
+        assertEquals(Document.parse("{roles: 1, active: 1}"), indexes(User.class).get("roles_active"));
+        assertEquals(Document.parse("{memberId: 1, createdAt: -1}"),
+                indexes(Feedback.class).get("memberId_createdAt"));
+    }
+
+    private Map<String, Document> indexes(Class<?> type) {
+        Map<String, Document> byName = new HashMap<>();
+        for (IndexDefinition index : indexResolver.resolveIndexFor(type)) {
+            Object name = index.getIndexOptions().get("name");
+            byName.put(name != null ? name.toString() : index.getIndexKeys().toJson(), index.getIndexKeys());
+        }
+        return byName;
+    }
+}
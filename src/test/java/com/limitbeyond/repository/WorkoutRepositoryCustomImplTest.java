@@ -0,0 +1,165 @@
+package com.limitbeyond.repository;
+
+import com.limitbeyond.model.MuscleGroup;
+import com.limitbeyond.model.User;
+import com.limitbeyond.model.Workout;
+import com.limitbeyond.support.InMemoryMongo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkoutRepositoryCustomImplTest {
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private WorkoutRepositoryCustomImpl repository;
+    private User member;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.getMongoTemplate();
+        repository = new WorkoutRepositoryCustomImpl();
+        ReflectionTestUtils.setField(repository, "mongoTemplate", mongoTemplate);
+        member = new User();
+        member.setUsername("member");
+        member = mongoTemplate.save(member);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void pagesThroughTiesAndUnscheduledWorkoutsWithoutGapsOrRepeats() {
+        LocalDateTime monday = LocalDateTime.of(2024, 3, 4, 7, 0);
+        List<String> expected = new ArrayList<>();
+        // Newest first, ties on the date broken by id, unscheduled last
+        Workout later = save("later", monday.plusDays(1));
+        List<Workout> sameDay = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            sameDay.add(save("monday-" + i, monday));
+        }
+        Workout unscheduledA = save("open-a", null);
+        Workout unscheduledB = save("open-b", null);
+        expected.add(later.getId());
+        for (int i = sameDay.size() - 1; i >= 0; i--) {
+            expected.add(sameDay.get(i).getId());
+        }
+        expected.add(unscheduledB.getId());
+        expected.add(unscheduledA.getId());
+
+        User other = new User();
+        other.setUsername("other");
+        save("someone else", monday, mongoTemplate.save(other));
+
+        List<String> seen = new ArrayList<>();
+        LocalDateTime cursorDate = null;
+        String cursorId = null;
+        int pages = 0;
+        while (true) {
+            Slice<Workout> page = repository.findByMemberBefore(member, cursorDate, cursorId, 2);
+            pages++;
+            for (Workout workout : page.getContent()) {
+                seen.add(workout.getId());
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            Workout last = page.getContent().get(page.getContent().size() - 1);
+            cursorDate = last.getScheduledDate();
+            cursorId = last.getId();
+        }
+
+        assertEquals(expected, seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void lastPageReportsNoNext() {
+        save("only", LocalDateTime.of(2024, 3, 4, 7, 0));
+
+        Slice<Workout> page = repository.findByMemberBefore(member, null, null, 5);
+
+        assertEquals(1, page.getContent().size());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void fullPageWithMoreRowsReportsNext() {
+        save("a", LocalDateTime.of(2024, 3, 4, 7, 0));
+        save("b", LocalDateTime.of(2024, 3, 5, 7, 0));
+
+        Slice<Workout> page = repository.findByMemberBefore(member, null, null, 1);
+
+        assertEquals("b", page.getContent().get(0).getName());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    void muscleGroupPagesOnlyMatchTargetedWorkoutsInRange() {
+        MuscleGroup legs = mongoTemplate.save(new MuscleGroup("Legs"));
+        MuscleGroup chest = mongoTemplate.save(new MuscleGroup("Chest"));
+        LocalDateTime march = LocalDateTime.of(2024, 3, 1, 7, 0);
+        Workout early = save("early legs", march.minusDays(10), legs);
+        Workout legDay = save("legs", march.plusDays(1), legs);
+        Workout fullBody = save("full body", march.plusDays(2), legs, chest);
+        save("chest", march.plusDays(3), chest);
+        Workout late = save("late legs", march.plusDays(40), legs);
+
+        Slice<Workout> all = repository.findByMemberAndMuscleGroupBefore(member, legs, null, null, null, null, 10);
+        assertEquals(Arrays.asList(late.getId(), fullBody.getId(), legDay.getId(), early.getId()), ids(all));
+
+        Slice<Workout> firstPage = repository.findByMemberAndMuscleGroupBefore(member, legs, march,
+                march.plusDays(30), null, null, 1);
+        assertEquals(Arrays.asList(fullBody.getId()), ids(firstPage));
+        assertTrue(firstPage.hasNext());
+
+        Slice<Workout> secondPage = repository.findByMemberAndMuscleGroupBefore(member, legs, march,
+                march.plusDays(30), fullBody.getScheduledDate(), fullBody.getId(), 1);
+        assertEquals(Arrays.asList(legDay.getId()), ids(secondPage));
+        assertFalse(secondPage.hasNext());
+
+        Slice<Workout> openEnded = repository.findByMemberAndMuscleGroupBefore(member, legs, march.plusDays(5),
+                null, null, null, 10);
+        assertEquals(Arrays.asList(late.getId()), ids(openEnded));
+    }
+
+    private static List<String> ids(Slice<Workout> page) {
+        List<String> ids = new ArrayList<>();
+        for (Workout workout : page.getContent()) {
+            ids.add(workout.getId());
+        }
+        return ids;
+    }
+
+    private Workout save(String name, LocalDateTime scheduledDate, MuscleGroup... targets) {
+        Workout workout = new Workout(name, member);
+        workout.setScheduledDate(scheduledDate);
+        workout.setTargetMuscleGroups(Arrays.asList(targets));
+        return mongoTemplate.save(workout);
+    }
+
+    private Workout save(String name, LocalDateTime scheduledDate) {
+        return save(name, scheduledDate, member);
+    }
+
+    private Workout save(String name, LocalDateTime scheduledDate, User owner) {
+        Workout workout = new Workout(name, owner);
+        workout.setScheduledDate(scheduledDate);
+        return mongoTemplate.save(workout);
+    }
+}
@@ -0,0 +1,45 @@
+package com.limitbeyond.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BcryptCostTunerTest {
+
+    @Test
+    void aPinnedCostSkipsTuning() {
+        assertEquals(12, tuner(12, 250, 4, 14).cost());
+    }
+
+    @Test
+    void staysAtTheMinimumWhenTheTargetIsTight() {
+        assertEquals(4, tuner(0, 0, 4, 14).cost());
+    }
+
+    @Test
+    void neverExceedsTheMaximum() {
+        assertEquals(6, tuner(0, 60_000, 4, 6).cost());
+    }
+
+    @Test
+    void tunesOnceAndKeepsTheResult() {
+        BcryptCostTuner tuner = tuner(0, 50, 4, 10);
+
+        int cost = tuner.cost();
+
+        assertTrue(cost >= 4 && cost <= 10);
+        ReflectionTestUtils.setField(tuner, "targetMs", 0L);
+        assertEquals(cost, tuner.cost());
+    }
+
+    private static BcryptCostTuner tuner(int fixedCost, long targetMs, int minCost, int maxCost) {
+        BcryptCostTuner tuner = new BcryptCostTuner();
+        ReflectionTestUtils.setField(tuner, "fixedCost", fixedCost);
+        ReflectionTestUtils.setField(tuner, "targetMs", targetMs);
+        ReflectionTestUtils.setField(tuner, "minCost", minCost);
+        ReflectionTestUtils.setField(tuner, "maxCost", maxCost);
+        return tuner;
+    }
+}
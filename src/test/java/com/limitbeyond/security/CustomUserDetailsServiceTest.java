@@ -0,0 +1,95 @@
+package com.limitbeyond.security;
+
+import com.limitbeyond.model.Role;
+import com.limitbeyond.model.User;
+import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.service.UserCacheService;
+import com.limitbeyond.support.InMemoryMongo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CustomUserDetailsServiceTest {
+
+    private InMemoryMongo mongo;
+    private UserCacheService userCacheService;
+    private CustomUserDetailsService userDetailsService;
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        UserRepository userRepository = mock(UserRepository.class);
+        userCacheService = mock(UserCacheService.class);
+        userDetailsService = new CustomUserDetailsService();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userDetailsService, "mongoTemplate", mongo.getMongoTemplate());
+        ReflectionTestUtils.setField(userDetailsService, "userCacheService", userCacheService);
+
+        // Same shape as SecurityConfig#passwordEncoder, at test-friendly costs
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(5);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        passwordEncoder = delegating;
+
+        User user = new User();
+        user.setId("user-1");
+        user.setUsername("member");
+        user.setEmail("member@example.com");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret"));
+        user.setRoles(EnumSet.of(Role.MEMBER));
+        user.setActive(true);
+        mongo.getMongoTemplate().save(user);
+        when(userRepository.findByUsername("member")).thenAnswer(
+                invocation -> Optional.of(mongo.getMongoTemplate().findById("user-1", User.class)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void upgradesALegacyHashOnSuccessfulLogin() {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("member", "secret"));
+
+        String stored = mongo.getMongoTemplate().findById("user-1", User.class).getPassword();
+        assertTrue(stored.startsWith("{bcrypt}$2a$05$"), stored);
+        assertTrue(passwordEncoder.matches("secret", stored));
+        verify(userCacheService).evict("user-1");
+    }
+
+    @Test
+    void updatePasswordKeepsTheRestOfThePrincipal() {
+        UserPrincipal principal = (UserPrincipal) userDetailsService.loadUserByUsername("member");
+
+        UserPrincipal updated = (UserPrincipal) userDetailsService.updatePassword(principal, "{bcrypt}new-hash");
+
+        assertEquals("{bcrypt}new-hash", updated.getPassword());
+        assertEquals("user-1", updated.getId());
+        assertEquals(principal.getAuthorities(), updated.getAuthorities());
+        assertEquals(principal.getTokenVersion(), updated.getTokenVersion());
+        assertEquals("{bcrypt}new-hash", mongo.getMongoTemplate().findById("user-1", User.class).getPassword());
+    }
+}
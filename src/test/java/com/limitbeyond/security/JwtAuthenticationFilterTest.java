@@ -0,0 +1,79 @@
+package com.limitbeyond.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JwtAuthenticationFilterTest {
+
+    private JwtPrincipalResolver principalResolver;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        principalResolver = mock(JwtPrincipalResolver.class);
+        when(principalResolver.resolve("token")).thenReturn(JwtTokenProviderTest.principal("user-1"));
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "principalResolver", principalResolver);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesProtectedRoutes() throws Exception {
+        send("GET", "/api/workouts");
+
+        UserPrincipal principal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication()
+                .getPrincipal();
+        assertEquals("user-1", principal.getId());
+    }
+
+    @Test
+    void skipsPublicRoutes() throws Exception {
+        for (String path : new String[] {"/api/auth/signin", "/api/public/plans", "/api/muscle-groups/public",
+                "/api/exercise-templates/public/all", "/actuator/health", "/ws/info", "/swagger-ui/index.html"}) {
+            send("GET", path);
+            assertNull(SecurityContextHolder.getContext().getAuthentication(), path);
+        }
+
+        verify(principalResolver, never()).resolve(anyString());
+    }
+
+    @Test
+    void skipsPreflightRequests() throws Exception {
+        send("OPTIONS", "/api/workouts");
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(principalResolver, never()).resolve(anyString());
+    }
+
+    @Test
+    void guardedEndpointsUnderPublicPrefixesStillAuthenticate() throws Exception {
+        send("POST", "/api/muscle-groups");
+
+        assertEquals("user-1", ((UserPrincipal) SecurityContextHolder.getContext().getAuthentication()
+                .getPrincipal()).getId());
+    }
+
+    private void send(String method, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader("Authorization", "Bearer token");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
@@ -0,0 +1,96 @@
+package com.limitbeyond.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtPrincipalResolverTest {
+
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    @Spy
+    private JwtTokenProvider tokenProvider = new JwtTokenProvider();
+
+    @Mock
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Mock
+    private TokenRevocationStore tokenRevocationStore;
+
+    @InjectMocks
+    private JwtPrincipalResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 60000);
+        ReflectionTestUtils.setField(tokenProvider, "claimsCacheTtlMs", 30000L);
+        ReflectionTestUtils.setField(tokenProvider, "claimsCacheMaxSize", 100);
+        tokenProvider.init();
+    }
+
+    @Test
+    void buildsThePrincipalFromClaimsWithoutLoadingTheUser() {
+        String token = tokenProvider.generateToken(JwtTokenProviderTest.principal("user-1"));
+        when(tokenRevocationStore.isRevoked(anyString())).thenReturn(false);
+        when(tokenVersionRegistry.isCurrent("user-1", 3)).thenReturn(true);
+
+        UserPrincipal principal = (UserPrincipal) resolver.resolve(token);
+
+        assertEquals("user-1", principal.getId());
+        assertEquals("user-1-name", principal.getUsername());
+        verifyNoInteractions(customUserDetailsService);
+    }
+
+    @Test
+    void rejectsTokensIssuedBeforeAVersionBump() {
+        String token = tokenProvider.generateToken(JwtTokenProviderTest.principal("user-1"));
+        when(tokenRevocationStore.isRevoked(anyString())).thenReturn(false);
+        when(tokenVersionRegistry.isCurrent("user-1", 3)).thenReturn(false);
+
+        assertNull(resolver.resolve(token));
+    }
+
+    @Test
+    void rejectsInvalidTokensBeforeAnyLookup() {
+        assertNull(resolver.resolve("not-a-jwt"));
+        verifyNoInteractions(tokenRevocationStore, tokenVersionRegistry, customUserDetailsService);
+    }
+
+    @Test
+    void loadsTheUserForTokensWithoutAVersion() {
+        String legacy = Jwts.builder().setId("jti-1").setSubject("user-9")
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).compact();
+        UserDetails loaded = JwtTokenProviderTest.principal("user-9");
+        when(tokenRevocationStore.isRevoked("jti-1")).thenReturn(false);
+        when(customUserDetailsService.loadUserById("user-9")).thenReturn(loaded);
+
+        assertSame(loaded, resolver.resolve(legacy));
+        verify(customUserDetailsService).loadUserById("user-9");
+        verifyNoInteractions(tokenVersionRegistry);
+    }
+}
@@ -0,0 +1,103 @@
+package com.limitbeyond.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JwtTokenProviderTest {
+
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = provider(60000, 30000, 100);
+    }
+
+    @Test
+    void parsesTheClaimsItIssued() {
+        String token = tokenProvider.generateToken(principal("user-1"));
+
+        Claims claims = tokenProvider.parseClaims(token);
+
+        assertEquals("user-1", claims.getSubject());
+        assertEquals("user-1-name", claims.get("username", String.class));
+        assertEquals("ROLE_MEMBER", claims.get("roles", String.class));
+        assertEquals(3, claims.get("ver", Integer.class));
+        assertEquals("user-1", tokenProvider.getUserIdFromJWT(token));
+        assertTrue(tokenProvider.validateToken(token));
+    }
+
+    @Test
+    void reusesVerifiedClaimsWithinTheTtl() {
+        String token = tokenProvider.generateToken(principal("user-1"));
+
+        assertSame(tokenProvider.parseClaims(token), tokenProvider.parseClaims(token));
+    }
+
+    @Test
+    void reverifiesOnceTheTtlHasPassed() {
+        JwtTokenProvider noCache = provider(60000, 0, 100);
+        String token = noCache.generateToken(principal("user-1"));
+
+        assertNotSame(noCache.parseClaims(token), noCache.parseClaims(token));
+    }
+
+    @Test
+    void rejectsTamperedAndExpiredTokens() {
+        String token = tokenProvider.generateToken(principal("user-1"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertNull(tokenProvider.parseClaims(tampered));
+        assertFalse(tokenProvider.validateToken("not-a-jwt"));
+        assertThrows(JwtException.class, () -> tokenProvider.getUserIdFromJWT(tampered));
+
+        JwtTokenProvider expiring = provider(-1000, 30000, 100);
+        assertNull(expiring.parseClaims(expiring.generateToken(principal("user-2"))));
+        assertTrue(cache(expiring).isEmpty(), "invalid tokens are never cached");
+    }
+
+    @Test
+    void cacheStaysWithinItsBound() {
+        JwtTokenProvider small = provider(60000, 30000, 5);
+        for (int i = 0; i < 20; i++) {
+            String token = small.generateToken(principal("user-" + i));
+            assertEquals("user-" + i, small.parseClaims(token).getSubject());
+            assertTrue(cache(small).size() <= 5);
+        }
+    }
+
+    private static JwtTokenProvider provider(int expirationMs, long ttlMs, int maxSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "claimsCacheTtlMs", ttlMs);
+        ReflectionTestUtils.setField(provider, "claimsCacheMaxSize", maxSize);
+        provider.init();
+        return provider;
+    }
+
+    private static Map<?, ?> cache(JwtTokenProvider provider) {
+        return (Map<?, ?>) ReflectionTestUtils.getField(provider, "claimsCache");
+    }
+
+    static UserPrincipal principal(String id) {
+        return new UserPrincipal(id, id + "-name", id + "@example.com", null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_MEMBER")), true, 3);
+    }
+}
@@ -0,0 +1,102 @@
+package com.limitbeyond.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor(meterRegistry, 1, 1, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.stop();
+    }
+
+    @Test
+    void callRunsOnTheHashingPool() {
+        String thread = executor.call("encode", () -> Thread.currentThread().getName());
+
+        assertTrue(thread.startsWith("password-hash-"));
+        assertEquals(1, meterRegistry.get("auth.hashing.duration").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void nestedCallsRunInlineInsteadOfDeadlocking() {
+        String inner = executor.call("matches", () -> executor.call("encode", () -> Thread.currentThread().getName()));
+
+        assertTrue(inner.startsWith("password-hash-"));
+    }
+
+    @Test
+    void shedsLoadWhenTheQueueIsFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> busy = executor.submit(() -> {
+            running.countDown();
+            return await(release);
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = executor.submit(() -> true);
+
+        PasswordHashingOverloadedException e = assertThrows(PasswordHashingOverloadedException.class,
+                () -> executor.submit(() -> true));
+        assertEquals(3, e.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("auth.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(busy.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void taskFailuresReachTheCaller() {
+        IllegalArgumentException failure = new IllegalArgumentException("bad hash");
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> executor.call("matches", () -> {
+                    throw failure;
+                }));
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    void offloadedEncoderDelegatesToBcrypt() {
+        OffloadedPasswordEncoder encoder = new OffloadedPasswordEncoder(new BCryptPasswordEncoder(4), executor);
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(3, meterRegistry.get("auth.hashing.duration").timers().stream()
+                .mapToLong(timer -> timer.count()).sum());
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.limitbeyond.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimitFilterTest {
+
+    private RateLimitProperties properties;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setDefaultCapacity(3);
+        // Slow enough that nothing refills while a test runs
+        properties.setDefaultRefillPerSecond(0.01);
+        RateLimitProperties.Route auth = new RateLimitProperties.Route();
+        auth.setPattern("/api/auth/**");
+        auth.setCapacity(2);
+        auth.setRefillPerSecond(0.01);
+        properties.setRoutes(List.of(auth));
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "properties", properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void allowsABurstUpToCapacityThenRejects() throws Exception {
+        for (int i = 2; i >= 0; i--) {
+            MockHttpServletResponse response = send("GET", "/api/workouts", "10.0.0.1");
+            assertEquals(200, response.getStatus());
+            assertEquals("3", response.getHeader("X-RateLimit-Limit"));
+            assertEquals(String.valueOf(i), response.getHeader("X-RateLimit-Remaining"));
+        }
+
+        MockHttpServletResponse rejected = send("GET", "/api/workouts", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("0", rejected.getHeader("X-RateLimit-Remaining"));
+        assertTrue(Long.parseLong(rejected.getHeader("Retry-After")) > 0);
+        assertTrue(rejected.getContentAsString().contains("Too many requests"));
+    }
+
+    @Test
+    void routeOverridesUseTheirOwnBucket() throws Exception {
+        send("POST", "/api/auth/signin", "10.0.0.1");
+        send("POST", "/api/auth/signin", "10.0.0.1");
+
+        assertEquals(429, send("POST", "/api/auth/signin", "10.0.0.1").getStatus());
+        assertEquals(200, send("GET", "/api/workouts", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void clientsAreLimitedIndependently() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            send("GET", "/api/workouts", "10.0.0.1");
+        }
+
+        assertEquals(429, send("GET", "/api/workouts", "10.0.0.1").getStatus());
+        assertEquals(200, send("GET", "/api/workouts", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void authenticatedCallersAreKeyedByUserExceptOnAuthRoutes() throws Exception {
+        UserPrincipal principal = JwtTokenProviderTest.principal("user-1");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        for (int i = 0; i < 3; i++) {
+            send("GET", "/api/workouts", "10.0.0." + i);
+        }
+
+        assertEquals(429, send("GET", "/api/workouts", "10.0.0.9").getStatus());
+
+        send("POST", "/api/auth/refresh", "10.0.0.1");
+        send("POST", "/api/auth/refresh", "10.0.0.1");
+        assertEquals(200, send("POST", "/api/auth/refresh", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void preflightAndDisabledRequestsPassThrough() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, send("OPTIONS", "/api/workouts", "10.0.0.1").getStatus());
+        }
+        properties.setEnabled(false);
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletResponse response = send("GET", "/api/workouts", "10.0.0.1");
+            assertEquals(200, response.getStatus());
+            assertNull(response.getHeader("X-RateLimit-Limit"));
+        }
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
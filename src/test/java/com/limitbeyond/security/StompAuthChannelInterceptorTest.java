@@ -0,0 +1,220 @@
+package com.limitbeyond.security;
+
+import com.limitbeyond.model.Role;
+import com.limitbeyond.model.User;
+import com.limitbeyond.service.DietChatService;
+import com.limitbeyond.service.UserCacheService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StompAuthChannelInterceptorTest {
+
+    private JwtPrincipalResolver principalResolver;
+    private JwtTokenProvider tokenProvider;
+    private TokenVersionRegistry tokenVersionRegistry;
+    private DietChatService dietChatService;
+    private StompAuthChannelInterceptor interceptor;
+    private MessageChannel channel;
+    private User member;
+
+    @BeforeEach
+    void setUp() {
+        principalResolver = mock(JwtPrincipalResolver.class);
+        tokenProvider = mock(JwtTokenProvider.class);
+        tokenVersionRegistry = mock(TokenVersionRegistry.class);
+        UserCacheService userCacheService = mock(UserCacheService.class);
+        dietChatService = mock(DietChatService.class);
+        interceptor = new StompAuthChannelInterceptor();
+        ReflectionTestUtils.setField(interceptor, "principalResolver", principalResolver);
+        ReflectionTestUtils.setField(interceptor, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(interceptor, "tokenVersionRegistry", tokenVersionRegistry);
+        ReflectionTestUtils.setField(interceptor, "userCacheService", userCacheService);
+        ReflectionTestUtils.setField(interceptor, "dietChatService", dietChatService);
+        channel = mock(MessageChannel.class);
+
+        member = new User();
+        member.setId("user-1");
+        member.setRoles(EnumSet.of(Role.MEMBER));
+        member.setActive(true);
+        when(userCacheService.findById("user-1")).thenReturn(Optional.of(member));
+        when(userCacheService.findById("gone")).thenReturn(Optional.empty());
+        when(principalResolver.resolve("good")).thenReturn(JwtTokenProviderTest.principal("user-1"));
+        Claims claims = Jwts.claims();
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        when(tokenProvider.parseClaims("good")).thenReturn(claims);
+        when(tokenVersionRegistry.isCurrent("user-1", 3)).thenReturn(true);
+    }
+
+    @Test
+    void connectAuthenticatesTheBearerToken() {
+        StompHeaderAccessor accessor = accessor(StompCommand.CONNECT, null, null);
+        accessor.addNativeHeader("Authorization", "Bearer good");
+        Message<?> message = message(accessor);
+
+        assertSame(message, interceptor.preSend(message, channel));
+
+        Principal user = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class).getUser();
+        assertEquals("user-1", StompAuthChannelInterceptor.userId(user));
+    }
+
+    @Test
+    void connectKeepsTheTokensExpiryAndVersionOnTheSession() {
+        StompHeaderAccessor accessor = accessor(StompCommand.CONNECT, null, null);
+        accessor.addNativeHeader("Authorization", "Bearer good");
+
+        interceptor.preSend(message(accessor), channel);
+
+        StompAuthChannelInterceptor.SessionToken token = (StompAuthChannelInterceptor.SessionToken) accessor
+                .getSessionAttributes().get(StompAuthChannelInterceptor.SESSION_TOKEN);
+        assertEquals(3, (int) ReflectionTestUtils.getField(token, "version"));
+        assertTrue((long) ReflectionTestUtils.getField(token, "expiresAt") > System.currentTimeMillis());
+    }
+
+    @Test
+    void framesAfterTheTokenExpiresOrIsRevokedAreRejected() {
+        StompHeaderAccessor expired = accessor(StompCommand.SEND, "/app/diet-chat/chat-1/typing", session("user-1"));
+        expired.getSessionAttributes().put(StompAuthChannelInterceptor.SESSION_TOKEN,
+                new StompAuthChannelInterceptor.SessionToken("user-1", 3, System.currentTimeMillis() - 1));
+        StompHeaderAccessor revoked = accessor(StompCommand.SUBSCRIBE, "/topic/diet-chat/chat-1", session("user-1"));
+        revoked.getSessionAttributes().put(StompAuthChannelInterceptor.SESSION_TOKEN,
+                new StompAuthChannelInterceptor.SessionToken("user-1", 2, System.currentTimeMillis() + 60_000));
+        StompHeaderAccessor missing = accessor(StompCommand.SEND, "/app/diet-chat/chat-1/typing", session("user-1"));
+        missing.getSessionAttributes().clear();
+
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(message(expired), channel));
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(message(revoked), channel));
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(message(missing), channel));
+    }
+
+    @Test
+    void framesFromADeactivatedUserAreRejected() {
+        member.setActive(false);
+
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(
+                message(accessor(StompCommand.SEND, "/app/diet-chat/chat-1/typing", session("user-1"))), channel));
+    }
+
+    @Test
+    void messagesToARevokedSessionAreReplacedByAnError() {
+        StompHeaderAccessor connect = accessor(StompCommand.CONNECT, null, null);
+        connect.setSessionId("session-1");
+        connect.addNativeHeader("Authorization", "Bearer good");
+        interceptor.preSend(message(connect), channel);
+        ChannelInterceptor outbound = interceptor.outbound();
+
+        Message<?> live = outboundMessage("session-1");
+        assertSame(live, outbound.preSend(live, channel));
+
+        when(tokenVersionRegistry.isCurrent("user-1", 3)).thenReturn(false);
+        Message<?> error = outbound.preSend(outboundMessage("session-1"), channel);
+        assertEquals(StompCommand.ERROR, StompHeaderAccessor.wrap(error).getCommand());
+        assertEquals("session-1", StompHeaderAccessor.wrap(error).getSessionId());
+
+        Message<?> unknown = outboundMessage("session-2");
+        assertSame(unknown, outbound.preSend(unknown, channel), "sessions without a token are left alone");
+    }
+
+    @Test
+    void connectWithoutAValidTokenIsRejected() {
+        StompHeaderAccessor missing = accessor(StompCommand.CONNECT, null, null);
+        StompHeaderAccessor notBearer = accessor(StompCommand.CONNECT, null, null);
+        notBearer.addNativeHeader("Authorization", "Basic abc");
+        StompHeaderAccessor invalid = accessor(StompCommand.CONNECT, null, null);
+        invalid.addNativeHeader("Authorization", "Bearer expired");
+
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(message(missing), channel));
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(message(notBearer), channel));
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(message(invalid), channel));
+    }
+
+    @Test
+    void subscriptionsAreLimitedToParticipants() {
+        when(dietChatService.isParticipant(member, "chat-1")).thenReturn(true);
+        when(dietChatService.isParticipant(member, "chat-2")).thenReturn(false);
+
+        interceptor.preSend(message(accessor(StompCommand.SUBSCRIBE, "/topic/diet-chat/chat-1", session("user-1"))),
+                channel);
+
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(
+                message(accessor(StompCommand.SUBSCRIBE, "/topic/diet-chat/chat-2", session("user-1"))), channel));
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(
+                message(accessor(StompCommand.SUBSCRIBE, "/topic/checkins", session("user-1"))), channel));
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(
+                message(accessor(StompCommand.SUBSCRIBE, "/topic/diet-chat/chat-1", null)), channel));
+    }
+
+    @Test
+    void sendRequiresAKnownUser() {
+        interceptor.preSend(message(accessor(StompCommand.SEND, "/app/diet-chat/chat-1/typing", session("user-1"))),
+                channel);
+
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(
+                message(accessor(StompCommand.SEND, "/app/diet-chat/chat-1/typing", session("gone"))), channel));
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(
+                message(accessor(StompCommand.SEND, "/app/diet-chat/chat-1/typing", null)), channel));
+        verify(dietChatService, never()).isParticipant(any(), anyString());
+    }
+
+    private static Principal session(String userId) {
+        UserPrincipal principal = JwtTokenProviderTest.principal(userId);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    // A session that connected with a current, unexpired token for its user
+    private static StompHeaderAccessor accessor(StompCommand command, String destination, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        Map<String, Object> attributes = new HashMap<>();
+        if (user != null) {
+            attributes.put(StompAuthChannelInterceptor.SESSION_TOKEN, new StompAuthChannelInterceptor.SessionToken(
+                    StompAuthChannelInterceptor.userId(user), 3, System.currentTimeMillis() + 60_000));
+        }
+        accessor.setSessionAttributes(attributes);
+        accessor.setLeaveMutable(true);
+        return accessor;
+    }
+
+    private static Message<?> outboundMessage(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination("/topic/diet-chat/chat-1");
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<?> message(StompHeaderAccessor accessor) {
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
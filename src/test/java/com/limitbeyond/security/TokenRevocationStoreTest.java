@@ -0,0 +1,102 @@
+package com.limitbeyond.security;
+
+import com.limitbeyond.model.RevokedToken;
+import com.limitbeyond.support.InMemoryMongo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class TokenRevocationStoreTest {
+
+    private InMemoryMongo mongo;
+    private TokenRevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.stop();
+        }
+        mongo.close();
+    }
+
+    @Test
+    void revokedTokensAreReportedAsRevoked() {
+        store = store(mongo.getMongoTemplate());
+
+        store.revoke("jti-1", "user-1", LocalDateTime.now().plusMinutes(15));
+
+        assertTrue(store.isRevoked("jti-1"));
+        assertFalse(store.isRevoked("jti-2"));
+        assertFalse(store.isRevoked(null));
+    }
+
+    @Test
+    void unrevokedTokensAreAnsweredWithoutAQuery() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        store = store(mongoTemplate);
+
+        assertFalse(store.isRevoked("jti-1"));
+
+        verify(mongoTemplate, never()).exists(any(Query.class), eq(RevokedToken.class));
+    }
+
+    @Test
+    void startupLoadsOnlyUnexpiredRevocations() {
+        mongo.getMongoTemplate().save(revoked("live", LocalDateTime.now().plusMinutes(10)));
+        // Not yet removed by the TTL monitor, but already past its expiry
+        mongo.getMongoTemplate().save(revoked("expired", LocalDateTime.now().minusMinutes(1)));
+
+        store = store(mongo.getMongoTemplate());
+
+        assertTrue(store.isRevoked("live"));
+        BloomFilter filter = (BloomFilter) ReflectionTestUtils.getField(store, "filter");
+        assertFalse(filter.mightContain("expired"));
+    }
+
+    @Test
+    void syncPicksUpRevocationsFromOtherInstances() {
+        store = store(mongo.getMongoTemplate());
+        mongo.getMongoTemplate().save(new RevokedToken("elsewhere", "user-1", LocalDateTime.now().plusMinutes(10)));
+        assertFalse(store.isRevoked("elsewhere"));
+
+        ReflectionTestUtils.invokeMethod(store, "sync");
+
+        assertTrue(store.isRevoked("elsewhere"));
+    }
+
+    private static RevokedToken revoked(String jti, LocalDateTime expiresAt) {
+        RevokedToken token = new RevokedToken(jti, "user-1", expiresAt);
+        token.setRevokedAt(expiresAt.minusMinutes(15));
+        return token;
+    }
+
+    private static TokenRevocationStore store(MongoTemplate mongoTemplate) {
+        TokenRevocationStore store = new TokenRevocationStore();
+        ReflectionTestUtils.setField(store, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(store, "expectedEntries", 1000);
+        ReflectionTestUtils.setField(store, "falsePositiveRate", 0.001);
+        // Background polling stays out of the way; tests call sync directly
+        ReflectionTestUtils.setField(store, "refreshSeconds", 3600L);
+        ReflectionTestUtils.setField(store, "rebuildMinutes", 60L);
+        store.start();
+        return store;
+    }
+}
@@ -0,0 +1,83 @@
+package com.limitbeyond.security;
+
+import com.limitbeyond.model.User;
+import com.limitbeyond.support.InMemoryMongo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenVersionRegistryTest {
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private TokenVersionRegistry registry;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.getMongoTemplate();
+        registry = new TokenVersionRegistry();
+        ReflectionTestUtils.setField(registry, "mongoTemplate", mongoTemplate);
+        user = new User();
+        user.setUsername("member");
+        user.setTokenVersion(2);
+        user = mongoTemplate.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void acceptsOnlyTheCurrentVersion() {
+        assertTrue(registry.isCurrent(user.getId(), 2));
+        assertFalse(registry.isCurrent(user.getId(), 1));
+        assertFalse(registry.isCurrent("missing-user", 0));
+        assertFalse(registry.isCurrent(null, 0));
+    }
+
+    @Test
+    void versionIsLoadedOnceAndThenServedFromMemory() {
+        assertTrue(registry.isCurrent(user.getId(), 2));
+        // A write that does not mark tokenVersionChangedAt is not picked up
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(user.getId())),
+                new Update().set("tokenVersion", 7), User.class);
+
+        assertTrue(registry.isCurrent(user.getId(), 2));
+    }
+
+    @Test
+    void revokeInvalidatesEarlierTokensImmediately() {
+        assertTrue(registry.isCurrent(user.getId(), 2));
+
+        registry.revoke(user.getId());
+
+        assertFalse(registry.isCurrent(user.getId(), 2));
+        assertTrue(registry.isCurrent(user.getId(), 3));
+        assertTrue(mongoTemplate.findById(user.getId(), User.class).getTokenVersionChangedAt() != null);
+    }
+
+    @Test
+    void refreshPicksUpBumpsFromOtherInstances() {
+        assertTrue(registry.isCurrent(user.getId(), 2));
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(user.getId())),
+                new Update().set("tokenVersion", 3).set("tokenVersionChangedAt", LocalDateTime.now()), User.class);
+
+        ReflectionTestUtils.invokeMethod(registry, "refresh");
+
+        assertFalse(registry.isCurrent(user.getId(), 2));
+        assertTrue(registry.isCurrent(user.getId(), 3));
+    }
+}
@@ -0,0 +1,60 @@
+package com.limitbeyond.security;
+
+import com.limitbeyond.model.Role;
+import com.limitbeyond.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserPrincipalTest {
+
+    @Test
+    void rebuildsThePrincipalFromClaims() {
+        User user = new User();
+        user.setId("user-1");
+        user.setUsername("trainer");
+        user.setEmail("trainer@example.com");
+        user.setPassword("hash");
+        user.setRoles(EnumSet.of(Role.TRAINER, Role.MEMBER));
+        user.setActive(true);
+        user.setTokenVersion(4);
+        UserPrincipal original = UserPrincipal.create(user);
+        Claims claims = Jwts.claims().setSubject("user-1");
+        claims.put("username", "trainer");
+        claims.put("email", "trainer@example.com");
+        claims.put("roles", original.getAuthorities().stream().map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(",")));
+        claims.put("ver", 4);
+
+        UserPrincipal rebuilt = UserPrincipal.fromClaims(claims);
+
+        assertEquals("user-1", rebuilt.getId());
+        assertEquals("trainer", rebuilt.getUsername());
+        assertEquals("trainer@example.com", rebuilt.getEmail());
+        assertEquals(4, rebuilt.getTokenVersion());
+        assertEquals(authorities(original), authorities(rebuilt));
+        assertNull(rebuilt.getPassword(), "claims never carry the password hash");
+        assertTrue(rebuilt.isEnabled());
+    }
+
+    @Test
+    void toleratesMissingRolesAndVersion() {
+        UserPrincipal rebuilt = UserPrincipal.fromClaims(Jwts.claims().setSubject("user-2"));
+
+        assertEquals(0, rebuilt.getTokenVersion());
+        assertTrue(rebuilt.getAuthorities().isEmpty());
+    }
+
+    private static Set<String> authorities(UserPrincipal principal) {
+        return principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+}
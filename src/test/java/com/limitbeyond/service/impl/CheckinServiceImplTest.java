@@ -0,0 +1,85 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.model.Checkin;
+import com.limitbeyond.repository.CheckinRepository;
+import com.limitbeyond.service.CheckinStreamService;
+import com.limitbeyond.support.InMemoryMongo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class CheckinServiceImplTest {
+
+    private InMemoryMongo mongo;
+    private CheckinStreamService checkinStreamService;
+    private CheckinServiceImpl checkinService;
+    private final LocalDateTime opening = LocalDateTime.of(2024, 3, 1, 6, 0);
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        CheckinRepository checkinRepository = new MongoRepositoryFactory(mongo.getMongoTemplate())
+                .getRepository(CheckinRepository.class);
+        checkinStreamService = mock(CheckinStreamService.class);
+        checkinService = new CheckinServiceImpl();
+        ReflectionTestUtils.setField(checkinService, "checkinRepository", checkinRepository);
+        ReflectionTestUtils.setField(checkinService, "checkinStreamService", checkinStreamService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void recentCheckinsReturnsOnlyTheNewestN() {
+        for (int i = 0; i < 10; i++) {
+            checkinService.addCheckin(i % 2 == 0 ? "member-a" : "member-b", opening.plusMinutes(i));
+        }
+
+        List<Checkin> recent = checkinService.getRecentCheckins(3);
+
+        assertEquals(3, recent.size());
+        assertEquals(opening.plusMinutes(9), recent.get(0).getOccurredAt());
+        assertEquals(opening.plusMinutes(7), recent.get(2).getOccurredAt());
+    }
+
+    @Test
+    void recentCheckinsForUserFiltersBeforeLimiting() {
+        for (int i = 0; i < 10; i++) {
+            checkinService.addCheckin(i < 8 ? "member-a" : "member-b", opening.plusMinutes(i));
+        }
+
+        List<Checkin> recent = checkinService.getRecentCheckinsForUser("member-a", 2);
+
+        assertEquals(2, recent.size());
+        assertEquals(opening.plusMinutes(7), recent.get(0).getOccurredAt());
+        assertEquals(opening.plusMinutes(6), recent.get(1).getOccurredAt());
+    }
+
+    @Test
+    void limitIsClampedToAtLeastOne() {
+        checkinService.addCheckin("member-a", opening);
+        checkinService.addCheckin("member-a", opening.plusMinutes(1));
+
+        assertEquals(1, checkinService.getRecentCheckins(0).size());
+        assertEquals(1, checkinService.getRecentCheckins(-5).size());
+    }
+
+    @Test
+    void addCheckinPublishesTheStoredCheckin() {
+        Checkin saved = checkinService.addCheckin("member-a", null);
+
+        verify(checkinStreamService).publish(saved);
+        assertEquals("member-a", saved.getUserId());
+    }
+}
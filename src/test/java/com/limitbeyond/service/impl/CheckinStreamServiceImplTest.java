@@ -0,0 +1,181 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.model.Checkin;
+import com.limitbeyond.support.InMemoryMongo;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class CheckinStreamServiceImplTest {
+
+    private InMemoryMongo mongo;
+    private CheckinStreamServiceImpl streamService;
+    private MockMvc mockMvc;
+
+    @RestController
+    class StreamController {
+        @GetMapping("/stream")
+        SseEmitter stream(@RequestParam String userId) {
+            return streamService.subscribe(checkin -> userId.equals(checkin.getUserId()));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        streamService = new CheckinStreamServiceImpl();
+        ReflectionTestUtils.setField(streamService, "mongoTemplate", mongo.getMongoTemplate());
+        ReflectionTestUtils.setField(streamService, "timeoutMs", 10000L);
+        ReflectionTestUtils.setField(streamService, "heartbeatSeconds", 60L);
+        // The in-memory server is standalone, so events are delivered in-process
+        streamService.start();
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.stop();
+        mongo.close();
+    }
+
+    @Test
+    void deliversOnlyVisibleCheckins() throws Exception {
+        MvcResult memberA = mockMvc.perform(get("/stream").param("userId", "member-a"))
+                .andExpect(request().asyncStarted()).andReturn();
+
+        streamService.publish(checkin("c-1", "member-b"));
+        streamService.publish(checkin("c-2", "member-a"));
+
+        String body = awaitContent(memberA.getResponse(), "\"id\":\"c-2\"");
+        assertTrue(body.contains("event:checkin"));
+        assertTrue(body.contains("\"userId\":\"member-a\""));
+        assertFalse(body.contains("c-1"));
+    }
+
+    @Test
+    void fansOutToEverySubscriber() throws Exception {
+        MvcResult first = mockMvc.perform(get("/stream").param("userId", "member-a")).andReturn();
+        MvcResult second = mockMvc.perform(get("/stream").param("userId", "member-a")).andReturn();
+
+        streamService.publish(checkin("c-3", "member-a"));
+
+        awaitContent(first.getResponse(), "\"id\":\"c-3\"");
+        awaitContent(second.getResponse(), "\"id\":\"c-3\"");
+    }
+
+    @Test
+    void publishDoesNotWaitForSlowSubscribers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch reached = new CountDownLatch(1);
+        streamService.subscribe(checkin -> {
+            reached.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        });
+
+        long started = System.nanoTime();
+        streamService.publish(checkin("c-4", "member-a"));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertTrue(reached.await(5, TimeUnit.SECONDS), "the event is still dispatched");
+        release.countDown();
+        assertTrue(elapsedMs < 1000, "publish blocked for " + elapsedMs + "ms");
+    }
+
+    @Test
+    void aFailedChangeStreamFallsBackAndIsRestartedWithBackoff() throws Exception {
+        // Reports a replica set, but every change stream cursor fails to open
+        MongoTemplate template = mock(MongoTemplate.class);
+        MongoDatabase db = mock(MongoDatabase.class);
+        when(template.getDb()).thenReturn(db);
+        when(db.runCommand(any(Bson.class))).thenReturn(new Document("setName", "rs0"));
+        when(template.getCollectionName(Checkin.class)).thenReturn("checkins");
+        when(template.getConverter()).thenReturn(mongo.getMongoTemplate().getConverter());
+        CheckinStreamServiceImpl failing = new CheckinStreamServiceImpl();
+        ReflectionTestUtils.setField(failing, "mongoTemplate", template);
+        ReflectionTestUtils.setField(failing, "timeoutMs", 10000L);
+        ReflectionTestUtils.setField(failing, "heartbeatSeconds", 60L);
+        ReflectionTestUtils.setField(failing, "restartInitialMs", 10L);
+        ReflectionTestUtils.setField(failing, "restartMaxMs", 40L);
+        failing.start();
+        try {
+            // The first start plus at least two restarts
+            verify(template, timeout(5000).atLeast(3)).getCollectionName(Checkin.class);
+            MvcResult member = MockMvcBuilders.standaloneSetup(new FailingController(failing)).build()
+                    .perform(get("/stream")).andReturn();
+            ReflectionTestUtils.setField(failing, "changeStreamActive", false);
+
+            failing.publish(checkin("c-5", "member-a"));
+
+            awaitContent(member.getResponse(), "\"id\":\"c-5\"");
+        } finally {
+            failing.stop();
+        }
+    }
+
+    @RestController
+    static class FailingController {
+        private final CheckinStreamServiceImpl service;
+
+        FailingController(CheckinStreamServiceImpl service) {
+            this.service = service;
+        }
+
+        @GetMapping("/stream")
+        SseEmitter stream() {
+            return service.subscribe(checkin -> true);
+        }
+    }
+
+    private static Checkin checkin(String id, String userId) {
+        Checkin checkin = new Checkin();
+        checkin.setId(id);
+        checkin.setUserId(userId);
+        checkin.setOccurredAt(LocalDateTime.of(2024, 3, 1, 6, 0));
+        return checkin;
+    }
+
+    // Dispatch runs on the stream's own thread, after publish has returned
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            String body = response.getContentAsString();
+            if (body.contains(expected)) {
+                return body;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Timed out waiting for " + expected + " in: " + response.getContentAsString());
+    }
+}
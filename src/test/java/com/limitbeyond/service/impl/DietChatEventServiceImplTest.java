@@ -0,0 +1,80 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.dietchat.DietChatEvent;
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class DietChatEventServiceImplTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private DietChatEventServiceImpl dietChatEventService;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        dietChatEventService = new DietChatEventServiceImpl();
+        ReflectionTestUtils.setField(dietChatEventService, "messagingTemplate", messagingTemplate);
+    }
+
+    @Test
+    void publishesMessagesToTheChatTopic() {
+        DietChat.DietChatMessage message = new DietChat.DietChatMessage();
+        message.setSenderId("trainer-1");
+        message.setSenderRole(Role.TRAINER);
+        message.setContent("Add a second serving of greens");
+
+        dietChatEventService.publishMessage("chat-1", message);
+
+        DietChatEvent event = sent("/topic/diet-chat/chat-1");
+        assertEquals(DietChatEvent.Type.MESSAGE, event.getType());
+        assertEquals("chat-1", event.getChatId());
+        assertEquals("trainer-1", event.getUserId());
+        assertEquals(Role.TRAINER, event.getRole());
+        assertSame(message, event.getMessage());
+    }
+
+    @Test
+    void publishesTypingAndReadEvents() {
+        dietChatEventService.publishTyping("chat-1", "user-1", Role.MEMBER, true);
+        DietChatEvent typing = sent("/topic/diet-chat/chat-1");
+        assertEquals(DietChatEvent.Type.TYPING, typing.getType());
+        assertTrue(typing.getTyping());
+
+        dietChatEventService.publishRead("chat-2", "user-1", Role.MEMBER);
+        DietChatEvent read = sent("/topic/diet-chat/chat-2");
+        assertEquals(DietChatEvent.Type.READ, read.getType());
+        assertNull(read.getMessage());
+    }
+
+    @Test
+    void brokerFailuresDoNotReachTheCaller() {
+        doThrow(new MessageDeliveryException("broker down")).when(messagingTemplate)
+                .convertAndSend(anyString(), any(Object.class));
+
+        assertDoesNotThrow(() -> dietChatEventService.publishRead("chat-1", "user-1", Role.MEMBER));
+    }
+
+    private DietChatEvent sent(String destination) {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq(destination), payload.capture());
+        return (DietChatEvent) payload.getValue();
+    }
+}
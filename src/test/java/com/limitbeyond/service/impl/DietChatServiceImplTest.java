@@ -0,0 +1,363 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.dietchat.DietChatInboxResponse;
+import com.limitbeyond.dto.dietchat.DietChatSummary;
+import com.limitbeyond.dto.dietchat.InboxCursor;
+import com.limitbeyond.dto.search.ThreadType;
+import com.limitbeyond.dto.thread.MessagePage;
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.model.Role;
+import com.limitbeyond.model.User;
+import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.service.ThreadSearchService;
+import com.limitbeyond.support.InMemoryMongo;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DietChatServiceImplTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 1, 9, 0);
+
+    private InMemoryMongo mongo;
+    private ThreadSearchService threadSearchService;
+    private DietChatServiceImpl dietChatService;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        UserRepository userRepository = mock(UserRepository.class);
+        threadSearchService = mock(ThreadSearchService.class);
+        dietChatService = new DietChatServiceImpl();
+        ReflectionTestUtils.setField(dietChatService, "mongoTemplate", mongo.getMongoTemplate());
+        ReflectionTestUtils.setField(dietChatService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(dietChatService, "threadSearchService", threadSearchService);
+        ReflectionTestUtils.setField(dietChatService, "bucketSize", 3);
+        dietChatService.init();
+
+        users = new ArrayList<>();
+        users.add(user("member-1", Role.MEMBER));
+        users.add(user("member-2", Role.MEMBER));
+        when(userRepository.findAllById(any())).thenReturn(users);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void inboxIsNewestActivityFirstAndPagesByCursor() {
+        DietChat oldest = chat("member-1", START);
+        DietChat tiedA = chat("member-2", START.plusHours(1));
+        DietChat tiedB = chat("member-1", START.plusHours(1));
+        DietChat newest = chat("member-2", START.plusHours(2));
+        User admin = user("admin", Role.ADMIN);
+
+        DietChatInboxResponse first = dietChatService.getInbox(admin, 2, null);
+        DietChatInboxResponse second = dietChatService.getInbox(admin, 2, InboxCursor.decode(first.getNextCursor()));
+
+        String laterTie = tiedA.getId().compareTo(tiedB.getId()) > 0 ? tiedA.getId() : tiedB.getId();
+        String earlierTie = laterTie.equals(tiedA.getId()) ? tiedB.getId() : tiedA.getId();
+        assertEquals(List.of(newest.getId(), laterTie), ids(first));
+        assertTrue(first.isHasNext());
+        assertEquals(List.of(earlierTie, oldest.getId()), ids(second));
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void inboxIsScopedToTheViewer() {
+        DietChat own = chat("member-1", START);
+        DietChat other = chat("member-2", START.plusHours(1));
+        chat("member-3", START.plusHours(2));
+        User trainer = user("trainer", Role.TRAINER);
+        trainer.setAssignedMembers(Set.of("member-2"));
+
+        assertEquals(List.of(own.getId()), ids(dietChatService.getInbox(users.get(0), 10, null)));
+        assertEquals(List.of(other.getId()), ids(dietChatService.getInbox(trainer, 10, null)));
+        assertTrue(dietChatService.getInbox(user("idle-trainer", Role.TRAINER), 10, null).getItems().isEmpty());
+        assertEquals(3, dietChatService.getInbox(user("admin", Role.ADMIN), 10, null).getItems().size());
+    }
+
+    @Test
+    void summariesCarryPreviewUnreadAndMemberName() {
+        DietChat chat = new DietChat();
+        chat.setId(new ObjectId().toHexString());
+        chat.setMemberId("member-1");
+        chat.setTitle("Cutting plan");
+        dietChatService.addMessage(chat, message("member-1", Role.MEMBER, "x".repeat(200)));
+        dietChatService.addMessage(chat, message("member-1", Role.MEMBER, "Second question"));
+        mongo.getMongoTemplate().save(chat);
+
+        DietChatSummary forStaff = dietChatService.getInbox(user("admin", Role.ADMIN), 10, null).getItems().get(0);
+        DietChatSummary forMember = dietChatService.getInbox(users.get(0), 10, null).getItems().get(0);
+
+        assertEquals("Second question", forStaff.getLastMessagePreview());
+        assertEquals(Role.MEMBER, forStaff.getLastMessageSenderRole());
+        assertEquals(2, forStaff.getMessageCount());
+        assertEquals(2, forStaff.getUnreadCount());
+        assertEquals(0, forMember.getUnreadCount());
+        assertEquals("First member-1 Last", forStaff.getMemberName());
+
+        dietChatService.markRead(chat.getId(), false);
+        assertEquals(0, dietChatService.getInbox(user("admin", Role.ADMIN), 10, null).getItems().get(0)
+                .getUnreadCount());
+    }
+
+    @Test
+    void previewsAreTruncatedAndRefreshedFromTheLastMessage() {
+        DietChat chat = new DietChat();
+        dietChatService.addMessage(chat, message("member-1", Role.MEMBER, "x".repeat(200)));
+
+        assertEquals(120, chat.getLastMessagePreview().length());
+        assertTrue(chat.getLastMessagePreview().endsWith("..."));
+
+        chat.getMessages().clear();
+        dietChatService.refreshSummary(chat);
+        assertNull(chat.getLastMessagePreview());
+        assertEquals(0, chat.getMessageCount());
+        assertEquals(chat.getCreatedAt(), chat.getLastActivityAt());
+    }
+
+    @Test
+    void participantsAreTheMemberAdminsAndAssignedTrainers() {
+        DietChat chat = chat("member-1", START);
+        User assigned = user("trainer", Role.TRAINER);
+        assigned.setAssignedMembers(Set.of("member-1"));
+
+        assertTrue(dietChatService.isParticipant(users.get(0), chat.getId()));
+        assertTrue(dietChatService.isParticipant(user("admin", Role.ADMIN), chat.getId()));
+        assertTrue(dietChatService.isParticipant(assigned, chat.getId()));
+        assertFalse(dietChatService.isParticipant(users.get(1), chat.getId()));
+        assertFalse(dietChatService.isParticipant(user("other-trainer", Role.TRAINER), chat.getId()));
+        assertThrows(RuntimeException.class,
+                () -> dietChatService.isParticipant(users.get(0), new ObjectId().toHexString()));
+    }
+
+    @Test
+    void repliesArePushedWithoutLosingEarlierOnes() {
+        DietChat chat = chat("member-1", START);
+
+        DietChat.DietChatMessage question = dietChatService.appendMessage(chat.getId(),
+                message("member-1", Role.MEMBER, "Can I swap rice for oats?"));
+        DietChat.DietChatMessage answer = dietChatService.appendMessage(chat.getId(),
+                message("trainer", Role.TRAINER, "Yes, same portion"));
+
+        DietChat stored = reload(chat);
+        assertEquals(List.of(question.getId(), answer.getId()), messageIds(stored));
+        assertEquals(2, stored.getMessageCount());
+        assertEquals(answer.getId(), stored.getLastMessageId());
+        assertEquals("Yes, same portion", stored.getLastMessagePreview());
+        assertEquals(1, stored.getUnreadForMember());
+        assertEquals(0, stored.getUnreadForTrainer());
+        assertEquals(2L, stored.getVersion());
+        verify(threadSearchService).addText(ThreadType.DIET_CHAT, chat.getId(), "Yes, same portion");
+    }
+
+    // The in-memory server cannot resolve "messages.$" from an $elemMatch query, so
+    // the positional edit is checked against the query and update it sends
+    @Test
+    void editsAMessageByIdWithAnOptionalVersionCheck() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        DietChatServiceImpl service = new DietChatServiceImpl();
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "threadSearchService", threadSearchService);
+        ReflectionTestUtils.setField(service, "bucketSize", 3);
+        service.init();
+        String chatId = new ObjectId().toHexString();
+        String messageId = new ObjectId().toHexString();
+        DietChat.DietChatMessage edited = message("member-1", Role.MEMBER, "First, fixed");
+        DietChat updated = new DietChat();
+        updated.getMessages().add(edited);
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(DietChat.class))).thenReturn(updated);
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), any(Class.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertEquals(edited, service.updateMessage(chatId, messageId, "First, fixed", 2L));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(DietChat.class));
+        assertEquals(new Document("id", chatId).append("messages", new Document("$elemMatch",
+                new Document("id", messageId).append("version", 2L))), query.getValue().getQueryObject());
+        Document changes = update.getValue().getUpdateObject();
+        assertEquals(new Document("messages.$.content", "First, fixed").append("messages.$.edited", true),
+                changes.get("$set"));
+        assertEquals(new Document("messages.$.version", 1).append("version", 1), changes.get("$inc"));
+        verify(threadSearchService).reindex(ThreadType.DIET_CHAT, chatId);
+
+        // A stale version matches neither the page nor a bucket, but the message exists
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(DietChat.class))).thenReturn(null);
+        when(mongoTemplate.exists(any(Query.class), eq(DietChat.class))).thenReturn(true);
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> service.updateMessage(chatId, messageId, "Stale", 1L));
+
+        when(mongoTemplate.exists(any(Query.class), eq(DietChat.class))).thenReturn(true, false);
+        RuntimeException missing = assertThrows(RuntimeException.class,
+                () -> service.updateMessage(chatId, messageId, "x", null));
+        assertEquals("Message not found", missing.getMessage());
+    }
+
+    @Test
+    void deletingTheLatestMessageRepointsTheSummary() {
+        DietChat chat = chat("member-1", START);
+        DietChat.DietChatMessage first = dietChatService.appendMessage(chat.getId(),
+                message("member-1", Role.MEMBER, "First"));
+        DietChat.DietChatMessage last = dietChatService.appendMessage(chat.getId(),
+                message("trainer", Role.TRAINER, "Last"));
+
+        dietChatService.deleteMessage(chat.getId(), last.getId(), null);
+
+        DietChat stored = reload(chat);
+        assertEquals(List.of(first.getId()), messageIds(stored));
+        assertEquals(1, stored.getMessageCount());
+        assertEquals(first.getId(), stored.getLastMessageId());
+        assertEquals("First", stored.getLastMessagePreview());
+        assertEquals(Role.MEMBER, stored.getLastMessageSenderRole());
+
+        dietChatService.deleteMessage(chat.getId(), first.getId(), 0L);
+        assertNull(reload(chat).getLastMessageId());
+    }
+
+    @Test
+    void findsMessagesByIdOrLegacyPosition() {
+        DietChat chat = chat("member-1", START);
+        DietChat.DietChatMessage first = dietChatService.appendMessage(chat.getId(),
+                message("member-1", Role.MEMBER, "First"));
+        DietChat.DietChatMessage second = dietChatService.appendMessage(chat.getId(),
+                message("member-1", Role.MEMBER, "Second"));
+
+        assertEquals("First", dietChatService.findMessage(chat.getId(), first.getId()).getContent());
+        assertEquals(second.getId(), dietChatService.findMessage(chat.getId(), "1").getId());
+        assertNull(dietChatService.findMessage(chat.getId(), "-1"));
+        assertNull(dietChatService.findMessage(chat.getId(), "not-an-id"));
+    }
+
+    @Test
+    void titleEditsCanBeConditionalOnTheChatVersion() {
+        DietChat chat = chat("member-1", START);
+
+        dietChatService.updateTitle(chat.getId(), "Bulking", 0L);
+
+        assertEquals("Bulking", reload(chat).getTitle());
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> dietChatService.updateTitle(chat.getId(), "Cutting", 0L));
+        dietChatService.updateTitle(chat.getId(), "Cutting", null);
+        assertEquals("Cutting", reload(chat).getTitle());
+        assertThrows(RuntimeException.class,
+                () -> dietChatService.updateTitle(new ObjectId().toHexString(), "x", null));
+    }
+
+    @Test
+    void olderMessagesArePagedFromBuckets() {
+        DietChat chat = chat("member-1", START);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(dietChatService.appendMessage(chat.getId(), message("member-1", Role.MEMBER, "m" + i)).getId());
+        }
+
+        MessagePage<DietChat.DietChatMessage> newest = dietChatService.getMessages(chat.getId(), null);
+        MessagePage<DietChat.DietChatMessage> older = dietChatService.getMessages(chat.getId(), newest.getBefore());
+
+        assertEquals(ids.subList(6, 7), messageIds(newest.getMessages()));
+        assertEquals(ids.subList(3, 6), messageIds(older.getMessages()));
+        assertEquals(ids.subList(0, 3), messageIds(dietChatService.getMessages(chat.getId(), 0).getMessages()));
+        assertNull(dietChatService.getMessages(chat.getId(), 0).getBefore());
+        assertEquals("m1", dietChatService.findMessage(chat.getId(), ids.get(1)).getContent());
+        assertEquals(7, reload(chat).getMessageCount());
+    }
+
+    @Test
+    void deletingTheOnlyEmbeddedMessageRepointsToTheNewestBucket() {
+        DietChat chat = chat("member-1", START);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ids.add(dietChatService.appendMessage(chat.getId(), message("member-1", Role.MEMBER, "m" + i)).getId());
+        }
+
+        dietChatService.deleteMessage(chat.getId(), ids.get(3), null);
+        dietChatService.deleteMessage(chat.getId(), ids.get(0), null);
+
+        DietChat stored = reload(chat);
+        assertEquals(ids.get(2), stored.getLastMessageId());
+        assertEquals("m2", stored.getLastMessagePreview());
+        assertEquals(2, stored.getMessageCount());
+        assertEquals(ids.subList(1, 3), messageIds(dietChatService.getMessages(chat.getId(), 0).getMessages()));
+    }
+
+    private DietChat chat(String memberId, LocalDateTime lastActivityAt) {
+        DietChat chat = new DietChat();
+        chat.setId(new ObjectId().toHexString());
+        chat.setMemberId(memberId);
+        chat.setTitle("Chat of " + memberId);
+        chat.setLastActivityAt(lastActivityAt);
+        mongo.getMongoTemplate().save(chat);
+        return chat;
+    }
+
+    private DietChat reload(DietChat chat) {
+        return mongo.getMongoTemplate().findById(chat.getId(), DietChat.class);
+    }
+
+    private static List<String> messageIds(DietChat chat) {
+        return messageIds(chat.getMessages());
+    }
+
+    private static List<String> messageIds(List<DietChat.DietChatMessage> messages) {
+        return messages.stream().map(DietChat.DietChatMessage::getId).collect(Collectors.toList());
+    }
+
+    private static DietChat.DietChatMessage message(String senderId, Role role, String content) {
+        DietChat.DietChatMessage message = new DietChat.DietChatMessage();
+        message.setSenderId(senderId);
+        message.setSenderRole(role);
+        message.setContent(content);
+        return message;
+    }
+
+    private static User user(String id, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setFirstName("First " + id);
+        user.setLastName("Last");
+        user.setRoles(EnumSet.of(role));
+        return user;
+    }
+
+    private static List<String> ids(DietChatInboxResponse response) {
+        return response.getItems().stream().map(DietChatSummary::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,144 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.search.ThreadType;
+import com.limitbeyond.dto.thread.MessagePage;
+import com.limitbeyond.model.Feedback;
+import com.limitbeyond.model.FeedbackResponseBucket;
+import com.limitbeyond.service.ThreadSearchService;
+import com.limitbeyond.support.InMemoryMongo;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class FeedbackServiceImplTest {
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private ThreadSearchService threadSearchService;
+    private FeedbackServiceImpl feedbackService;
+    private String feedbackId;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.getMongoTemplate();
+        threadSearchService = mock(ThreadSearchService.class);
+        feedbackService = new FeedbackServiceImpl();
+        ReflectionTestUtils.setField(feedbackService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(feedbackService, "threadSearchService", threadSearchService);
+        ReflectionTestUtils.setField(feedbackService, "bucketSize", 2);
+        feedbackService.init();
+
+        Feedback feedback = new Feedback();
+        feedback.setId(new ObjectId().toHexString());
+        feedback.setMemberId("member-1");
+        feedback.setTitle("Showers");
+        feedback.setContent("Cold again");
+        mongoTemplate.save(feedback);
+        feedbackId = feedback.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void responsesArePagedBackwardsThroughBuckets() {
+        List<String> ids = respond(5);
+
+        MessagePage<Feedback.FeedbackResponse> newest = feedbackService.getResponses(feedbackId, null);
+        MessagePage<Feedback.FeedbackResponse> middle = feedbackService.getResponses(feedbackId, newest.getBefore());
+        MessagePage<Feedback.FeedbackResponse> oldest = feedbackService.getResponses(feedbackId, middle.getBefore());
+
+        assertEquals(ids.subList(4, 5), ids(newest.getMessages()));
+        assertEquals(ids.subList(2, 4), ids(middle.getMessages()));
+        assertEquals(ids.subList(0, 2), ids(oldest.getMessages()));
+        assertNull(oldest.getBefore());
+        Feedback stored = mongoTemplate.findById(feedbackId, Feedback.class);
+        assertEquals(5, stored.getResponseCount());
+        assertEquals(2, stored.getBucketCount());
+        verify(threadSearchService).addText(ThreadType.FEEDBACK, feedbackId, "response 4");
+        assertThrows(RuntimeException.class, () -> feedbackService.getResponses(feedbackId, -1));
+    }
+
+    @Test
+    void findsResponsesOnTheNewestPageAndInBuckets() {
+        List<String> ids = respond(3);
+
+        assertEquals("response 2", feedbackService.findResponse(feedbackId, ids.get(2)).getContent());
+        assertEquals("response 0", feedbackService.findResponse(feedbackId, ids.get(0)).getContent());
+        assertEquals(ids.get(2), feedbackService.findResponse(feedbackId, "0").getId());
+        assertNull(feedbackService.findResponse(feedbackId, new ObjectId().toHexString()));
+    }
+
+    @Test
+    void deletesArchivedResponses() {
+        List<String> ids = respond(3);
+
+        feedbackService.deleteResponse(feedbackId, ids.get(0));
+        feedbackService.deleteResponse(feedbackId, ids.get(2));
+
+        assertEquals(ids.subList(1, 2), ids(feedbackService.getResponses(feedbackId, 0).getMessages()));
+        assertTrue(feedbackService.getResponses(feedbackId, null).getMessages().isEmpty());
+        assertEquals(1, mongoTemplate.findById(feedbackId, Feedback.class).getResponseCount());
+        RuntimeException missing = assertThrows(RuntimeException.class,
+                () -> feedbackService.deleteResponse(feedbackId, ids.get(0)));
+        assertEquals("Response not found", missing.getMessage());
+    }
+
+    @Test
+    void editingTheFeedbackLeavesResponsesAlone() {
+        List<String> ids = respond(2);
+
+        feedbackService.updateFeedback(feedbackId, "Showers (men's)", "Still cold");
+
+        Feedback stored = mongoTemplate.findById(feedbackId, Feedback.class);
+        assertEquals("Showers (men's)", stored.getTitle());
+        assertEquals(ids, ids(stored.getResponses()));
+        assertThrows(RuntimeException.class,
+                () -> feedbackService.updateFeedback(new ObjectId().toHexString(), "x", "y"));
+    }
+
+    @Test
+    void deletingTheFeedbackRemovesItsBuckets() {
+        respond(5);
+
+        feedbackService.deleteFeedback(feedbackId);
+
+        assertFalse(mongoTemplate.exists(new Query(), Feedback.class));
+        assertFalse(mongoTemplate.exists(new Query(), FeedbackResponseBucket.class));
+        verify(threadSearchService).remove(ThreadType.FEEDBACK, feedbackId);
+    }
+
+    private List<String> respond(int count) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Feedback.FeedbackResponse response = new Feedback.FeedbackResponse();
+            response.setResponderId("admin");
+            response.setContent("response " + i);
+            ids.add(feedbackService.respond(feedbackId, response).getId());
+        }
+        return ids;
+    }
+
+    private static List<String> ids(List<Feedback.FeedbackResponse> responses) {
+        return responses.stream().map(Feedback.FeedbackResponse::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,92 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.search.SearchHit;
+import com.limitbeyond.dto.search.ThreadType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InvertedIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @Test
+    void tokenizesIntoNormalizedTerms() {
+        assertEquals(List.of("carb", "protein", "shake", "glass", "2l", "water"),
+                InvertedIndex.tokenize("The CARBS, my protein-shakes & a glass of 2L water!"));
+        assertEquals(List.of("bus", "oat"), InvertedIndex.tokenize("bus x oats"));
+        assertTrue(InvertedIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void ranksRarerAndHeavierMatchesFirst() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(entry("title-hit", "Creatine timing", "", NOW));
+        index.put(entry("message-hit", "Weekly check", "creatine before or after", NOW));
+        index.put(entry("no-hit", "Protein", "whey after training", NOW));
+
+        List<SearchHit> hits = index.search(List.of("creatine"), e -> true);
+
+        assertEquals(List.of("title-hit", "message-hit"), ids(hits));
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void equalScoresPreferRecentActivity() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(entry("older", "Oats", "", NOW.minusDays(1)));
+        index.put(entry("newer", "Oats", "", NOW));
+
+        assertEquals(List.of("newer", "older"), ids(index.search(List.of("oat"), e -> true)));
+    }
+
+    @Test
+    void replacingAppendingAndRemovingKeepPostingsInStep() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(entry("chat-1", "Rice", "", NOW));
+
+        index.put(entry("chat-1", "Quinoa", "", NOW));
+        assertTrue(index.search(List.of("rice"), e -> true).isEmpty());
+        assertEquals(List.of("chat-1"), ids(index.search(List.of("quinoa"), e -> true)));
+
+        Map<String, Integer> added = new HashMap<>();
+        InvertedIndex.addTerms(added, "add lentils", 1);
+        assertTrue(index.append(InvertedIndex.key(ThreadType.DIET_CHAT, "chat-1"), added, NOW.plusHours(1)));
+        assertFalse(index.append(InvertedIndex.key(ThreadType.DIET_CHAT, "missing"), added, NOW));
+        List<SearchHit> hits = index.search(List.of("lentil"), e -> true);
+        assertEquals(List.of("chat-1"), ids(hits));
+        assertEquals(NOW.plusHours(1), hits.get(0).getLastActivityAt());
+
+        index.remove(InvertedIndex.key(ThreadType.DIET_CHAT, "chat-1"));
+        assertEquals(0, index.size());
+        assertTrue(index.search(List.of("quinoa"), e -> true).isEmpty());
+    }
+
+    @Test
+    void invisibleEntriesAreLeftOut() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(entry("mine", "Oats", "", NOW));
+        index.put(entry("theirs", "Oats", "", NOW));
+
+        assertEquals(List.of("mine"), ids(index.search(List.of("oat"), e -> "member-mine".equals(e.memberId()))));
+    }
+
+    private static InvertedIndex.Entry entry(String id, String title, String message, LocalDateTime at) {
+        Map<String, Integer> terms = new HashMap<>();
+        InvertedIndex.addTerms(terms, title, 3);
+        InvertedIndex.addTerms(terms, message, 1);
+        return new InvertedIndex.Entry(ThreadType.DIET_CHAT, id, "member-" + id, title, terms, at);
+    }
+
+    private static List<String> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getId).collect(Collectors.toList());
+    }
+}
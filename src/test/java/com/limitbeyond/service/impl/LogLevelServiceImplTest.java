@@ -0,0 +1,126 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.config.LogSamplingTurboFilter;
+import com.limitbeyond.dto.logging.LogLevelOverride;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LogLevelServiceImplTest {
+
+    private static final String NAME = "com.limitbeyond.service";
+
+    private LoggingSystem loggingSystem;
+    private LogLevelServiceImpl logLevelService;
+
+    @BeforeEach
+    void setUp() {
+        loggingSystem = mock(LoggingSystem.class);
+        when(loggingSystem.getLoggerConfiguration(NAME))
+                .thenReturn(new LoggerConfiguration(NAME, LogLevel.WARN, LogLevel.WARN));
+        logLevelService = new LogLevelServiceImpl();
+        ReflectionTestUtils.setField(logLevelService, "loggingSystem", loggingSystem);
+        ReflectionTestUtils.setField(logLevelService, "maxMinutes", 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logLevelService.stop();
+        LogSamplingTurboFilter.unexempt(NAME);
+    }
+
+    @Test
+    void overridesAndRevertsToThePreviousLevel() {
+        LogLevelOverride override = logLevelService.override(NAME, "debug", 10);
+
+        assertEquals("DEBUG", override.getLevel());
+        assertEquals("WARN", override.getPreviousLevel());
+        verify(loggingSystem).setLogLevel(NAME, LogLevel.DEBUG);
+        assertEquals(1, logLevelService.getOverrides().size());
+
+        assertTrue(logLevelService.revert(NAME));
+        verify(loggingSystem).setLogLevel(NAME, LogLevel.WARN);
+        assertTrue(logLevelService.getOverrides().isEmpty());
+        assertFalse(logLevelService.revert(NAME));
+    }
+
+    @Test
+    void reOverridingKeepsTheOriginalLevel() {
+        logLevelService.override(NAME, "DEBUG", 10);
+
+        LogLevelOverride second = logLevelService.override(NAME, "TRACE", 10);
+
+        assertEquals("WARN", second.getPreviousLevel());
+        logLevelService.revert(NAME);
+        verify(loggingSystem).setLogLevel(NAME, LogLevel.WARN);
+    }
+
+    @Test
+    void aStaleRevertDoesNotUndoALaterOverride() {
+        ScheduledExecutorService reverter = mock(ScheduledExecutorService.class);
+        when(reverter.schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MINUTES)))
+                .thenAnswer(invocation -> mock(ScheduledFuture.class));
+        ReflectionTestUtils.setField(logLevelService, "reverter", reverter);
+        ArgumentCaptor<Runnable> reverts = ArgumentCaptor.forClass(Runnable.class);
+
+        logLevelService.override(NAME, "DEBUG", 10);
+        logLevelService.override(NAME, "TRACE", 10);
+        verify(reverter, times(2)).schedule(reverts.capture(), anyLong(), eq(TimeUnit.MINUTES));
+
+        // The first task fired after the second override replaced it
+        reverts.getAllValues().get(0).run();
+        assertEquals("TRACE", logLevelService.getOverrides().get(0).getLevel());
+        verify(loggingSystem, never()).setLogLevel(NAME, LogLevel.WARN);
+
+        reverts.getAllValues().get(1).run();
+        assertTrue(logLevelService.getOverrides().isEmpty());
+        verify(loggingSystem).setLogLevel(NAME, LogLevel.WARN);
+    }
+
+    @Test
+    void durationIsCappedAtTheMaximum() {
+        LogLevelOverride override = logLevelService.override(NAME, "DEBUG", 600);
+
+        assertTrue(override.getExpiresAt().isBefore(LocalDateTime.now().plusMinutes(31)));
+    }
+
+    @Test
+    void unconfiguredLoggersRevertToInherited() {
+        logLevelService.override("com.limitbeyond.other", "DEBUG", 5);
+
+        assertNull(logLevelService.getOverrides().get(0).getPreviousLevel());
+        logLevelService.revert("com.limitbeyond.other");
+        verify(loggingSystem).setLogLevel("com.limitbeyond.other", null);
+    }
+
+    @Test
+    void rejectsUnknownLevels() {
+        assertThrows(RuntimeException.class, () -> logLevelService.override(NAME, "LOUD", 5));
+
+        verify(loggingSystem, never()).setLogLevel(eq(NAME), any());
+    }
+}
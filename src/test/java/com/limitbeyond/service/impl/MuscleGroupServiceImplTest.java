@@ -0,0 +1,56 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.model.MuscleGroup;
+import com.limitbeyond.repository.MuscleGroupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MuscleGroupServiceImplTest {
+
+    @Mock
+    private MuscleGroupRepository muscleGroupRepository;
+
+    @InjectMocks
+    private MuscleGroupServiceImpl muscleGroupService;
+
+    @Test
+    void findAllByIdKeepsRequestedOrder() {
+        List<String> ids = Arrays.asList("mg-legs", "mg-chest");
+        when(muscleGroupRepository.findAllById(ids))
+                .thenReturn(Arrays.asList(muscleGroup("mg-chest", "Chest"), muscleGroup("mg-legs", "Legs")));
+
+        List<MuscleGroup> result = muscleGroupService.findAllById(ids);
+
+        verify(muscleGroupRepository, times(1)).findAllById(ids);
+        assertEquals("Legs", result.get(0).getName());
+        assertEquals("Chest", result.get(1).getName());
+    }
+
+    @Test
+    void findAllByIdFailsOnUnknownId() {
+        List<String> ids = Arrays.asList("mg-chest", "mg-gone");
+        when(muscleGroupRepository.findAllById(ids)).thenReturn(Arrays.asList(muscleGroup("mg-chest", "Chest")));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> muscleGroupService.findAllById(ids));
+        assertEquals("Muscle group with id mg-gone not found", e.getMessage());
+    }
+
+    private static MuscleGroup muscleGroup(String id, String name) {
+        MuscleGroup muscleGroup = new MuscleGroup(name);
+        muscleGroup.setId(id);
+        return muscleGroup;
+    }
+}
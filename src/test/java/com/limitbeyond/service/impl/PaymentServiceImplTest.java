@@ -0,0 +1,243 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.payment.RevenueReport;
+import com.limitbeyond.model.Payment;
+import com.limitbeyond.model.RevenueDaily;
+import com.limitbeyond.model.User;
+import com.limitbeyond.repository.PaymentRepository;
+import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.support.InMemoryMongo;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PaymentServiceImplTest {
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private UserRepository userRepository;
+    private PaymentServiceImpl paymentService;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.getMongoTemplate();
+        userRepository = mock(UserRepository.class);
+        PaymentRepository paymentRepository = mock(PaymentRepository.class);
+        when(paymentRepository.save(any(Payment.class)))
+                .thenAnswer(invocation -> mongoTemplate.save((Payment) invocation.getArgument(0)));
+        paymentService = service(mongoTemplate, paymentRepository, "Asia/Kolkata");
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void mongoTimezoneIsNeverZ() {
+        assertEquals("UTC", PaymentServiceImpl.toMongoTimezone(ZoneOffset.UTC));
+        assertEquals("UTC", PaymentServiceImpl.toMongoTimezone(ZoneId.of("UTC").normalized()));
+        assertEquals("+05:30", PaymentServiceImpl.toMongoTimezone(ZoneOffset.ofHoursMinutes(5, 30)));
+        assertEquals("-03:00", PaymentServiceImpl.toMongoTimezone(ZoneId.of("UTC-3").normalized()));
+        assertEquals("Asia/Kolkata", PaymentServiceImpl.toMongoTimezone(ZoneId.of("Asia/Kolkata")));
+    }
+
+    @Test
+    void createPaymentAttributesTheMembersTrainer() {
+        User member = new User();
+        member.setId("member-1");
+        member.setAssignedTrainer("trainer-1");
+        when(userRepository.findById("member-1")).thenReturn(Optional.of(member));
+
+        Payment payment = new Payment();
+        payment.setUserId("member-1");
+        payment.setAmount(1500);
+        Payment saved = paymentService.createPayment(payment);
+
+        assertEquals("trainer-1", saved.getTrainerId());
+    }
+
+    @Test
+    void revenueBetweenSumsOnlyPaymentsInRange() {
+        ZoneId kolkata = ZoneId.of("Asia/Kolkata");
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 3, 31, 23, 59);
+        // Bounds are Kolkata wall-clock times; paidAt is stored in the JVM's zone
+        mongoTemplate.save(payment(1000, inKolkata(start.minusSeconds(1), kolkata)));
+        mongoTemplate.save(payment(1500, inKolkata(start, kolkata)));
+        mongoTemplate.save(payment(2500, inKolkata(start.plusDays(10), kolkata)));
+        mongoTemplate.save(payment(4000, inKolkata(end.plusMinutes(1), kolkata)));
+
+        assertEquals(4000.0, paymentService.getRevenueBetween(start, end));
+        assertEquals(0.0, paymentService.getRevenueBetween(end.plusDays(1), end.plusDays(2)));
+    }
+
+    @Test
+    void revenueReportBucketsPeriodsInTheReportingZone() {
+        MongoTemplate template = mock(MongoTemplate.class);
+        PaymentServiceImpl service = service(template, mock(PaymentRepository.class), "Asia/Kolkata");
+        Date monday = Date.from(Instant.parse("2024-03-03T18:30:00Z"));
+        Document facets = new Document("summary", List.of(new Document("total", 3000.0).append("count", 2)))
+                .append("periods", List.of(new Document("_id", monday).append("total", 3000.0).append("count", 2)))
+                .append("plans", List.of(new Document("_id", 3).append("total", 3000.0).append("count", 2)))
+                .append("trainers", List.of(new Document("_id", "trainer-1").append("total", 2000.0)
+                        .append("count", 1), new Document("_id", null).append("total", 1000.0).append("count", 1)));
+        when(template.aggregate(any(Aggregation.class), eq(Payment.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(Collections.singletonList(facets), new Document()));
+        User trainer = new User();
+        trainer.setId("trainer-1");
+        trainer.setFirstName("Asha");
+        trainer.setLastName("Rao");
+        when(userRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(trainer));
+
+        RevenueReport report = service.getRevenueReport(LocalDateTime.of(2024, 3, 1, 0, 0),
+                LocalDateTime.of(2024, 3, 31, 0, 0), RevenueReport.Granularity.WEEK);
+
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(template).aggregate(aggregation.capture(), eq(Payment.class), eq(Document.class));
+        Document facet = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).get(1).get("$facet",
+                Document.class);
+        Document dateTrunc = facet.getList("periods", Document.class).get(0).get("$group", Document.class)
+                .get("_id", Document.class).get("$dateTrunc", Document.class);
+        assertEquals("week", dateTrunc.getString("unit"));
+        assertEquals("monday", dateTrunc.getString("startOfWeek"));
+        assertEquals("Asia/Kolkata", dateTrunc.getString("timezone"));
+
+        assertEquals(3000.0, report.getTotal());
+        assertEquals(2, report.getCount());
+        assertEquals(LocalDateTime.of(2024, 3, 4, 0, 0), report.getPeriods().get(0).getPeriod(),
+                "period starts are wall-clock times in the reporting zone");
+        assertEquals(3, report.getPlans().get(0).getMonths());
+        assertEquals("Asha Rao", report.getTrainers().get(0).getTrainerName());
+        assertNull(report.getTrainers().get(1).getTrainerId());
+    }
+
+    @Test
+    void createPaymentIncrementsTheReportingZoneDay() {
+        // 20:00 UTC is already 01:30 the next morning in Kolkata
+        LocalDateTime evening = LocalDateTime.ofInstant(Instant.parse("2024-03-01T20:00:00Z"),
+                ZoneId.systemDefault());
+        paymentService.createPayment(payment(1000, evening));
+        paymentService.createPayment(payment(500, evening.plusMinutes(5)));
+
+        RevenueDaily day = mongoTemplate.findById("2024-03-02", RevenueDaily.class);
+        assertEquals(1500.0, day.getTotal());
+        assertEquals(2, day.getCount());
+        assertNull(mongoTemplate.findById("2024-03-01", RevenueDaily.class));
+        assertEquals(1500.0, paymentService.getRevenueForDays(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 2)));
+        assertEquals(0.0, paymentService.getRevenueForDays(LocalDate.of(2024, 3, 3), LocalDate.of(2024, 3, 9)));
+    }
+
+    @Test
+    void rebuildUpsertsDaysInRangeAndDropsOnlyEmptyOnes() {
+        ZoneId kolkata = ZoneId.of("Asia/Kolkata");
+        mongoTemplate.save(payment(1000, inKolkata(LocalDateTime.of(2024, 3, 1, 9, 0), kolkata)));
+        mongoTemplate.save(payment(2000, inKolkata(LocalDateTime.of(2024, 3, 1, 23, 59), kolkata)));
+        mongoTemplate.save(payment(3000, inKolkata(LocalDateTime.of(2024, 3, 2, 0, 1), kolkata)));
+        mongoTemplate.save(payment(9000, inKolkata(LocalDateTime.of(2024, 3, 5, 12, 0), kolkata)));
+        // Drifted, stale and out-of-range rollups
+        mongoTemplate.save(new RevenueDaily("2024-03-01", 1.0, 1));
+        mongoTemplate.save(new RevenueDaily("2024-03-03", 700.0, 1));
+        mongoTemplate.save(new RevenueDaily("2024-02-28", 42.0, 1));
+
+        int days = paymentService.rebuildDailyRevenue(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 3));
+
+        assertEquals(2, days);
+        RevenueDaily first = mongoTemplate.findById("2024-03-01", RevenueDaily.class);
+        assertEquals(3000.0, first.getTotal());
+        assertEquals(2, first.getCount());
+        assertEquals(3000.0, mongoTemplate.findById("2024-03-02", RevenueDaily.class).getTotal());
+        assertNull(mongoTemplate.findById("2024-03-03", RevenueDaily.class), "days without payments are removed");
+        assertNull(mongoTemplate.findById("2024-03-05", RevenueDaily.class), "days after the range are untouched");
+        assertEquals(42.0, mongoTemplate.findById("2024-02-28", RevenueDaily.class).getTotal());
+    }
+
+    @Test
+    void rebuildDoesNotOverwriteOrRemoveDaysUpdatedWhileItRan() {
+        ZoneId kolkata = ZoneId.of("Asia/Kolkata");
+        mongoTemplate.save(payment(1000, inKolkata(LocalDateTime.of(2024, 3, 1, 9, 0), kolkata)));
+        mongoTemplate.save(payment(2000, inKolkata(LocalDateTime.of(2024, 3, 2, 9, 0), kolkata)));
+        // Stand-ins for rollups a concurrent createPayment incremented after the rebuild started
+        RevenueDaily incremented = new RevenueDaily("2024-03-01", 1500.0, 2);
+        incremented.setUpdatedAt(LocalDateTime.now().plusHours(1));
+        mongoTemplate.save(incremented);
+        RevenueDaily created = new RevenueDaily("2024-03-03", 700.0, 1);
+        created.setUpdatedAt(LocalDateTime.now().plusHours(1));
+        mongoTemplate.save(created);
+
+        int days = paymentService.rebuildDailyRevenue(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 3));
+
+        assertEquals(1, days);
+        assertEquals(1500.0, mongoTemplate.findById("2024-03-01", RevenueDaily.class).getTotal());
+        assertEquals(2000.0, mongoTemplate.findById("2024-03-02", RevenueDaily.class).getTotal());
+        assertEquals(700.0, mongoTemplate.findById("2024-03-03", RevenueDaily.class).getTotal());
+    }
+
+    @Test
+    void fullRebuildMatchesIncrementalRollups() {
+        for (int i = 0; i < 5; i++) {
+            paymentService.createPayment(payment(100 * (i + 1), LocalDateTime.of(2024, 3, 1, 10, 0).plusHours(9 * i)));
+        }
+        List<RevenueDaily> incremental = mongoTemplate.findAll(RevenueDaily.class);
+        mongoTemplate.save(new RevenueDaily("2023-12-31", 5.0, 1));
+
+        paymentService.rebuildDailyRevenue(null, null);
+
+        List<RevenueDaily> rebuilt = mongoTemplate.findAll(RevenueDaily.class);
+        assertEquals(incremental.size(), rebuilt.size());
+        for (RevenueDaily day : incremental) {
+            RevenueDaily match = mongoTemplate.findById(day.getDay(), RevenueDaily.class);
+            assertEquals(day.getTotal(), match.getTotal());
+            assertEquals(day.getCount(), match.getCount());
+        }
+    }
+
+    private static LocalDateTime inKolkata(LocalDateTime wallClock, ZoneId kolkata) {
+        return wallClock.atZone(kolkata).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    private PaymentServiceImpl service(MongoTemplate template, PaymentRepository paymentRepository, String zone) {
+        PaymentServiceImpl service = new PaymentServiceImpl();
+        ReflectionTestUtils.setField(service, "mongoTemplate", template);
+        ReflectionTestUtils.setField(service, "paymentRepository", paymentRepository);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "reportingZoneId", zone);
+        service.init();
+        return service;
+    }
+
+    private Payment payment(double amount, LocalDateTime paidAt) {
+        Payment payment = new Payment();
+        payment.setUserId("member-1");
+        payment.setMonths(1);
+        payment.setAmount(amount);
+        payment.setPaidAt(paidAt);
+        return payment;
+    }
+}
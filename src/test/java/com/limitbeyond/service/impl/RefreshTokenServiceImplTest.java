@@ -0,0 +1,156 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.model.RefreshToken;
+import com.limitbeyond.model.Role;
+import com.limitbeyond.model.User;
+import com.limitbeyond.payload.JwtAuthenticationResponse;
+import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.security.JwtTokenProvider;
+import com.limitbeyond.security.TokenRevocationStore;
+import com.limitbeyond.security.UserPrincipal;
+import com.limitbeyond.support.InMemoryMongo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RefreshTokenServiceImplTest {
+
+    private InMemoryMongo mongo;
+    private TokenRevocationStore tokenRevocationStore;
+    private JwtTokenProvider tokenProvider;
+    private RefreshTokenServiceImpl refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        UserRepository userRepository = mock(UserRepository.class);
+        tokenRevocationStore = mock(TokenRevocationStore.class);
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 900000);
+        ReflectionTestUtils.setField(tokenProvider, "claimsCacheTtlMs", 30000L);
+        ReflectionTestUtils.setField(tokenProvider, "claimsCacheMaxSize", 100);
+        tokenProvider.init();
+
+        refreshTokenService = new RefreshTokenServiceImpl();
+        ReflectionTestUtils.setField(refreshTokenService, "mongoTemplate", mongo.getMongoTemplate());
+        ReflectionTestUtils.setField(refreshTokenService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(refreshTokenService, "tokenRevocationStore", tokenRevocationStore);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpirationMs", 2592000000L);
+
+        user = new User();
+        user.setId("user-1");
+        user.setUsername("member");
+        user.setEmail("member@example.com");
+        user.setRoles(EnumSet.of(Role.MEMBER));
+        user.setActive(true);
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void storesOnlyTheHashOfTheRefreshToken() {
+        JwtAuthenticationResponse issued = refreshTokenService.issue(UserPrincipal.create(user));
+
+        List<RefreshToken> stored = mongo.getMongoTemplate().findAll(RefreshToken.class);
+        assertEquals(1, stored.size());
+        assertNotEquals(issued.getRefreshToken(), stored.get(0).getTokenHash());
+        assertEquals("user-1", tokenProvider.getUserIdFromJWT(issued.getToken()));
+        assertEquals(900, issued.getExpiresIn());
+    }
+
+    @Test
+    void rotationUsesUpThePresentedToken() {
+        JwtAuthenticationResponse issued = refreshTokenService.issue(UserPrincipal.create(user));
+
+        JwtAuthenticationResponse rotated = refreshTokenService.rotate(issued.getRefreshToken());
+
+        assertNotEquals(issued.getRefreshToken(), rotated.getRefreshToken());
+        List<RefreshToken> family = mongo.getMongoTemplate().findAll(RefreshToken.class);
+        assertEquals(2, family.size());
+        assertEquals(family.get(0).getFamilyId(), family.get(1).getFamilyId());
+        assertEquals(1, family.stream().filter(RefreshToken::isRevoked).count());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily() {
+        JwtAuthenticationResponse issued = refreshTokenService.issue(UserPrincipal.create(user));
+        JwtAuthenticationResponse rotated = refreshTokenService.rotate(issued.getRefreshToken());
+
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotate(issued.getRefreshToken()));
+
+        assertTrue(mongo.getMongoTemplate().findAll(RefreshToken.class).stream().allMatch(RefreshToken::isRevoked));
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotate(rotated.getRefreshToken()));
+    }
+
+    @Test
+    void expiredAndUnknownTokensAreRejected() {
+        JwtAuthenticationResponse issued = refreshTokenService.issue(UserPrincipal.create(user));
+        mongo.getMongoTemplate().updateFirst(new Query(),
+                new Update().set("expiresAt", LocalDateTime.now().minusMinutes(1)), RefreshToken.class);
+
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotate(issued.getRefreshToken()));
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotate("unknown"));
+    }
+
+    @Test
+    void deactivatedUsersCannotRefresh() {
+        JwtAuthenticationResponse issued = refreshTokenService.issue(UserPrincipal.create(user));
+        user.setActive(false);
+
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotate(issued.getRefreshToken()));
+
+        assertTrue(mongo.getMongoTemplate().findAll(RefreshToken.class).stream().allMatch(RefreshToken::isRevoked));
+    }
+
+    @Test
+    void logoutRevokesTheFamilyAndTheAccessToken() {
+        JwtAuthenticationResponse issued = refreshTokenService.issue(UserPrincipal.create(user));
+        refreshTokenService.issue(UserPrincipal.create(user));
+        String jti = tokenProvider.parseClaims(issued.getToken()).getId();
+
+        refreshTokenService.logout(issued.getRefreshToken(), issued.getToken());
+
+        assertEquals(1, mongo.getMongoTemplate().count(
+                Query.query(Criteria.where("revoked").is(false)), RefreshToken.class),
+                "other sessions stay signed in");
+        verify(tokenRevocationStore).revoke(eq(jti), eq("user-1"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void revokeAllForUserEndsEverySession() {
+        refreshTokenService.issue(UserPrincipal.create(user));
+        refreshTokenService.issue(UserPrincipal.create(user));
+
+        refreshTokenService.revokeAllForUser("user-1");
+
+        assertFalse(mongo.getMongoTemplate().findAll(RefreshToken.class).stream().anyMatch(t -> !t.isRevoked()));
+    }
+}
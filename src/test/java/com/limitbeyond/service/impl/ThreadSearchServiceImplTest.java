@@ -0,0 +1,169 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.search.SearchHit;
+import com.limitbeyond.dto.search.SearchResponse;
+import com.limitbeyond.dto.search.ThreadType;
+import com.limitbeyond.model.DietChat;
+import com.limitbeyond.model.DietChatMessageBucket;
+import com.limitbeyond.model.Feedback;
+import com.limitbeyond.model.Role;
+import com.limitbeyond.model.User;
+import com.limitbeyond.support.InMemoryMongo;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ThreadSearchServiceImplTest {
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private ThreadSearchServiceImpl threadSearchService;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.getMongoTemplate();
+        threadSearchService = new ThreadSearchServiceImpl();
+        ReflectionTestUtils.setField(threadSearchService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(threadSearchService, "rebuildOnStartup", false);
+        ReflectionTestUtils.setField(threadSearchService, "rebuildIntervalMinutes", 0L);
+        threadSearchService.start();
+        admin = user("admin", Role.ADMIN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        threadSearchService.stop();
+        mongo.close();
+    }
+
+    @Test
+    void rebuildIndexesChatsFeedbackAndArchivedPages() {
+        DietChat chat = chat("member-1", "Meal timing");
+        DietChatMessageBucket bucket = new DietChatMessageBucket();
+        bucket.setThreadId(chat.getId());
+        bucket.setSeq(0);
+        bucket.setMessages(List.of(message("Try intermittent fasting")));
+        mongoTemplate.save(bucket);
+        chat.setBucketCount(1);
+        mongoTemplate.save(chat);
+        feedback("member-2", "Broken treadmill");
+
+        assertEquals(2, threadSearchService.rebuild());
+
+        assertEquals(List.of(chat.getId()), ids(threadSearchService.search(admin, "fasting", null, 0, 10)));
+        assertEquals(1, threadSearchService.search(admin, "treadmills", ThreadType.FEEDBACK, 0, 10).getTotal());
+        assertEquals(0, threadSearchService.search(admin, "treadmill", ThreadType.DIET_CHAT, 0, 10).getTotal());
+    }
+
+    @Test
+    void searchFollowsTheListEndpointsVisibility() {
+        DietChat own = chat("member-1", "Protein intake");
+        DietChat assigned = chat("member-2", "Protein powder");
+        feedback("member-3", "Protein bars in the shop");
+        threadSearchService.rebuild();
+        User member = user("member-1", Role.MEMBER);
+        User trainer = user("trainer", Role.TRAINER);
+        trainer.setAssignedMembers(Set.of("member-2"));
+
+        assertEquals(List.of(own.getId()), ids(threadSearchService.search(member, "protein", null, 0, 10)));
+        List<SearchHit> forTrainer = threadSearchService.search(trainer, "protein", null, 0, 10).getResults();
+        assertEquals(2, forTrainer.size());
+        assertTrue(forTrainer.stream().anyMatch(hit -> hit.getId().equals(assigned.getId())));
+        assertTrue(forTrainer.stream().anyMatch(hit -> hit.getType() == ThreadType.FEEDBACK));
+        assertEquals(3, threadSearchService.search(admin, "protein", null, 0, 10).getTotal());
+    }
+
+    @Test
+    void writesUpdateTheIndexIncrementally() {
+        DietChat chat = chat("member-1", "Cutting");
+        threadSearchService.index(chat);
+
+        threadSearchService.addText(ThreadType.DIET_CHAT, chat.getId(), "More broccoli please");
+        assertEquals(1, threadSearchService.search(admin, "broccoli", null, 0, 10).getTotal());
+
+        chat.setTitle("Bulking");
+        mongoTemplate.save(chat);
+        threadSearchService.reindex(ThreadType.DIET_CHAT, chat.getId());
+        assertEquals(1, threadSearchService.search(admin, "bulking", null, 0, 10).getTotal());
+        assertEquals(0, threadSearchService.search(admin, "broccoli", null, 0, 10).getTotal(),
+                "reindex reads the stored thread, which never had that message");
+
+        threadSearchService.remove(ThreadType.DIET_CHAT, chat.getId());
+        assertEquals(0, threadSearchService.search(admin, "bulking", null, 0, 10).getTotal());
+    }
+
+    @Test
+    void textForAThreadIndexedElsewhereLoadsItFromMongo() {
+        DietChat chat = chat("member-1", "Hydration");
+
+        threadSearchService.addText(ThreadType.DIET_CHAT, chat.getId(), "electrolytes");
+
+        assertEquals(List.of(chat.getId()), ids(threadSearchService.search(admin, "hydration", null, 0, 10)));
+    }
+
+    @Test
+    void pagesResultsAndIgnoresEmptyQueries() {
+        for (int i = 0; i < 5; i++) {
+            chat("member-1", "Snack idea " + i);
+        }
+        threadSearchService.rebuild();
+
+        SearchResponse second = threadSearchService.search(admin, "snack", null, 1, 2);
+        assertEquals(2, second.getResults().size());
+        assertEquals(5, second.getTotal());
+        assertTrue(second.isHasNext());
+        assertFalse(threadSearchService.search(admin, "snack", null, 2, 2).isHasNext());
+        assertTrue(threadSearchService.search(admin, "the a of", null, 0, 10).getResults().isEmpty());
+        assertTrue(threadSearchService.search(admin, "snack", null, 9, 10).getResults().isEmpty());
+    }
+
+    private DietChat chat(String memberId, String title) {
+        DietChat chat = new DietChat();
+        chat.setId(new ObjectId().toHexString());
+        chat.setMemberId(memberId);
+        chat.setTitle(title);
+        mongoTemplate.save(chat);
+        return chat;
+    }
+
+    private Feedback feedback(String memberId, String title) {
+        Feedback feedback = new Feedback();
+        feedback.setId(new ObjectId().toHexString());
+        feedback.setMemberId(memberId);
+        feedback.setTitle(title);
+        mongoTemplate.save(feedback);
+        return feedback;
+    }
+
+    private static DietChat.DietChatMessage message(String content) {
+        DietChat.DietChatMessage message = new DietChat.DietChatMessage();
+        message.setId(new ObjectId().toHexString());
+        message.setContent(content);
+        return message;
+    }
+
+    private static User user(String id, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setRoles(EnumSet.of(role));
+        return user;
+    }
+
+    private static List<String> ids(SearchResponse response) {
+        return response.getResults().stream().map(SearchHit::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,110 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.model.User;
+import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserCacheServiceImplTest {
+
+    private UserRepository userRepository;
+    private UserCacheServiceImpl userCacheService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userCacheService = new UserCacheServiceImpl(100, 300);
+        ReflectionTestUtils.setField(userCacheService, "userRepository", userRepository);
+        user = new User();
+        user.setId("user-1");
+        user.setUsername("member");
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(user));
+        when(userRepository.findByUsername("member")).thenReturn(Optional.of(user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void repeatedLookupsHitTheRepositoryOnce() {
+        userCacheService.findById("user-1");
+        userCacheService.findById("user-1");
+        // A lookup by id also primes the username index
+        assertSame(user, userCacheService.findByUsername("member").get());
+
+        verify(userRepository, times(1)).findById("user-1");
+        verify(userRepository, times(0)).findByUsername("member");
+    }
+
+    @Test
+    void evictForcesAReload() {
+        userCacheService.findByUsername("member");
+
+        userCacheService.evict("user-1");
+        userCacheService.findByUsername("member");
+        userCacheService.findById("user-1");
+
+        verify(userRepository, times(2)).findByUsername("member");
+        verify(userRepository, times(0)).findById("user-1");
+    }
+
+    @Test
+    void renamedUserIsNotServedUnderTheOldName() {
+        userCacheService.findById("user-1");
+        User renamed = new User();
+        renamed.setId("user-1");
+        renamed.setUsername("renamed");
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(renamed));
+        when(userRepository.findByUsername("member")).thenReturn(Optional.empty());
+
+        userCacheService.evict(user);
+        userCacheService.findById("user-1");
+
+        assertFalse(userCacheService.findByUsername("member").isPresent());
+        assertEquals("renamed", userCacheService.findByUsername("renamed").get().getUsername());
+    }
+
+    @Test
+    void currentUserIsMemoizedPerRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        UserPrincipal principal = new UserPrincipal("user-1", "member", null, null, Collections.emptyList(), true);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList()));
+
+        assertSame(user, userCacheService.getCurrentUser());
+        userCacheService.evict("user-1");
+        assertSame(user, userCacheService.getCurrentUser());
+
+        verify(userRepository, times(1)).findById("user-1");
+    }
+
+    @Test
+    void currentUserRequiresAuthentication() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> userCacheService.getCurrentUser());
+        assertEquals("User not authenticated", e.getMessage());
+    }
+}
@@ -0,0 +1,169 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.user.UserImportResult;
+import com.limitbeyond.model.Role;
+import com.limitbeyond.model.User;
+import com.limitbeyond.payload.SignupRequest;
+import com.limitbeyond.security.PasswordHashingExecutor;
+import com.limitbeyond.support.InMemoryMongo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserImportServiceImplTest {
+
+    private InMemoryMongo mongo;
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private PasswordEncoder passwordEncoder;
+    private UserImportServiceImpl userImportService;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        passwordHashingExecutor = new PasswordHashingExecutor(new SimpleMeterRegistry(), 2, 2, 1);
+        passwordEncoder = new BCryptPasswordEncoder(4);
+        userImportService = new UserImportServiceImpl();
+        ReflectionTestUtils.setField(userImportService, "mongoTemplate", mongo.getMongoTemplate());
+        ReflectionTestUtils.setField(userImportService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(userImportService, "passwordHashingExecutor", passwordHashingExecutor);
+        ReflectionTestUtils.setField(userImportService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(userImportService, "maxRows", 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.stop();
+        mongo.close();
+    }
+
+    @Test
+    void createsValidRowsAndReportsTheRest() {
+        User existing = new User();
+        existing.setUsername("taken");
+        existing.setEmail("taken@example.com");
+        mongo.getMongoTemplate().save(existing);
+
+        UserImportResult result = userImportService.importUsers(Arrays.asList(
+                row("alice", "alice@example.com", null),
+                row("bob", "bob@example.com", "TRAINER"),
+                row("alice", "alice2@example.com", null),
+                row("carol", "alice@example.com", null),
+                row("taken", "new@example.com", null),
+                row("dave", "taken@example.com", null),
+                row("x", "not-an-email", null),
+                row("erin", "erin@example.com", "OWNER"),
+                null));
+
+        assertEquals(List.of(UserImportResult.Status.CREATED, UserImportResult.Status.CREATED,
+                UserImportResult.Status.DUPLICATE, UserImportResult.Status.DUPLICATE,
+                UserImportResult.Status.DUPLICATE, UserImportResult.Status.DUPLICATE,
+                UserImportResult.Status.INVALID, UserImportResult.Status.INVALID,
+                UserImportResult.Status.INVALID),
+                result.getRows().stream().map(UserImportResult.RowResult::getStatus).collect(Collectors.toList()));
+        assertEquals(9, result.getTotal());
+        assertEquals(2, result.getCreated());
+        assertEquals(7, result.getSkipped());
+        assertEquals("Invalid role", result.getRows().get(7).getMessage());
+        assertTrue(result.getRows().get(6).getMessage().contains("email"));
+        assertNull(result.getRows().get(2).getId());
+
+        User alice = findUser("alice");
+        assertEquals(result.getRows().get(0).getId(), alice.getId());
+        assertTrue(passwordEncoder.matches("password1", alice.getPassword()));
+        assertTrue(alice.getRoles().contains(Role.MEMBER));
+        assertTrue(alice.isActive());
+        assertFalse(findUser("bob").isActive(), "trainers still need activation");
+    }
+
+    @Test
+    void aRejectedRowDoesNotClaimItsUsername() {
+        UserImportResult result = userImportService.importUsers(Arrays.asList(
+                row("alice", "alice@example.com", null),
+                row("bob", "alice@example.com", null),
+                row("bob", "bob@example.com", null)));
+
+        assertEquals(UserImportResult.Status.DUPLICATE, result.getRows().get(1).getStatus());
+        assertEquals(UserImportResult.Status.CREATED, result.getRows().get(2).getStatus());
+        assertEquals("bob@example.com", findUser("bob").getEmail());
+    }
+
+    @Test
+    void importsCsvWithQuotedFields() {
+        String csv = "Username,Email,Password,FirstName,LastName\r\n"
+                + "alice,alice@example.com,\"pa,ss\"\"word\",Alice,\"O'Neil, Jr\"\r\n"
+                + "\n"
+                + "bob,bob@example.com,password1\n";
+
+        UserImportResult result = userImportService.importCsv(csv);
+
+        assertEquals(2, result.getCreated());
+        User alice = findUser("alice");
+        assertTrue(passwordEncoder.matches("pa,ss\"word", alice.getPassword()));
+        assertEquals("O'Neil, Jr", alice.getLastName());
+        assertNull(findUser("bob").getFirstName());
+    }
+
+    @Test
+    void rejectsMalformedCsv() {
+        assertThrows(RuntimeException.class, () -> userImportService.importCsv(""));
+        assertThrows(RuntimeException.class, () -> userImportService.importCsv("username,email\nalice,a@b.c\n"));
+        assertThrows(RuntimeException.class,
+                () -> userImportService.importCsv("username,email,password\nalice,\"a@b.c,secret1\n"));
+    }
+
+    @Test
+    void enforcesTheRowLimit() {
+        List<SignupRequest> rows = new ArrayList<>();
+        for (int i = 0; i < 51; i++) {
+            rows.add(row("user" + i, "user" + i + "@example.com", null));
+        }
+
+        assertThrows(RuntimeException.class, () -> userImportService.importUsers(rows));
+        assertThrows(RuntimeException.class, () -> userImportService.importUsers(List.of()));
+    }
+
+    @Test
+    void largeImportsWaitForHashingCapacityInsteadOfFailing() {
+        List<SignupRequest> rows = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            rows.add(row("user" + i, "user" + i + "@example.com", null));
+        }
+
+        UserImportResult result = userImportService.importUsers(rows);
+
+        assertEquals(40, result.getCreated());
+        assertEquals(40, mongo.getMongoTemplate().count(new Query(), User.class));
+    }
+
+    private User findUser(String username) {
+        return mongo.getMongoTemplate().findOne(Query.query(Criteria.where("username").is(username)), User.class);
+    }
+
+    private static SignupRequest row(String username, String email, String role) {
+        SignupRequest row = new SignupRequest();
+        row.setUsername(username);
+        row.setEmail(email);
+        row.setPassword("password1");
+        row.setRole(role);
+        return row;
+    }
+}
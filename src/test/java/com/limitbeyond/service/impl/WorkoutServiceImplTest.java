@@ -0,0 +1,158 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.workout.WorkoutRequest;
+import com.limitbeyond.model.ExerciseSnapshot;
+import com.limitbeyond.model.ExerciseTemplate;
+import com.limitbeyond.model.MuscleGroup;
+import com.limitbeyond.model.User;
+import com.limitbeyond.model.Workout;
+import com.limitbeyond.model.WorkoutSet;
+import com.limitbeyond.repository.ExerciseTemplateRepository;
+import com.limitbeyond.repository.UserRepository;
+import com.limitbeyond.repository.WorkoutRepository;
+import com.limitbeyond.service.MuscleGroupService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class WorkoutServiceImplTest {
+
+    @Mock
+    private WorkoutRepository workoutRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ExerciseTemplateRepository exerciseTemplateRepository;
+
+    @Mock
+    private MuscleGroupService muscleGroupService;
+
+    @InjectMocks
+    private WorkoutServiceImpl workoutService;
+
+    @Test
+    void createWorkoutResolvesAllExercisesWithOneLookup() {
+        User member = new User();
+        member.setId("member-1");
+        when(userRepository.findById("member-1")).thenReturn(Optional.of(member));
+        when(exerciseTemplateRepository.findAllById(anyIterable()))
+                .thenReturn(Arrays.asList(template("ex-1", "Squat"), template("ex-2", "Deadlift")));
+        when(workoutRepository.save(any(Workout.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        WorkoutRequest request = new WorkoutRequest();
+        request.setName("Legs");
+        request.setMemberId("member-1");
+        request.setSets(Arrays.asList(set("ex-1", 5, 100.0), set("ex-2", 3, 140.0), set("ex-1", 8, null)));
+
+        Workout workout = workoutService.createWorkout(request);
+
+        verify(exerciseTemplateRepository, times(1)).findAllById(anyIterable());
+        assertEquals(3, workout.getSets().size());
+        assertEquals("Squat", workout.getSets().get(0).getExercise().getName());
+        assertEquals("Deadlift", workout.getSets().get(1).getExercise().getName());
+        assertEquals(500.0, workout.getSets().get(0).getVolume());
+        assertEquals(0.0, workout.getSets().get(2).getVolume(), "bodyweight sets have no volume");
+    }
+
+    @Test
+    void createWorkoutRejectsUnknownExercise() {
+        when(exerciseTemplateRepository.findAllById(anyIterable()))
+                .thenReturn(Collections.singletonList(template("ex-1", "Squat")));
+
+        WorkoutRequest request = new WorkoutRequest();
+        request.setName("Legs");
+        request.setSets(Arrays.asList(set("ex-1", 5, 100.0), set("ex-missing", 5, 100.0)));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> workoutService.createWorkout(request));
+        assertEquals("Exercise not found", e.getMessage());
+    }
+
+    @Test
+    void copyWorkoutReusesSnapshotsWithoutLookups() {
+        ExerciseSnapshot snapshot = new ExerciseSnapshot();
+        snapshot.setId("ex-1");
+        snapshot.setName("Squat");
+        WorkoutSet done = new WorkoutSet(snapshot, 5);
+        done.setId("set-1");
+        done.setWeight(100.0);
+        done.setCompleted(true);
+        Workout original = new Workout("Legs", new User());
+        original.setId("w-1");
+        original.addSet(done);
+        when(workoutRepository.findById("w-1")).thenReturn(Optional.of(original));
+        when(workoutRepository.save(any(Workout.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        LocalDateTime next = LocalDateTime.of(2024, 3, 1, 7, 0);
+        Workout copy = workoutService.copyWorkout("w-1", next);
+
+        verifyNoInteractions(exerciseTemplateRepository);
+        assertEquals(next, copy.getScheduledDate());
+        WorkoutSet copied = copy.getSets().get(0);
+        assertSame(snapshot, copied.getExercise());
+        assertEquals(100.0, copied.getWeight());
+        assertEquals(false, copied.isCompleted(), "copied sets start open");
+        assertNotEquals("set-1", copied.getId(), "copied sets get their own id");
+    }
+
+    @Test
+    void muscleGroupFilterUsesRangeQueryOnlyWhenBounded() {
+        User member = new User();
+        MuscleGroup legs = new MuscleGroup("Legs");
+        LocalDateTime from = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+        workoutService.findByMemberAndMuscleGroup(member, legs, null, null);
+        verify(workoutRepository).findByMemberAndTargetMuscleGroupsContaining(member, legs);
+
+        workoutService.findByMemberAndMuscleGroup(member, legs, from, null);
+        ArgumentCaptor<Range<LocalDateTime>> range = rangeCaptor();
+        verify(workoutRepository).findByMemberAndTargetMuscleGroupsContainingAndScheduledDateBetween(eq(member),
+                eq(legs), range.capture());
+        assertEquals(Range.Bound.inclusive(from), range.getValue().getLowerBound());
+        assertFalse(range.getValue().getUpperBound().isBounded());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Range<LocalDateTime>> rangeCaptor() {
+        return ArgumentCaptor.forClass(Range.class);
+    }
+
+    private static ExerciseTemplate template(String id, String name) {
+        ExerciseTemplate template = new ExerciseTemplate();
+        template.setId(id);
+        template.setName(name);
+        return template;
+    }
+
+    private static WorkoutRequest.WorkoutSetRequest set(String exerciseId, int reps, Double weight) {
+        WorkoutRequest.WorkoutSetRequest set = new WorkoutRequest.WorkoutSetRequest();
+        set.setExerciseId(exerciseId);
+        set.setReps(reps);
+        set.setWeight(weight);
+        return set;
+    }
+}
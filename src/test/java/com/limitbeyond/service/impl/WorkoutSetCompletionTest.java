@@ -0,0 +1,100 @@
+package com.limitbeyond.service.impl;
+
+import com.limitbeyond.dto.workout.SetCompletionResponse;
+import com.limitbeyond.model.ExerciseSnapshot;
+import com.limitbeyond.model.Workout;
+import com.limitbeyond.model.WorkoutSet;
+import com.limitbeyond.support.InMemoryMongo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkoutSetCompletionTest {
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private WorkoutServiceImpl workoutService;
+    private Workout workout;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.getMongoTemplate();
+        workoutService = new WorkoutServiceImpl();
+        ReflectionTestUtils.setField(workoutService, "mongoTemplate", mongoTemplate);
+
+        ExerciseSnapshot squat = new ExerciseSnapshot();
+        squat.setId("ex-squat");
+        squat.setName("Squat");
+        workout = new Workout();
+        workout.setName("Legs");
+        workout.addSet(new WorkoutSet(squat, 5));
+        workout.addSet(new WorkoutSet(squat, 5));
+        workout = mongoTemplate.save(workout);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void completesOnlyTheMatchedSet() {
+        String first = workout.getSets().get(0).getId();
+
+        SetCompletionResponse delta = workoutService.updateSetCompletion(workout.getId(), first, true);
+
+        assertTrue(delta.isSetCompleted());
+        assertEquals(1, delta.getCompletedSets());
+        assertEquals(2, delta.getTotalSets());
+        assertFalse(delta.isWorkoutCompleted());
+        Workout stored = mongoTemplate.findById(workout.getId(), Workout.class);
+        assertTrue(stored.getSets().get(0).isCompleted());
+        assertFalse(stored.getSets().get(1).isCompleted());
+    }
+
+    @Test
+    void completingTheLastSetCompletesTheWorkout() {
+        workoutService.updateSetCompletion(workout.getId(), workout.getSets().get(0).getId(), true);
+
+        SetCompletionResponse delta = workoutService.updateSetCompletion(workout.getId(),
+                workout.getSets().get(1).getId(), true);
+
+        assertTrue(delta.isWorkoutCompleted());
+        assertNotNull(delta.getWorkoutCompletedDate());
+        assertEquals(2, delta.getCompletedSets());
+        Workout stored = mongoTemplate.findById(workout.getId(), Workout.class);
+        assertTrue(stored.isCompleted());
+        assertNotNull(stored.getCompletedDate());
+    }
+
+    @Test
+    void reopeningASetReopensTheWorkout() {
+        for (WorkoutSet set : workout.getSets()) {
+            workoutService.updateSetCompletion(workout.getId(), set.getId(), true);
+        }
+
+        SetCompletionResponse delta = workoutService.updateSetCompletion(workout.getId(),
+                workout.getSets().get(1).getId(), false);
+
+        assertFalse(delta.isSetCompleted());
+        assertFalse(delta.isWorkoutCompleted());
+        assertEquals(1, delta.getCompletedSets());
+        assertFalse(mongoTemplate.findById(workout.getId(), Workout.class).isCompleted());
+    }
+
+    @Test
+    void unknownSetIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> workoutService.updateSetCompletion(workout.getId(), "does-not-exist", true));
+        assertEquals("Workout or set not found", e.getMessage());
+    }
+}
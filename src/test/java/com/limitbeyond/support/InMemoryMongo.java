@@ -0,0 +1,38 @@
+package com.limitbeyond.support;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.InetSocketAddress;
+
+/**
+ * A MongoTemplate backed by an in-memory wire protocol server, for tests that need
+ * real query and update semantics without a running mongod. Each instance has its
+ * own empty database; close it after the test.
+ */
+public class InMemoryMongo implements AutoCloseable {
+
+    private final MongoServer server;
+    private final MongoClient client;
+    private final MongoTemplate mongoTemplate;
+
+    public InMemoryMongo() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "limitbeyond");
+    }
+
+    public MongoTemplate getMongoTemplate() {
+        return mongoTemplate;
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        server.shutdownNow();
+    }
+}